@@ -40,4 +40,16 @@ public @interface DataEntry {
      */
     boolean forceUpdate() default false;
 
+    /**
+     * (Optional) Specify that ORM should keep attributes snapshot of loaded entries.
+     * Merge of such entries sends only changed attributes without entry lookup.
+     */
+    boolean trackChanges() default false;
+
+    /**
+     * (Optional) Specify that ORM should keep loaded entries in second level cache if
+     * entry manager has it.
+     */
+    boolean cacheable() default false;
+
 }
@@ -0,0 +1,121 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jans.orm.benchmark.fixture.MappingEntryManager;
+import io.jans.orm.benchmark.fixture.MappingFixtures;
+import io.jans.orm.model.AttributeData;
+import io.jans.orm.model.AttributeDataModification;
+import io.jans.orm.sql.model.SimpleSessionState;
+import io.jans.orm.sql.model.SimpleUser;
+
+/**
+ * Entity mapping paths of entry manager without DB access. Users are built with narrow (5) and
+ * wide (200) lists of custom attributes
+ *
+ * Run: java -jar benchmarks/target/benchmarks.jar EntityMappingBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EntityMappingBenchmark {
+
+	private static final int ENTRIES_COUNT = 100;
+
+	@Param({ "5", "200" })
+	private int customAttributesCount;
+
+	private MappingEntryManager entryManager;
+
+	private List<SimpleUser> users;
+	private List<SimpleSessionState> sessionStates;
+
+	private Map<String, List<AttributeData>> usersAttributes;
+	private Map<String, List<AttributeData>> sessionStatesAttributes;
+
+	private SimpleUser user;
+	private SimpleSessionState sessionState;
+
+	private Map<String, AttributeData> userAttributesMap;
+	private Map<String, AttributeData> modifiedUserAttributesMap;
+
+	@Setup
+	public void setup() {
+		entryManager = new MappingEntryManager();
+
+		users = MappingFixtures.createUsers(ENTRIES_COUNT, customAttributesCount);
+		sessionStates = MappingFixtures.createSessionStates(ENTRIES_COUNT);
+
+		usersAttributes = MappingFixtures.toEntriesAttributes(entryManager, users);
+		sessionStatesAttributes = MappingFixtures.toEntriesAttributes(entryManager, sessionStates);
+
+		user = users.get(0);
+		sessionState = sessionStates.get(0);
+
+		userAttributesMap = MappingEntryManager.toAttributesMap(entryManager.getAttributesListForPersist(user));
+		modifiedUserAttributesMap = MappingEntryManager.toAttributesMap(entryManager.getAttributesListForPersist(MappingFixtures.createModifiedUser(user)));
+	}
+
+	@Benchmark
+	public List<SimpleUser> createUserEntities() {
+		return entryManager.createEntities(SimpleUser.class, usersAttributes);
+	}
+
+	@Benchmark
+	public List<SimpleSessionState> createSessionStateEntities() {
+		return entryManager.createEntities(SimpleSessionState.class, sessionStatesAttributes);
+	}
+
+	@Benchmark
+	public List<AttributeData> getUserAttributesListForPersist() {
+		return entryManager.getAttributesListForPersist(user);
+	}
+
+	@Benchmark
+	public List<AttributeData> getSessionStateAttributesListForPersist() {
+		return entryManager.getAttributesListForPersist(sessionState);
+	}
+
+	@Benchmark
+	public List<AttributeDataModification> collectUserAttributeModifications() {
+		return entryManager.collectAttributeModifications(SimpleUser.class, modifiedUserAttributesMap, userAttributesMap);
+	}
+
+	@Benchmark
+	public List<SimpleUser> sortUsersByUserId() {
+		// Sort is in place, copy keeps input order the same for all invocations
+		List<SimpleUser> entries = new ArrayList<SimpleUser>(users);
+		entryManager.sortListByProperties(SimpleUser.class, entries, false, "userId");
+		return entries;
+	}
+
+	@Benchmark
+	public Map<SimpleSessionState, List<SimpleSessionState>> groupSessionStatesByUserDn() {
+		return entryManager.groupListByProperties(SimpleSessionState.class, sessionStates, false, "userDn", null);
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jans.orm.benchmark.fixture.FilterCorpus;
+import io.jans.orm.cloud.spanner.impl.SpannerFilterConverter;
+import io.jans.orm.cloud.spanner.model.TableMapping;
+import io.jans.orm.couchbase.impl.CouchbaseFilterConverter;
+import io.jans.orm.exception.operation.SearchException;
+import io.jans.orm.ldap.impl.LdapFilterConverter;
+import io.jans.orm.search.filter.Filter;
+import io.jans.orm.sql.impl.SqlFilterConverter;
+
+/**
+ * Conversion of generic filters into backend specific expressions. Each invocation converts
+ * all filters of selected corpus
+ *
+ * Run: java -jar benchmarks/target/benchmarks.jar FilterConverterBenchmark -prof gc
+ * or main method of this class which adds GC profiler to report allocation rate
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FilterConverterBenchmark {
+
+	@Param({ FilterCorpus.SIMPLE, FilterCorpus.SUBSTRING, FilterCorpus.OR_CHAIN, FilterCorpus.MULTI_VALUED, FilterCorpus.APPLICATION })
+	private String corpus;
+
+	private Filter[] filters;
+	private Filter[] filtersWithoutLowercase;
+
+	private LdapFilterConverter ldapFilterConverter;
+	private SqlFilterConverter sqlFilterConverter;
+	private SpannerFilterConverter spannerFilterConverter;
+	private CouchbaseFilterConverter couchbaseFilterConverter;
+
+	private TableMapping spannerTableMapping;
+
+	@Setup
+	public void setup() {
+		filters = FilterCorpus.getFilters(corpus, true);
+		filtersWithoutLowercase = FilterCorpus.getFilters(corpus, false);
+
+		ldapFilterConverter = new LdapFilterConverter();
+		sqlFilterConverter = new SqlFilterConverter(null);
+		spannerFilterConverter = new SpannerFilterConverter(null);
+		couchbaseFilterConverter = new CouchbaseFilterConverter(null);
+
+		spannerTableMapping = FilterCorpus.createSpannerTableMapping();
+	}
+
+	@Benchmark
+	public void ldap(Blackhole blackhole) throws SearchException {
+		for (Filter filter : filtersWithoutLowercase) {
+			blackhole.consume(ldapFilterConverter.convertToLdapFilter(filter));
+		}
+	}
+
+	@Benchmark
+	public void sql(Blackhole blackhole) throws SearchException {
+		for (Filter filter : filters) {
+			blackhole.consume(sqlFilterConverter.convertToSqlFilter(filter, null, null));
+		}
+	}
+
+	@Benchmark
+	public void spanner(Blackhole blackhole) throws SearchException {
+		for (Filter filter : filtersWithoutLowercase) {
+			blackhole.consume(spannerFilterConverter.convertToSqlFilter(spannerTableMapping, filter, null, null));
+		}
+	}
+
+	@Benchmark
+	public void couchbase(Blackhole blackhole) throws SearchException {
+		for (Filter filter : filters) {
+			blackhole.consume(couchbaseFilterConverter.convertToCouchbaseFilter(filter, null, null));
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(FilterConverterBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build();
+
+		new Runner(options).run();
+	}
+
+}
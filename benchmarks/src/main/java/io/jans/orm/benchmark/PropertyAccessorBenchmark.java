@@ -0,0 +1,129 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jans.orm.benchmark.model.BenchmarkEntry;
+import io.jans.orm.reflect.property.BasicPropertyAccessor;
+import io.jans.orm.reflect.property.Getter;
+import io.jans.orm.reflect.property.LambdaPropertyAccessor;
+import io.jans.orm.reflect.property.PropertyAccessor;
+import io.jans.orm.reflect.property.Setter;
+
+/**
+ * Compare reflection and LambdaMetafactory based property accessors
+ *
+ * Run: java -jar benchmarks/target/benchmarks.jar PropertyAccessorBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PropertyAccessorBenchmark {
+
+	private BenchmarkEntry entry;
+
+	private Getter basicStringGetter;
+	private Setter basicStringSetter;
+	private Getter basicIntGetter;
+	private Setter basicIntSetter;
+
+	private Getter lambdaStringGetter;
+	private Setter lambdaStringSetter;
+	private Getter lambdaIntGetter;
+	private Setter lambdaIntSetter;
+
+	private String stringValue;
+	private Integer intValue;
+
+	@Setup
+	public void setup() {
+		PropertyAccessor basicPropertyAccessor = new BasicPropertyAccessor();
+		PropertyAccessor lambdaPropertyAccessor = new LambdaPropertyAccessor();
+
+		basicStringGetter = basicPropertyAccessor.getGetter(BenchmarkEntry.class, "displayName");
+		basicStringSetter = basicPropertyAccessor.getSetter(BenchmarkEntry.class, "displayName");
+		basicIntGetter = basicPropertyAccessor.getGetter(BenchmarkEntry.class, "count");
+		basicIntSetter = basicPropertyAccessor.getSetter(BenchmarkEntry.class, "count");
+
+		lambdaStringGetter = lambdaPropertyAccessor.getGetter(BenchmarkEntry.class, "displayName");
+		lambdaStringSetter = lambdaPropertyAccessor.getSetter(BenchmarkEntry.class, "displayName");
+		lambdaIntGetter = lambdaPropertyAccessor.getGetter(BenchmarkEntry.class, "count");
+		lambdaIntSetter = lambdaPropertyAccessor.getSetter(BenchmarkEntry.class, "count");
+
+		entry = new BenchmarkEntry();
+		entry.setDisplayName("Benchmark User");
+		entry.setCount(42);
+
+		stringValue = "Benchmark User";
+		intValue = 42;
+	}
+
+	@Benchmark
+	public Object directStringGet() {
+		return entry.getDisplayName();
+	}
+
+	@Benchmark
+	public Object basicStringGet() {
+		return basicStringGetter.get(entry);
+	}
+
+	@Benchmark
+	public Object lambdaStringGet() {
+		return lambdaStringGetter.get(entry);
+	}
+
+	@Benchmark
+	public Object basicIntGet() {
+		return basicIntGetter.get(entry);
+	}
+
+	@Benchmark
+	public Object lambdaIntGet() {
+		return lambdaIntGetter.get(entry);
+	}
+
+	@Benchmark
+	public BenchmarkEntry basicStringSet() {
+		basicStringSetter.set(entry, stringValue);
+		return entry;
+	}
+
+	@Benchmark
+	public BenchmarkEntry lambdaStringSet() {
+		lambdaStringSetter.set(entry, stringValue);
+		return entry;
+	}
+
+	@Benchmark
+	public BenchmarkEntry basicIntSet() {
+		basicIntSetter.set(entry, intValue);
+		return entry;
+	}
+
+	@Benchmark
+	public BenchmarkEntry lambdaIntSet() {
+		lambdaIntSetter.set(entry, intValue);
+		return entry;
+	}
+
+}
@@ -0,0 +1,206 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.benchmark.fixture;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+
+import io.jans.orm.cloud.spanner.model.TableMapping;
+import io.jans.orm.search.filter.Filter;
+
+/**
+ * Filters for converter benchmarks. Corpus extends cases from *FilterConverterTest with
+ * filters which applications build most often
+ */
+public final class FilterCorpus {
+
+	public static final String SIMPLE = "simple";
+	public static final String SUBSTRING = "substring";
+	public static final String OR_CHAIN = "orChain";
+	public static final String MULTI_VALUED = "multiValued";
+	public static final String APPLICATION = "application";
+
+	private static final Date ADDED_DATE = new Date(1608130698398L);
+
+	private FilterCorpus() {
+	}
+
+	/**
+	 * @param useLowercaseFilter Wrap attributes into lower function in the same cases as applications do.
+	 *        LDAP matching rules are case insensitive and Spanner converter doesn't support lower function for array columns
+	 */
+	public static Filter[] getFilters(String corpus, boolean useLowercaseFilter) {
+		if (SIMPLE.equals(corpus)) {
+			return createSimpleFilters(useLowercaseFilter);
+		} else if (SUBSTRING.equals(corpus)) {
+			return createSubstringFilters(useLowercaseFilter);
+		} else if (OR_CHAIN.equals(corpus)) {
+			return createOrChainFilters();
+		} else if (MULTI_VALUED.equals(corpus)) {
+			return createMultiValuedFilters(useLowercaseFilter);
+		} else if (APPLICATION.equals(corpus)) {
+			return createApplicationFilters(useLowercaseFilter);
+		}
+
+		throw new IllegalArgumentException(String.format("Unknown filter corpus '%s'", corpus));
+	}
+
+	/**
+	 * Spanner converter resolves column types from table mapping
+	 */
+	public static TableMapping createSpannerTableMapping() {
+		Map<String, StructField> columTypes = new HashMap<String, StructField>();
+		addColumn(columTypes, "doc_id", Type.string());
+		addColumn(columTypes, "objectClass", Type.string());
+		addColumn(columTypes, "uid", Type.string());
+		addColumn(columTypes, "mail", Type.string());
+		addColumn(columTypes, "age", Type.int64());
+		addColumn(columTypes, "added", Type.timestamp());
+		addColumn(columTypes, "description", Type.string());
+		addColumn(columTypes, "displayName", Type.string());
+		addColumn(columTypes, "jansScrTyp", Type.string());
+		addColumn(columTypes, "jansStatus", Type.string());
+		addColumn(columTypes, "jansClntId", Type.string());
+		addColumn(columTypes, "exp", Type.timestamp());
+		addColumn(columTypes, "memberOf", Type.array(Type.string()));
+		addColumn(columTypes, "jansExtUid", Type.array(Type.string()));
+		addColumn(columTypes, "jansScopes", Type.array(Type.string()));
+
+		return new TableMapping("people", "jansPerson", "jansPerson", columTypes);
+	}
+
+	private static Filter createEqualityFilter(String attributeName, Object assertionValue, boolean useLowercaseFilter) {
+		if (useLowercaseFilter) {
+			return Filter.createEqualityFilter(Filter.createLowercaseFilter(attributeName), assertionValue);
+		}
+
+		return Filter.createEqualityFilter(attributeName, assertionValue);
+	}
+
+	private static Filter createSubstringFilter(String attributeName, String subInitial, String[] subAny, String subFinal, boolean useLowercaseFilter) {
+		if (useLowercaseFilter) {
+			return Filter.createSubstringFilter(Filter.createLowercaseFilter(attributeName), subInitial, subAny, subFinal);
+		}
+
+		return Filter.createSubstringFilter(attributeName, subInitial, subAny, subFinal);
+	}
+
+	private static void addColumn(Map<String, StructField> columTypes, String name, Type type) {
+		columTypes.put(name.toLowerCase(), StructField.of(name, type));
+	}
+
+	private static Filter[] createSimpleFilters(boolean useLowercaseFilter) {
+		return new Filter[] {
+				Filter.createEqualityFilter("uid", "test"),
+				Filter.createEqualityFilter("age", 23),
+				Filter.createEqualityFilter("age", 23L),
+				Filter.createEqualityFilter("added", ADDED_DATE),
+				Filter.createLessOrEqualFilter("uid", "test"),
+				Filter.createLessOrEqualFilter("age", 23),
+				Filter.createGreaterOrEqualFilter("age", 23L),
+				Filter.createGreaterOrEqualFilter("added", ADDED_DATE),
+				Filter.createPresenceFilter("uid"),
+				createEqualityFilter("uid", "test", useLowercaseFilter),
+				Filter.createNOTFilter(Filter.createLessOrEqualFilter("age", 23)),
+				Filter.createNOTFilter(Filter.createANDFilter(Filter.createLessOrEqualFilter("age", 23), Filter.createGreaterOrEqualFilter("age", 25))),
+				Filter.createANDFilter(Filter.createPresenceFilter("mail"), Filter.createEqualityFilter("uid", "test"), Filter.createLessOrEqualFilter("age", 23)),
+				Filter.createORFilter(Filter.createPresenceFilter("mail"), Filter.createEqualityFilter("uid", "test"), Filter.createLessOrEqualFilter("age", 23))
+		};
+	}
+
+	private static Filter[] createSubstringFilters(boolean useLowercaseFilter) {
+		return new Filter[] {
+				Filter.createSubstringFilter("uid", null, new String[] { "test" }, null),
+				Filter.createSubstringFilter("uid", "a", new String[] { "test" }, null),
+				Filter.createSubstringFilter("uid", null, new String[] { "test" }, "z"),
+				Filter.createSubstringFilter("uid", "a", new String[] { "te", "st" }, "z"),
+				createSubstringFilter("uid", null, new String[] { "test" }, null, useLowercaseFilter),
+				createSubstringFilter("uid", "a", new String[] { "test" }, null, useLowercaseFilter),
+				createSubstringFilter("displayName", null, new String[] { "test" }, "z", useLowercaseFilter),
+				Filter.createSubstringFilter("mail", null, null, "@example.org")
+		};
+	}
+
+	/**
+	 * Deep OR-of-equality chains which applications build from lists of ids
+	 */
+	private static Filter[] createOrChainFilters() {
+		return new Filter[] {
+				createOrChain("uid", 3, true),
+				createOrChain("uid", 3, false),
+				createOrChain("uid", 20, true),
+				createOrChain("uid", 100, true),
+				createOrChain("uid", 100, false),
+				Filter.createANDFilter(createOrChain("jansClntId", 20, true), Filter.createEqualityFilter("jansStatus", "active"))
+		};
+	}
+
+	private static Filter createOrChain(String attributeName, int size, boolean multiValued) {
+		List<Filter> filters = new ArrayList<Filter>(size);
+		for (int i = 0; i < size; i++) {
+			filters.add(Filter.createEqualityFilter(attributeName, String.format("value%04d", i)));
+		}
+
+		Filter orFilter = Filter.createORFilter(filters);
+		if (!multiValued) {
+			// Allows to convert chain into IN expression
+			orFilter.multiValued(false);
+		}
+
+		return orFilter;
+	}
+
+	/**
+	 * Multi valued attributes are stored in JSON columns in SQL and in arrays in Spanner
+	 */
+	private static Filter[] createMultiValuedFilters(boolean useLowercaseFilter) {
+		return new Filter[] {
+				Filter.createEqualityFilter("memberOf", "inum=group1,ou=groups,o=jans").multiValued(),
+				Filter.createEqualityFilter("memberOf", "inum=group1,ou=groups,o=jans").multiValued(3),
+				Filter.createEqualityFilter("jansExtUid", "passport:test").multiValued(),
+				createEqualityFilter("jansExtUid", "passport:test", useLowercaseFilter).multiValued(),
+				Filter.createSubstringFilter("jansScopes", null, new String[] { "openid" }, null).multiValued(),
+				createSubstringFilter("jansScopes", null, new String[] { "profile" }, "z", useLowercaseFilter).multiValued(3),
+				Filter.createPresenceFilter("memberOf").multiValued(),
+				Filter.createANDFilter(Filter.createEqualityFilter("jansScopes", "openid").multiValued(), Filter.createEqualityFilter("jansScopes", "email").multiValued())
+		};
+	}
+
+	/**
+	 * Filters similar to ones which Janssen server components build
+	 */
+	private static Filter[] createApplicationFilters(boolean useLowercaseFilter) {
+		String[] targetArray = new String[] { "test_value" };
+
+		Filter descriptionFilter = createSubstringFilter("description", null, targetArray, null, useLowercaseFilter);
+		Filter displayNameFilter = createSubstringFilter("displayName", null, targetArray, null, useLowercaseFilter);
+		Filter scriptFilter = Filter.createANDFilter(Filter.createORFilter(descriptionFilter, displayNameFilter),
+				Filter.createEqualityFilter("jansScrTyp", "person_authentication"));
+
+		Filter userFilter = Filter.createANDFilter(Filter.createEqualityFilter("objectClass", "jansPerson"),
+				Filter.createORFilter(createEqualityFilter("uid", "admin", useLowercaseFilter),
+						createEqualityFilter("mail", "admin@example.org", useLowercaseFilter)));
+
+		Filter expiredFilter = Filter.createANDFilter(Filter.createEqualityFilter("objectClass", "jansPerson"),
+				Filter.createLessOrEqualFilter("exp", ADDED_DATE), Filter.createPresenceFilter("exp"));
+
+		Filter searchFilter = Filter.createANDFilter(Filter.createEqualityFilter("jansStatus", "active"),
+				Filter.createORFilter(Filter.createSubstringFilter("uid", null, targetArray, null),
+						Filter.createSubstringFilter("displayName", null, targetArray, null),
+						Filter.createSubstringFilter("mail", null, targetArray, null)),
+				Filter.createNOTFilter(Filter.createEqualityFilter("memberOf", "inum=blocked,ou=groups,o=jans").multiValued()));
+
+		return new Filter[] { scriptFilter, userFilter, expiredFilter, searchFilter };
+	}
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.benchmark.fixture;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.jans.orm.model.AttributeData;
+import io.jans.orm.model.AttributeDataModification;
+import io.jans.orm.reflect.property.PropertyAnnotation;
+import io.jans.orm.sql.impl.SqlEntryManager;
+
+/**
+ * Entry manager without operation service. It exposes mapping methods which don't
+ * access DB to benchmarks
+ */
+public class MappingEntryManager extends SqlEntryManager {
+
+	public MappingEntryManager() {
+		super(null);
+	}
+
+	public List<PropertyAnnotation> getPropertiesAnnotations(Class<?> entryClass) {
+		return getEntryPropertyAnnotations(entryClass);
+	}
+
+	public String getDn(Object entry) {
+		return getDNValue(entry).toString();
+	}
+
+	public List<AttributeData> getAttributesListForPersist(Object entry) {
+		return getAttributesListForPersist(entry, getEntryPropertyAnnotations(entry.getClass()));
+	}
+
+	/**
+	 * Collect modifications between two attribute sets. Maps are copied because
+	 * collectAttributeModifications removes processed attributes
+	 */
+	public List<AttributeDataModification> collectAttributeModifications(Class<?> entryClass, Map<String, AttributeData> attributesToPersistMap,
+			Map<String, AttributeData> attributesFromDbMap) {
+		return collectAttributeModifications(getEntryPropertyAnnotations(entryClass), new HashMap<String, AttributeData>(attributesToPersistMap),
+				new HashMap<String, AttributeData>(attributesFromDbMap), false, null, false);
+	}
+
+	public static Map<String, AttributeData> toAttributesMap(List<AttributeData> attributes) {
+		Map<String, AttributeData> result = new HashMap<String, AttributeData>(attributes.size());
+		for (AttributeData attribute : attributes) {
+			result.put(attribute.getName().toLowerCase(), attribute);
+		}
+
+		return result;
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.benchmark.fixture;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.jans.orm.model.AttributeData;
+import io.jans.orm.model.base.CustomObjectAttribute;
+import io.jans.orm.sql.model.SimpleSessionState;
+import io.jans.orm.sql.model.SimpleUser;
+
+/**
+ * In memory entries and attributes for mapping benchmarks. Data is deterministic
+ * to make results of different runs comparable
+ */
+public final class MappingFixtures {
+
+	public static final String USERS_BASE_DN = "ou=people,o=jans";
+	public static final String SESSIONS_BASE_DN = "ou=sessions,o=jans";
+
+	private MappingFixtures() {
+	}
+
+	/**
+	 * Build user with specified number of custom attributes. Every 4th attribute is multi valued,
+	 * values types alternate between String, Integer and Boolean
+	 */
+	public static SimpleUser createUser(int index, int customAttributesCount) {
+		SimpleUser user = new SimpleUser();
+		user.setDn(String.format("inum=%08d,%s", index, USERS_BASE_DN));
+		user.setUserId(String.format("user%08d", (index * 7919) % 100000));
+		user.setUserPassword("secret" + index);
+		user.setMemberOf(Arrays.asList("inum=group1,ou=groups,o=jans", "inum=group" + (index % 10) + ",ou=groups,o=jans"));
+		user.setCustomObjectClasses(new String[] { "jansCustomPerson" });
+
+		List<CustomObjectAttribute> customAttributes = new ArrayList<CustomObjectAttribute>(customAttributesCount);
+		for (int i = 0; i < customAttributesCount; i++) {
+			String name = String.format("jansAttr%03d", i);
+			if (i % 4 == 3) {
+				customAttributes.add(new CustomObjectAttribute(name, Arrays.<Object>asList("value" + i + "_1", "value" + i + "_2")));
+			} else if (i % 3 == 1) {
+				customAttributes.add(new CustomObjectAttribute(name, Integer.valueOf(index + i)));
+			} else if (i % 3 == 2) {
+				customAttributes.add(new CustomObjectAttribute(name, Boolean.valueOf((index + i) % 2 == 0)));
+			} else {
+				customAttributes.add(new CustomObjectAttribute(name, "value" + index + "_" + i));
+			}
+		}
+		user.setCustomAttributes(customAttributes);
+
+		return user;
+	}
+
+	public static List<SimpleUser> createUsers(int count, int customAttributesCount) {
+		List<SimpleUser> users = new ArrayList<SimpleUser>(count);
+		for (int i = 0; i < count; i++) {
+			users.add(createUser(i, customAttributesCount));
+		}
+
+		return users;
+	}
+
+	/**
+	 * Copy of user where every 10th custom attribute has new value
+	 */
+	public static SimpleUser createModifiedUser(SimpleUser user) {
+		SimpleUser modifiedUser = createUser(0, 0);
+		modifiedUser.setDn(user.getDn());
+		modifiedUser.setUserId(user.getUserId());
+		modifiedUser.setUserPassword(user.getUserPassword());
+		modifiedUser.setMemberOf(user.getMemberOf());
+		modifiedUser.setCustomObjectClasses(user.getCustomObjectClasses());
+
+		List<CustomObjectAttribute> customAttributes = new ArrayList<CustomObjectAttribute>(user.getCustomAttributes().size());
+		for (int i = 0; i < user.getCustomAttributes().size(); i++) {
+			CustomObjectAttribute customAttribute = user.getCustomAttributes().get(i);
+			if (i % 10 == 0) {
+				customAttributes.add(new CustomObjectAttribute(customAttribute.getName(), "modified" + i));
+			} else {
+				customAttributes.add(new CustomObjectAttribute(customAttribute.getName(), customAttribute.getValues()));
+			}
+		}
+		modifiedUser.setCustomAttributes(customAttributes);
+
+		return modifiedUser;
+	}
+
+	public static SimpleSessionState createSessionState(int index) {
+		SimpleSessionState sessionState = new SimpleSessionState();
+		sessionState.setId(String.format("%08d-session", index));
+		sessionState.setDn(String.format("jansId=%s,%s", sessionState.getId(), SESSIONS_BASE_DN));
+		sessionState.setUserDn(String.format("inum=%08d,%s", index % 20, USERS_BASE_DN));
+		sessionState.setLastUsedAt(new Date(1600000000000L + index * 1000L));
+		sessionState.setAuthenticationTime(new Date(1600000000000L + index * 500L));
+		sessionState.setPermissionGranted(Boolean.valueOf(index % 2 == 0));
+		sessionState.setIsJwt(Boolean.FALSE);
+
+		Map<String, String> sessionAttributes = new HashMap<String, String>();
+		sessionAttributes.put("acr", "basic");
+		sessionAttributes.put("client_id", "client" + (index % 5));
+		sessionAttributes.put("redirect_uri", "https://app" + (index % 5) + ".example.org/callback");
+		sessionState.setSessionAttributes(sessionAttributes);
+
+		return sessionState;
+	}
+
+	public static List<SimpleSessionState> createSessionStates(int count) {
+		List<SimpleSessionState> sessionStates = new ArrayList<SimpleSessionState>(count);
+		for (int i = 0; i < count; i++) {
+			sessionStates.add(createSessionState(i));
+		}
+
+		return sessionStates;
+	}
+
+	/**
+	 * Convert entries to attributes in the same way as entry manager does before persist
+	 */
+	public static Map<String, List<AttributeData>> toEntriesAttributes(MappingEntryManager entryManager, List<?> entries) {
+		Map<String, List<AttributeData>> entriesAttributes = new LinkedHashMap<String, List<AttributeData>>(entries.size());
+		for (Object entry : entries) {
+			List<AttributeData> attributes = entryManager.getAttributesListForPersist(entry);
+			String dn = entryManager.getDn(entry);
+
+			entriesAttributes.put(dn, attributes);
+		}
+
+		return entriesAttributes;
+	}
+
+}
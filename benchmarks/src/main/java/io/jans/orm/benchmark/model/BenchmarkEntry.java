@@ -0,0 +1,109 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.benchmark.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+import io.jans.orm.annotation.AttributeName;
+import io.jans.orm.annotation.DN;
+import io.jans.orm.annotation.DataEntry;
+import io.jans.orm.annotation.ObjectClass;
+
+/**
+ * Narrow entry with properties of most often used types
+ */
+@DataEntry
+@ObjectClass(value = "jansBenchmark")
+public class BenchmarkEntry implements Serializable {
+
+	private static final long serialVersionUID = 2750452517410476212L;
+
+	@DN
+	private String dn;
+
+	@AttributeName(name = "uid")
+	private String userId;
+
+	@AttributeName(name = "displayName")
+	private String displayName;
+
+	@AttributeName(name = "jansCount")
+	private int count;
+
+	@AttributeName(name = "jansTime")
+	private long time;
+
+	@AttributeName(name = "jansEnabled")
+	private boolean enabled;
+
+	@AttributeName(name = "memberOf")
+	private List<String> memberOf;
+
+	public String getDn() {
+		return dn;
+	}
+
+	public void setDn(String dn) {
+		this.dn = dn;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+
+	public String getDisplayName() {
+		return displayName;
+	}
+
+	public void setDisplayName(String displayName) {
+		this.displayName = displayName;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public void setCount(int count) {
+		this.count = count;
+	}
+
+	public long getTime() {
+		return time;
+	}
+
+	public void setTime(long time) {
+		this.time = time;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public List<String> getMemberOf() {
+		return memberOf;
+	}
+
+	public void setMemberOf(List<String> memberOf) {
+		this.memberOf = memberOf;
+	}
+
+	@Override
+	public String toString() {
+		return "BenchmarkEntry [dn=" + dn + ", userId=" + userId + ", displayName=" + displayName + ", count=" + count + ", time="
+				+ time + ", enabled=" + enabled + ", memberOf=" + memberOf + "]";
+	}
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import io.jans.orm.model.RemoveProgressListener;
+import io.jans.orm.search.filter.Filter;
+
+/**
+ * Asynchronous view of entry manager. Persistence layers use native async DB API
+ * where it's available. Other operations are executed in entry manager async executor.
+ * Entry mapping errors are thrown immediately. DB errors complete future exceptionally
+ */
+public interface AsyncPersistenceEntryManager {
+
+	<T> CompletableFuture<T> find(Class<T> entryClass, Object primaryKey);
+
+	<T> CompletableFuture<T> find(Object primaryKey, Class<T> entryClass, String[] ldapReturnAttributes);
+
+	<T> CompletableFuture<List<T>> findEntries(String baseDN, Class<T> entryClass, Filter filter);
+
+	<T> CompletableFuture<List<T>> findEntries(String baseDN, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes, int count);
+
+	<T> CompletableFuture<Integer> countEntries(String baseDN, Class<T> entryClass, Filter filter);
+
+	CompletableFuture<Void> persist(Object entry);
+
+	CompletableFuture<Void> merge(Object entry);
+
+	CompletableFuture<Void> remove(Object entry);
+
+	<T> CompletableFuture<Void> remove(String primaryKey, Class<T> entryClass);
+
+	/**
+	 * Remove entries by filter in batches in background
+	 *
+	 * @return Future with count of removed entries
+	 */
+	<T> CompletableFuture<Long> removeInBatches(String baseDN, Class<T> entryClass, Filter filter, int batchSize, long pauseMillis,
+			RemoveProgressListener progressListener);
+
+}
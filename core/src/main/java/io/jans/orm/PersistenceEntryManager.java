@@ -6,9 +6,11 @@
 
 package io.jans.orm;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityTransaction;
@@ -21,6 +23,7 @@ import io.jans.orm.exception.extension.PersistenceExtension;
 import io.jans.orm.model.AttributeData;
 import io.jans.orm.model.BatchOperation;
 import io.jans.orm.model.PagedResult;
+import io.jans.orm.model.RemoveProgressListener;
 import io.jans.orm.model.SearchScope;
 import io.jans.orm.model.SortOrder;
 import io.jans.orm.operation.PersistenceOperationService;
@@ -33,7 +36,7 @@ import io.jans.orm.search.filter.Filter;
  */
 public interface PersistenceEntryManager extends EntityManager {
 
-	enum PERSITENCE_TYPES {ldap, couchbase, sql, spanner, hybrid};
+	enum PERSITENCE_TYPES {ldap, couchbase, sql, spanner, memory, hybrid};
 
 	@Deprecated
     boolean authenticate(String primaryKey, String password);
@@ -43,8 +46,29 @@ public interface PersistenceEntryManager extends EntityManager {
 
 	void persist(Object entry);
 
+	/**
+	 * Persist entries with minimal number of round trips to DB. Persistence layers
+	 * send entries in batches if DB supports it.
+	 *
+	 * Operation is not atomic. Entries are sent in several batches, so entries from
+	 * batches which were written before failure stay in DB
+	 *
+	 * @param entries Entries to persist
+	 */
+	void persistAll(Collection<?> entries);
+
 	Void merge(Object entry);
 
+	/**
+	 * Add entry or update existing entry with same DN. Persistence layers with upsert support
+	 * do it in one DB operation. Attributes without values don't change existing entry attributes.
+	 * LDAP, SQL DBs other than MySQL, PostgreSQL and H2, and Couchbase entries with more than 16
+	 * attributes use two operations: check if entry exists and persist or merge it
+	 *
+	 * @param entry Entry to add or update
+	 */
+	void persistOrMerge(Object entry);
+
 	@Deprecated
 	boolean contains(Object entity);
 
@@ -60,6 +84,16 @@ public interface PersistenceEntryManager extends EntityManager {
 
     <T> T find(Object primaryKey, Class<T> entryClass, String[] ldapReturnAttributes);
 
+    /**
+     * Find entries by list of DNs with minimal number of round trips to DB
+     *
+     * @param primaryKeys DNs of entries
+     * @param entryClass Entry class
+     * @param ldapReturnAttributes Attributes to load. All entry attributes if null
+     * @return Map of found entries by DN in order of primaryKeys. Missing entries are skipped
+     */
+    <T> Map<String, T> findByKeys(Collection<String> primaryKeys, Class<T> entryClass, String[] ldapReturnAttributes);
+
     /**
      * Search by sample
      *
@@ -82,6 +116,30 @@ public interface PersistenceEntryManager extends EntityManager {
     <T> PagedResult<T> findPagedEntries(String primaryKey, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes, String sortBy,
                                         SortOrder sortOrder, int start, int count, int chunkSize);
 
+    /**
+     * Search page of entries which follows entries of previous page. It's supported by SQL and Spanner
+     * persistence layers. Token is encrypted with key from keyset.token.key property, the same key
+     * should be configured on all nodes which share tokens
+     *
+     * @param continuationToken Token from previous page result or null to load first page
+     * @return Page of entries and token to load next page
+     */
+    default <T> PagedResult<T> findPagedEntries(String primaryKey, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes, String sortBy,
+                                                SortOrder sortOrder, String continuationToken, int count) {
+        throw new UnsupportedOperationException("Search with continuation token is not supported by this persistence layer");
+    }
+
+    /**
+     * Search entries page by page. Next page is loaded only when previous one was consumed.
+     * LDAP keeps connection from pool until last page is loaded or stream is closed, so stream
+     * which may be not read to the end should be closed, e.g. with try-with-resources
+     *
+     * @return Lazy stream of entries. It should be closed if it was not read to the end
+     */
+    <T> Stream<T> streamEntries(String primaryKey, Class<T> entryClass, Filter filter);
+    <T> Stream<T> streamEntries(String primaryKey, Class<T> entryClass, Filter filter, SearchScope scope, String[] ldapReturnAttributes,
+                                int count, int chunkSize);
+
 	void remove(Object entry);
 
 	@Deprecated
@@ -89,6 +147,18 @@ public interface PersistenceEntryManager extends EntityManager {
 	<T> void remove(String primaryKey, Class<T> entryClass);
 
 	<T> int remove(String primaryKey, Class<T> entryClass, Filter filter, int count);
+
+	/**
+	 * Remove entries by filter in batches. Each batch is separate DB operation, so locks are held
+	 * only for short time and replicas can catch up during pauses between batches
+	 *
+	 * @param batchSize Maximum count of entries to remove in one batch
+	 * @param pauseMillis Pause between batches in milliseconds. 0 to run batches without pause
+	 * @param progressListener Listener which is called after each batch. It can be null
+	 * @return Count of removed entries
+	 */
+	<T> long removeInBatches(String primaryKey, Class<T> entryClass, Filter filter, int batchSize, long pauseMillis,
+			RemoveProgressListener progressListener);
 	
 	@Deprecated
     void removeRecursively(String primaryKey);
@@ -113,6 +183,11 @@ public interface PersistenceEntryManager extends EntityManager {
     void addDeleteSubscriber(DeleteNotifier subscriber);
     void removeDeleteSubscriber(DeleteNotifier subscriber);
 
+    /**
+     * @return Asynchronous view of this entry manager
+     */
+    AsyncPersistenceEntryManager getAsyncEntryManager();
+
     <T> void sortListByProperties(Class<T> entryClass, List<T> entries, boolean caseSensetive, String... sortByProperties);
 
     List<AttributeData> exportEntry(String dn);
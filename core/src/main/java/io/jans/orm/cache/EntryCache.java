@@ -0,0 +1,42 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.cache;
+
+import java.util.List;
+
+import io.jans.orm.model.AttributeData;
+
+/**
+ * Second level cache of loaded entries attributes. Entry manager uses it only for
+ * entry classes marked with @DataEntry(cacheable = true)
+ */
+public interface EntryCache {
+
+	/**
+	 * @return Stamp which should be passed to put after loading entry from DB
+	 */
+	long getStamp();
+
+	List<AttributeData> get(String dn, Class<?> entryClass, String[] attributes);
+
+	/**
+	 * Put loaded entry attributes into cache. Cache should ignore them if entry with this DN
+	 * was invalidated after stamp was taken
+	 */
+	void put(String dn, Class<?> entryClass, String[] attributes, List<AttributeData> entryAttributes, long stamp);
+
+	boolean contains(String dn, Class<?> entryClass);
+
+	void invalidate(String dn);
+
+	void invalidateSubtree(String baseDn);
+
+	void invalidate(Class<?> entryClass);
+
+	void clear();
+
+}
@@ -0,0 +1,372 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.jans.orm.model.AttributeData;
+import io.jans.orm.util.StringHelper;
+
+/**
+ * Size bounded entry cache with LRU eviction by DN and TTL expiration. Cache is split into
+ * segments by DN to reduce lock contention. Each segment evicts own least recently used DNs
+ *
+ * Stamp is a counter of invalidations. Segment remembers stamps of recently invalidated DNs,
+ * so put is rejected only if its DN, its subtree, its class or whole cache was invalidated
+ * after stamp was taken
+ */
+public class LruEntryCache implements EntryCache {
+
+	public static final String MAX_SIZE_PROPERTY = "entryCache.maxSize";
+	public static final String TTL_PROPERTY = "entryCache.ttl";
+
+	private static final int DEFAULT_TTL = 60;
+	private static final int MAX_SEGMENTS = 16;
+	private static final int MAX_INVALIDATED_DNS = 256;
+
+	private final int maxSize;
+	private final long ttlMillis;
+
+	private final AtomicLong stamp = new AtomicLong();
+
+	private final Segment[] segments;
+
+	/**
+	 * @param maxSize Maximum count of cached DNs
+	 * @param ttl Time to live of cached entries in seconds. 0 to disable expiration
+	 */
+	public LruEntryCache(int maxSize, int ttl) {
+		this.maxSize = maxSize;
+		this.ttlMillis = ttl * 1000L;
+
+		int segmentsCount = Math.max(1, Math.min(MAX_SEGMENTS, maxSize));
+		this.segments = new Segment[segmentsCount];
+		for (int i = 0; i < segmentsCount; i++) {
+			// Distribute remainder to make total size equal to maxSize
+			this.segments[i] = new Segment(maxSize / segmentsCount + (i < maxSize % segmentsCount ? 1 : 0));
+		}
+	}
+
+	/**
+	 * Create cache from entry manager configuration
+	 *
+	 * @return Cache or null if entryCache.maxSize is not specified
+	 */
+	public static LruEntryCache create(Properties conf) {
+		int maxSize = StringHelper.toInt(conf.getProperty(MAX_SIZE_PROPERTY), 0);
+		if (maxSize <= 0) {
+			return null;
+		}
+
+		int ttl = StringHelper.toInt(conf.getProperty(TTL_PROPERTY), DEFAULT_TTL);
+
+		return new LruEntryCache(maxSize, ttl);
+	}
+
+	@Override
+	public long getStamp() {
+		return stamp.get();
+	}
+
+	@Override
+	public List<AttributeData> get(String dn, Class<?> entryClass, String[] attributes) {
+		String key = toKey(dn);
+		Segment segment = getSegment(key);
+
+		CachedAttributes cachedAttributes;
+		synchronized (segment) {
+			Map<CacheKey, CachedAttributes> dnEntries = segment.entries.get(key);
+			if (dnEntries == null) {
+				return null;
+			}
+
+			CacheKey cacheKey = new CacheKey(entryClass, attributes);
+			cachedAttributes = dnEntries.get(cacheKey);
+			if (cachedAttributes == null) {
+				return null;
+			}
+
+			if (cachedAttributes.isExpired(System.currentTimeMillis())) {
+				dnEntries.remove(cacheKey);
+				return null;
+			}
+		}
+
+		return copy(cachedAttributes.getAttributes());
+	}
+
+	@Override
+	public void put(String dn, Class<?> entryClass, String[] attributes, List<AttributeData> entryAttributes, long stamp) {
+		long expiration = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE;
+		CachedAttributes cachedAttributes = new CachedAttributes(copy(entryAttributes), expiration);
+
+		String key = toKey(dn);
+		Segment segment = getSegment(key);
+
+		// Invalidation changes stamp before removing entries from segments. Stamp is checked under
+		// segment lock, so entries put before invalidation are removed by it and later ones are rejected
+		synchronized (segment) {
+			if (segment.isInvalidatedAfter(key, stamp)) {
+				// Entries were changed while these attributes were loading
+				return;
+			}
+
+			Map<CacheKey, CachedAttributes> dnEntries = segment.entries.get(key);
+			if (dnEntries == null) {
+				dnEntries = new HashMap<CacheKey, CachedAttributes>(4);
+				segment.entries.put(key, dnEntries);
+			}
+			dnEntries.put(new CacheKey(entryClass, attributes == null ? null : attributes.clone()), cachedAttributes);
+		}
+	}
+
+	@Override
+	public boolean contains(String dn, Class<?> entryClass) {
+		String key = toKey(dn);
+		Segment segment = getSegment(key);
+
+		synchronized (segment) {
+			Map<CacheKey, CachedAttributes> dnEntries = segment.entries.get(key);
+			if (dnEntries == null) {
+				return false;
+			}
+
+			long now = System.currentTimeMillis();
+			for (Entry<CacheKey, CachedAttributes> dnEntry : dnEntries.entrySet()) {
+				if ((dnEntry.getKey().entryClass == entryClass) && !dnEntry.getValue().isExpired(now)) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public void invalidate(String dn) {
+		long invalidationStamp = stamp.incrementAndGet();
+
+		String key = toKey(dn);
+		Segment segment = getSegment(key);
+		synchronized (segment) {
+			segment.invalidate(key, invalidationStamp);
+			segment.entries.remove(key);
+		}
+	}
+
+	@Override
+	public void invalidateSubtree(String baseDn) {
+		long invalidationStamp = stamp.incrementAndGet();
+
+		String key = toKey(baseDn);
+		String suffix = "," + key;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.invalidateAll(invalidationStamp);
+				for (Iterator<String> it = segment.entries.keySet().iterator(); it.hasNext();) {
+					String dn = it.next();
+					if (dn.equals(key) || dn.endsWith(suffix)) {
+						it.remove();
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public void invalidate(Class<?> entryClass) {
+		long invalidationStamp = stamp.incrementAndGet();
+
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.invalidateAll(invalidationStamp);
+				for (Iterator<Map<CacheKey, CachedAttributes>> it = segment.entries.values().iterator(); it.hasNext();) {
+					Map<CacheKey, CachedAttributes> dnEntries = it.next();
+					for (Iterator<CacheKey> keyIt = dnEntries.keySet().iterator(); keyIt.hasNext();) {
+						if (keyIt.next().entryClass == entryClass) {
+							keyIt.remove();
+						}
+					}
+
+					if (dnEntries.isEmpty()) {
+						it.remove();
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public void clear() {
+		long invalidationStamp = stamp.incrementAndGet();
+
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.invalidateAll(invalidationStamp);
+				segment.entries.clear();
+			}
+		}
+	}
+
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.entries.size();
+			}
+		}
+
+		return size;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	private Segment getSegment(String key) {
+		int hash = (key == null) ? 0 : key.hashCode();
+		// Spread higher bits because segments count is small
+		hash ^= (hash >>> 16);
+
+		return segments[(hash & Integer.MAX_VALUE) % segments.length];
+	}
+
+	private String toKey(String dn) {
+		return StringHelper.toLowerCase(dn);
+	}
+
+	private List<AttributeData> copy(List<AttributeData> attributes) {
+		// Cached attributes should not share values arrays with entries
+		List<AttributeData> result = new ArrayList<AttributeData>(attributes.size());
+		for (AttributeData attribute : attributes) {
+			Object[] values = attribute.getValues();
+			result.add(new AttributeData(attribute.getName(), values == null ? null : values.clone(), attribute.getMultiValued()));
+		}
+
+		return result;
+	}
+
+	private static class Segment {
+
+		// Access ordered map of cached entries by DN in lower case
+		private final LinkedHashMap<String, Map<CacheKey, CachedAttributes>> entries;
+
+		// Stamps of last invalidations by DN in lower case
+		private final LinkedHashMap<String, Long> invalidatedDns;
+
+		// Stamp of last invalidation of all entries or of DN which was removed from invalidatedDns
+		private long invalidationStamp = 0;
+
+		public Segment(final int maxSize) {
+			this.entries = new LinkedHashMap<String, Map<CacheKey, CachedAttributes>>(16, 0.75f, true) {
+
+				private static final long serialVersionUID = 6219485071529345013L;
+
+				@Override
+				protected boolean removeEldestEntry(Entry<String, Map<CacheKey, CachedAttributes>> eldest) {
+					return size() > maxSize;
+				}
+			};
+			this.invalidatedDns = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+
+				private static final long serialVersionUID = -4316526383623614283L;
+
+				@Override
+				protected boolean removeEldestEntry(Entry<String, Long> eldest) {
+					if (size() <= MAX_INVALIDATED_DNS) {
+						return false;
+					}
+
+					// Forgotten DN is treated as invalidated with all entries
+					invalidationStamp = Math.max(invalidationStamp, eldest.getValue());
+					return true;
+				}
+			};
+		}
+
+		public void invalidate(String key, long stamp) {
+			invalidatedDns.put(key, stamp);
+		}
+
+		public void invalidateAll(long stamp) {
+			invalidationStamp = stamp;
+			invalidatedDns.clear();
+		}
+
+		public boolean isInvalidatedAfter(String key, long stamp) {
+			if (stamp < invalidationStamp) {
+				return true;
+			}
+
+			Long dnInvalidationStamp = invalidatedDns.get(key);
+			return (dnInvalidationStamp != null) && (stamp < dnInvalidationStamp);
+		}
+
+	}
+
+	private static class CacheKey {
+
+		private final Class<?> entryClass;
+		private final String[] attributes;
+		private final int hash;
+
+		public CacheKey(Class<?> entryClass, String[] attributes) {
+			this.entryClass = entryClass;
+			this.attributes = attributes;
+			this.hash = 31 * entryClass.hashCode() + Arrays.hashCode(attributes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof CacheKey)) {
+				return false;
+			}
+
+			CacheKey other = (CacheKey) obj;
+			return (entryClass == other.entryClass) && Arrays.equals(attributes, other.attributes);
+		}
+
+	}
+
+	private static class CachedAttributes {
+
+		private final List<AttributeData> attributes;
+		private final long expiration;
+
+		public CachedAttributes(List<AttributeData> attributes, long expiration) {
+			this.attributes = attributes;
+			this.expiration = expiration;
+		}
+
+		public List<AttributeData> getAttributes() {
+			return attributes;
+		}
+
+		public boolean isExpired(long now) {
+			return now > expiration;
+		}
+
+	}
+
+}
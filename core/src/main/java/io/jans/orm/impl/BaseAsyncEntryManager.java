@@ -0,0 +1,207 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.impl;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.jans.orm.AsyncPersistenceEntryManager;
+import io.jans.orm.model.RemoveProgressListener;
+import io.jans.orm.search.filter.Filter;
+import io.jans.orm.util.StringHelper;
+
+/**
+ * Asynchronous view of entry manager. Find and persist use persistence layer async
+ * paths. Other operations are executed in async executor. Loaded entries are mapped
+ * to entities in async mapping executor to keep I/O threads free
+ */
+public class BaseAsyncEntryManager implements AsyncPersistenceEntryManager {
+
+	public static final String ASYNC_THREADS_PROPERTY = "jans.orm.async.threads";
+	public static final String ASYNC_QUEUE_SIZE_PROPERTY = "jans.orm.async.queueSize";
+
+	private static final int DEFAULT_ASYNC_THREADS = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+	private static final int DEFAULT_ASYNC_QUEUE_SIZE = 10000;
+
+	private final BaseEntryManager entryManager;
+
+	public BaseAsyncEntryManager(BaseEntryManager entryManager) {
+		this.entryManager = entryManager;
+	}
+
+	/**
+	 * Shared executor for blocking operations. It uses daemon threads and stops idle ones.
+	 * Pool and queue sizes can be changed with jans.orm.async.threads and jans.orm.async.queueSize
+	 * system properties
+	 */
+	public static Executor getDefaultExecutor() {
+		return DefaultExecutorHolder.EXECUTOR;
+	}
+
+	/**
+	 * Create executor for blocking operations with bounded queue. Operations submitted when
+	 * queue is full fail with RejectedExecutionException
+	 *
+	 * @param threads Maximum count of threads
+	 * @param queueSize Maximum count of operations waiting for thread
+	 */
+	public static ExecutorService createExecutor(int threads, int queueSize) {
+		final AtomicInteger threadNumber = new AtomicInteger();
+		ThreadFactory threadFactory = new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "orm-async-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(queueSize), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+
+		return executor;
+	}
+
+	/**
+	 * Execute supplier in executor. Rejected operation is returned as failed future
+	 */
+	public static <R> CompletableFuture<R> supplyAsync(Supplier<R> supplier, Executor executor) {
+		try {
+			return CompletableFuture.supplyAsync(supplier, executor);
+		} catch (RejectedExecutionException ex) {
+			CompletableFuture<R> result = new CompletableFuture<R>();
+			result.completeExceptionally(ex);
+
+			return result;
+		}
+	}
+
+	public static CompletableFuture<Void> runAsync(Runnable runnable, Executor executor) {
+		try {
+			return CompletableFuture.runAsync(runnable, executor);
+		} catch (RejectedExecutionException ex) {
+			CompletableFuture<Void> result = new CompletableFuture<Void>();
+			result.completeExceptionally(ex);
+
+			return result;
+		}
+	}
+
+	@Override
+	public <T> CompletableFuture<T> find(Class<T> entryClass, Object primaryKey) {
+		return find(primaryKey, entryClass, null);
+	}
+
+	@Override
+	public <T> CompletableFuture<T> find(Object primaryKey, Class<T> entryClass, String[] ldapReturnAttributes) {
+		return entryManager.findAsync(primaryKey, entryClass, ldapReturnAttributes);
+	}
+
+	@Override
+	public <T> CompletableFuture<List<T>> findEntries(final String baseDN, final Class<T> entryClass, final Filter filter) {
+		return supplyAsync(new Supplier<List<T>>() {
+			@Override
+			public List<T> get() {
+				return entryManager.findEntries(baseDN, entryClass, filter);
+			}
+		});
+	}
+
+	@Override
+	public <T> CompletableFuture<List<T>> findEntries(final String baseDN, final Class<T> entryClass, final Filter filter,
+			final String[] ldapReturnAttributes, final int count) {
+		return supplyAsync(new Supplier<List<T>>() {
+			@Override
+			public List<T> get() {
+				return entryManager.findEntries(baseDN, entryClass, filter, ldapReturnAttributes, count);
+			}
+		});
+	}
+
+	@Override
+	public <T> CompletableFuture<Integer> countEntries(final String baseDN, final Class<T> entryClass, final Filter filter) {
+		return supplyAsync(new Supplier<Integer>() {
+			@Override
+			public Integer get() {
+				return entryManager.countEntries(baseDN, entryClass, filter);
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> persist(Object entry) {
+		return entryManager.persistAsync(entry);
+	}
+
+	@Override
+	public CompletableFuture<Void> merge(final Object entry) {
+		return runAsync(new Runnable() {
+			@Override
+			public void run() {
+				entryManager.merge(entry);
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> remove(final Object entry) {
+		return runAsync(new Runnable() {
+			@Override
+			public void run() {
+				entryManager.remove(entry);
+			}
+		});
+	}
+
+	@Override
+	public <T> CompletableFuture<Void> remove(final String primaryKey, final Class<T> entryClass) {
+		return runAsync(new Runnable() {
+			@Override
+			public void run() {
+				entryManager.remove(primaryKey, entryClass);
+			}
+		});
+	}
+
+	@Override
+	public <T> CompletableFuture<Long> removeInBatches(final String baseDN, final Class<T> entryClass, final Filter filter, final int batchSize,
+			final long pauseMillis, final RemoveProgressListener progressListener) {
+		return supplyAsync(new Supplier<Long>() {
+			@Override
+			public Long get() {
+				return entryManager.removeInBatches(baseDN, entryClass, filter, batchSize, pauseMillis, progressListener);
+			}
+		});
+	}
+
+	private <R> CompletableFuture<R> supplyAsync(Supplier<R> supplier) {
+		return supplyAsync(supplier, entryManager.getAsyncExecutor());
+	}
+
+	private CompletableFuture<Void> runAsync(Runnable runnable) {
+		return runAsync(runnable, entryManager.getAsyncExecutor());
+	}
+
+	private static class DefaultExecutorHolder {
+
+		private static final Executor EXECUTOR = createExecutor(
+				Math.max(1, StringHelper.toInt(System.getProperty(ASYNC_THREADS_PROPERTY), DEFAULT_ASYNC_THREADS)),
+				Math.max(1, StringHelper.toInt(System.getProperty(ASYNC_QUEUE_SIZE_PROPERTY), DEFAULT_ASYNC_QUEUE_SIZE)));
+
+	}
+
+}
@@ -7,6 +7,7 @@
 package io.jans.orm.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jans.orm.AsyncPersistenceEntryManager;
 import io.jans.orm.PersistenceEntryManager;
 import io.jans.orm.annotation.AttributeEnum;
 import io.jans.orm.annotation.AttributeName;
@@ -18,13 +19,22 @@ import io.jans.orm.annotation.Expiration;
 import io.jans.orm.annotation.JsonObject;
 import io.jans.orm.annotation.ObjectClass;
 import io.jans.orm.annotation.SchemaEntry;
+import io.jans.orm.cache.EntryCache;
+import io.jans.orm.event.DeleteNotifier;
 import io.jans.orm.exception.EntryPersistenceException;
 import io.jans.orm.exception.InvalidArgumentException;
 import io.jans.orm.exception.MappingException;
 import io.jans.orm.exception.extension.PersistenceExtension;
+import io.jans.orm.impl.EntrySnapshotRegistry.EntrySnapshot;
+import io.jans.orm.impl.model.EntityMapper;
+import io.jans.orm.impl.model.EntityMapper.AttributesListMapping;
+import io.jans.orm.impl.model.EntityMapper.PropertyMapping;
+import io.jans.orm.impl.model.EntryToPersist;
 import io.jans.orm.model.AttributeData;
 import io.jans.orm.model.AttributeDataModification;
 import io.jans.orm.model.AttributeDataModification.AttributeModificationType;
+import io.jans.orm.model.BatchOperation;
+import io.jans.orm.model.RemoveProgressListener;
 import io.jans.orm.model.SearchScope;
 import io.jans.orm.operation.PersistenceOperationService;
 import io.jans.orm.reflect.property.Getter;
@@ -34,6 +44,7 @@ import io.jans.orm.reflect.util.ReflectHelper;
 import io.jans.orm.search.filter.Filter;
 import io.jans.orm.util.ArrayHelper;
 import io.jans.orm.util.StringHelper;
+import io.jans.orm.util.ThreadHelper;
 import org.apache.commons.codec.binary.Base64;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,16 +54,27 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Abstract Entry Manager
@@ -82,10 +104,15 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 	private final Map<String, List<PropertyAnnotation>> classAnnotations = new HashMap<String, List<PropertyAnnotation>>();
 	private final Map<String, Getter> classGetters = new HashMap<String, Getter>();
 	private final Map<String, Setter> classSetters = new HashMap<String, Setter>();
+	private final Map<String, EntityMapper> classMappers = new HashMap<String, EntityMapper>();
+	private final Map<Class<?>, Boolean> classTrackChanges = new ConcurrentHashMap<Class<?>, Boolean>();
 
 	private static Object CLASS_ANNOTATIONS_LOCK = new Object();
 	private static Object CLASS_SETTERS_LOCK = new Object();
 	private static Object CLASS_GETTERS_LOCK = new Object();
+	private static Object CLASS_MAPPERS_LOCK = new Object();
+
+	private final EntrySnapshotRegistry entrySnapshots = new EntrySnapshotRegistry();
 
 	private static final ObjectMapper JSON_OBJECT_MAPPER = new ObjectMapper();
 
@@ -94,13 +121,89 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 
 	protected static final Comparator<String> LINE_LENGHT_COMPARATOR = new LineLenghtComparator<String>(false);
 
+	private static final Comparator<String> IGNORE_CASE_COMPARATOR = new Comparator<String>() {
+		public int compare(String o1, String o2) {
+			return o1.toLowerCase().compareTo(o2.toLowerCase());
+		}
+	};
+
 	protected static final int DEFAULT_PAGINATION_SIZE = 100;
+	protected static final int DEFAULT_PERSIST_BATCH_SIZE = 1000;
+
+	public static final String BATCH_PREFETCH_DEPTH_PROPERTY = "batchOperation.prefetchDepth";
 	
 	protected PersistenceOperationService operationService = null;
 	protected PersistenceExtension persistenceExtension = null;
 
+	private EntryCache entryCache = null;
+	private DeleteNotifier entryCacheDeleteNotifier = null;
+
+	private volatile Executor asyncExecutor = null;
+	private volatile Executor asyncMappingExecutor = null;
+	private volatile AsyncPersistenceEntryManager asyncEntryManager = null;
+
+	private int batchPrefetchDepth = 0;
+
 	@Override
 	public void persist(Object entry) {
+		EntryToPersist entryToPersist = prepareEntryToPersist(entry);
+
+		persist(entryToPersist.getDn(), entryToPersist.getObjectClasses(), entryToPersist.getAttributes(), entryToPersist.getExpiration());
+
+		updateEntrySnapshot(entryToPersist);
+		invalidateEntryCache(entryToPersist.getDn());
+	}
+
+	@Override
+	public void persistAll(Collection<?> entries) {
+		if (entries == null) {
+			throw new MappingException("Entries to persist is null");
+		}
+
+		List<EntryToPersist> batch = new ArrayList<EntryToPersist>(Math.min(entries.size(), DEFAULT_PERSIST_BATCH_SIZE));
+		for (Object entry : entries) {
+			batch.add(prepareEntryToPersist(entry));
+
+			if (batch.size() == DEFAULT_PERSIST_BATCH_SIZE) {
+				persistBatch(batch);
+				batch.clear();
+			}
+		}
+
+		if (batch.size() > 0) {
+			persistBatch(batch);
+		}
+	}
+
+	private void persistBatch(List<EntryToPersist> entries) {
+		persistAll(entries);
+
+		for (EntryToPersist entryToPersist : entries) {
+			updateEntrySnapshot(entryToPersist);
+			invalidateEntryCache(entryToPersist.getDn());
+		}
+	}
+
+	@Override
+	public void persistOrMerge(Object entry) {
+		EntryToPersist entryToPersist = prepareEntryToPersist(entry);
+
+		if (!persistOrMerge(entryToPersist.getDn(), entryToPersist.getObjectClasses(), entryToPersist.getAttributes(), entryToPersist.getExpiration())) {
+			// Persistence layer has no upsert operation
+			if (contains(entryToPersist.getDn(), entry.getClass())) {
+				merge(entry);
+			} else {
+				persist(entry);
+			}
+			return;
+		}
+
+		// Existing entry can have attributes which entry doesn't have, so snapshot is unknown
+		entrySnapshots.remove(entry);
+		invalidateEntryCache(entryToPersist.getDn());
+	}
+
+	protected EntryToPersist prepareEntryToPersist(Object entry) {
 		if (entry == null) {
 			throw new MappingException("Entry to persist is null");
 		}
@@ -122,11 +225,185 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 
 		LOG.debug(String.format("LDAP attributes for persist: %s", attributes));
 
-		persist(dnValue.toString(), objectClasses, attributes, expirationValue);
+		return new EntryToPersist(entry, dnValue.toString(), objectClasses, attributes, expirationValue);
+	}
+
+	private void updateEntrySnapshot(EntryToPersist entryToPersist) {
+		Object entry = entryToPersist.getEntry();
+		if (isUseEntryTrackChanges(entry.getClass())) {
+			EntrySnapshot entrySnapshot = createEntrySnapshot(entryToPersist.getDn(), entryToPersist.getAttributes());
+
+			// Persisted entry is full. Object classes mark snapshot as full even if entry has no object classes
+			entrySnapshot.getAttributes().put(OBJECT_CLASS.toLowerCase(),
+					new AttributeData(OBJECT_CLASS, entryToPersist.getObjectClasses(), true));
+
+			entrySnapshots.put(entry, entrySnapshot);
+		}
 	}
 
 	protected abstract void persist(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration);
 
+	/*
+	 * Add entry or update existing entry in one DB operation. Default implementation returns false
+	 * to persist or merge entry after checking if it exists. Persistence layers with upsert support
+	 * should override it
+	 *
+	 * @return False if persistence layer has no upsert operation
+	 */
+	protected boolean persistOrMerge(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
+		return false;
+	}
+
+	protected CompletableFuture<Void> persistAsync(Object entry) {
+		final EntryToPersist entryToPersist = prepareEntryToPersist(entry);
+
+		return persistAsync(entryToPersist.getDn(), entryToPersist.getObjectClasses(), entryToPersist.getAttributes(), entryToPersist.getExpiration())
+				.thenRun(new Runnable() {
+					@Override
+					public void run() {
+						updateEntrySnapshot(entryToPersist);
+						invalidateEntryCache(entryToPersist.getDn());
+					}
+				});
+	}
+
+	/*
+	 * Default implementation executes persist in async executor. Persistence layers with
+	 * async DB API should override it
+	 */
+	protected CompletableFuture<Void> persistAsync(final String dn, final String[] objectClasses, final List<AttributeData> attributes,
+			final Integer expiration) {
+		return BaseAsyncEntryManager.runAsync(new Runnable() {
+			@Override
+			public void run() {
+				persist(dn, objectClasses, attributes, expiration);
+			}
+		}, getAsyncExecutor());
+	}
+
+	/*
+	 * Default implementation persists entries one by one. Persistence layers which
+	 * support batch operations should override it
+	 */
+	protected void persistAll(List<EntryToPersist> entries) {
+		for (EntryToPersist entryToPersist : entries) {
+			persist(entryToPersist.getDn(), entryToPersist.getObjectClasses(), entryToPersist.getAttributes(), entryToPersist.getExpiration());
+		}
+	}
+
+	@Override
+	public AsyncPersistenceEntryManager getAsyncEntryManager() {
+		if (asyncEntryManager == null) {
+			asyncEntryManager = new BaseAsyncEntryManager(this);
+		}
+
+		return asyncEntryManager;
+	}
+
+	public Executor getAsyncExecutor() {
+		if (asyncExecutor == null) {
+			return BaseAsyncEntryManager.getDefaultExecutor();
+		}
+
+		return asyncExecutor;
+	}
+
+	/**
+	 * Set executor for async operations without native async persistence layer API
+	 *
+	 * @param asyncExecutor Executor. Null to use default shared executor
+	 */
+	public void setAsyncExecutor(Executor asyncExecutor) {
+		this.asyncExecutor = asyncExecutor;
+	}
+
+	public Executor getAsyncMappingExecutor() {
+		if (asyncMappingExecutor == null) {
+			return ForkJoinPool.commonPool();
+		}
+
+		return asyncMappingExecutor;
+	}
+
+	/**
+	 * Set executor which maps entries loaded by async operations to entities
+	 *
+	 * @param asyncMappingExecutor Executor. Null to use common fork join pool
+	 */
+	public void setAsyncMappingExecutor(Executor asyncMappingExecutor) {
+		this.asyncMappingExecutor = asyncMappingExecutor;
+	}
+
+	public int getBatchPrefetchDepth() {
+		return batchPrefetchDepth;
+	}
+
+	/**
+	 * Set number of pages which search with batch operation can load ahead while
+	 * BatchOperation.performAction processes previous page in background thread.
+	 * Searches which load pages by offset don't load ahead, they wait for previous page action
+	 *
+	 * @param batchPrefetchDepth Number of pages. 0 to process pages in caller thread
+	 */
+	public void setBatchPrefetchDepth(int batchPrefetchDepth) {
+		this.batchPrefetchDepth = Math.max(0, batchPrefetchDepth);
+	}
+
+	public <T> BatchOperationPipeline<T> createBatchOperationPipeline(BatchOperation<T> batchOperation) {
+		return new BatchOperationPipeline<T>(batchOperation, batchPrefetchDepth, getAsyncExecutor());
+	}
+
+	public EntryCache getEntryCache() {
+		return entryCache;
+	}
+
+	/**
+	 * Set second level cache for entries of classes marked with @DataEntry(cacheable = true).
+	 * Cache is invalidated on persist, merge and remove
+	 *
+	 * @param entryCache Entry cache. Null to disable cache
+	 */
+	public void setEntryCache(final EntryCache entryCache) {
+		if (this.entryCacheDeleteNotifier != null) {
+			removeDeleteSubscriber(this.entryCacheDeleteNotifier);
+			this.entryCacheDeleteNotifier = null;
+		}
+
+		this.entryCache = entryCache;
+
+		if (entryCache != null) {
+			this.entryCacheDeleteNotifier = new DeleteNotifier() {
+				@Override
+				public void onBeforeRemove(String dn) {
+				}
+
+				@Override
+				public void onAfterRemove(String dn) {
+					entryCache.invalidate(dn);
+				}
+			};
+			addDeleteSubscriber(this.entryCacheDeleteNotifier);
+		}
+	}
+
+	protected void invalidateEntryCache(String dn) {
+		if (entryCache != null) {
+			entryCache.invalidate(dn);
+		}
+	}
+
+	protected void invalidateEntryCacheSubtree(String baseDn) {
+		if (entryCache != null) {
+			entryCache.invalidateSubtree(baseDn);
+		}
+	}
+
+	protected void invalidateEntryCache(Class<?> entryClass) {
+		if (isUseEntryCache(entryClass)) {
+			entryCache.invalidate(entryClass);
+		}
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T> List<T> findEntries(Object entry, int count) {
@@ -180,6 +457,52 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 		return findEntries(baseDN, entryClass, filter, scope, ldapReturnAttributes, null, start, count, chunkSize);
 	}
 
+	@Override
+	public <T> Stream<T> streamEntries(String baseDN, Class<T> entryClass, Filter filter) {
+		return streamEntries(baseDN, entryClass, filter, SearchScope.SUB, null, 0, DEFAULT_PAGINATION_SIZE);
+	}
+
+	/*
+	 * Default implementation loads pages with start/count requests. DB reads all skipped entries
+	 * for each page, so persistence layers with cursors or keyset pagination should override it
+	 */
+	@Override
+	public <T> Stream<T> streamEntries(final String baseDN, final Class<T> entryClass, final Filter filter, final SearchScope scope,
+			final String[] ldapReturnAttributes, final int count, int chunkSize) {
+		if (StringHelper.isEmptyString(baseDN)) {
+			throw new MappingException("Base DN to find entries is null");
+		}
+
+		final int pageSize = chunkSize > 0 ? chunkSize : DEFAULT_PAGINATION_SIZE;
+
+		PagedEntriesIterator<T> pagedEntriesIterator = new PagedEntriesIterator<T>() {
+
+			private int start = 0;
+
+			@Override
+			protected List<T> loadNextPage() {
+				int limit = pageSize;
+				if (count > 0) {
+					limit = Math.min(pageSize, count - start);
+					if (limit <= 0) {
+						return null;
+					}
+				}
+
+				List<T> entries = findEntries(baseDN, entryClass, filter, scope, ldapReturnAttributes, start, limit, limit);
+				start += entries.size();
+
+				if (entries.size() < limit) {
+					finish();
+				}
+
+				return entries;
+			}
+		};
+
+		return pagedEntriesIterator.stream();
+	}
+
 	@SuppressWarnings("unchecked")
 	public <T> int countEntries(Object entry) {
 		if (entry == null) {
@@ -223,34 +546,62 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 		List<AttributeData> attributesToPersist = getAttributesListForPersist(entry, propertiesAnnotations);
 		Map<String, AttributeData> attributesToPersistMap = getAttributesMap(attributesToPersist);
 
-		// Load entry
-		List<AttributeData> attributesFromLdap = null;
-		if (isSchemaUpdate || forceUpdate) {
-			// If it's schema modification request we don't need to load
-			// attributes from LDAP
-			attributesFromLdap = new ArrayList<AttributeData>();
-		} else {
-			List<String> currentLdapReturnAttributesList = buildAttributesListForUpdate(entry, objectClasses, propertiesAnnotations);
-			if (!isConfigurationUpdate) {
-				currentLdapReturnAttributesList.add("objectClass");
-			}
+		boolean trackChanges = !isSchemaUpdate && !forceUpdate && isUseEntryTrackChanges(entryClass);
+
+		Map<String, AttributeData> snapshotAttributesMap = null;
+		Map<String, AttributeData> attributesFromLdapMap = null;
+		List<AttributeDataModification> attributeDataModifications = null;
+		if (trackChanges) {
+			// Try to prepare list of modifications from snapshot without entry lookup
+			EntrySnapshot entrySnapshot = getEntrySnapshot(entry, dnValue.toString());
+			if (entrySnapshot != null) {
+				snapshotAttributesMap = entrySnapshot.getAttributes();
+				attributesFromLdapMap = new HashMap<String, AttributeData>(snapshotAttributesMap);
+
+				if (LOG.isTraceEnabled()) {
+					dumpAttributes("attributesFromSnapshot", new ArrayList<AttributeData>(snapshotAttributesMap.values()));
+					dumpAttributes("attributesToPersist", attributesToPersist);
+				}
 
-			attributesFromLdap = find(dnValue.toString(), objectClasses, propertiesAnnotationsMap, currentLdapReturnAttributesList.toArray(EMPTY_STRING_ARRAY));
+				attributeDataModifications = collectAttributeModifications(
+						propertiesAnnotations, attributesToPersistMap, attributesFromLdapMap, false,
+						schemaModificationType, false);
+			}
 		}
 
-		if (LOG.isTraceEnabled()) {
-			dumpAttributes("attributesFromLdap", attributesFromLdap);
-			dumpAttributes("attributesToPersist", attributesToPersist);
-		}
+		if (attributeDataModifications == null) {
+			// Load entry
+			List<AttributeData> attributesFromLdap = null;
+			if (isSchemaUpdate || forceUpdate) {
+				// If it's schema modification request we don't need to load
+				// attributes from LDAP
+				attributesFromLdap = new ArrayList<AttributeData>();
+			} else {
+				List<String> currentLdapReturnAttributesList = buildAttributesListForUpdate(entry, objectClasses, propertiesAnnotations);
+				if (!isConfigurationUpdate) {
+					currentLdapReturnAttributesList.add("objectClass");
+				}
 
-		Map<String, AttributeData> attributesFromLdapMap = getAttributesMap(attributesFromLdap);
+				attributesFromLdap = find(dnValue.toString(), objectClasses, propertiesAnnotationsMap, currentLdapReturnAttributesList.toArray(EMPTY_STRING_ARRAY));
+			}
 
-		// Prepare list of modifications
+			if (LOG.isTraceEnabled()) {
+				dumpAttributes("attributesFromLdap", attributesFromLdap);
+				dumpAttributes("attributesToPersist", attributesToPersist);
+			}
 
-		// Process properties with Attribute annotation
-		List<AttributeDataModification> attributeDataModifications = collectAttributeModifications(
-				propertiesAnnotations, attributesToPersistMap, attributesFromLdapMap, isSchemaUpdate,
-				schemaModificationType, forceUpdate);
+			attributesFromLdapMap = getAttributesMap(attributesFromLdap);
+			if (trackChanges) {
+				snapshotAttributesMap = getAttributesMap(attributesFromLdap);
+			}
+
+			// Prepare list of modifications
+
+			// Process properties with Attribute annotation
+			attributeDataModifications = collectAttributeModifications(
+					propertiesAnnotations, attributesToPersistMap, attributesFromLdapMap, isSchemaUpdate,
+					schemaModificationType, forceUpdate);
+		}
 
 		if (LOG.isTraceEnabled()) {
 			dumpAttributeDataModifications("attributeDataModifications before updateMergeChanges", attributeDataModifications);
@@ -265,10 +616,74 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 		LOG.debug(String.format("LDAP attributes for merge: %s", attributeDataModifications));
 
 		merge(dnValue.toString(), objectClasses, attributeDataModifications, expirationValue);
+		invalidateEntryCache(dnValue.toString());
+
+		if (trackChanges) {
+			entrySnapshots.put(entry, new EntrySnapshot(dnValue.toString(),
+					applyAttributeModifications(snapshotAttributesMap, attributeDataModifications)));
+		}
 
 		return null;
 	}
 
+	private EntrySnapshot getEntrySnapshot(Object entry, String dn) {
+		EntrySnapshot entrySnapshot = entrySnapshots.get(entry);
+		if (entrySnapshot == null) {
+			// Detached entry
+			return null;
+		}
+
+		if (!StringHelper.equalsIgnoreCase(entrySnapshot.getDn(), dn)) {
+			return null;
+		}
+
+		// Entry was loaded without part of attributes
+		if (!entrySnapshot.getAttributes().containsKey(OBJECT_CLASS.toLowerCase())) {
+			return null;
+		}
+
+		return entrySnapshot;
+	}
+
+	private Map<String, AttributeData> applyAttributeModifications(Map<String, AttributeData> attributesMap,
+			List<AttributeDataModification> attributeDataModifications) {
+		Map<String, AttributeData> resultAttributesMap = new HashMap<String, AttributeData>(attributesMap);
+		for (AttributeDataModification attributeDataModification : attributeDataModifications) {
+			AttributeData attribute = attributeDataModification.getAttribute();
+			if ((AttributeModificationType.REMOVE == attributeDataModification.getModificationType()) || isEmptyAttributeValues(attribute)) {
+				AttributeData oldAttribute = attributeDataModification.getOldAttribute();
+				if (oldAttribute != null) {
+					resultAttributesMap.remove(oldAttribute.getName().toLowerCase());
+				}
+				if (attribute != null) {
+					resultAttributesMap.remove(attribute.getName().toLowerCase());
+				}
+			} else {
+				resultAttributesMap.put(attribute.getName().toLowerCase(), copyAttributeData(attribute));
+			}
+		}
+
+		return resultAttributesMap;
+	}
+
+	private EntrySnapshot createEntrySnapshot(String dn, List<AttributeData> attributes) {
+		Map<String, AttributeData> attributesMap = new HashMap<String, AttributeData>(attributes.size());
+		for (AttributeData attribute : attributes) {
+			if (isEmptyAttributeValues(attribute)) {
+				continue;
+			}
+			attributesMap.put(attribute.getName().toLowerCase(), copyAttributeData(attribute));
+		}
+
+		return new EntrySnapshot(dn, attributesMap);
+	}
+
+	private AttributeData copyAttributeData(AttributeData attribute) {
+		// Entry and snapshot should not share values arrays
+		Object[] values = attribute.getValues();
+		return new AttributeData(attribute.getName(), values == null ? null : values.clone(), attribute.getMultiValued());
+	}
+
 	protected List<String> buildAttributesListForUpdate(Object entry, String[] objectClasses, List<PropertyAnnotation> propertiesAnnotations) {
 		return getAttributesList(entry, propertiesAnnotations, false);
 	}
@@ -483,11 +898,43 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 		removeByDn(primaryKey, objectClasses);
 	}
 
+	/*
+	 * Default implementation removes entries with limited removal by filter. Persistence layers
+	 * which can select and remove batches more effectively should override it
+	 */
+	@Override
+	public <T> long removeInBatches(String primaryKey, Class<T> entryClass, Filter filter, int batchSize, long pauseMillis,
+			RemoveProgressListener progressListener) {
+		if (batchSize <= 0) {
+			throw new MappingException("Batch size should be greater than 0");
+		}
+
+		long totalRemoved = 0;
+		while (true) {
+			int removed = remove(primaryKey, entryClass, filter, batchSize);
+			if (removed <= 0) {
+				break;
+			}
+
+			totalRemoved += removed;
+			if ((progressListener != null) && !progressListener.onProgress(removed, totalRemoved)) {
+				break;
+			}
+
+			if ((removed < batchSize) || !ThreadHelper.pause(pauseMillis)) {
+				break;
+			}
+		}
+
+		return totalRemoved;
+	}
+
 	protected abstract <T> void removeRecursivelyFromDn(String primaryKey, String[] objectClasses);
 
 	@Deprecated
 	public void removeRecursively(String primaryKey) {
 		removeRecursivelyFromDn(primaryKey, null);
+		invalidateEntryCacheSubtree(primaryKey);
 	}
 
 	@Override
@@ -501,6 +948,7 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 		}
 
 		removeRecursivelyFromDn(primaryKey, objectClasses);
+		invalidateEntryCacheSubtree(primaryKey);
 	}
 
 	@Override
@@ -535,6 +983,10 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 		List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
         Map<String, PropertyAnnotation> propertiesAnnotationsMap = prepareEntryPropertiesTypes(entryClass, propertiesAnnotations);
 
+        if (isUseEntryCache(entryClass) && entryCache.contains(primaryKey, entryClass)) {
+        	return true;
+        }
+
         try {
 			List<AttributeData> results = find(primaryKey, objectClasses, propertiesAnnotationsMap, ldapReturnAttributes);
 			return (results != null) && (results.size() > 0);
@@ -602,6 +1054,19 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 		return attributes.toArray(new String[0]);
 	}
 
+	/*
+	 * Entries with change tracking are loaded with object classes. Snapshot with object classes
+	 * is considered as snapshot of full entry
+	 */
+	protected <T> String[] getEntryReturnAttributes(Class<T> entryClass, List<PropertyAnnotation> propertiesAnnotations) {
+		String[] attributes = getAttributes(null, propertiesAnnotations, false);
+		if ((attributes == null) || !isUseEntryTrackChanges(entryClass)) {
+			return attributes;
+		}
+
+		return ArrayHelper.addItemToStringArray(attributes, OBJECT_CLASS);
+	}
+
 	protected <T> String[] getAttributes(Map<String, PropertyAnnotation> attributesMap) {
 		if (attributesMap == null) {
 			return null;
@@ -701,23 +1166,173 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 
 	private <T> T find(Class<T> entryClass, Object primaryKey, String[] ldapReturnAttributes,
 			List<PropertyAnnotation> propertiesAnnotations, Map<String, PropertyAnnotation> propertiesAnnotationsMap) {
-		Map<String, List<AttributeData>> entriesAttributes = new HashMap<String, List<AttributeData>>();
-
 		String[] currentLdapReturnAttributes = ldapReturnAttributes;
 		if (ArrayHelper.isEmpty(currentLdapReturnAttributes)) {
-			currentLdapReturnAttributes = getAttributes(null, propertiesAnnotations, false);
+			currentLdapReturnAttributes = getEntryReturnAttributes(entryClass, propertiesAnnotations);
 		}
 
-		String[] objectClasses = getTypeObjectClasses(entryClass);
-		List<AttributeData> ldapAttributes = find(primaryKey.toString(), objectClasses, propertiesAnnotationsMap, currentLdapReturnAttributes);
+		String dn = primaryKey.toString();
+		boolean useEntryCache = isUseEntryCache(entryClass);
+
+		List<AttributeData> ldapAttributes = null;
+		if (useEntryCache) {
+			ldapAttributes = entryCache.get(dn, entryClass, currentLdapReturnAttributes);
+		}
+
+		if (ldapAttributes == null) {
+			long entryCacheStamp = useEntryCache ? entryCache.getStamp() : 0;
+
+			String[] objectClasses = getTypeObjectClasses(entryClass);
+			ldapAttributes = find(dn, objectClasses, propertiesAnnotationsMap, currentLdapReturnAttributes);
+
+			if (useEntryCache) {
+				entryCache.put(dn, entryClass, currentLdapReturnAttributes, ldapAttributes, entryCacheStamp);
+			}
+		}
+
+		return createEntity(entryClass, propertiesAnnotations, dn, ldapAttributes);
+	}
+
+	private <T> T createEntity(Class<T> entryClass, List<PropertyAnnotation> propertiesAnnotations, String dn, List<AttributeData> attributes) {
+		Map<String, List<AttributeData>> entriesAttributes = new HashMap<String, List<AttributeData>>();
+		entriesAttributes.put(dn, attributes);
 
-		entriesAttributes.put(String.valueOf(primaryKey), ldapAttributes);
 		List<T> results = createEntities(entryClass, propertiesAnnotations, entriesAttributes);
 		return results.get(0);
 	}
 
 	protected abstract List<AttributeData> find(String dn, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap, String... attributes);
 
+	protected <T> CompletableFuture<T> findAsync(Object primaryKey, final Class<T> entryClass, String[] ldapReturnAttributes) {
+		if (StringHelper.isEmptyString(primaryKey)) {
+			throw new MappingException("DN to find entry is null");
+		}
+
+		checkEntryClass(entryClass, true);
+		final List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
+		Map<String, PropertyAnnotation> propertiesAnnotationsMap = prepareEntryPropertiesTypes(entryClass, propertiesAnnotations);
+
+		String[] currentLdapReturnAttributes = ldapReturnAttributes;
+		if (ArrayHelper.isEmpty(currentLdapReturnAttributes)) {
+			currentLdapReturnAttributes = getEntryReturnAttributes(entryClass, propertiesAnnotations);
+		}
+
+		final String dn = primaryKey.toString();
+		final boolean useEntryCache = isUseEntryCache(entryClass);
+		if (useEntryCache) {
+			List<AttributeData> ldapAttributes = entryCache.get(dn, entryClass, currentLdapReturnAttributes);
+			if (ldapAttributes != null) {
+				return CompletableFuture.completedFuture(createEntity(entryClass, propertiesAnnotations, dn, ldapAttributes));
+			}
+		}
+
+		final long entryCacheStamp = useEntryCache ? entryCache.getStamp() : 0;
+		final String[] finalLdapReturnAttributes = currentLdapReturnAttributes;
+
+		String[] objectClasses = getTypeObjectClasses(entryClass);
+		return findAsync(dn, objectClasses, propertiesAnnotationsMap, currentLdapReturnAttributes).thenApplyAsync(new Function<List<AttributeData>, T>() {
+			@Override
+			public T apply(List<AttributeData> ldapAttributes) {
+				if (useEntryCache) {
+					entryCache.put(dn, entryClass, finalLdapReturnAttributes, ldapAttributes, entryCacheStamp);
+				}
+
+				return createEntity(entryClass, propertiesAnnotations, dn, ldapAttributes);
+			}
+		}, getAsyncMappingExecutor());
+	}
+
+	/*
+	 * Default implementation executes find in async executor. Persistence layers with
+	 * async DB API should override it
+	 */
+	protected CompletableFuture<List<AttributeData>> findAsync(final String dn, final String[] objectClasses,
+			final Map<String, PropertyAnnotation> propertiesAnnotationsMap, final String... attributes) {
+		return BaseAsyncEntryManager.supplyAsync(new Supplier<List<AttributeData>>() {
+			@Override
+			public List<AttributeData> get() {
+				return find(dn, objectClasses, propertiesAnnotationsMap, attributes);
+			}
+		}, getAsyncExecutor());
+	}
+
+	@Override
+	public <T> Map<String, T> findByKeys(Collection<String> primaryKeys, Class<T> entryClass, String[] ldapReturnAttributes) {
+		if (primaryKeys == null) {
+			throw new MappingException("DNs to find entries is null");
+		}
+
+		checkEntryClass(entryClass, true);
+		List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
+		Map<String, PropertyAnnotation> propertiesAnnotationsMap = prepareEntryPropertiesTypes(entryClass, propertiesAnnotations);
+
+		// Remove duplicates and keep order
+		Set<String> dns = new LinkedHashSet<String>(primaryKeys.size());
+		for (String primaryKey : primaryKeys) {
+			if (StringHelper.isEmptyString(primaryKey)) {
+				throw new MappingException("DN to find entry is null");
+			}
+			dns.add(primaryKey);
+		}
+
+		if (dns.isEmpty()) {
+			return new LinkedHashMap<String, T>(0);
+		}
+
+		String[] currentLdapReturnAttributes = ldapReturnAttributes;
+		if (ArrayHelper.isEmpty(currentLdapReturnAttributes)) {
+			currentLdapReturnAttributes = getEntryReturnAttributes(entryClass, propertiesAnnotations);
+		}
+
+		String[] objectClasses = getTypeObjectClasses(entryClass);
+		Map<String, List<AttributeData>> foundEntriesAttributes = find(new ArrayList<String>(dns), objectClasses, propertiesAnnotationsMap,
+				currentLdapReturnAttributes);
+
+		// Build result in order of requested DNs
+		Map<String, List<AttributeData>> entriesAttributes = new LinkedHashMap<String, List<AttributeData>>(foundEntriesAttributes.size());
+		for (String dn : dns) {
+			List<AttributeData> attributes = foundEntriesAttributes.get(dn);
+			if (attributes != null) {
+				entriesAttributes.put(dn, attributes);
+			}
+		}
+
+		Map<String, T> result = new LinkedHashMap<String, T>(entriesAttributes.size());
+		if (entriesAttributes.isEmpty()) {
+			return result;
+		}
+
+		List<T> entries = createEntities(entryClass, propertiesAnnotations, entriesAttributes);
+
+		Iterator<String> dnsIt = entriesAttributes.keySet().iterator();
+		for (T entry : entries) {
+			result.put(dnsIt.next(), entry);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Load attributes of entries by DNs. Persistence layers should override it to load
+	 * entries with one or few requests
+	 *
+	 * @return Map of attributes by DN. Map doesn't contain entries which not exist
+	 */
+	protected Map<String, List<AttributeData>> find(List<String> dns, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap,
+			String... attributes) {
+		Map<String, List<AttributeData>> result = new HashMap<String, List<AttributeData>>(dns.size());
+		for (String dn : dns) {
+			try {
+				result.put(dn, find(dn, objectClasses, propertiesAnnotationsMap, attributes));
+			} catch (EntryPersistenceException ex) {
+				// Persistence layers throw this exception if entry not exists
+				LOG.debug("Failed to find entry: '{}'", dn, ex);
+			}
+		}
+
+		return result;
+	}
+
 	protected boolean checkEntryClass(Class<?> entryClass, boolean isAllowSchemaEntry) {
 		if (entryClass == null) {
 			throw new MappingException("Entry class is null");
@@ -765,6 +1380,43 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 		return false;
 	}
 
+	protected boolean isUseEntryCache(Class<?> entryClass) {
+		if (entryCache == null) {
+			return false;
+		}
+
+		if (entryClass == null) {
+			throw new MappingException("Entry class is null");
+		}
+
+		List<Annotation> entryAnnotations = ReflectHelper.getClassAnnotations(entryClass, LDAP_ENTRY_TYPE_ANNOTATIONS);
+
+		Annotation dataEntry = ReflectHelper.getAnnotationByType(entryAnnotations, DataEntry.class);
+		if (dataEntry == null) {
+			return false;
+		}
+
+		return ((DataEntry) dataEntry).cacheable();
+	}
+
+	protected boolean isUseEntryTrackChanges(Class<?> entryClass) {
+		if (entryClass == null) {
+			throw new MappingException("Entry class is null");
+		}
+
+		Boolean trackChanges = classTrackChanges.get(entryClass);
+		if (trackChanges == null) {
+			List<Annotation> entryAnnotations = ReflectHelper.getClassAnnotations(entryClass, LDAP_ENTRY_TYPE_ANNOTATIONS);
+
+			Annotation dataEntry = ReflectHelper.getAnnotationByType(entryAnnotations, DataEntry.class);
+			trackChanges = (dataEntry != null) && ((DataEntry) dataEntry).trackChanges() && !isUseEntryForceUpdate(entryClass);
+
+			classTrackChanges.put(entryClass, trackChanges);
+		}
+
+		return trackChanges;
+	}
+
 	protected boolean isSchemaEntry(Class<?> entryClass) {
 		if (entryClass == null) {
 			throw new MappingException("Entry class is null");
@@ -936,18 +1588,13 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 
 	protected <T> List<T> createEntities(Class<T> entryClass, List<PropertyAnnotation> propertiesAnnotations,
 			Map<String, List<AttributeData>> entriesAttributes, boolean doSort) {
-		// Check if entry has DN property
-		String dnProperty = getDNPropertyName(entryClass);
-
-		// Get DN value
-		Setter dnSetter = getSetter(entryClass, dnProperty);
-		if (dnSetter == null) {
-			throw new MappingException("Entry should has getter for property " + dnProperty);
-		}
+		EntityMapper entityMapper = getEntityMapper(entryClass, propertiesAnnotations);
 
-		// Type object classes
-		String[] typeObjectClasses = getTypeObjectClasses(entryClass);
-		Arrays.sort(typeObjectClasses);
+		String dnProperty = entityMapper.getDnProperty();
+		Setter dnSetter = entityMapper.getDnSetter();
+		String[] typeObjectClasses = entityMapper.getTypeObjectClasses();
+		PropertyMapping[] propertyMappings = entityMapper.getPropertyMappings();
+		AttributesListMapping[] attributesListMappings = entityMapper.getAttributesListMappings();
 
 		List<T> results = new ArrayList<T>(entriesAttributes.size());
 		for (Entry<String, List<AttributeData>> entryAttributes : entriesAttributes.entrySet()) {
@@ -966,154 +1613,212 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 
 			dnSetter.set(entry, dn);
 
+			if (entityMapper.isTrackChanges()) {
+				entrySnapshots.put(entry, createEntrySnapshot(dn, attributes));
+			}
+
 			// Remove processed DN attribute
 			attributesMap.remove(dnProperty);
 
 			// Set loaded properties to entry
 
 			// Process properties with AttributeName annotation
-			for (PropertyAnnotation propertiesAnnotation : propertiesAnnotations) {
-				String propertyName = propertiesAnnotation.getPropertyName();
-				Annotation ldapAttribute;
+			for (PropertyMapping propertyMapping : propertyMappings) {
+				// Remove processed attributes
+				AttributeData attributeData = attributesMap.remove(propertyMapping.getAttributeName());
+				if (propertyMapping.isIgnoreDuringRead()) {
+					continue;
+				}
 
-				ldapAttribute = ReflectHelper.getAnnotationByType(propertiesAnnotation.getAnnotations(),
-						AttributeName.class);
-				if (ldapAttribute != null) {
-					String ldapAttributeName = ((AttributeName) ldapAttribute).name();
-					if (StringHelper.isEmpty(ldapAttributeName)) {
-						ldapAttributeName = propertyName;
-					}
-					ldapAttributeName = ldapAttributeName.toLowerCase();
+				setPropertyValue(propertyMapping.getPropertyName(), propertyMapping.getSetter(), propertyMapping.getParameterType(),
+						entry, attributeData, propertyMapping.isJsonObject());
+			}
+
+			// Process properties with @AttributesList annotation
+			for (AttributesListMapping attributesListMapping : attributesListMappings) {
+				String propertyName = attributesListMapping.getPropertyName();
+				Class<?> entryItemType = attributesListMapping.getItemType();
+				Map<String, AttributeName> ldapAttributesConfiguration = attributesListMapping.getAttributesConfiguration();
+
+				List<Object> propertyValue = new ArrayList<Object>();
+				attributesListMapping.getSetter().set(entry, propertyValue);
+
+				for (AttributeData entryAttribute : attributesMap.values()) {
+					if (OBJECT_CLASS.equalsIgnoreCase(entryAttribute.getName())) {
+						String[] objectClasses = entryAttribute.getStringValues();
+						if (ArrayHelper.isEmpty(objectClasses)) {
+							continue;
+						}
 
-					AttributeData attributeData = attributesMap.get(ldapAttributeName);
+						if (customObjectClasses == null) {
+							customObjectClasses = new ArrayList<String>();
+						}
 
-					// Remove processed attributes
-					attributesMap.remove(ldapAttributeName);
+						for (String objectClass : objectClasses) {
+							int idx = Arrays.binarySearch(typeObjectClasses, objectClass, IGNORE_CASE_COMPARATOR);
+							if (idx < 0) {
+								customObjectClasses.add(objectClass);
+							}
+						}
 
-					if (((AttributeName) ldapAttribute).ignoreDuringRead()) {
 						continue;
 					}
 
-					Setter setter = getSetter(entryClass, propertyName);
-					if (setter == null) {
-						throw new MappingException("Entry should has setter for property " + propertyName);
+					AttributeName ldapAttributeConfiguration = ldapAttributesConfiguration.get(entryAttribute.getName());
+					if ((ldapAttributeConfiguration != null) && ldapAttributeConfiguration.ignoreDuringRead()) {
+						continue;
 					}
 
-					Annotation ldapJsonObject = ReflectHelper.getAnnotationByType(propertiesAnnotation.getAnnotations(),
-							JsonObject.class);
-					boolean jsonObject = ldapJsonObject != null;
+					Object listItem = getListItem(propertyName, attributesListMapping.getItemNameSetter(),
+							attributesListMapping.getItemValueSetter(), attributesListMapping.getItemValueType(),
+							attributesListMapping.getItemMultiValuedSetter(), entryItemType, entryAttribute);
+					if (listItem != null) {
+						propertyValue.add(listItem);
+					}
+				}
 
-					setPropertyValue(propertyName, setter, entry, attributeData, jsonObject);
+				if (doSort) {
+					sortAttributesListIfNeeded(attributesListMapping.getAttributesList(), entryItemType,
+							propertyValue);
 				}
 			}
 
-			// Process properties with @AttributesList annotation
-			for (PropertyAnnotation propertiesAnnotation : propertiesAnnotations) {
-				String propertyName = propertiesAnnotation.getPropertyName();
-				Annotation ldapAttribute;
-
-				ldapAttribute = ReflectHelper.getAnnotationByType(propertiesAnnotation.getAnnotations(),
-						AttributesList.class);
-				if (ldapAttribute != null) {
-					Map<String, AttributeName> ldapAttributesConfiguration = new HashMap<String, AttributeName>();
-					for (AttributeName ldapAttributeConfiguration : ((AttributesList) ldapAttribute)
-							.attributesConfiguration()) {
-						ldapAttributesConfiguration.put(ldapAttributeConfiguration.name(), ldapAttributeConfiguration);
-					}
+			if ((customObjectClasses != null) && (customObjectClasses.size() > 0)) {
+				setCustomObjectClasses(entry, entryClass, customObjectClasses.toArray(new String[0]));
+			}
+		}
 
-					Setter setter = getSetter(entryClass, propertyName);
-					if (setter == null) {
-						throw new MappingException("Entry should has setter for property " + propertyName);
-					}
+		return results;
+	}
 
-					List<Object> propertyValue = new ArrayList<Object>();
-					setter.set(entry, propertyValue);
+	protected <T> EntityMapper getEntityMapper(Class<T> entryClass, List<PropertyAnnotation> propertiesAnnotations) {
+		String key = entryClass.getName();
 
-					Class<?> entryItemType = ReflectHelper.getListType(setter);
-					if (entryItemType == null) {
-						throw new MappingException(
-								"Entry property " + propertyName + " should has setter with specified element type");
-					}
+		EntityMapper entityMapper = classMappers.get(key);
+		if ((entityMapper != null) && (entityMapper.getPropertiesAnnotations() == propertiesAnnotations)) {
+			return entityMapper;
+		}
 
-					String entryPropertyName = ((AttributesList) ldapAttribute).name();
-					Setter entryPropertyNameSetter = getSetter(entryItemType, entryPropertyName);
-					if (entryPropertyNameSetter == null) {
-						throw new MappingException(
-								"Entry should has setter for property " + propertyName + "." + entryPropertyName);
-					}
+		// Cache only mappers which were built for full list of entry properties
+		if (propertiesAnnotations != getEntryPropertyAnnotations(entryClass)) {
+			return compileEntityMapper(entryClass, propertiesAnnotations);
+		}
 
-					String entryPropertyValue = ((AttributesList) ldapAttribute).value();
-					Setter entryPropertyValueSetter = getSetter(entryItemType, entryPropertyValue);
-					if (entryPropertyValueSetter == null) {
-						throw new MappingException(
-								"Entry should has getter for property " + propertyName + "." + entryPropertyValue);
-					}
+		synchronized (CLASS_MAPPERS_LOCK) {
+			entityMapper = classMappers.get(key);
+			if (entityMapper == null) {
+				entityMapper = compileEntityMapper(entryClass, propertiesAnnotations);
+				classMappers.put(key, entityMapper);
+			}
+		}
 
-					for (AttributeData entryAttribute : attributesMap.values()) {
-						if (OBJECT_CLASS.equalsIgnoreCase(entryAttribute.getName())) {
-							String[] objectClasses = entryAttribute.getStringValues();
-							if (ArrayHelper.isEmpty(objectClasses)) {
-								continue;
-							}
+		return entityMapper;
+	}
 
-							if (customObjectClasses == null) {
-								customObjectClasses = new ArrayList<String>();
-							}
+	private <T> EntityMapper compileEntityMapper(Class<T> entryClass, List<PropertyAnnotation> propertiesAnnotations) {
+		// Check if entry has DN property
+		String dnProperty = getDNPropertyName(entryClass);
 
-							for (String objectClass : objectClasses) {
-								int idx = Arrays.binarySearch(typeObjectClasses, objectClass, new Comparator<String>() {
-									public int compare(String o1, String o2) {
-										return o1.toLowerCase().compareTo(o2.toLowerCase());
-									}
-								});
+		// Get DN value
+		Setter dnSetter = getSetter(entryClass, dnProperty);
+		if (dnSetter == null) {
+			throw new MappingException("Entry should has getter for property " + dnProperty);
+		}
 
-								if (idx < 0) {
-									customObjectClasses.add(objectClass);
-								}
-							}
+		// Type object classes
+		String[] typeObjectClasses = getTypeObjectClasses(entryClass);
+		Arrays.sort(typeObjectClasses);
 
-							continue;
-						}
+		List<PropertyMapping> propertyMappings = new ArrayList<PropertyMapping>();
+		List<AttributesListMapping> attributesListMappings = new ArrayList<AttributesListMapping>();
+		for (PropertyAnnotation propertiesAnnotation : propertiesAnnotations) {
+			String propertyName = propertiesAnnotation.getPropertyName();
 
-						AttributeName ldapAttributeConfiguration = ldapAttributesConfiguration
-								.get(entryAttribute.getName());
-						if ((ldapAttributeConfiguration != null) && ldapAttributeConfiguration.ignoreDuringRead()) {
-							continue;
-						}
+			Annotation ldapAttribute = ReflectHelper.getAnnotationByType(propertiesAnnotation.getAnnotations(),
+					AttributeName.class);
+			if (ldapAttribute != null) {
+				String ldapAttributeName = ((AttributeName) ldapAttribute).name();
+				if (StringHelper.isEmpty(ldapAttributeName)) {
+					ldapAttributeName = propertyName;
+				}
+				ldapAttributeName = ldapAttributeName.toLowerCase();
 
-						String entryPropertyMultivalued = ((AttributesList) ldapAttribute).multiValued();
-						Setter entryPropertyMultivaluedSetter = null;
-						if (StringHelper.isNotEmpty(entryPropertyMultivalued)) {
-							entryPropertyMultivaluedSetter = getSetter(entryItemType, entryPropertyMultivalued);
-						}
-						if (entryPropertyMultivaluedSetter != null) {
-							Class<?> parameterType = ReflectHelper.getSetterType(entryPropertyMultivaluedSetter);
-							if (!parameterType.equals(Boolean.TYPE)) {
-								throw new MappingException(
-										"Entry should has getter for property " + propertyName + "." + entryPropertyMultivalued + " with boolean type");
-							}
-						}
+				boolean ignoreDuringRead = ((AttributeName) ldapAttribute).ignoreDuringRead();
 
-						Object listItem = getListItem(propertyName, entryPropertyNameSetter, entryPropertyValueSetter,
-								entryPropertyMultivaluedSetter, entryItemType, entryAttribute);
-						if (listItem != null) {
-							propertyValue.add(listItem);
-						}
+				Setter setter = null;
+				Class<?> parameterType = null;
+				if (!ignoreDuringRead) {
+					setter = getSetter(entryClass, propertyName);
+					if (setter == null) {
+						throw new MappingException("Entry should has setter for property " + propertyName);
 					}
+					parameterType = ReflectHelper.getSetterType(setter);
+				}
+
+				Annotation ldapJsonObject = ReflectHelper.getAnnotationByType(propertiesAnnotation.getAnnotations(),
+						JsonObject.class);
+				boolean jsonObject = ldapJsonObject != null;
+
+				propertyMappings.add(new PropertyMapping(propertyName, ldapAttributeName, ignoreDuringRead, setter, parameterType, jsonObject));
+			}
+
+			ldapAttribute = ReflectHelper.getAnnotationByType(propertiesAnnotation.getAnnotations(),
+					AttributesList.class);
+			if (ldapAttribute != null) {
+				Map<String, AttributeName> ldapAttributesConfiguration = new HashMap<String, AttributeName>();
+				for (AttributeName ldapAttributeConfiguration : ((AttributesList) ldapAttribute)
+						.attributesConfiguration()) {
+					ldapAttributesConfiguration.put(ldapAttributeConfiguration.name(), ldapAttributeConfiguration);
+				}
+
+				Setter setter = getSetter(entryClass, propertyName);
+				if (setter == null) {
+					throw new MappingException("Entry should has setter for property " + propertyName);
+				}
+
+				Class<?> entryItemType = ReflectHelper.getListType(setter);
+				if (entryItemType == null) {
+					throw new MappingException(
+							"Entry property " + propertyName + " should has setter with specified element type");
+				}
+
+				String entryPropertyName = ((AttributesList) ldapAttribute).name();
+				Setter entryPropertyNameSetter = getSetter(entryItemType, entryPropertyName);
+				if (entryPropertyNameSetter == null) {
+					throw new MappingException(
+							"Entry should has setter for property " + propertyName + "." + entryPropertyName);
+				}
+
+				String entryPropertyValue = ((AttributesList) ldapAttribute).value();
+				Setter entryPropertyValueSetter = getSetter(entryItemType, entryPropertyValue);
+				if (entryPropertyValueSetter == null) {
+					throw new MappingException(
+							"Entry should has getter for property " + propertyName + "." + entryPropertyValue);
+				}
 
-					if (doSort) {
-						sortAttributesListIfNeeded((AttributesList) ldapAttribute, entryItemType,
-								propertyValue);
+				String entryPropertyMultivalued = ((AttributesList) ldapAttribute).multiValued();
+				Setter entryPropertyMultivaluedSetter = null;
+				if (StringHelper.isNotEmpty(entryPropertyMultivalued)) {
+					entryPropertyMultivaluedSetter = getSetter(entryItemType, entryPropertyMultivalued);
+				}
+				if (entryPropertyMultivaluedSetter != null) {
+					Class<?> parameterType = ReflectHelper.getSetterType(entryPropertyMultivaluedSetter);
+					if (!parameterType.equals(Boolean.TYPE)) {
+						throw new MappingException(
+								"Entry should has getter for property " + propertyName + "." + entryPropertyMultivalued + " with boolean type");
 					}
 				}
-			}
 
-			if ((customObjectClasses != null) && (customObjectClasses.size() > 0)) {
-				setCustomObjectClasses(entry, entryClass, customObjectClasses.toArray(new String[0]));
+				attributesListMappings.add(new AttributesListMapping(propertyName, (AttributesList) ldapAttribute,
+						ldapAttributesConfiguration, setter, entryItemType, entryPropertyNameSetter, entryPropertyValueSetter,
+						ReflectHelper.getSetterType(entryPropertyValueSetter), entryPropertyMultivaluedSetter));
 			}
 		}
 
-		return results;
+		return new EntityMapper(entryClass, propertiesAnnotations, dnProperty, dnSetter, typeObjectClasses,
+				propertyMappings.toArray(new PropertyMapping[propertyMappings.size()]),
+				attributesListMappings.toArray(new AttributesListMapping[attributesListMappings.size()]),
+				isUseEntryTrackChanges(entryClass));
 	}
 
 	@Override
@@ -1706,10 +2411,20 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 			return;
 		}
 
-		LOG.debug(String.format("LdapProperty: %s, AttributeName: %s, AttributeValue: %s", propertyName,
-				attribute.getName(), Arrays.toString(attribute.getValues())));
+		setPropertyValue(propertyName, propertyValueSetter, ReflectHelper.getSetterType(propertyValueSetter), entry, attribute, jsonObject);
+	}
+
+	private void setPropertyValue(String propertyName, Setter propertyValueSetter, Class<?> parameterType, Object entry,
+			AttributeData attribute, boolean jsonObject) {
+		if (attribute == null) {
+			return;
+		}
+
+		if (LOG.isDebugEnabled()) {
+			LOG.debug(String.format("LdapProperty: %s, AttributeName: %s, AttributeValue: %s", propertyName,
+					attribute.getName(), Arrays.toString(attribute.getValues())));
+		}
 
-		Class<?> parameterType = ReflectHelper.getSetterType(propertyValueSetter);
 		if (parameterType.equals(String.class)) {
 			Object value = attribute.getValue();
 			if (value instanceof Date) {
@@ -1859,7 +2574,7 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 	}
 
 	private Object getListItem(String propertyName, Setter propertyNameSetter, Setter propertyValueSetter,
-			Setter entryPropertyMultivaluedSetter, Class<?> classType, AttributeData attribute) {
+			Class<?> propertyValueType, Setter entryPropertyMultivaluedSetter, Class<?> classType, AttributeData attribute) {
 		if (attribute == null) {
 			return null;
 		}
@@ -1871,7 +2586,7 @@ public abstract class BaseEntryManager implements PersistenceEntryManager {
 			throw new MappingException(String.format("Entry %s should has default constructor", classType));
 		}
 		propertyNameSetter.set(result, attribute.getName());
-		setPropertyValue(propertyName, propertyValueSetter, result, attribute, false);
+		setPropertyValue(propertyName, propertyValueSetter, propertyValueType, result, attribute, false);
 		
 		if ((entryPropertyMultivaluedSetter != null) && (attribute.getMultiValued() != null)) {
 			entryPropertyMultivaluedSetter.set(result, attribute.getMultiValued());
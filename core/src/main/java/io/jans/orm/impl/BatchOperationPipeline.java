@@ -0,0 +1,134 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.impl;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import io.jans.orm.exception.EntryPersistenceException;
+import io.jans.orm.model.BatchOperation;
+
+/**
+ * Runs BatchOperation.performAction for pages in background thread. It allows to load next page
+ * while previous one is processing. Pages are processed one by one in load order.
+ * Number of loaded but not processed pages is limited by prefetch depth. If depth is 0 pages
+ * are processed in caller thread
+ *
+ * Search which loads pages by offset should call awaitActions before loading next page.
+ * Action can add or remove entries which match search filter, it shifts offsets of not loaded entries
+ */
+public class BatchOperationPipeline<T> implements AutoCloseable {
+
+	private final BatchOperation<T> batchOperation;
+	private final Executor executor;
+	private final Semaphore permits;
+
+	private CompletableFuture<Void> tail;
+
+	public BatchOperationPipeline(BatchOperation<T> batchOperation, int prefetchDepth, final Executor executor) {
+		this.batchOperation = batchOperation;
+		this.executor = (executor == null) ? null : new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				try {
+					executor.execute(command);
+				} catch (RejectedExecutionException ex) {
+					// Executor queue is full. Process page in current thread to keep pages order
+					command.run();
+				}
+			}
+		};
+		if ((prefetchDepth > 0) && (executor != null)) {
+			this.permits = new Semaphore(prefetchDepth);
+			this.tail = CompletableFuture.completedFuture(null);
+		} else {
+			this.permits = null;
+		}
+	}
+
+	public boolean isPipelined() {
+		return permits != null;
+	}
+
+	/**
+	 * Process page of entries. In pipelined mode method blocks only if there are prefetch depth
+	 * pages waiting for processing
+	 */
+	public void performAction(final List<T> entries) {
+		if (!isPipelined()) {
+			batchOperation.performAction(entries);
+			return;
+		}
+
+		// Stop loading pages after failure in batch operation
+		rethrowFailure();
+
+		try {
+			permits.acquire();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new EntryPersistenceException("Interrupted while waiting for batch operation", ex);
+		}
+
+		tail = tail.thenRunAsync(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					batchOperation.performAction(entries);
+				} finally {
+					permits.release();
+				}
+			}
+		}, executor);
+	}
+
+	/**
+	 * Wait for processing of all pages which were passed to performAction
+	 */
+	public void awaitActions() {
+		if (!isPipelined()) {
+			return;
+		}
+
+		try {
+			tail.join();
+		} catch (CompletionException ex) {
+			throw toRuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Wait for processing of all pages
+	 */
+	@Override
+	public void close() {
+		awaitActions();
+	}
+
+	private void rethrowFailure() {
+		if (tail.isCompletedExceptionally()) {
+			awaitActions();
+		}
+	}
+
+	private RuntimeException toRuntimeException(CompletionException ex) {
+		Throwable cause = ex.getCause();
+		if (cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+
+		return new EntryPersistenceException("Failed to perform batch operation", cause);
+	}
+
+}
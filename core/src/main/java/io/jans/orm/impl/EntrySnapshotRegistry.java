@@ -0,0 +1,111 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.impl;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.jans.orm.model.AttributeData;
+
+/**
+ * Weak identity side table with attributes of entries at load time. It allows to build
+ * modifications list in merge without loading entry from DB. Snapshot is removed
+ * automatically after entry become unreachable
+ */
+public class EntrySnapshotRegistry {
+
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+	private final Map<EntryReference, EntrySnapshot> snapshots = new ConcurrentHashMap<EntryReference, EntrySnapshot>();
+
+	public void put(Object entry, EntrySnapshot snapshot) {
+		expungeStaleEntries();
+
+		snapshots.put(new EntryReference(entry, queue), snapshot);
+	}
+
+	public EntrySnapshot get(Object entry) {
+		expungeStaleEntries();
+
+		return snapshots.get(new EntryReference(entry, null));
+	}
+
+	public void remove(Object entry) {
+		snapshots.remove(new EntryReference(entry, null));
+	}
+
+	public int size() {
+		expungeStaleEntries();
+
+		return snapshots.size();
+	}
+
+	private void expungeStaleEntries() {
+		Reference<? extends Object> reference;
+		while ((reference = queue.poll()) != null) {
+			snapshots.remove(reference);
+		}
+	}
+
+	/**
+	 * Attributes of entry in persistence layer format
+	 */
+	public static class EntrySnapshot {
+
+		private final String dn;
+		private final Map<String, AttributeData> attributes;
+
+		public EntrySnapshot(String dn, Map<String, AttributeData> attributes) {
+			this.dn = dn;
+			this.attributes = attributes;
+		}
+
+		public String getDn() {
+			return dn;
+		}
+
+		/**
+		 * @return Attributes map with lower case attribute names as keys
+		 */
+		public Map<String, AttributeData> getAttributes() {
+			return attributes;
+		}
+
+	}
+
+	private static class EntryReference extends WeakReference<Object> {
+
+		private final int hash;
+
+		public EntryReference(Object entry, ReferenceQueue<Object> queue) {
+			super(entry, queue);
+			this.hash = System.identityHashCode(entry);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof EntryReference)) {
+				return false;
+			}
+
+			Object entry = get();
+			return (entry != null) && (entry == ((EntryReference) obj).get());
+		}
+
+	}
+
+}
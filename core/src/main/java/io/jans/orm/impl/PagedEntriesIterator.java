@@ -0,0 +1,128 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.impl;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy iterator over entries which loads next page only after previous one was consumed.
+ * Only one page of entries is referenced by iterator at any time
+ */
+public abstract class PagedEntriesIterator<T> implements Iterator<T>, AutoCloseable {
+
+	private List<T> page;
+	private int pageIndex;
+
+	private boolean finished;
+	private boolean closed;
+	private boolean released;
+
+	/**
+	 * Load next page of entries
+	 *
+	 * @return Next page of entries. Null or empty list if there are no more entries
+	 */
+	protected abstract List<T> loadNextPage();
+
+	/**
+	 * Release resources allocated by iterator. It's called once after last page was loaded or iterator was closed
+	 */
+	protected void release() {
+	}
+
+	/**
+	 * Mark current page as last one
+	 */
+	protected void finish() {
+		this.finished = true;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (closed) {
+			return false;
+		}
+
+		while ((page == null) || (pageIndex >= page.size())) {
+			// Allow java to clean up processed page before loading next one
+			page = null;
+			if (finished) {
+				close();
+				return false;
+			}
+
+			List<T> nextPage;
+			try {
+				nextPage = loadNextPage();
+			} catch (RuntimeException ex) {
+				close();
+				throw ex;
+			}
+
+			if ((nextPage == null) || nextPage.isEmpty()) {
+				finished = true;
+			} else {
+				page = nextPage;
+				pageIndex = 0;
+			}
+
+			// Last page is in memory already, there is no need to wait for stream close
+			if (finished) {
+				releaseOnce();
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		return page.get(pageIndex++);
+	}
+
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+		page = null;
+		releaseOnce();
+	}
+
+	private void releaseOnce() {
+		if (released) {
+			return;
+		}
+
+		released = true;
+		release();
+	}
+
+	public Stream<T> stream() {
+		Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+
+		return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+			@Override
+			public void run() {
+				close();
+			}
+		});
+	}
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.impl.model;
+
+import java.util.List;
+import java.util.Map;
+
+import io.jans.orm.annotation.AttributeName;
+import io.jans.orm.annotation.AttributesList;
+import io.jans.orm.reflect.property.PropertyAnnotation;
+import io.jans.orm.reflect.property.Setter;
+
+/**
+ * Compiled read mapping of entry class. It's built once per class and allows to fill
+ * entries without scanning property annotations for each loaded row
+ */
+public class EntityMapper {
+
+	private final Class<?> entryClass;
+	private final List<PropertyAnnotation> propertiesAnnotations;
+
+	private final String dnProperty;
+	private final Setter dnSetter;
+	private final String[] typeObjectClasses;
+
+	private final PropertyMapping[] propertyMappings;
+	private final AttributesListMapping[] attributesListMappings;
+
+	private final boolean trackChanges;
+
+	public EntityMapper(Class<?> entryClass, List<PropertyAnnotation> propertiesAnnotations, String dnProperty, Setter dnSetter,
+			String[] typeObjectClasses, PropertyMapping[] propertyMappings, AttributesListMapping[] attributesListMappings,
+			boolean trackChanges) {
+		this.entryClass = entryClass;
+		this.propertiesAnnotations = propertiesAnnotations;
+		this.dnProperty = dnProperty;
+		this.dnSetter = dnSetter;
+		this.typeObjectClasses = typeObjectClasses;
+		this.propertyMappings = propertyMappings;
+		this.attributesListMappings = attributesListMappings;
+		this.trackChanges = trackChanges;
+	}
+
+	public Class<?> getEntryClass() {
+		return entryClass;
+	}
+
+	public List<PropertyAnnotation> getPropertiesAnnotations() {
+		return propertiesAnnotations;
+	}
+
+	public String getDnProperty() {
+		return dnProperty;
+	}
+
+	public Setter getDnSetter() {
+		return dnSetter;
+	}
+
+	public String[] getTypeObjectClasses() {
+		return typeObjectClasses;
+	}
+
+	public PropertyMapping[] getPropertyMappings() {
+		return propertyMappings;
+	}
+
+	public AttributesListMapping[] getAttributesListMappings() {
+		return attributesListMappings;
+	}
+
+	/**
+	 * @return True if snapshot of loaded attributes should be kept for entries
+	 */
+	public boolean isTrackChanges() {
+		return trackChanges;
+	}
+
+	/**
+	 * Mapping of property with @AttributeName annotation
+	 */
+	public static class PropertyMapping {
+
+		private final String propertyName;
+		private final String attributeName;
+		private final boolean ignoreDuringRead;
+		private final Setter setter;
+		private final Class<?> parameterType;
+		private final boolean jsonObject;
+
+		public PropertyMapping(String propertyName, String attributeName, boolean ignoreDuringRead, Setter setter,
+				Class<?> parameterType, boolean jsonObject) {
+			this.propertyName = propertyName;
+			this.attributeName = attributeName;
+			this.ignoreDuringRead = ignoreDuringRead;
+			this.setter = setter;
+			this.parameterType = parameterType;
+			this.jsonObject = jsonObject;
+		}
+
+		public String getPropertyName() {
+			return propertyName;
+		}
+
+		/**
+		 * @return Lower case attribute name
+		 */
+		public String getAttributeName() {
+			return attributeName;
+		}
+
+		public boolean isIgnoreDuringRead() {
+			return ignoreDuringRead;
+		}
+
+		public Setter getSetter() {
+			return setter;
+		}
+
+		public Class<?> getParameterType() {
+			return parameterType;
+		}
+
+		public boolean isJsonObject() {
+			return jsonObject;
+		}
+
+	}
+
+	/**
+	 * Mapping of property with @AttributesList annotation
+	 */
+	public static class AttributesListMapping {
+
+		private final String propertyName;
+		private final AttributesList attributesList;
+		private final Map<String, AttributeName> attributesConfiguration;
+		private final Setter setter;
+		private final Class<?> itemType;
+		private final Setter itemNameSetter;
+		private final Setter itemValueSetter;
+		private final Class<?> itemValueType;
+		private final Setter itemMultiValuedSetter;
+
+		public AttributesListMapping(String propertyName, AttributesList attributesList, Map<String, AttributeName> attributesConfiguration,
+				Setter setter, Class<?> itemType, Setter itemNameSetter, Setter itemValueSetter, Class<?> itemValueType,
+				Setter itemMultiValuedSetter) {
+			this.propertyName = propertyName;
+			this.attributesList = attributesList;
+			this.attributesConfiguration = attributesConfiguration;
+			this.setter = setter;
+			this.itemType = itemType;
+			this.itemNameSetter = itemNameSetter;
+			this.itemValueSetter = itemValueSetter;
+			this.itemValueType = itemValueType;
+			this.itemMultiValuedSetter = itemMultiValuedSetter;
+		}
+
+		public String getPropertyName() {
+			return propertyName;
+		}
+
+		public AttributesList getAttributesList() {
+			return attributesList;
+		}
+
+		public Map<String, AttributeName> getAttributesConfiguration() {
+			return attributesConfiguration;
+		}
+
+		public Setter getSetter() {
+			return setter;
+		}
+
+		public Class<?> getItemType() {
+			return itemType;
+		}
+
+		public Setter getItemNameSetter() {
+			return itemNameSetter;
+		}
+
+		public Setter getItemValueSetter() {
+			return itemValueSetter;
+		}
+
+		public Class<?> getItemValueType() {
+			return itemValueType;
+		}
+
+		public Setter getItemMultiValuedSetter() {
+			return itemMultiValuedSetter;
+		}
+
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.impl.model;
+
+import java.util.List;
+
+import io.jans.orm.model.AttributeData;
+
+/**
+ * Entry prepared for persist with object classes and attributes
+ */
+public class EntryToPersist {
+
+	private final Object entry;
+	private final String dn;
+	private final String[] objectClasses;
+	private final List<AttributeData> attributes;
+	private final Integer expiration;
+
+	public EntryToPersist(Object entry, String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
+		this.entry = entry;
+		this.dn = dn;
+		this.objectClasses = objectClasses;
+		this.attributes = attributes;
+		this.expiration = expiration;
+	}
+
+	public Object getEntry() {
+		return entry;
+	}
+
+	public String getDn() {
+		return dn;
+	}
+
+	public String[] getObjectClasses() {
+		return objectClasses;
+	}
+
+	public List<AttributeData> getAttributes() {
+		return attributes;
+	}
+
+	public Integer getExpiration() {
+		return expiration;
+	}
+
+	@Override
+	public String toString() {
+		return "EntryToPersist [dn=" + dn + ", attributes=" + attributes + "]";
+	}
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.impl.model;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.jans.orm.exception.MappingException;
+
+/**
+ * Keyset pagination position. It contains sort values and unique key of last returned entry
+ * and count of entries to skip after it. Position without values points to the beginning of result.
+ *
+ * Position is passed to application as encrypted continuation token. See KeysetTokenCodec
+ */
+public class KeysetPosition {
+
+	private static final ObjectMapper JSON_OBJECT_MAPPER = new ObjectMapper();
+
+	private final Object[] values;
+	private final int skip;
+
+	public KeysetPosition(Object[] values, int skip) {
+		this.values = values;
+		this.skip = skip;
+	}
+
+	public static KeysetPosition first() {
+		return new KeysetPosition(null, 0);
+	}
+
+	public Object[] getValues() {
+		return values;
+	}
+
+	public boolean hasValues() {
+		return values != null;
+	}
+
+	public int getSkip() {
+		return skip;
+	}
+
+	public static boolean isSupportedValue(Object value) {
+		return (value instanceof String) || (value instanceof Integer) || (value instanceof Long) || (value instanceof Boolean)
+				|| (value instanceof BigDecimal) || (value instanceof Date);
+	}
+
+	/**
+	 * Convert value which JDBC driver returns to type which can be stored in position
+	 *
+	 * @return Converted value or null if value can't be used as key
+	 */
+	public static Object toSupportedValue(Object value) {
+		if (isSupportedValue(value)) {
+			return value;
+		}
+
+		// MySQL driver returns DATETIME columns as LocalDateTime
+		if (value instanceof LocalDateTime) {
+			return Timestamp.valueOf((LocalDateTime) value);
+		}
+		if ((value instanceof Short) || (value instanceof Byte)) {
+			return ((Number) value).intValue();
+		}
+
+		return null;
+	}
+
+	public String toJson() {
+		ObjectNode node = JSON_OBJECT_MAPPER.createObjectNode();
+		node.put("s", skip);
+		if (values != null) {
+			ArrayNode valuesNode = node.putArray("v");
+			for (Object value : values) {
+				valuesNode.add(encodeValue(value));
+			}
+		}
+
+		return node.toString();
+	}
+
+	public static KeysetPosition fromJson(String json) {
+		try {
+			JsonNode node = JSON_OBJECT_MAPPER.readTree(json);
+
+			int skip = node.path("s").asInt(-1);
+			if (skip < 0) {
+				throw new MappingException("Invalid keyset position");
+			}
+
+			JsonNode valuesNode = node.get("v");
+			if (valuesNode == null) {
+				return new KeysetPosition(null, skip);
+			}
+
+			Object[] values = new Object[valuesNode.size()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = decodeValue(valuesNode.get(i).asText());
+			}
+
+			return new KeysetPosition(values, skip);
+		} catch (MappingException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new MappingException("Invalid keyset position", ex);
+		}
+	}
+
+	private static String encodeValue(Object value) {
+		if (value instanceof String) {
+			return "s:" + value;
+		} else if (value instanceof Integer) {
+			return "i:" + value;
+		} else if (value instanceof Long) {
+			return "l:" + value;
+		} else if (value instanceof Boolean) {
+			return "b:" + value;
+		} else if (value instanceof BigDecimal) {
+			return "d:" + value;
+		} else if (value instanceof Timestamp) {
+			// Keep nanoseconds to compare with stored value exactly
+			return "t:" + ((Timestamp) value).getTime() + ":" + ((Timestamp) value).getNanos();
+		} else if (value instanceof Date) {
+			return "t:" + ((Date) value).getTime();
+		}
+
+		throw new MappingException(String.format("Unsupported keyset value type '%s'", value == null ? null : value.getClass()));
+	}
+
+	private static Object decodeValue(String value) {
+		String type = value.substring(0, 2);
+		String text = value.substring(2);
+		switch (type) {
+		case "s:":
+			return text;
+		case "i:":
+			return Integer.valueOf(text);
+		case "l:":
+			return Long.valueOf(text);
+		case "b:":
+			return Boolean.valueOf(text);
+		case "d:":
+			return new BigDecimal(text);
+		case "t:":
+			String[] parts = text.split(":");
+			Timestamp timestamp = new Timestamp(Long.parseLong(parts[0]));
+			if (parts.length > 1) {
+				timestamp.setNanos(Integer.parseInt(parts[1]));
+			}
+			return timestamp;
+		default:
+			throw new MappingException(String.format("Unsupported keyset value '%s'", value));
+		}
+	}
+
+}
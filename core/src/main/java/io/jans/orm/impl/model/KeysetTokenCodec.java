@@ -0,0 +1,116 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.impl.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Properties;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jans.orm.exception.MappingException;
+import io.jans.orm.util.StringHelper;
+
+/**
+ * Encrypts keyset position into continuation token. Position contains sort values of last
+ * returned entry, token doesn't allow application to read or change them.
+ *
+ * Key is derived from keyset.token.key property. If it's not specified random key is used
+ * and tokens are valid only for entry manager which created them. They can't be used after
+ * restart or on another node behind load balancer
+ */
+public class KeysetTokenCodec {
+
+	private static final Logger LOG = LoggerFactory.getLogger(KeysetTokenCodec.class);
+
+	public static final String KEY_PROPERTY = "keyset.token.key";
+
+	private static final String CIPHER_ALGORITHM = "AES/GCM/NoPadding";
+	private static final int IV_LENGTH = 12;
+	private static final int TAG_LENGTH = 128;
+
+	private final SecretKeySpec key;
+	private final SecureRandom random;
+
+	public KeysetTokenCodec(byte[] key) {
+		this.key = new SecretKeySpec(key, "AES");
+		this.random = new SecureRandom();
+	}
+
+	public static KeysetTokenCodec create(Properties props) {
+		String secret = (props == null) ? null : props.getProperty(KEY_PROPERTY);
+		if (StringHelper.isEmpty(secret)) {
+			LOG.warn("Property '{}' is not specified. Continuation tokens of keyset pagination will be valid only until restart and only on this node", KEY_PROPERTY);
+
+			byte[] key = new byte[16];
+			new SecureRandom().nextBytes(key);
+
+			return new KeysetTokenCodec(key);
+		}
+
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+
+			return new KeysetTokenCodec(Arrays.copyOf(digest, 16));
+		} catch (GeneralSecurityException ex) {
+			throw new MappingException("Failed to create continuation token key", ex);
+		}
+	}
+
+	public String encode(KeysetPosition position) {
+		byte[] iv = new byte[IV_LENGTH];
+		random.nextBytes(iv);
+
+		try {
+			Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+			cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, iv));
+			byte[] encrypted = cipher.doFinal(position.toJson().getBytes(StandardCharsets.UTF_8));
+
+			byte[] token = ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array();
+
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+		} catch (GeneralSecurityException ex) {
+			throw new MappingException("Failed to create continuation token", ex);
+		}
+	}
+
+	/**
+	 * Parse continuation token. Empty token means beginning of result
+	 */
+	public KeysetPosition decode(String token) {
+		if (StringHelper.isEmpty(token)) {
+			return KeysetPosition.first();
+		}
+
+		byte[] json;
+		try {
+			byte[] data = Base64.getUrlDecoder().decode(token);
+			if (data.length <= IV_LENGTH) {
+				throw new MappingException(String.format("Invalid continuation token '%s'", token));
+			}
+
+			Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+			cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, data, 0, IV_LENGTH));
+			json = cipher.doFinal(data, IV_LENGTH, data.length - IV_LENGTH);
+		} catch (IllegalArgumentException | GeneralSecurityException ex) {
+			throw new MappingException(String.format("Invalid continuation token '%s'", token), ex);
+		}
+
+		return KeysetPosition.fromJson(new String(json, StandardCharsets.UTF_8));
+	}
+
+}
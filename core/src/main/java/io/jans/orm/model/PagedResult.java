@@ -25,6 +25,8 @@ public class PagedResult<T> implements Serializable {
 
     private List<T> entries;
 
+    private String continuationToken;
+
     public int getTotalEntriesCount() {
         return totalEntriesCount;
     }
@@ -57,4 +59,16 @@ public class PagedResult<T> implements Serializable {
         this.entries = entries;
     }
 
+    /**
+     * @return Opaque token to load next page after last returned entry or null if backend
+     *         doesn't support keyset pagination or there are no more entries
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public void setContinuationToken(String continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+
 }
@@ -0,0 +1,24 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+
+package io.jans.orm.model;
+
+/**
+ * Listener of batched entries removal progress
+ */
+public interface RemoveProgressListener {
+
+	/**
+	 * Called after each batch with removed entries
+	 *
+	 * @param removed Count of entries removed by last batch
+	 * @param totalRemoved Count of entries removed since start
+	 * @return False to stop removal
+	 */
+	boolean onProgress(int removed, long totalRemoved);
+
+}
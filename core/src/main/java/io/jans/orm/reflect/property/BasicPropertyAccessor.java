@@ -139,7 +139,7 @@ public class BasicPropertyAccessor implements PropertyAccessor {
         return createSetter(theClass, propertyName);
     }
 
-    private static Setter createSetter(Class<?> theClass, String propertyName) throws PropertyNotFoundException {
+    public static Setter createSetter(Class<?> theClass, String propertyName) throws PropertyNotFoundException {
         BasicSetter result = getSetterOrNull(theClass, propertyName);
         if (result == null) {
             throw new PropertyNotFoundException("Could not find a setter for property " + propertyName + " in class " + theClass.getName());
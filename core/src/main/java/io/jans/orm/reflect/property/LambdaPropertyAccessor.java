@@ -0,0 +1,370 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.reflect.property;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jans.orm.exception.BasePersistenceException;
+import io.jans.orm.exception.PropertyAccessException;
+import io.jans.orm.exception.PropertyNotFoundException;
+
+/**
+ * Accesses property values via a get/set pair compiled with LambdaMetafactory. It
+ * allows to call accessors without Method.invoke overhead. int, long, double and boolean
+ * properties use specialized functions. If accessor can't be compiled (non public method,
+ * class is not visible from ORM class loader, etc.) it falls back to BasicPropertyAccessor
+ */
+public class LambdaPropertyAccessor implements PropertyAccessor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LambdaPropertyAccessor.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    public interface ObjectGetterFunction {
+        Object get(Object target);
+    }
+
+    public interface IntGetterFunction {
+        int get(Object target);
+    }
+
+    public interface LongGetterFunction {
+        long get(Object target);
+    }
+
+    public interface DoubleGetterFunction {
+        double get(Object target);
+    }
+
+    public interface BooleanGetterFunction {
+        boolean get(Object target);
+    }
+
+    public interface ObjectSetterFunction {
+        void set(Object target, Object value);
+    }
+
+    public interface IntSetterFunction {
+        void set(Object target, int value);
+    }
+
+    public interface LongSetterFunction {
+        void set(Object target, long value);
+    }
+
+    public interface DoubleSetterFunction {
+        void set(Object target, double value);
+    }
+
+    public interface BooleanSetterFunction {
+        void set(Object target, boolean value);
+    }
+
+    public static final class LambdaGetter implements Getter {
+
+        private static final long serialVersionUID = -3520335813524581640L;
+
+        private final Class<?> clazz;
+        private final transient Method method;
+        private final String propertyName;
+
+        // Only one of functions is set. It allows to avoid instanceof checks on each call
+        private final transient ObjectGetterFunction objectFunction;
+        private final transient IntGetterFunction intFunction;
+        private final transient LongGetterFunction longFunction;
+        private final transient BooleanGetterFunction booleanFunction;
+        private final transient DoubleGetterFunction doubleFunction;
+
+        private LambdaGetter(Class<?> clazz, Method method, String propertyName, Object function) {
+            this.clazz = clazz;
+            this.method = method;
+            this.propertyName = propertyName;
+            this.objectFunction = (function instanceof ObjectGetterFunction) ? (ObjectGetterFunction) function : null;
+            this.intFunction = (function instanceof IntGetterFunction) ? (IntGetterFunction) function : null;
+            this.longFunction = (function instanceof LongGetterFunction) ? (LongGetterFunction) function : null;
+            this.booleanFunction = (function instanceof BooleanGetterFunction) ? (BooleanGetterFunction) function : null;
+            this.doubleFunction = (function instanceof DoubleGetterFunction) ? (DoubleGetterFunction) function : null;
+        }
+
+        public Object get(Object target) throws BasePersistenceException {
+            try {
+                if (objectFunction != null) {
+                    return objectFunction.get(target);
+                } else if (intFunction != null) {
+                    return intFunction.get(target);
+                } else if (longFunction != null) {
+                    return longFunction.get(target);
+                } else if (booleanFunction != null) {
+                    return booleanFunction.get(target);
+                } else {
+                    return doubleFunction.get(target);
+                }
+            } catch (ClassCastException cce) {
+                LOG.error("IllegalArgumentException in class: " + clazz.getName() + ", getter method of property: " + propertyName);
+                throw new PropertyAccessException(cce, "IllegalArgumentException occurred calling", false, clazz, propertyName);
+            } catch (Exception ex) {
+                throw new PropertyAccessException(ex, "Exception occurred inside", false, clazz, propertyName);
+            }
+        }
+
+        public Class<?> getReturnType() {
+            return method.getReturnType();
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public String getMethodName() {
+            return method.getName();
+        }
+
+        @Override
+        public String toString() {
+            return "LambdaGetter(" + clazz.getName() + '.' + propertyName + ')';
+        }
+
+        Object readResolve() {
+            return createGetter(clazz, propertyName);
+        }
+    }
+
+    public static final class LambdaSetter implements Setter {
+
+        private static final long serialVersionUID = 4307224693158913447L;
+
+        private final Class<?> clazz;
+        private final transient Method method;
+        private final String propertyName;
+        private final transient Setter basicSetter;
+
+        // Only one of functions is set. It allows to avoid instanceof checks on each call
+        private final transient ObjectSetterFunction objectFunction;
+        private final transient IntSetterFunction intFunction;
+        private final transient LongSetterFunction longFunction;
+        private final transient BooleanSetterFunction booleanFunction;
+        private final transient DoubleSetterFunction doubleFunction;
+
+        private LambdaSetter(Class<?> clazz, Method method, String propertyName, Object function, Setter basicSetter) {
+            this.clazz = clazz;
+            this.method = method;
+            this.propertyName = propertyName;
+            this.basicSetter = basicSetter;
+            this.objectFunction = (function instanceof ObjectSetterFunction) ? (ObjectSetterFunction) function : null;
+            this.intFunction = (function instanceof IntSetterFunction) ? (IntSetterFunction) function : null;
+            this.longFunction = (function instanceof LongSetterFunction) ? (LongSetterFunction) function : null;
+            this.booleanFunction = (function instanceof BooleanSetterFunction) ? (BooleanSetterFunction) function : null;
+            this.doubleFunction = (function instanceof DoubleSetterFunction) ? (DoubleSetterFunction) function : null;
+        }
+
+        public void set(Object target, Object value) throws BasePersistenceException {
+            try {
+                if (objectFunction != null) {
+                    objectFunction.set(target, value);
+                } else if (value == null) {
+                    throw new PropertyAccessException(null, "Null value was assigned to a property of primitive type", true, clazz,
+                            propertyName);
+                } else if ((intFunction != null) && (value instanceof Integer)) {
+                    intFunction.set(target, ((Integer) value).intValue());
+                } else if ((longFunction != null) && (value instanceof Long)) {
+                    longFunction.set(target, ((Long) value).longValue());
+                } else if ((booleanFunction != null) && (value instanceof Boolean)) {
+                    booleanFunction.set(target, ((Boolean) value).booleanValue());
+                } else if ((doubleFunction != null) && (value instanceof Double)) {
+                    doubleFunction.set(target, ((Double) value).doubleValue());
+                } else {
+                    // Let reflection apply widening conversion or report wrong value type
+                    basicSetter.set(target, value);
+                }
+            } catch (ClassCastException cce) {
+                LOG.error("IllegalArgumentException in class: " + clazz.getName() + ", setter method of property: " + propertyName);
+                LOG.error("expected type: " + method.getParameterTypes()[0].getName() + ", actual value: "
+                        + (value == null ? null : value.getClass().getName()));
+                throw new PropertyAccessException(cce, "IllegalArgumentException occurred while calling", true, clazz, propertyName);
+            } catch (BasePersistenceException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new PropertyAccessException(ex, "Exception occurred inside", true, clazz, propertyName);
+            }
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public String getMethodName() {
+            return method.getName();
+        }
+
+        @Override
+        public String toString() {
+            return "LambdaSetter(" + clazz.getName() + '.' + propertyName + ')';
+        }
+
+        Object readResolve() {
+            return createSetter(clazz, propertyName);
+        }
+    }
+
+    public Getter getGetter(Class<?> theClass, String propertyName) throws PropertyNotFoundException {
+        return createGetter(theClass, propertyName);
+    }
+
+    public Setter getSetter(Class<?> theClass, String propertyName) throws PropertyNotFoundException {
+        return createSetter(theClass, propertyName);
+    }
+
+    private static Getter createGetter(Class<?> theClass, String propertyName) throws PropertyNotFoundException {
+        Getter basicGetter = BasicPropertyAccessor.createGetter(theClass, propertyName);
+
+        Method method = basicGetter.getMethod();
+        if (!isSupportedMethod(method)) {
+            return basicGetter;
+        }
+
+        try {
+            return new LambdaGetter(theClass, method, propertyName, compileGetter(method));
+        } catch (Throwable ex) {
+            LOG.debug("Failed to compile getter for property {} in class {}. Using reflection instead", propertyName, theClass.getName(), ex);
+            return basicGetter;
+        }
+    }
+
+    private static Setter createSetter(Class<?> theClass, String propertyName) throws PropertyNotFoundException {
+        Setter basicSetter = BasicPropertyAccessor.createSetter(theClass, propertyName);
+
+        Method method = basicSetter.getMethod();
+        if (!isSupportedMethod(method)) {
+            return basicSetter;
+        }
+
+        try {
+            return new LambdaSetter(theClass, method, propertyName, compileSetter(method), basicSetter);
+        } catch (Throwable ex) {
+            LOG.debug("Failed to compile setter for property {} in class {}. Using reflection instead", propertyName, theClass.getName(), ex);
+            return basicSetter;
+        }
+    }
+
+    private static Object compileGetter(Method method) throws Throwable {
+        Class<?> declaringClass = method.getDeclaringClass();
+        Class<?> returnType = method.getReturnType();
+
+        Class<?> functionType;
+        Class<?> functionReturnType;
+        if (Integer.TYPE.equals(returnType)) {
+            functionType = IntGetterFunction.class;
+            functionReturnType = Integer.TYPE;
+        } else if (Long.TYPE.equals(returnType)) {
+            functionType = LongGetterFunction.class;
+            functionReturnType = Long.TYPE;
+        } else if (Boolean.TYPE.equals(returnType)) {
+            functionType = BooleanGetterFunction.class;
+            functionReturnType = Boolean.TYPE;
+        } else if (Double.TYPE.equals(returnType)) {
+            functionType = DoubleGetterFunction.class;
+            functionReturnType = Double.TYPE;
+        } else {
+            functionType = ObjectGetterFunction.class;
+            functionReturnType = Object.class;
+            returnType = MethodType.methodType(returnType).wrap().returnType();
+        }
+
+        MethodHandle methodHandle = LOOKUP.unreflect(method);
+        CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(functionType),
+                MethodType.methodType(functionReturnType, Object.class), methodHandle,
+                MethodType.methodType(returnType, declaringClass));
+
+        return callSite.getTarget().invoke();
+    }
+
+    private static Object compileSetter(Method method) throws Throwable {
+        Class<?> declaringClass = method.getDeclaringClass();
+        Class<?> parameterType = method.getParameterTypes()[0];
+
+        Class<?> functionType;
+        Class<?> functionParameterType;
+        if (Integer.TYPE.equals(parameterType)) {
+            functionType = IntSetterFunction.class;
+            functionParameterType = Integer.TYPE;
+        } else if (Long.TYPE.equals(parameterType)) {
+            functionType = LongSetterFunction.class;
+            functionParameterType = Long.TYPE;
+        } else if (Boolean.TYPE.equals(parameterType)) {
+            functionType = BooleanSetterFunction.class;
+            functionParameterType = Boolean.TYPE;
+        } else if (Double.TYPE.equals(parameterType)) {
+            functionType = DoubleSetterFunction.class;
+            functionParameterType = Double.TYPE;
+        } else if (parameterType.isPrimitive()) {
+            // Rare primitive types are handled by reflection to keep its conversion rules
+            throw new IllegalArgumentException("Unsupported setter parameter type: " + parameterType);
+        } else {
+            functionType = ObjectSetterFunction.class;
+            functionParameterType = Object.class;
+        }
+
+        MethodHandle methodHandle = LOOKUP.unreflect(method);
+        CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "set", MethodType.methodType(functionType),
+                MethodType.methodType(Void.TYPE, Object.class, functionParameterType), methodHandle,
+                MethodType.methodType(Void.TYPE, declaringClass, parameterType));
+
+        return callSite.getTarget().invoke();
+    }
+
+    private static boolean isSupportedMethod(Method method) {
+        if (method == null) {
+            return false;
+        }
+
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(declaringClass.getModifiers())
+                || Modifier.isStatic(method.getModifiers())) {
+            return false;
+        }
+
+        // Generated class resolves types via ORM class loader
+        if (!isVisible(declaringClass) || !isVisible(method.getReturnType())) {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isVisible(parameterType)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isVisible(Class<?> clazz) {
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+
+        if (clazz.isPrimitive()) {
+            return true;
+        }
+
+        try {
+            return Class.forName(clazz.getName(), false, LambdaPropertyAccessor.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        } catch (LinkageError ex) {
+            return false;
+        }
+    }
+
+}
@@ -27,6 +27,7 @@ import io.jans.orm.reflect.property.Setter;
 import io.jans.orm.reflect.property.BasicPropertyAccessor;
 import io.jans.orm.reflect.property.BasicPropertyAnnotationResolver;
 import io.jans.orm.reflect.property.Getter;
+import io.jans.orm.reflect.property.LambdaPropertyAccessor;
 import io.jans.orm.reflect.property.PropertyAccessor;
 
 /**
@@ -36,6 +37,7 @@ public final class ReflectHelper {
 
     private static final PropertyAccessor BASIC_PROPERTY_ACCESSOR = new BasicPropertyAccessor();
     private static final PropertyAccessor DIRECT_PROPERTY_ACCESSOR = new DirectPropertyAccessor();
+    private static final PropertyAccessor LAMBDA_PROPERTY_ACCESSOR = new LambdaPropertyAccessor();
 
     private static final BasicPropertyAnnotationResolver BASIC_PROPERTY_ANNOTATION_RESOLVER = new BasicPropertyAnnotationResolver();
 
@@ -262,8 +264,9 @@ public final class ReflectHelper {
     }
 
     /**
-     * Directly retrieve the {@link Getter} reference via the
-     * {@link BasicPropertyAccessor}.
+     * Retrieve the {@link Getter} reference via the
+     * {@link LambdaPropertyAccessor}. It falls back to {@link BasicPropertyAccessor}
+     * if accessor can't be compiled.
      *
      * @param theClass
      *            The class owning the property
@@ -274,7 +277,7 @@ public final class ReflectHelper {
      *             Indicates we were unable to locate the property.
      */
     public static Getter getGetter(Class<?> theClass, String name) throws MappingException {
-        return BASIC_PROPERTY_ACCESSOR.getGetter(theClass, name);
+        return LAMBDA_PROPERTY_ACCESSOR.getGetter(theClass, name);
     }
 
     public static Getter getMethodOrPropertyGetter(Class<?> theClass, String name) throws MappingException {
@@ -282,8 +285,9 @@ public final class ReflectHelper {
     }
 
     /**
-     * Directly retrieve the {@link Setter} reference via the
-     * {@link BasicPropertyAccessor}.
+     * Retrieve the {@link Setter} reference via the
+     * {@link LambdaPropertyAccessor}. It falls back to {@link BasicPropertyAccessor}
+     * if accessor can't be compiled.
      *
      * @param theClass
      *            The class owning the property
@@ -294,7 +298,7 @@ public final class ReflectHelper {
      *             Indicates we were unable to locate the property.
      */
     public static Setter getSetter(Class<?> theClass, String name) throws MappingException {
-        return BASIC_PROPERTY_ACCESSOR.getSetter(theClass, name);
+        return LAMBDA_PROPERTY_ACCESSOR.getSetter(theClass, name);
     }
 
     public static Setter getMethodOrPropertySetter(Class<?> theClass, String name) throws MappingException {
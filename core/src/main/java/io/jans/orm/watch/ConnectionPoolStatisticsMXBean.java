@@ -0,0 +1,47 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.watch;
+
+/**
+ * JMX view of persistence connection pool state
+ */
+public interface ConnectionPoolStatisticsMXBean {
+
+	String getBackend();
+
+	/**
+	 * @return Pool name unique within backend instance, e.g. primary or replica-1
+	 */
+	String getName();
+
+	int getNumActive();
+
+	int getNumIdle();
+
+	int getNumWaiters();
+
+	int getMaxTotal();
+
+	int getMaxIdle();
+
+	int getMinIdle();
+
+	long getMaxWaitMillis();
+
+	long getBorrowedCount();
+
+	long getCreatedCount();
+
+	long getDestroyedCount();
+
+	long getCreationErrorCount();
+
+	long getMeanBorrowWaitTimeMillis();
+
+	long getMaxBorrowWaitTimeMillis();
+
+}
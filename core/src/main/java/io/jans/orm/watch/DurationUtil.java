@@ -13,7 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simple duration calculator helper
+ * Simple duration calculator helper. Recorded durations are published to OperationMetrics
  *
  * @author Yuriy Movchan Date: 02/07/2019
  */
@@ -36,4 +36,46 @@ public abstract class DurationUtil {
 
     public abstract void logDebug(String format, Object... arguments);
 
+    /**
+     * Start measurement of operation. Operation which is not recorded before timer close is recorded as failed
+     *
+     * @param operation Operation name
+     * @param target Table or bucket name. Null if backend has no such notion
+     */
+    public OperationTimer start(String operation, String target) {
+        return new OperationTimer(this, operation, target);
+    }
+
+    /**
+     * @return Persistence layer type which is used as metrics key
+     */
+    public abstract String getBackend();
+
+    public void record(String operation, String target, Duration duration) {
+        record(operation, target, duration, 0);
+    }
+
+    /**
+     * Record successful operation
+     *
+     * @param operation Operation name
+     * @param target Table or bucket name. Null if backend has no such notion
+     * @param duration Operation duration
+     * @param rows Number of returned rows
+     */
+    public void record(String operation, String target, Duration duration, long rows) {
+        OperationMetrics.instance().record(getBackend(), operation, target, duration.toNanos(), rows);
+    }
+
+    public void recordError(String operation, String target) {
+        OperationMetrics.instance().recordError(getBackend(), operation, target);
+    }
+
+    /**
+     * Remove recorded statistics of backend and their MBeans
+     */
+    public void removeStatistics() {
+        OperationMetrics.instance().removeStatistics(getBackend());
+    }
+
 }
\ No newline at end of file
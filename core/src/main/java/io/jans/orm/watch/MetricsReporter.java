@@ -0,0 +1,32 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.watch;
+
+import java.util.Collection;
+
+/**
+ * Reporter of persistence operation statistics. Implementations listed in
+ * META-INF/services/io.jans.orm.watch.MetricsReporter are registered automatically
+ */
+public interface MetricsReporter {
+
+	/**
+	 * Called periodically after OperationMetrics.startReporting
+	 *
+	 * @param statistics Current statistics of all recorded operations
+	 */
+	void report(Collection<OperationStatistics> statistics);
+
+	/**
+	 * Called periodically after OperationMetrics.startReporting
+	 *
+	 * @param connectionPools Current state of all registered connection pools
+	 */
+	default void reportConnectionPools(Collection<ConnectionPoolStatisticsMXBean> connectionPools) {
+	}
+
+}
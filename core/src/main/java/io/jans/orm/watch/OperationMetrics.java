@@ -0,0 +1,331 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.watch;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jans.orm.util.StringHelper;
+
+/**
+ * Registry of persistence operation statistics keyed by backend, operation and table or bucket
+ * and of backend connection pools. Statistics are exposed as JMX MBeans and to registered reporters.
+ *
+ * Recording can be disabled with -Djans.orm.metrics.enabled=false and JMX registration
+ * with -Djans.orm.metrics.jmx=false
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+	private static final Logger LOG = LoggerFactory.getLogger(OperationMetrics.class);
+
+	public static final String JMX_DOMAIN = "io.jans.orm";
+
+	private static final OperationMetrics INSTANCE = new OperationMetrics();
+
+	private final ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<String, OperationStatistics>>> statistics;
+	private final ConcurrentMap<OperationStatistics, ObjectName> statisticsNames;
+	private final List<ConnectionPoolStatisticsMXBean> connectionPools;
+	private final ConcurrentMap<ConnectionPoolStatisticsMXBean, ObjectName> connectionPoolNames;
+	private final AtomicInteger connectionPoolIds;
+	private final List<MetricsReporter> reporters;
+
+	private volatile boolean enabled;
+	private final boolean jmxEnabled;
+
+	private ScheduledExecutorService reportingExecutor;
+
+	private OperationMetrics() {
+		this.statistics = new ConcurrentHashMap<String, ConcurrentMap<String, ConcurrentMap<String, OperationStatistics>>>();
+		this.statisticsNames = new ConcurrentHashMap<OperationStatistics, ObjectName>();
+		this.connectionPools = new CopyOnWriteArrayList<ConnectionPoolStatisticsMXBean>();
+		this.connectionPoolNames = new ConcurrentHashMap<ConnectionPoolStatisticsMXBean, ObjectName>();
+		this.connectionPoolIds = new AtomicInteger();
+		this.reporters = new CopyOnWriteArrayList<MetricsReporter>();
+
+		this.enabled = !"false".equalsIgnoreCase(System.getProperty("jans.orm.metrics.enabled"));
+		this.jmxEnabled = !"false".equalsIgnoreCase(System.getProperty("jans.orm.metrics.jmx"));
+
+		if (jmxEnabled) {
+			registerMBean(this, new String[] { "type", "OperationMetrics" });
+		}
+
+		try {
+			for (MetricsReporter reporter : ServiceLoader.load(MetricsReporter.class)) {
+				reporters.add(reporter);
+			}
+		} catch (Throwable ex) {
+			LOG.error("Failed to load metrics reporters", ex);
+		}
+	}
+
+	public static OperationMetrics instance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Record successful operation
+	 *
+	 * @param backend Persistence layer type
+	 * @param operation Operation name
+	 * @param target Table or bucket name. Null if backend has no such notion
+	 * @param durationNanos Operation duration
+	 * @param rows Number of returned rows
+	 */
+	public void record(String backend, String operation, String target, long durationNanos, long rows) {
+		if (!enabled) {
+			return;
+		}
+
+		getStatistics(backend, operation, target).record(durationNanos, rows);
+	}
+
+	public void recordError(String backend, String operation, String target) {
+		if (!enabled) {
+			return;
+		}
+
+		getStatistics(backend, operation, target).recordError();
+	}
+
+	public OperationStatistics getStatistics(String backend, String operation, String target) {
+		String statisticsTarget = (target == null) ? "" : target;
+
+		// Nested maps allow to find statistics without building composite key
+		ConcurrentMap<String, ConcurrentMap<String, OperationStatistics>> backendStatistics = statistics.get(backend);
+		if (backendStatistics == null) {
+			backendStatistics = new ConcurrentHashMap<String, ConcurrentMap<String, OperationStatistics>>();
+			ConcurrentMap<String, ConcurrentMap<String, OperationStatistics>> existing = statistics.putIfAbsent(backend, backendStatistics);
+			if (existing != null) {
+				backendStatistics = existing;
+			}
+		}
+
+		ConcurrentMap<String, OperationStatistics> operationStatistics = backendStatistics.get(operation);
+		if (operationStatistics == null) {
+			operationStatistics = new ConcurrentHashMap<String, OperationStatistics>();
+			ConcurrentMap<String, OperationStatistics> existing = backendStatistics.putIfAbsent(operation, operationStatistics);
+			if (existing != null) {
+				operationStatistics = existing;
+			}
+		}
+
+		OperationStatistics result = operationStatistics.get(statisticsTarget);
+		if (result == null) {
+			result = new OperationStatistics(backend, operation, statisticsTarget);
+			OperationStatistics existing = operationStatistics.putIfAbsent(statisticsTarget, result);
+			if (existing != null) {
+				result = existing;
+			} else if (jmxEnabled) {
+				ObjectName objectName = registerMBean(result, new String[] { "type", "OperationStatistics", "backend", backend, "operation", operation, "target", statisticsTarget });
+				if (objectName != null) {
+					statisticsNames.put(result, objectName);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	public Collection<OperationStatistics> getStatistics() {
+		List<OperationStatistics> result = new ArrayList<OperationStatistics>();
+		for (ConcurrentMap<String, ConcurrentMap<String, OperationStatistics>> backendStatistics : statistics.values()) {
+			for (ConcurrentMap<String, OperationStatistics> operationStatistics : backendStatistics.values()) {
+				result.addAll(operationStatistics.values());
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Remove backend statistics and unregister their MBeans. Should be called when entry managers
+	 * of backend are not used anymore, e.g. on entry manager factory destroy
+	 */
+	public void removeStatistics(String backend) {
+		ConcurrentMap<String, ConcurrentMap<String, OperationStatistics>> backendStatistics = statistics.remove(backend);
+		if (backendStatistics == null) {
+			return;
+		}
+
+		for (ConcurrentMap<String, OperationStatistics> operationStatistics : backendStatistics.values()) {
+			for (OperationStatistics operationStatistic : operationStatistics.values()) {
+				unregisterMBean(statisticsNames.remove(operationStatistic));
+			}
+		}
+	}
+
+	/**
+	 * Register connection pool. Pool should be unregistered after close
+	 */
+	public void registerConnectionPool(ConnectionPoolStatisticsMXBean connectionPool) {
+		connectionPools.add(connectionPool);
+
+		if (jmxEnabled) {
+			// Few entry managers with same backend can exist in one JVM
+			String id = String.valueOf(connectionPoolIds.incrementAndGet());
+			ObjectName objectName = registerMBean(connectionPool, new String[] { "type", "ConnectionPool", "backend", connectionPool.getBackend(),
+					"name", connectionPool.getName(), "id", id });
+			if (objectName != null) {
+				connectionPoolNames.put(connectionPool, objectName);
+			}
+		}
+	}
+
+	public void unregisterConnectionPool(ConnectionPoolStatisticsMXBean connectionPool) {
+		connectionPools.remove(connectionPool);
+
+		unregisterMBean(connectionPoolNames.remove(connectionPool));
+	}
+
+	public Collection<ConnectionPoolStatisticsMXBean> getConnectionPools() {
+		return new ArrayList<ConnectionPoolStatisticsMXBean>(connectionPools);
+	}
+
+	@Override
+	public int getOperationStatisticsCount() {
+		return getStatistics().size();
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public void reset() {
+		for (OperationStatistics operationStatistics : getStatistics()) {
+			operationStatistics.reset();
+		}
+	}
+
+	public void addReporter(MetricsReporter reporter) {
+		reporters.add(reporter);
+	}
+
+	public void removeReporter(MetricsReporter reporter) {
+		reporters.remove(reporter);
+	}
+
+	public List<MetricsReporter> getReporters() {
+		return reporters;
+	}
+
+	/**
+	 * Start calling registered reporters with specified period
+	 */
+	public synchronized void startReporting(long period, TimeUnit unit) {
+		stopReporting();
+
+		this.reportingExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "orm-metrics-reporter");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		this.reportingExecutor.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				report();
+			}
+		}, period, period, unit);
+	}
+
+	public synchronized void stopReporting() {
+		if (this.reportingExecutor != null) {
+			this.reportingExecutor.shutdownNow();
+			this.reportingExecutor = null;
+		}
+	}
+
+	public void report() {
+		Collection<OperationStatistics> currentStatistics = getStatistics();
+		Collection<ConnectionPoolStatisticsMXBean> currentConnectionPools = getConnectionPools();
+		for (MetricsReporter reporter : reporters) {
+			try {
+				reporter.report(currentStatistics);
+				reporter.reportConnectionPools(currentConnectionPools);
+			} catch (RuntimeException ex) {
+				LOG.error("Metrics reporter '{}' failed", reporter, ex);
+			}
+		}
+	}
+
+	private ObjectName registerMBean(Object mbean, String[] properties) {
+		StringBuilder name = new StringBuilder(JMX_DOMAIN).append(':');
+		for (int i = 0; i < properties.length; i += 2) {
+			if (StringHelper.isEmpty(properties[i + 1])) {
+				continue;
+			}
+			if (i > 0) {
+				name.append(',');
+			}
+			name.append(properties[i]).append('=').append(toObjectNameValue(properties[i + 1]));
+		}
+
+		try {
+			MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName(name.toString());
+			if (!mbeanServer.isRegistered(objectName)) {
+				mbeanServer.registerMBean(mbean, objectName);
+				return objectName;
+			}
+		} catch (JMException | RuntimeException ex) {
+			LOG.warn("Failed to register MBean '{}'", name, ex);
+		}
+
+		return null;
+	}
+
+	private void unregisterMBean(ObjectName objectName) {
+		if (objectName == null) {
+			return;
+		}
+
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException | RuntimeException ex) {
+			LOG.warn("Failed to unregister MBean '{}'", objectName, ex);
+		}
+	}
+
+	private static String toObjectNameValue(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (",=:\"*?\n".indexOf(value.charAt(i)) >= 0) {
+				return ObjectName.quote(value);
+			}
+		}
+
+		return value;
+	}
+
+}
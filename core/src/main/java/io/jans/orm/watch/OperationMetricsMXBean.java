@@ -0,0 +1,22 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.watch;
+
+/**
+ * JMX management interface of persistence operation metrics
+ */
+public interface OperationMetricsMXBean {
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	int getOperationStatisticsCount();
+
+	void reset();
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.watch;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, rows and errors statistics of one operation type
+ */
+public class OperationStatistics implements OperationStatisticsMXBean {
+
+	private final String backend;
+	private final String operation;
+	private final String target;
+
+	private final LatencyHistogram histogram = new LatencyHistogram();
+	private final LongAdder rows = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+
+	public OperationStatistics(String backend, String operation, String target) {
+		this.backend = backend;
+		this.operation = operation;
+		this.target = target;
+	}
+
+	public void record(long durationNanos, long rowCount) {
+		histogram.record(durationNanos / 1000);
+		if (rowCount > 0) {
+			rows.add(rowCount);
+		}
+	}
+
+	public void recordError() {
+		errors.increment();
+	}
+
+	@Override
+	public String getBackend() {
+		return backend;
+	}
+
+	@Override
+	public String getOperation() {
+		return operation;
+	}
+
+	/**
+	 * @return Table or bucket name. Empty string if backend has no such notion
+	 */
+	@Override
+	public String getTarget() {
+		return target;
+	}
+
+	public LatencyHistogram getHistogram() {
+		return histogram;
+	}
+
+	@Override
+	public long getCount() {
+		return histogram.getCount();
+	}
+
+	@Override
+	public long getErrorCount() {
+		return errors.sum();
+	}
+
+	@Override
+	public long getRowCount() {
+		return rows.sum();
+	}
+
+	@Override
+	public double getMeanMillis() {
+		return histogram.getMean() / 1000;
+	}
+
+	@Override
+	public double getMaxMillis() {
+		return histogram.getMax() / 1000.0;
+	}
+
+	@Override
+	public double get50thPercentileMillis() {
+		return histogram.getValueAtPercentile(50) / 1000.0;
+	}
+
+	@Override
+	public double get95thPercentileMillis() {
+		return histogram.getValueAtPercentile(95) / 1000.0;
+	}
+
+	@Override
+	public double get99thPercentileMillis() {
+		return histogram.getValueAtPercentile(99) / 1000.0;
+	}
+
+	@Override
+	public void reset() {
+		histogram.reset();
+		rows.reset();
+		errors.reset();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OperationStatistics [backend=%s, operation=%s, target=%s, count=%d, errors=%d, rows=%d, mean=%.3fms, p50=%.3fms, p95=%.3fms, p99=%.3fms, max=%.3fms]",
+				backend, operation, target, getCount(), getErrorCount(), getRowCount(), getMeanMillis(), get50thPercentileMillis(),
+				get95thPercentileMillis(), get99thPercentileMillis(), getMaxMillis());
+	}
+
+}
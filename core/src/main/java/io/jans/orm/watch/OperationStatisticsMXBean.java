@@ -0,0 +1,38 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.watch;
+
+/**
+ * JMX view of persistence operation statistics
+ */
+public interface OperationStatisticsMXBean {
+
+	String getBackend();
+
+	String getOperation();
+
+	String getTarget();
+
+	long getCount();
+
+	long getErrorCount();
+
+	long getRowCount();
+
+	double getMeanMillis();
+
+	double getMaxMillis();
+
+	double get50thPercentileMillis();
+
+	double get95thPercentileMillis();
+
+	double get99thPercentileMillis();
+
+	void reset();
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.watch;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Measures one operation. It should be used in try-with-resources block: operation which
+ * was not recorded as successful before block end is recorded as failed
+ */
+public class OperationTimer implements AutoCloseable {
+
+	private final DurationUtil durationUtil;
+	private final String operation;
+	private final String target;
+	private final Instant startTime;
+
+	private boolean recorded;
+
+	public OperationTimer(DurationUtil durationUtil, String operation, String target) {
+		this.durationUtil = durationUtil;
+		this.operation = operation;
+		this.target = target;
+		this.startTime = durationUtil.now();
+	}
+
+	public Duration record() {
+		return record(0);
+	}
+
+	/**
+	 * Record successful operation
+	 *
+	 * @param rows Number of returned rows
+	 * @return Operation duration
+	 */
+	public Duration record(long rows) {
+		Duration duration = durationUtil.duration(startTime);
+
+		this.recorded = true;
+		durationUtil.record(operation, target, duration, rows);
+
+		return duration;
+	}
+
+	@Override
+	public void close() {
+		if (!recorded) {
+			durationUtil.recordError(operation, target);
+		}
+	}
+
+}
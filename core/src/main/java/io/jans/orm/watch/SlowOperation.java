@@ -0,0 +1,80 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.watch;
+
+/**
+ * Details of one operation which are collected while it runs and are logged if operation
+ * was slower than configured threshold
+ */
+public class SlowOperation {
+
+	private final String operation;
+	private final String target;
+
+	private String query;
+	private Object parameters;
+	private long rows = -1;
+	private int pages;
+	private String explain;
+
+	public SlowOperation(String operation, String target) {
+		this.operation = operation;
+		this.target = target;
+	}
+
+	public String getOperation() {
+		return operation;
+	}
+
+	public String getTarget() {
+		return target;
+	}
+
+	public String getQuery() {
+		return query;
+	}
+
+	/**
+	 * Set last executed query. Each call is counted as one page
+	 *
+	 * @param query Final query text
+	 * @param parameters List or map of bound parameters. Null if query has no parameters
+	 */
+	public void setQuery(String query, Object parameters) {
+		this.query = query;
+		this.parameters = parameters;
+		this.pages++;
+	}
+
+	public Object getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * @return Number of returned rows. -1 if it's unknown
+	 */
+	public long getRows() {
+		return rows;
+	}
+
+	public void setRows(long rows) {
+		this.rows = rows;
+	}
+
+	public int getPages() {
+		return pages;
+	}
+
+	public String getExplain() {
+		return explain;
+	}
+
+	public void setExplain(String explain) {
+		this.explain = explain;
+	}
+
+}
@@ -0,0 +1,250 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.watch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jans.orm.util.StringHelper;
+
+/**
+ * Logs one structured record for operations which take longer than configured threshold.
+ * Thresholds are defined in backend properties in milliseconds:
+ *
+ * slowOperation.threshold: default threshold for all operations
+ * slowOperation.threshold.[operation]: threshold for specific operation, e.g. slowOperation.threshold.search
+ * slowOperation.redactParameters: log only types of bound parameters. Default: true
+ * slowOperation.explain: add query plan to record if backend supports it. Default: false
+ *
+ * Supported operations: search (count requests too), lookup, add, modify, delete
+ * Query plan is built in separate thread after operation finished. Records which are waiting
+ * for query plan when queue is full are logged without it
+ *
+ * Slow operation log is disabled if there are no thresholds
+ */
+public class SlowOperationLog {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SlowOperationLog.class);
+
+	public static final String THRESHOLD_PROPERTY = "slowOperation.threshold";
+	public static final String REDACT_PARAMETERS_PROPERTY = "slowOperation.redactParameters";
+	public static final String EXPLAIN_PROPERTY = "slowOperation.explain";
+
+	private static final int EXPLAIN_QUEUE_SIZE = 16;
+
+	private final String backend;
+	private final long defaultThreshold;
+	private final Map<String, Long> thresholds;
+	private final boolean redactParameters;
+	private final boolean explain;
+
+	private ThreadPoolExecutor explainExecutor;
+
+	public SlowOperationLog(String backend, long defaultThreshold, Map<String, Long> thresholds, boolean redactParameters, boolean explain) {
+		this.backend = backend;
+		this.defaultThreshold = defaultThreshold;
+		this.thresholds = thresholds;
+		this.redactParameters = redactParameters;
+		this.explain = explain;
+	}
+
+	public static SlowOperationLog create(String backend, Properties props) {
+		long defaultThreshold = -1;
+		Map<String, Long> thresholds = new HashMap<String, Long>();
+		boolean redactParameters = true;
+		boolean explain = false;
+
+		if (props != null) {
+			String thresholdPrefix = THRESHOLD_PROPERTY + ".";
+			for (String propertyName : props.stringPropertyNames()) {
+				if (propertyName.startsWith(thresholdPrefix)) {
+					thresholds.put(propertyName.substring(thresholdPrefix.length()), Long.valueOf(StringHelper.toInteger(props.getProperty(propertyName), -1)));
+				}
+			}
+
+			defaultThreshold = StringHelper.toInteger(props.getProperty(THRESHOLD_PROPERTY), -1);
+			redactParameters = StringHelper.toBoolean(props.getProperty(REDACT_PARAMETERS_PROPERTY), true);
+			explain = StringHelper.toBoolean(props.getProperty(EXPLAIN_PROPERTY), false);
+		}
+
+		return new SlowOperationLog(backend, defaultThreshold, thresholds, redactParameters, explain);
+	}
+
+	/**
+	 * Start collecting operation details
+	 *
+	 * @return Operation details holder. Null if there is no threshold for this operation
+	 */
+	public SlowOperation start(String operation, String target) {
+		if (getThreshold(operation) < 0) {
+			return null;
+		}
+
+		return new SlowOperation(operation, target);
+	}
+
+	public boolean isSlow(SlowOperation slowOperation, Duration duration) {
+		if (slowOperation == null) {
+			return false;
+		}
+
+		long threshold = getThreshold(slowOperation.getOperation());
+
+		return (threshold >= 0) && (duration.toMillis() >= threshold);
+	}
+
+	public boolean isExplain() {
+		return explain;
+	}
+
+	/**
+	 * Log operation without query details if it was slower than threshold
+	 */
+	public void logIfSlow(String operation, String target, Duration duration, long rows) {
+		SlowOperation slowOperation = start(operation, target);
+		if (isSlow(slowOperation, duration)) {
+			slowOperation.setRows(rows);
+			log(slowOperation, duration);
+		}
+	}
+
+	public void log(SlowOperation slowOperation, Duration duration) {
+		LOG.warn(toLogRecord(slowOperation, duration));
+	}
+
+	/**
+	 * Log operation with query plan. Query plan is built asynchronously if it's enabled
+	 */
+	public void log(final SlowOperation slowOperation, final Duration duration, final Explainer explainer) {
+		if (!explain || (explainer == null)) {
+			log(slowOperation, duration);
+			return;
+		}
+
+		try {
+			getExplainExecutor().execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						slowOperation.setExplain(explainer.explain(slowOperation));
+					} catch (RuntimeException ex) {
+						LOG.warn("Failed to explain query: '{}'", slowOperation.getQuery(), ex);
+					}
+					log(slowOperation, duration);
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			log(slowOperation, duration);
+		}
+	}
+
+	public String toLogRecord(SlowOperation slowOperation, Duration duration) {
+		StringBuilder record = new StringBuilder();
+		record.append("Slow ").append(backend).append(" operation: ").append(slowOperation.getOperation());
+		record.append(", duration: ").append(duration.toMillis()).append(" ms");
+		record.append(", target: ").append(slowOperation.getTarget());
+		record.append(", rows: ").append(slowOperation.getRows());
+		record.append(", pages: ").append(slowOperation.getPages());
+		record.append(", query: '").append(slowOperation.getQuery()).append("'");
+		record.append(", parameters: ").append(toLogParameters(slowOperation.getParameters()));
+		if (slowOperation.getExplain() != null) {
+			record.append(", explain:\n").append(slowOperation.getExplain());
+		}
+
+		return record.toString();
+	}
+
+	public synchronized void destroy() {
+		if (explainExecutor != null) {
+			explainExecutor.shutdownNow();
+			explainExecutor = null;
+		}
+	}
+
+	private synchronized ThreadPoolExecutor getExplainExecutor() {
+		if (explainExecutor == null) {
+			explainExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(EXPLAIN_QUEUE_SIZE),
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable runnable) {
+							Thread thread = new Thread(runnable, "ORM-" + backend + "-slow-operation-explain");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+		}
+
+		return explainExecutor;
+	}
+
+	private long getThreshold(String operation) {
+		Long threshold = thresholds.get(operation);
+		if (threshold == null) {
+			return defaultThreshold;
+		}
+
+		return threshold;
+	}
+
+	private Object toLogParameters(Object parameters) {
+		if (!redactParameters || (parameters == null)) {
+			return parameters;
+		}
+
+		if (parameters instanceof Map) {
+			Map<Object, Object> result = new LinkedHashMap<Object, Object>();
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) parameters).entrySet()) {
+				result.put(entry.getKey(), redact(entry.getValue()));
+			}
+
+			return result;
+		}
+
+		if (parameters instanceof Collection) {
+			List<Object> result = new ArrayList<Object>();
+			for (Object parameter : (Collection<?>) parameters) {
+				result.add(redact(parameter));
+			}
+
+			return result;
+		}
+
+		return redact(parameters);
+	}
+
+	private String redact(Object value) {
+		if (value == null) {
+			return "null";
+		}
+
+		return "<" + value.getClass().getSimpleName() + ">";
+	}
+
+	/**
+	 * Builds query plan of slow operation
+	 */
+	public interface Explainer {
+
+		String explain(SlowOperation slowOperation);
+
+	}
+
+}
@@ -0,0 +1,174 @@
+package io.jans.orm.cache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import io.jans.orm.cache.LruEntryCache;
+import io.jans.orm.model.AttributeData;
+
+public class LruEntryCacheTest {
+
+	private static final String PEOPLE_DN = "ou=people,o=jans";
+	private static final String PERSON_DN = "inum=1,ou=people,o=jans";
+	private static final String[] ATTRIBUTES = { "uid" };
+
+	@Test
+	public void checkPutAndGet() {
+		LruEntryCache cache = new LruEntryCache(10, 0);
+		List<AttributeData> attributes = uid("user1");
+		cache.put(PERSON_DN, Person.class, ATTRIBUTES, attributes, cache.getStamp());
+
+		// Cache keeps own copy of values
+		attributes.get(0).getValues()[0] = "changed";
+
+		List<AttributeData> cached = cache.get("INUM=1,ou=people,o=jans", Person.class, new String[] { "uid" });
+		assertEquals(cached.get(0).getValue(), "user1");
+		assertTrue(cache.contains(PERSON_DN, Person.class));
+
+		assertNull(cache.get(PERSON_DN, Person.class, null));
+		assertNull(cache.get(PERSON_DN, Group.class, ATTRIBUTES));
+		assertFalse(cache.contains(PERSON_DN, Group.class));
+	}
+
+	@Test
+	public void checkStalePutAfterInvalidate() {
+		LruEntryCache cache = new LruEntryCache(10, 0);
+
+		long stamp = cache.getStamp();
+		cache.invalidate(PERSON_DN);
+		cache.put(PERSON_DN, Person.class, ATTRIBUTES, uid("user1"), stamp);
+
+		assertNull(cache.get(PERSON_DN, Person.class, ATTRIBUTES));
+
+		cache.put(PERSON_DN, Person.class, ATTRIBUTES, uid("user1"), cache.getStamp());
+		assertNotNull(cache.get(PERSON_DN, Person.class, ATTRIBUTES));
+	}
+
+	@Test
+	public void checkPutAfterInvalidateOtherEntry() {
+		LruEntryCache cache = new LruEntryCache(10, 0);
+
+		// Writes of other entries don't reject loaded entry
+		long stamp = cache.getStamp();
+		for (int i = 2; i < 100; i++) {
+			cache.invalidate(String.format("inum=%d,ou=people,o=jans", i));
+		}
+		cache.put(PERSON_DN, Person.class, ATTRIBUTES, uid("user1"), stamp);
+
+		assertNotNull(cache.get(PERSON_DN, Person.class, ATTRIBUTES));
+	}
+
+	@Test
+	public void checkStalePutAfterManyInvalidations() {
+		LruEntryCache cache = new LruEntryCache(10, 0);
+
+		// Invalidation is remembered even if there were more invalidations than cache tracks
+		long stamp = cache.getStamp();
+		cache.invalidate(PERSON_DN);
+		for (int i = 2; i < 10000; i++) {
+			cache.invalidate(String.format("inum=%d,ou=people,o=jans", i));
+		}
+		cache.put(PERSON_DN, Person.class, ATTRIBUTES, uid("user1"), stamp);
+
+		assertNull(cache.get(PERSON_DN, Person.class, ATTRIBUTES));
+	}
+
+	@Test
+	public void checkStalePutAfterInvalidateSubtreeClassAndClear() {
+		LruEntryCache cache = new LruEntryCache(10, 0);
+
+		long stamp = cache.getStamp();
+		cache.invalidateSubtree("ou=groups,o=jans");
+		cache.put(PERSON_DN, Person.class, ATTRIBUTES, uid("user1"), stamp);
+		assertNull(cache.get(PERSON_DN, Person.class, ATTRIBUTES));
+
+		stamp = cache.getStamp();
+		cache.invalidate(Group.class);
+		cache.put(PERSON_DN, Person.class, ATTRIBUTES, uid("user1"), stamp);
+		assertNull(cache.get(PERSON_DN, Person.class, ATTRIBUTES));
+
+		stamp = cache.getStamp();
+		cache.clear();
+		cache.put(PERSON_DN, Person.class, ATTRIBUTES, uid("user1"), stamp);
+		assertNull(cache.get(PERSON_DN, Person.class, ATTRIBUTES));
+	}
+
+	@Test
+	public void checkInvalidateSubtree() {
+		LruEntryCache cache = new LruEntryCache(100, 0);
+		String[] dns = { PEOPLE_DN, PERSON_DN, "uid=1,inum=1,ou=people,o=jans", "ou=people2,o=jans", "inum=1,ou=otherpeople,o=jans", "o=jans" };
+		for (String dn : dns) {
+			cache.put(dn, Person.class, ATTRIBUTES, uid(dn), cache.getStamp());
+		}
+
+		cache.invalidateSubtree("OU=People,o=jans");
+
+		assertNull(cache.get(PEOPLE_DN, Person.class, ATTRIBUTES));
+		assertNull(cache.get(PERSON_DN, Person.class, ATTRIBUTES));
+		assertNull(cache.get("uid=1,inum=1,ou=people,o=jans", Person.class, ATTRIBUTES));
+
+		assertNotNull(cache.get("ou=people2,o=jans", Person.class, ATTRIBUTES));
+		assertNotNull(cache.get("inum=1,ou=otherpeople,o=jans", Person.class, ATTRIBUTES));
+		assertNotNull(cache.get("o=jans", Person.class, ATTRIBUTES));
+		assertEquals(cache.size(), 3);
+	}
+
+	@Test
+	public void checkInvalidateClass() {
+		LruEntryCache cache = new LruEntryCache(100, 0);
+		cache.put(PERSON_DN, Person.class, ATTRIBUTES, uid("user1"), cache.getStamp());
+		cache.put(PERSON_DN, Person.class, null, uid("user1"), cache.getStamp());
+		cache.put(PERSON_DN, Group.class, ATTRIBUTES, uid("group1"), cache.getStamp());
+		cache.put("inum=2,ou=people,o=jans", Person.class, ATTRIBUTES, uid("user2"), cache.getStamp());
+
+		cache.invalidate(Person.class);
+
+		assertNull(cache.get(PERSON_DN, Person.class, ATTRIBUTES));
+		assertNull(cache.get(PERSON_DN, Person.class, null));
+		assertNull(cache.get("inum=2,ou=people,o=jans", Person.class, ATTRIBUTES));
+		assertEquals(cache.get(PERSON_DN, Group.class, ATTRIBUTES).get(0).getValue(), "group1");
+
+		// DNs without cached entries are removed
+		assertEquals(cache.size(), 1);
+	}
+
+	@Test
+	public void checkLruEviction() {
+		LruEntryCache cache = new LruEntryCache(1, 0);
+		cache.put(PERSON_DN, Person.class, ATTRIBUTES, uid("user1"), cache.getStamp());
+		cache.put("inum=2,ou=people,o=jans", Person.class, ATTRIBUTES, uid("user2"), cache.getStamp());
+
+		assertNull(cache.get(PERSON_DN, Person.class, ATTRIBUTES));
+		assertNotNull(cache.get("inum=2,ou=people,o=jans", Person.class, ATTRIBUTES));
+	}
+
+	@Test
+	public void checkMaxSize() {
+		LruEntryCache cache = new LruEntryCache(50, 0);
+		for (int i = 0; i < 1000; i++) {
+			cache.put(String.format("inum=%d,ou=people,o=jans", i), Person.class, ATTRIBUTES, uid("user" + i), cache.getStamp());
+		}
+
+		assertTrue(cache.size() <= 50, "Size: " + cache.size());
+		assertNotNull(cache.get("inum=999,ou=people,o=jans", Person.class, ATTRIBUTES));
+	}
+
+	private List<AttributeData> uid(String uid) {
+		return Arrays.asList(new AttributeData("uid", uid));
+	}
+
+	private static class Person {
+	}
+
+	private static class Group {
+	}
+
+}
@@ -0,0 +1,268 @@
+package io.jans.orm.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.jans.orm.exception.EntryPersistenceException;
+import io.jans.orm.impl.BatchOperationPipeline;
+import io.jans.orm.model.BatchOperation;
+
+public class BatchOperationPipelineTest {
+
+	private ExecutorService executor;
+
+	@BeforeMethod
+	public void init() {
+		this.executor = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterMethod
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void checkCallerThreadWithoutPrefetch() {
+		RecordingBatchOperation batchOperation = new RecordingBatchOperation(null);
+
+		try (BatchOperationPipeline<Integer> pipeline = new BatchOperationPipeline<Integer>(batchOperation, 0, executor)) {
+			assertFalse(pipeline.isPipelined());
+			pipeline.performAction(Arrays.asList(1, 2));
+
+			assertEquals(batchOperation.getThreads(), Collections.singletonList(Thread.currentThread()));
+		}
+	}
+
+	@Test
+	public void checkPagesOrder() {
+		RecordingBatchOperation batchOperation = new RecordingBatchOperation(null);
+
+		try (BatchOperationPipeline<Integer> pipeline = new BatchOperationPipeline<Integer>(batchOperation, 2, executor)) {
+			assertTrue(pipeline.isPipelined());
+			for (int i = 0; i < 50; i++) {
+				pipeline.performAction(Arrays.asList(i));
+			}
+		}
+
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < 50; i++) {
+			expected.add(i);
+		}
+		assertEquals(batchOperation.getEntries(), expected);
+	}
+
+	@Test
+	public void checkRejectedPage() {
+		RecordingBatchOperation batchOperation = new RecordingBatchOperation(null);
+		Executor rejectingExecutor = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				throw new RejectedExecutionException("Queue is full");
+			}
+		};
+
+		try (BatchOperationPipeline<Integer> pipeline = new BatchOperationPipeline<Integer>(batchOperation, 2, rejectingExecutor)) {
+			pipeline.performAction(Arrays.asList(1));
+			pipeline.performAction(Arrays.asList(2));
+		}
+
+		// Rejected pages are processed in current thread
+		assertEquals(batchOperation.getEntries(), Arrays.asList(1, 2));
+		assertEquals(batchOperation.getThreads(), Arrays.asList(Thread.currentThread(), Thread.currentThread()));
+	}
+
+	@Test
+	public void checkBackPressure() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		RecordingBatchOperation batchOperation = new RecordingBatchOperation(release);
+
+		final BatchOperationPipeline<Integer> pipeline = new BatchOperationPipeline<Integer>(batchOperation, 2, executor);
+
+		// Two pages can wait for processing, third one blocks caller
+		pipeline.performAction(Arrays.asList(1));
+		pipeline.performAction(Arrays.asList(2));
+
+		ExecutorService caller = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> third = caller.submit(new Runnable() {
+				@Override
+				public void run() {
+					pipeline.performAction(Arrays.asList(3));
+				}
+			});
+
+			try {
+				third.get(200, TimeUnit.MILLISECONDS);
+				fail("Page should wait until previous pages are processed");
+			} catch (TimeoutException ex) {
+				// Expected
+			}
+
+			release.countDown();
+			third.get(10, TimeUnit.SECONDS);
+		} finally {
+			caller.shutdownNow();
+		}
+
+		pipeline.close();
+		assertEquals(batchOperation.getEntries(), Arrays.asList(1, 2, 3));
+	}
+
+	@Test
+	public void checkAwaitActions() {
+		RecordingBatchOperation batchOperation = new RecordingBatchOperation(null);
+
+		try (BatchOperationPipeline<Integer> pipeline = new BatchOperationPipeline<Integer>(batchOperation, 4, executor)) {
+			pipeline.performAction(Arrays.asList(1));
+			pipeline.performAction(Arrays.asList(2));
+			pipeline.awaitActions();
+
+			assertEquals(batchOperation.getEntries(), Arrays.asList(1, 2));
+		}
+	}
+
+	@Test
+	public void checkFailureInClose() {
+		FailingBatchOperation batchOperation = new FailingBatchOperation(1);
+
+		BatchOperationPipeline<Integer> pipeline = new BatchOperationPipeline<Integer>(batchOperation, 4, executor);
+		pipeline.performAction(Arrays.asList(1));
+
+		try {
+			pipeline.close();
+			fail("Failure of batch action should be thrown from close");
+		} catch (IllegalStateException ex) {
+			assertEquals(ex.getMessage(), "Failed page: 1");
+		}
+	}
+
+	@Test
+	public void checkStopAfterFailure() {
+		FailingBatchOperation batchOperation = new FailingBatchOperation(1);
+
+		BatchOperationPipeline<Integer> pipeline = new BatchOperationPipeline<Integer>(batchOperation, 4, executor);
+		pipeline.performAction(Arrays.asList(1));
+		try {
+			pipeline.awaitActions();
+			fail("Failure of batch action should be thrown");
+		} catch (IllegalStateException ex) {
+			// Expected
+		}
+
+		try {
+			pipeline.performAction(Arrays.asList(2));
+			fail("Pipeline should not accept pages after failure");
+		} catch (IllegalStateException ex) {
+			assertEquals(ex.getMessage(), "Failed page: 1");
+		}
+		assertEquals(batchOperation.getCalls(), 1);
+	}
+
+	@Test
+	public void checkErrorInClose() {
+		BatchOperation<Integer> batchOperation = new RecordingBatchOperation(null) {
+			@Override
+			public void performAction(List<Integer> entries) {
+				throw new AssertionError("Unexpected");
+			}
+		};
+
+		BatchOperationPipeline<Integer> pipeline = new BatchOperationPipeline<Integer>(batchOperation, 1, executor);
+		pipeline.performAction(Arrays.asList(1));
+
+		try {
+			pipeline.close();
+			fail("Error should be thrown from close");
+		} catch (AssertionError ex) {
+			assertEquals(ex.getMessage(), "Unexpected");
+		} catch (EntryPersistenceException ex) {
+			fail("Error should be rethrown as is");
+		}
+	}
+
+	private static class RecordingBatchOperation implements BatchOperation<Integer> {
+
+		private final CountDownLatch release;
+		private final List<Integer> entries = Collections.synchronizedList(new ArrayList<Integer>());
+		private final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+
+		RecordingBatchOperation(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public boolean collectSearchResult(int size) {
+			return false;
+		}
+
+		@Override
+		public void performAction(List<Integer> entries) {
+			if (release != null) {
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			this.threads.add(Thread.currentThread());
+			this.entries.addAll(entries);
+		}
+
+		public List<Integer> getEntries() {
+			return new ArrayList<Integer>(entries);
+		}
+
+		public List<Thread> getThreads() {
+			return new ArrayList<Thread>(threads);
+		}
+
+	}
+
+	private static class FailingBatchOperation implements BatchOperation<Integer> {
+
+		private final int failedPage;
+		private volatile int calls;
+
+		FailingBatchOperation(int failedPage) {
+			this.failedPage = failedPage;
+		}
+
+		@Override
+		public boolean collectSearchResult(int size) {
+			return false;
+		}
+
+		@Override
+		public void performAction(List<Integer> entries) {
+			calls++;
+			if (entries.contains(failedPage)) {
+				throw new IllegalStateException("Failed page: " + failedPage);
+			}
+		}
+
+		public int getCalls() {
+			return calls;
+		}
+
+	}
+
+}
@@ -0,0 +1,107 @@
+package io.jans.orm.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+
+import io.jans.orm.exception.MappingException;
+import io.jans.orm.impl.model.KeysetPosition;
+import io.jans.orm.impl.model.KeysetTokenCodec;
+
+public class KeysetTokenCodecTest {
+
+	@Test
+	public void checkRoundTrip() {
+		KeysetTokenCodec codec = KeysetTokenCodec.create(new Properties());
+
+		Timestamp timestamp = Timestamp.valueOf("2026-10-17 10:20:30.123456789");
+		KeysetPosition position = new KeysetPosition(new Object[] { "user1@example.org", 5, 7L, true, timestamp }, 3);
+
+		KeysetPosition decoded = codec.decode(codec.encode(position));
+		assertEquals(decoded.getSkip(), 3);
+		assertEquals(decoded.getValues(), new Object[] { "user1@example.org", 5, 7L, true, timestamp });
+	}
+
+	@Test
+	public void checkEmptyToken() {
+		KeysetTokenCodec codec = KeysetTokenCodec.create(new Properties());
+
+		KeysetPosition position = codec.decode(null);
+		assertFalse(position.hasValues());
+		assertEquals(position.getSkip(), 0);
+	}
+
+	@Test
+	public void checkValuesAreNotVisible() {
+		KeysetTokenCodec codec = KeysetTokenCodec.create(new Properties());
+
+		KeysetPosition position = new KeysetPosition(new Object[] { "user1@example.org" }, 0);
+		String token = codec.encode(position);
+
+		String data = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.ISO_8859_1);
+		assertFalse(data.contains("user1"), data);
+
+		// Each token uses own IV
+		assertNotEquals(codec.encode(position), token);
+	}
+
+	@Test
+	public void checkSharedKey() {
+		Properties props = new Properties();
+		props.setProperty(KeysetTokenCodec.KEY_PROPERTY, "secret");
+
+		String token = KeysetTokenCodec.create(props).encode(new KeysetPosition(new Object[] { "user1" }, 0));
+		assertEquals(KeysetTokenCodec.create(props).decode(token).getValues(), new Object[] { "user1" });
+
+		try {
+			KeysetTokenCodec.create(new Properties()).decode(token);
+			fail("Token should be rejected by codec with another key");
+		} catch (MappingException ex) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void checkTamperedToken() {
+		KeysetTokenCodec codec = KeysetTokenCodec.create(new Properties());
+
+		byte[] data = Base64.getUrlDecoder().decode(codec.encode(new KeysetPosition(new Object[] { 10 }, 0)));
+		data[data.length - 1] ^= 1;
+
+		try {
+			codec.decode(Base64.getUrlEncoder().withoutPadding().encodeToString(data));
+			fail("Modified token should be rejected");
+		} catch (MappingException ex) {
+			// Expected
+		}
+
+		try {
+			codec.decode("not a token");
+			fail("Invalid token should be rejected");
+		} catch (MappingException ex) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void checkSupportedValue() {
+		LocalDateTime dateTime = LocalDateTime.of(2026, 10, 17, 10, 20, 30, 123000000);
+
+		assertEquals(KeysetPosition.toSupportedValue(dateTime), Timestamp.valueOf(dateTime));
+		assertEquals(KeysetPosition.toSupportedValue(Short.valueOf((short) 1)), 1);
+		assertEquals(KeysetPosition.toSupportedValue("user1"), "user1");
+		assertNull(KeysetPosition.toSupportedValue(new byte[] { 1 }));
+		assertNull(KeysetPosition.toSupportedValue(null));
+	}
+
+}
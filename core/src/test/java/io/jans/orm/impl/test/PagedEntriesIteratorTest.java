@@ -0,0 +1,150 @@
+package io.jans.orm.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.testng.annotations.Test;
+
+import io.jans.orm.impl.PagedEntriesIterator;
+
+public class PagedEntriesIteratorTest {
+
+	@Test
+	public void checkLazyPages() {
+		TestIterator iterator = new TestIterator(Arrays.asList(1, 2), Arrays.asList(3, 4), Arrays.asList(5));
+
+		assertEquals(iterator.next(), Integer.valueOf(1));
+		assertEquals(iterator.getLoadedPages(), 1);
+		iterator.next();
+		assertEquals(iterator.getLoadedPages(), 1);
+		iterator.next();
+		assertEquals(iterator.getLoadedPages(), 2);
+		iterator.close();
+	}
+
+	@Test
+	public void checkReleaseAfterLastPageLoaded() {
+		TestIterator iterator = new TestIterator(Arrays.asList(1, 2), Arrays.asList(3));
+		iterator.setFinishOnLastPage(true);
+
+		iterator.next();
+		iterator.next();
+		assertEquals(iterator.getReleases(), 0);
+
+		// Last page is loaded, resources are not needed to read it
+		assertEquals(iterator.next(), Integer.valueOf(3));
+		assertEquals(iterator.getReleases(), 1);
+
+		assertFalse(iterator.hasNext());
+		iterator.close();
+		assertEquals(iterator.getReleases(), 1);
+	}
+
+	@Test
+	public void checkReleaseAfterEmptyPage() {
+		TestIterator iterator = new TestIterator(Arrays.asList(1, 2));
+
+		iterator.next();
+		iterator.next();
+		assertEquals(iterator.getReleases(), 0);
+
+		assertFalse(iterator.hasNext());
+		assertEquals(iterator.getReleases(), 1);
+	}
+
+	@Test
+	public void checkReleaseOnStreamClose() {
+		TestIterator iterator = new TestIterator(Arrays.asList(1, 2), Arrays.asList(3, 4));
+
+		try (Stream<Integer> stream = iterator.stream()) {
+			assertEquals(stream.limit(1).collect(Collectors.toList()), Collections.singletonList(1));
+			assertEquals(iterator.getReleases(), 0);
+		}
+
+		assertEquals(iterator.getReleases(), 1);
+		assertFalse(iterator.hasNext());
+		assertEquals(iterator.getLoadedPages(), 1);
+	}
+
+	@Test
+	public void checkReleaseOnFailure() {
+		TestIterator iterator = new TestIterator(Arrays.asList(1), null);
+
+		iterator.next();
+		try {
+			iterator.hasNext();
+			fail("Page load failure should be thrown");
+		} catch (IllegalStateException ex) {
+			// Expected
+		}
+
+		assertEquals(iterator.getReleases(), 1);
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void checkStreamAll() {
+		TestIterator iterator = new TestIterator(Arrays.asList(1, 2), Arrays.asList(3, 4), Arrays.asList(5));
+
+		assertEquals(iterator.stream().collect(Collectors.toList()), Arrays.asList(1, 2, 3, 4, 5));
+		assertEquals(iterator.getReleases(), 1);
+	}
+
+	private static class TestIterator extends PagedEntriesIterator<Integer> {
+
+		private final List<List<Integer>> pages;
+		private boolean finishOnLastPage;
+		private int loadedPages;
+		private int releases;
+
+		@SafeVarargs
+		TestIterator(List<Integer>... pages) {
+			this.pages = new ArrayList<List<Integer>>(Arrays.asList(pages));
+		}
+
+		@Override
+		protected List<Integer> loadNextPage() {
+			if (loadedPages >= pages.size()) {
+				return null;
+			}
+
+			List<Integer> page = pages.get(loadedPages++);
+			if (page == null) {
+				throw new IllegalStateException("Failed to load page");
+			}
+
+			if (finishOnLastPage && (loadedPages == pages.size())) {
+				finish();
+			}
+
+			return page;
+		}
+
+		@Override
+		protected void release() {
+			releases++;
+		}
+
+		public void setFinishOnLastPage(boolean finishOnLastPage) {
+			this.finishOnLastPage = finishOnLastPage;
+		}
+
+		public int getLoadedPages() {
+			return loadedPages;
+		}
+
+		public int getReleases() {
+			return releases;
+		}
+
+	}
+
+}
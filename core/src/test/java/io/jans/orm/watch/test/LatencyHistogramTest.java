@@ -0,0 +1,102 @@
+package io.jans.orm.watch.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import io.jans.orm.watch.LatencyHistogram;
+
+public class LatencyHistogramTest {
+
+	private static final long MAX_VALUE = 3600L * 1000 * 1000;
+
+	@Test
+	public void checkEmpty() {
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		assertEquals(histogram.getCount(), 0);
+		assertEquals(histogram.getMax(), 0);
+		assertEquals(histogram.getMean(), 0.0);
+		assertEquals(histogram.getValueAtPercentile(50), 0);
+	}
+
+	@Test
+	public void checkExactSmallValues() {
+		for (long value = 0; value < 32; value++) {
+			LatencyHistogram histogram = new LatencyHistogram();
+			histogram.record(value);
+			histogram.record(MAX_VALUE);
+
+			// Small values have own bucket
+			assertEquals(histogram.getValueAtPercentile(50), value);
+		}
+	}
+
+	@Test
+	public void checkRelativeError() {
+		for (long value = 32; value < MAX_VALUE; value = value * 3 / 2 + 1) {
+			LatencyHistogram histogram = new LatencyHistogram();
+			histogram.record(value);
+			histogram.record(MAX_VALUE);
+
+			long result = histogram.getValueAtPercentile(50);
+			assertTrue(result >= value, "Value: " + value + ", result: " + result);
+			assertTrue(result <= value + value / 16, "Value: " + value + ", result: " + result);
+		}
+	}
+
+	@Test
+	public void checkPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value = 1; value <= 1000; value++) {
+			histogram.record(value);
+		}
+
+		assertEquals(histogram.getCount(), 1000);
+		assertEquals(histogram.getMean(), 500.5);
+
+		long p50 = histogram.getValueAtPercentile(50);
+		assertTrue((p50 >= 500) && (p50 <= 531), "p50: " + p50);
+
+		long p99 = histogram.getValueAtPercentile(99);
+		assertTrue((p99 >= 990) && (p99 <= 1000), "p99: " + p99);
+	}
+
+	@Test
+	public void checkPercentileLimitedByMax() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(1000);
+
+		// Bucket upper bound is 1023
+		assertEquals(histogram.getValueAtPercentile(100), 1000);
+		assertEquals(histogram.getValueAtPercentile(150), 1000);
+	}
+
+	@Test
+	public void checkOutOfRangeValues() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+		assertEquals(histogram.getValueAtPercentile(100), 0);
+
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(histogram.getMax(), MAX_VALUE);
+		assertEquals(histogram.getValueAtPercentile(100), MAX_VALUE);
+	}
+
+	@Test
+	public void checkReset() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(10);
+		histogram.record(100);
+		histogram.reset();
+
+		assertEquals(histogram.getCount(), 0);
+		assertEquals(histogram.getMax(), 0);
+		assertEquals(histogram.getValueAtPercentile(100), 0);
+
+		histogram.record(7);
+		assertEquals(histogram.getValueAtPercentile(100), 7);
+	}
+
+}
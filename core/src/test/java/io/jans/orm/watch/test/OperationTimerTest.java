@@ -0,0 +1,94 @@
+package io.jans.orm.watch.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import io.jans.orm.watch.DurationUtil;
+import io.jans.orm.watch.OperationMetrics;
+import io.jans.orm.watch.OperationStatistics;
+import io.jans.orm.watch.OperationTimer;
+
+public class OperationTimerTest {
+
+	private static final DurationUtil DURATION_UTIL = new DurationUtil() {
+		@Override
+		public void logDebug(String format, Object... arguments) {
+		}
+
+		@Override
+		public String getBackend() {
+			return "TimerTest";
+		}
+	};
+
+	@AfterMethod
+	public void removeStatistics() {
+		DURATION_UTIL.removeStatistics();
+	}
+
+	@Test
+	public void checkRecordedOperation() {
+		try (OperationTimer timer = DURATION_UTIL.start("lookup", "jansPerson")) {
+			timer.record(1);
+		}
+
+		OperationStatistics statistics = getStatistics("lookup", "jansPerson");
+		assertEquals(statistics.getCount(), 1);
+		assertEquals(statistics.getRowCount(), 1);
+		assertEquals(statistics.getErrorCount(), 0);
+	}
+
+	@Test
+	public void checkFailedOperation() {
+		try (OperationTimer timer = DURATION_UTIL.start("lookup", "jansPerson")) {
+			throw new IllegalStateException("Lookup failed");
+		} catch (IllegalStateException ex) {
+			// Expected
+		}
+
+		OperationStatistics statistics = getStatistics("lookup", "jansPerson");
+		assertEquals(statistics.getCount(), 0);
+		assertEquals(statistics.getErrorCount(), 1);
+	}
+
+	@Test
+	public void checkRemoveStatistics() throws MalformedObjectNameException {
+		try (OperationTimer timer = DURATION_UTIL.start("search", "jansPerson")) {
+			timer.record(5);
+		}
+
+		ObjectName objectName = new ObjectName(OperationMetrics.JMX_DOMAIN + ":type=OperationStatistics,backend=TimerTest,operation=search,target=jansPerson");
+		assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+
+		DURATION_UTIL.removeStatistics();
+
+		assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+		for (OperationStatistics statistics : OperationMetrics.instance().getStatistics()) {
+			if ("TimerTest".equals(statistics.getBackend())) {
+				fail("Statistics should be removed: " + statistics);
+			}
+		}
+	}
+
+	private OperationStatistics getStatistics(String operation, String target) {
+		for (OperationStatistics statistics : OperationMetrics.instance().getStatistics()) {
+			if ("TimerTest".equals(statistics.getBackend()) && operation.equals(statistics.getOperation()) && target.equals(statistics.getTarget())) {
+				return statistics;
+			}
+		}
+
+		fail(String.format("Statistics '%s' for '%s' not found", operation, target));
+		return null;
+	}
+
+}
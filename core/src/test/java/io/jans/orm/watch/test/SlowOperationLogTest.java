@@ -0,0 +1,157 @@
+package io.jans.orm.watch.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.testng.annotations.Test;
+
+import io.jans.orm.watch.SlowOperation;
+import io.jans.orm.watch.SlowOperationLog;
+
+public class SlowOperationLogTest {
+
+	@Test
+	public void checkDisabledWithoutThreshold() {
+		SlowOperationLog slowOperationLog = SlowOperationLog.create("Test", new Properties());
+
+		assertNull(slowOperationLog.start("search", "jansPerson"));
+		assertNull(slowOperationLog.start("add", "jansPerson"));
+		assertFalse(slowOperationLog.isSlow(null, Duration.ofSeconds(10)));
+	}
+
+	@Test
+	public void checkOperationThreshold() {
+		Properties props = new Properties();
+		props.setProperty(SlowOperationLog.THRESHOLD_PROPERTY + ".lookup", "100");
+
+		SlowOperationLog slowOperationLog = SlowOperationLog.create("Test", props);
+		assertNull(slowOperationLog.start("search", "jansPerson"));
+
+		SlowOperation slowOperation = slowOperationLog.start("lookup", "jansPerson");
+		assertNotNull(slowOperation);
+		assertFalse(slowOperationLog.isSlow(slowOperation, Duration.ofMillis(99)));
+		assertTrue(slowOperationLog.isSlow(slowOperation, Duration.ofMillis(100)));
+	}
+
+	@Test
+	public void checkLogIfSlow() {
+		CapturingSlowOperationLog slowOperationLog = new CapturingSlowOperationLog(100, Collections.singletonMap("modify", -1L), false);
+
+		slowOperationLog.logIfSlow("add", "jansPerson", Duration.ofMillis(50), -1);
+		assertNull(slowOperationLog.getRecord());
+
+		slowOperationLog.logIfSlow("modify", "jansPerson", Duration.ofMillis(500), -1);
+		assertNull(slowOperationLog.getRecord());
+
+		slowOperationLog.logIfSlow("delete", "jansPerson", Duration.ofMillis(150), -1);
+		assertEquals(slowOperationLog.getRecord(), "Slow Test operation: delete, duration: 150 ms, target: jansPerson, rows: -1, pages: 0, query: 'null', parameters: null");
+	}
+
+	@Test
+	public void checkRedactParameters() {
+		Properties props = new Properties();
+		props.setProperty(SlowOperationLog.THRESHOLD_PROPERTY, "0");
+
+		SlowOperationLog slowOperationLog = SlowOperationLog.create("Test", props);
+
+		SlowOperation slowOperation = slowOperationLog.start("search", "jansPerson");
+		slowOperation.setQuery("select * from jansPerson where uid = ? and age > ?", Arrays.asList("secret_user", 20));
+		slowOperation.setRows(1);
+
+		String record = slowOperationLog.toLogRecord(slowOperation, Duration.ofMillis(10));
+		assertEquals(record, "Slow Test operation: search, duration: 10 ms, target: jansPerson, rows: 1, pages: 1, query: 'select * from jansPerson where uid = ? and age > ?', parameters: [<String>, <Integer>]");
+	}
+
+	@Test
+	public void checkNotRedactedParameters() {
+		Properties props = new Properties();
+		props.setProperty(SlowOperationLog.THRESHOLD_PROPERTY, "0");
+		props.setProperty(SlowOperationLog.REDACT_PARAMETERS_PROPERTY, "false");
+
+		SlowOperationLog slowOperationLog = SlowOperationLog.create("Test", props);
+
+		SlowOperation slowOperation = slowOperationLog.start("search", "jansPerson");
+		slowOperation.setQuery("select * from jansPerson where uid = ?", Arrays.asList("user1"));
+
+		String record = slowOperationLog.toLogRecord(slowOperation, Duration.ofMillis(10));
+		assertTrue(record.endsWith("parameters: [user1]"), record);
+	}
+
+	@Test
+	public void checkExplainOnSeparateThread() throws InterruptedException {
+		CapturingSlowOperationLog slowOperationLog = new CapturingSlowOperationLog(0, Collections.<String, Long>emptyMap(), true);
+		try {
+			SlowOperation slowOperation = slowOperationLog.start("search", "jansPerson");
+			slowOperation.setQuery("select * from jansPerson", null);
+
+			final AtomicReference<Thread> explainThread = new AtomicReference<Thread>();
+			slowOperationLog.log(slowOperation, Duration.ofMillis(10), new SlowOperationLog.Explainer() {
+				@Override
+				public String explain(SlowOperation slowOperation) {
+					explainThread.set(Thread.currentThread());
+					return "full scan";
+				}
+			});
+
+			assertTrue(slowOperationLog.await());
+			assertNotEquals(explainThread.get(), Thread.currentThread());
+			assertTrue(slowOperationLog.getRecord().endsWith("explain:\nfull scan"), slowOperationLog.getRecord());
+		} finally {
+			slowOperationLog.destroy();
+		}
+	}
+
+	@Test
+	public void checkExplainDisabled() {
+		CapturingSlowOperationLog slowOperationLog = new CapturingSlowOperationLog(0, Collections.<String, Long>emptyMap(), false);
+
+		SlowOperation slowOperation = slowOperationLog.start("search", "jansPerson");
+		slowOperationLog.log(slowOperation, Duration.ofMillis(10), new SlowOperationLog.Explainer() {
+			@Override
+			public String explain(SlowOperation slowOperation) {
+				throw new IllegalStateException("Explain is disabled");
+			}
+		});
+
+		assertFalse(slowOperationLog.getRecord().contains("explain"));
+	}
+
+	private static class CapturingSlowOperationLog extends SlowOperationLog {
+
+		private final CountDownLatch logged = new CountDownLatch(1);
+		private volatile String record;
+
+		CapturingSlowOperationLog(long defaultThreshold, Map<String, Long> thresholds, boolean explain) {
+			super("Test", defaultThreshold, thresholds, true, explain);
+		}
+
+		@Override
+		public void log(SlowOperation slowOperation, Duration duration) {
+			this.record = toLogRecord(slowOperation, duration);
+			logged.countDown();
+		}
+
+		public boolean await() throws InterruptedException {
+			return logged.await(10, TimeUnit.SECONDS);
+		}
+
+		public String getRecord() {
+			return record;
+		}
+
+	}
+
+}
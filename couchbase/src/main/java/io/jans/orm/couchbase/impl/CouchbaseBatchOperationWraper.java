@@ -8,6 +8,7 @@ package io.jans.orm.couchbase.impl;
 
 import com.couchbase.client.java.document.json.JsonObject;
 import com.couchbase.client.java.query.N1qlQueryRow;
+import io.jans.orm.impl.BatchOperationPipeline;
 import io.jans.orm.model.BatchOperation;
 import io.jans.orm.reflect.property.PropertyAnnotation;
 
@@ -43,6 +44,14 @@ public class CouchbaseBatchOperationWraper<T> {
         return batchOperation;
     }
 
+    public BatchOperationPipeline<T> createBatchOperationPipeline() {
+        if (couchbaseEntryManager == null) {
+            return new BatchOperationPipeline<T>(batchOperation, 0, null);
+        }
+
+        return couchbaseEntryManager.createBatchOperationPipeline(batchOperation);
+    }
+
     public List<T> createEntities(List<N1qlQueryRow> searchResult) {
         if (couchbaseEntryManager == null) {
             return new ArrayList<T>(0);
@@ -7,6 +7,7 @@
 package io.jans.orm.couchbase.impl;
 
 import com.couchbase.client.core.message.kv.subdoc.multi.Mutation;
+import com.couchbase.client.java.document.JsonDocument;
 import com.couchbase.client.java.document.json.JsonArray;
 import com.couchbase.client.java.document.json.JsonObject;
 import com.couchbase.client.java.query.consistency.ScanConsistency;
@@ -27,6 +28,7 @@ import io.jans.orm.exception.MappingException;
 import io.jans.orm.exception.operation.SearchException;
 import io.jans.orm.impl.BaseEntryManager;
 import io.jans.orm.impl.GenericKeyConverter;
+import io.jans.orm.impl.model.EntryToPersist;
 import io.jans.orm.impl.model.ParsedKey;
 import io.jans.orm.model.AttributeData;
 import io.jans.orm.model.AttributeDataModification;
@@ -39,6 +41,7 @@ import io.jans.orm.model.SortOrder;
 import io.jans.orm.reflect.property.PropertyAnnotation;
 import io.jans.orm.reflect.util.ReflectHelper;
 import io.jans.orm.search.filter.Filter;
+import io.jans.orm.search.filter.FilterOptimizer;
 import io.jans.orm.util.ArrayHelper;
 import io.jans.orm.util.StringHelper;
 import org.slf4j.Logger;
@@ -51,11 +54,15 @@ import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import static java.time.format.DateTimeFormatter.ISO_INSTANT;
@@ -77,6 +84,7 @@ public class CouchbaseEntryManager extends BaseEntryManager implements Serializa
     private Logger log;
 
     private final CouchbaseFilterConverter FILTER_CONVERTER;
+    private static final FilterOptimizer FILTER_OPTIMIZER = new FilterOptimizer();
     private static final GenericKeyConverter KEY_CONVERTER = new GenericKeyConverter();
 
     private List<DeleteNotifier> subscribers;
@@ -179,6 +187,94 @@ public class CouchbaseEntryManager extends BaseEntryManager implements Serializa
 
     @Override
     protected void persist(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
+        JsonObject jsonObject = toJsonObject(dn, attributes);
+
+        // Persist entry
+        try {
+            boolean result = getOperationService().addEntry(toCouchbaseKey(dn).getKey(), jsonObject, expiration);
+            if (!result) {
+                throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn));
+            }
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn), ex);
+        }
+    }
+
+    @Override
+    protected boolean persistOrMerge(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
+        JsonObject jsonObject = toJsonObject(dn, attributes);
+        if (jsonObject.size() > CouchbaseOperationService.MAX_MUTATE_IN_SPECS) {
+        	// Entry doesn't fit into one sub-document operation
+            return false;
+        }
+
+        // Add or update entry
+        try {
+            boolean result = getOperationService().addOrUpdateEntry(toCouchbaseKey(dn).getKey(), jsonObject, expiration);
+            if (!result) {
+                throw new EntryPersistenceException(String.format("Failed to persist or merge entry: %s", dn));
+            }
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist or merge entry: %s", dn), ex);
+        }
+
+        return true;
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistAsync(final String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
+        JsonObject jsonObject = toJsonObject(dn, attributes);
+
+        // Persist entry
+        return getOperationService().addEntryAsync(toCouchbaseKey(dn).getKey(), jsonObject, expiration).handle(new BiFunction<Boolean, Throwable, Void>() {
+            @Override
+            public Void apply(Boolean result, Throwable ex) {
+                if (ex != null) {
+                    throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn), unwrapCompletionException(ex));
+                }
+                if (!Boolean.TRUE.equals(result)) {
+                    throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn));
+                }
+
+                return null;
+            }
+        });
+    }
+
+    @Override
+    protected void persistAll(List<EntryToPersist> entries) {
+        List<JsonDocument> jsonDocuments = new ArrayList<JsonDocument>(entries.size());
+        for (EntryToPersist entryToPersist : entries) {
+            String dn = entryToPersist.getDn();
+            try {
+                JsonObject jsonObject = toJsonObject(dn, entryToPersist.getAttributes());
+                String key = toCouchbaseKey(dn).getKey();
+
+                Integer expiration = entryToPersist.getExpiration();
+                if (expiration == null) {
+                    jsonDocuments.add(JsonDocument.create(key, jsonObject));
+                } else {
+                    jsonDocuments.add(JsonDocument.create(key, expiration, jsonObject));
+                }
+            } catch (Exception ex) {
+                throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn), ex);
+            }
+        }
+
+        // Persist entries
+        try {
+            boolean result = getOperationService().addEntries(jsonDocuments);
+            if (!result) {
+                throw new EntryPersistenceException(String.format("Failed to persist %d entries", jsonDocuments.size()));
+            }
+        } catch (EntryPersistenceException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist %d entries", jsonDocuments.size()), ex);
+        }
+    }
+
+    private JsonObject toJsonObject(String dn, List<AttributeData> attributes) {
         JsonObject jsonObject = JsonObject.create();
         for (AttributeData attribute : attributes) {
             String attributeName = attribute.getName();
@@ -213,15 +309,7 @@ public class CouchbaseEntryManager extends BaseEntryManager implements Serializa
         }
         jsonObject.put(CouchbaseOperationService.DN, dn);
 
-        // Persist entry
-        try {
-            boolean result = getOperationService().addEntry(toCouchbaseKey(dn).getKey(), jsonObject, expiration);
-            if (!result) {
-                throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn));
-            }
-        } catch (Exception ex) {
-            throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn), ex);
-        }
+        return jsonObject;
     }
 
     @Override
@@ -314,7 +402,11 @@ public class CouchbaseEntryManager extends BaseEntryManager implements Serializa
 		}
 
 		// Remove entries by filter
-		return removeImpl(dn, entryClass, filter, count);
+		try {
+			return removeImpl(dn, entryClass, filter, count);
+		} finally {
+			invalidateEntryCache(entryClass);
+		}
 	}
 
     protected <T> int removeImpl(String dn, Class<T> entryClass, Filter filter, int count) {
@@ -377,6 +469,62 @@ public class CouchbaseEntryManager extends BaseEntryManager implements Serializa
         throw new EntryPersistenceException(String.format("Failed to find entry: %s", dn));
     }
 
+    @Override
+    protected Map<String, List<AttributeData>> find(List<String> dns, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap,
+            String... ldapReturnAttributes) {
+        try {
+            Map<String, String> dnsByKey = new HashMap<String, String>(dns.size());
+            for (String dn : dns) {
+                dnsByKey.put(toCouchbaseKey(dn).getKey(), dn);
+            }
+
+            // Load entries
+            Map<String, JsonObject> entries = getOperationService().lookup(dnsByKey.keySet(), toInternalAttributes(ldapReturnAttributes));
+
+            Map<String, List<AttributeData>> result = new HashMap<String, List<AttributeData>>(entries.size());
+            for (Map.Entry<String, JsonObject> entry : entries.entrySet()) {
+                List<AttributeData> attributes = getAttributeDataList(entry.getValue());
+                if (attributes != null) {
+                    result.put(dnsByKey.get(entry.getKey()), attributes);
+                }
+            }
+
+            return result;
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to find entries: %s", dns), ex);
+        }
+    }
+
+    @Override
+    protected CompletableFuture<List<AttributeData>> findAsync(final String dn, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap,
+            String... ldapReturnAttributes) {
+        // Load entry. Key-value get is always consistent, so scan consistency is not needed here
+        return getOperationService().lookupAsync(toCouchbaseKey(dn).getKey(), toInternalAttributes(ldapReturnAttributes))
+                .handle(new BiFunction<JsonObject, Throwable, List<AttributeData>>() {
+            @Override
+            public List<AttributeData> apply(JsonObject entry, Throwable ex) {
+                if (ex != null) {
+                    throw new EntryPersistenceException(String.format("Failed to find entry: %s", dn), unwrapCompletionException(ex));
+                }
+
+                List<AttributeData> result = getAttributeDataList(entry);
+                if (result == null) {
+                    throw new EntryPersistenceException(String.format("Failed to find entry: %s", dn));
+                }
+
+                return result;
+            }
+        });
+    }
+
+    private Throwable unwrapCompletionException(Throwable ex) {
+        if ((ex instanceof CompletionException) && (ex.getCause() != null)) {
+            return ex.getCause();
+        }
+
+        return ex;
+    }
+
     @Override
     public <T> List<T> findEntries(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope, String[] ldapReturnAttributes,
                                    BatchOperation<T> batchOperation, int start, int count, int chunkSize) {
@@ -431,7 +579,7 @@ public class CouchbaseEntryManager extends BaseEntryManager implements Serializa
         List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
         String[] currentLdapReturnAttributes = ldapReturnAttributes;
         if (ArrayHelper.isEmpty(currentLdapReturnAttributes)) {
-            currentLdapReturnAttributes = getAttributes(null, propertiesAnnotations, false);
+            currentLdapReturnAttributes = getEntryReturnAttributes(entryClass, propertiesAnnotations);
         }
 
         Filter searchFilter;
@@ -800,11 +948,11 @@ public class CouchbaseEntryManager extends BaseEntryManager implements Serializa
     }
 
     private ConvertedExpression toCouchbaseFilter(Filter genericFilter, Map<String, PropertyAnnotation> propertiesAnnotationsMap) throws SearchException {
-        return FILTER_CONVERTER.convertToCouchbaseFilter(genericFilter, propertiesAnnotationsMap);
+        return FILTER_CONVERTER.convertToCouchbaseFilter(FILTER_OPTIMIZER.optimize(genericFilter), propertiesAnnotationsMap);
     }
 
     private ConvertedExpression toCouchbaseFilter(Filter genericFilter, Map<String, PropertyAnnotation> propertiesAnnotationsMap, Function<? super Filter, Boolean> processor) throws SearchException {
-        return FILTER_CONVERTER.convertToCouchbaseFilter(genericFilter, propertiesAnnotationsMap, processor);
+        return FILTER_CONVERTER.convertToCouchbaseFilter(FILTER_OPTIMIZER.optimize(genericFilter), propertiesAnnotationsMap, processor);
     }
 
     private ParsedKey toCouchbaseKey(String dn) {
@@ -8,8 +8,10 @@ package io.jans.orm.couchbase.impl;
 
 import com.couchbase.client.java.env.CouchbaseEnvironment;
 import com.couchbase.client.java.env.DefaultCouchbaseEnvironment;
+import io.jans.orm.cache.LruEntryCache;
 import io.jans.orm.couchbase.operation.impl.CouchbaseConnectionProvider;
 import io.jans.orm.couchbase.operation.impl.CouchbaseOperationServiceImpl;
+import io.jans.orm.couchbase.operation.watch.OperationDurationUtil;
 import io.jans.orm.service.BaseFactoryService;
 import io.jans.orm.PersistenceEntryManager;
 import io.jans.orm.PersistenceEntryManagerFactory;
@@ -56,6 +58,7 @@ public class CouchbaseEntryManagerFactory extends Initializable implements Persi
     		resetInitialized();
     		LOG.info("Couchbase environment are destroyed with result: {}", result);
     	}
+    	OperationDurationUtil.instance().removeStatistics();
     }
 
 	@Override
@@ -165,6 +168,8 @@ public class CouchbaseEntryManagerFactory extends Initializable implements Persi
 
         CouchbaseEntryManager couchbaseEntryManager = new CouchbaseEntryManager(new CouchbaseOperationServiceImpl(entryManagerConf, connectionProvider));
         LOG.info("Created CouchbaseEntryManager: {}", couchbaseEntryManager.getOperationService());
+        couchbaseEntryManager.setEntryCache(LruEntryCache.create(entryManagerConf));
+        couchbaseEntryManager.setBatchPrefetchDepth(StringHelper.toInteger(entryManagerConf.getProperty(CouchbaseEntryManager.BATCH_PREFETCH_DEPTH_PROPERTY), 0));
 
         return couchbaseEntryManager;
     }
@@ -6,7 +6,10 @@
 
 package io.jans.orm.couchbase.operation;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import io.jans.orm.operation.PersistenceOperationService;
 import io.jans.orm.couchbase.impl.CouchbaseBatchOperationWraper;
@@ -20,6 +23,7 @@ import io.jans.orm.exception.operation.SearchException;
 import io.jans.orm.model.PagedResult;
 import io.jans.orm.model.SearchScope;
 
+import com.couchbase.client.java.document.JsonDocument;
 import com.couchbase.client.java.document.json.JsonObject;
 import com.couchbase.client.java.query.consistency.ScanConsistency;
 import com.couchbase.client.java.query.dsl.Expression;
@@ -41,10 +45,21 @@ public interface CouchbaseOperationService extends PersistenceOperationService {
 
     static String META_DOC_ID = "meta_doc_id";
 
+    // Maximum count of specs in one sub-document multi mutation
+    static int MAX_MUTATE_IN_SPECS = 16;
+
     CouchbaseConnectionProvider getConnectionProvider();
 
     boolean addEntry(String key, JsonObject atts) throws DuplicateEntryException, PersistenceException;
 	boolean addEntry(String key, JsonObject jsonObject, Integer expiration) throws DuplicateEntryException, PersistenceException;
+	CompletableFuture<Boolean> addEntryAsync(String key, JsonObject jsonObject, Integer expiration);
+
+    /**
+     * Add document or update specified fields of existing document with one sub-document operation.
+     * Count of fields should not exceed {@link #MAX_MUTATE_IN_SPECS}
+     */
+	boolean addOrUpdateEntry(String key, JsonObject jsonObject, Integer expiration) throws PersistenceException;
+	boolean addEntries(List<JsonDocument> jsonDocuments) throws DuplicateEntryException, PersistenceException;
 
     boolean updateEntry(String key, List<MutationSpec> mods, Integer expiration) throws UnsupportedOperationException, PersistenceException;
 
@@ -53,6 +68,8 @@ public interface CouchbaseOperationService extends PersistenceOperationService {
     boolean deleteRecursively(String key) throws EntryNotFoundException, SearchException;
 
     JsonObject lookup(String key, ScanConsistency scanConsistency, String... attributes) throws SearchException;
+    Map<String, JsonObject> lookup(Collection<String> keys, String... attributes) throws SearchException;
+    CompletableFuture<JsonObject> lookupAsync(String key, String... attributes);
 
     <O> PagedResult<JsonObject> search(String key, ScanConsistency scanConsistency, Expression expression, SearchScope scope,
             String[] attributes, Sort[] orderBy, CouchbaseBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType,
@@ -10,12 +10,20 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,12 +66,19 @@ import io.jans.orm.exception.operation.DuplicateEntryException;
 import io.jans.orm.exception.operation.EntryNotFoundException;
 import io.jans.orm.exception.operation.PersistenceException;
 import io.jans.orm.exception.operation.SearchException;
+import io.jans.orm.impl.BatchOperationPipeline;
 import io.jans.orm.model.BatchOperation;
 import io.jans.orm.model.PagedResult;
 import io.jans.orm.model.SearchScope;
 import io.jans.orm.operation.auth.PasswordEncryptionHelper;
 import io.jans.orm.util.ArrayHelper;
 import io.jans.orm.util.StringHelper;
+import io.jans.orm.watch.OperationTimer;
+import io.jans.orm.watch.SlowOperation;
+import io.jans.orm.watch.SlowOperationLog;
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Func1;
 
 /**
  * Base service which performs all supported Couchbase operations
@@ -74,6 +89,11 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 
     private static final Logger LOG = LoggerFactory.getLogger(CouchbaseOperationServiceImpl.class);
 
+    private static final int MAX_CONCURRENT_REQUESTS = 64;
+
+    // String literals and numbers after comparison operators in N1QL
+    private static final Pattern QUERY_LITERAL_PATTERN = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"|(?<=[=<>]\\s?)(-?\\d+(?:\\.\\d+)?)");
+
     private Properties props;
     private CouchbaseConnectionProvider connectionProvider;
 
@@ -86,6 +106,7 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 
 	private PersistenceExtension persistenceExtension;
 
+	private SlowOperationLog slowOperationLog;
 
     @SuppressWarnings("unused")
     private CouchbaseOperationServiceImpl() {
@@ -123,6 +144,8 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
         LOG.info("Option ignoreAttributeScanConsistency: " + ignoreAttributeScanConsistency);
         LOG.info("Option enableScopeSupport: " + enableScopeSupport);
         LOG.info("Option disableAttributeMapping: " + disableAttributeMapping);
+
+        this.slowOperationLog = SlowOperationLog.create("Couchbase", props);
     }
 
     @Override
@@ -163,6 +186,7 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 
         BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
         OperationDurationUtil.instance().logDebug("Couchbase operation: bind, duration: {}, bucket: {}, key: {}", duration, bucketMapping.getBucketName(), key);
+        OperationDurationUtil.instance().record("bind", bucketMapping.getBucketName(), duration);
         
         return result;
     }
@@ -174,15 +198,16 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 
     @Override
     public boolean addEntry(String key, JsonObject jsonObject, Integer expiration) throws DuplicateEntryException, PersistenceException {
-        Instant startTime = OperationDurationUtil.instance().now();
-
         BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
-        boolean result = addEntryImpl(bucketMapping, key, jsonObject, expiration);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("add", bucketMapping.getBucketName())) {
+            boolean result = addEntryImpl(bucketMapping, key, jsonObject, expiration);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("Couchbase operation: add, duration: {}, bucket: {}, key: {}, json: {}", duration, bucketMapping.getBucketName(), key, jsonObject);
-        
-        return result;
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("Couchbase operation: add, duration: {}, bucket: {}, key: {}, json: {}", duration, bucketMapping.getBucketName(), key, jsonObject);
+            slowOperationLog.logIfSlow("add", bucketMapping.getBucketName(), duration, -1);
+
+            return result;
+        }
     }
 
 	private boolean addEntryImpl(BucketMapping bucketMapping, String key, JsonObject jsonObject, Integer expiration) throws PersistenceException {
@@ -206,6 +231,141 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
         return false;
 	}
 
+    @Override
+    public boolean addOrUpdateEntry(String key, JsonObject jsonObject, Integer expiration) throws PersistenceException {
+        BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("add_or_update", bucketMapping.getBucketName())) {
+            boolean result = addOrUpdateEntryImpl(bucketMapping, key, jsonObject, expiration);
+
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("Couchbase operation: add_or_update, duration: {}, bucket: {}, key: {}, json: {}", duration, bucketMapping.getBucketName(), key, jsonObject);
+
+            return result;
+        }
+    }
+
+	private boolean addOrUpdateEntryImpl(BucketMapping bucketMapping, String key, JsonObject jsonObject, Integer expiration) throws PersistenceException {
+		if (jsonObject.size() > MAX_MUTATE_IN_SPECS) {
+            throw new PersistenceException(String.format("Failed to add or update entry. Count of fields %d exceeds limit %d", jsonObject.size(), MAX_MUTATE_IN_SPECS));
+		}
+
+		try {
+			// Document is created if it not exists. Fields which are not specified are kept
+            MutateInBuilder builder = bucketMapping.getBucket().mutateIn(key).upsertDocument(true);
+            if (expiration != null) {
+            	builder = builder.withExpiry(expiration);
+            }
+
+            for (String name : jsonObject.getNames()) {
+            	builder.upsert(name, jsonObject.get(name));
+            }
+
+            DocumentFragment<Mutation> result = builder.execute();
+            if (result.size() > 0) {
+                return result.status(0).isSuccess();
+            }
+
+            return false;
+        } catch (CouchbaseException ex) {
+            throw new PersistenceException("Failed to add or update entry", ex);
+        }
+	}
+
+    @Override
+    public CompletableFuture<Boolean> addEntryAsync(final String key, final JsonObject jsonObject, Integer expiration) {
+        final Instant startTime = OperationDurationUtil.instance().now();
+
+        final BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
+        final Bucket bucket = bucketMapping.getBucket();
+
+        JsonDocument jsonDocument;
+        if (expiration == null) {
+            jsonDocument = JsonDocument.create(key, jsonObject);
+        } else {
+            jsonDocument = JsonDocument.create(key, expiration, jsonObject);
+        }
+
+        final CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
+        bucket.async().upsert(jsonDocument).timeout(bucket.environment().kvTimeout(), TimeUnit.MILLISECONDS).subscribe(new Subscriber<JsonDocument>() {
+
+            private JsonDocument resultDocument;
+
+            @Override
+            public void onNext(JsonDocument document) {
+                this.resultDocument = document;
+            }
+
+            @Override
+            public void onCompleted() {
+                Duration duration = OperationDurationUtil.instance().duration(startTime);
+                OperationDurationUtil.instance().logDebug("Couchbase operation: add_async, duration: {}, bucket: {}, key: {}, json: {}", duration, bucketMapping.getBucketName(), key, jsonObject);
+                OperationDurationUtil.instance().record("add_async", bucketMapping.getBucketName(), duration);
+
+                result.complete(resultDocument != null);
+            }
+
+            @Override
+            public void onError(Throwable ex) {
+                OperationDurationUtil.instance().recordError("add_async", bucketMapping.getBucketName());
+                result.completeExceptionally(new PersistenceException("Failed to add entry", ex));
+            }
+        });
+
+        return result;
+    }
+
+    @Override
+    public boolean addEntries(List<JsonDocument> jsonDocuments) throws DuplicateEntryException, PersistenceException {
+        // Group documents by bucket
+        Map<String, BucketMapping> bucketMappings = new LinkedHashMap<String, BucketMapping>();
+        Map<String, List<JsonDocument>> bucketDocuments = new LinkedHashMap<String, List<JsonDocument>>();
+        for (JsonDocument jsonDocument : jsonDocuments) {
+            BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(jsonDocument.id());
+            String bucketName = bucketMapping.getBucketName();
+
+            List<JsonDocument> documents = bucketDocuments.get(bucketName);
+            if (documents == null) {
+                documents = new ArrayList<JsonDocument>();
+                bucketMappings.put(bucketName, bucketMapping);
+                bucketDocuments.put(bucketName, documents);
+            }
+            documents.add(jsonDocument);
+        }
+
+        boolean result = true;
+        try (OperationTimer timer = OperationDurationUtil.instance().start("add_batch", null)) {
+            for (Entry<String, List<JsonDocument>> bucketEntry : bucketDocuments.entrySet()) {
+                result &= addEntriesImpl(bucketMappings.get(bucketEntry.getKey()), bucketEntry.getValue());
+            }
+
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("Couchbase operation: add_batch, duration: {}, buckets: {}, count: {}", duration, bucketDocuments.keySet(), jsonDocuments.size());
+        }
+
+        return result;
+    }
+
+	private boolean addEntriesImpl(BucketMapping bucketMapping, List<JsonDocument> jsonDocuments) throws PersistenceException {
+		final Bucket bucket = bucketMapping.getBucket();
+		final long kvTimeout = bucket.environment().kvTimeout();
+		try {
+			// Send documents with async API and limit number of concurrent requests
+			List<JsonDocument> results = Observable.from(jsonDocuments).flatMap(new Func1<JsonDocument, Observable<JsonDocument>>() {
+				@Override
+				public Observable<JsonDocument> call(JsonDocument jsonDocument) {
+					return bucket.async().upsert(jsonDocument).timeout(kvTimeout, TimeUnit.MILLISECONDS);
+				}
+			}, MAX_CONCURRENT_REQUESTS).toList().toBlocking().single();
+
+			return results.size() == jsonDocuments.size();
+        } catch (CouchbaseException ex) {
+            throw new PersistenceException("Failed to add entries", ex);
+        } catch (RuntimeException ex) {
+            // Rx wraps checked exceptions like TimeoutException
+            throw new PersistenceException("Failed to add entries", ex);
+        }
+	}
+
     @Deprecated
     protected boolean updateEntry(String key, JsonObject attrs) throws UnsupportedOperationException, PersistenceException {
         List<MutationSpec> mods = new ArrayList<MutationSpec>();
@@ -228,15 +388,16 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 
     @Override
     public boolean updateEntry(String key, List<MutationSpec> mods, Integer expiration) throws UnsupportedOperationException, PersistenceException {
-        Instant startTime = OperationDurationUtil.instance().now();
-        
         BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
-        boolean result = updateEntryImpl(bucketMapping, key, mods, expiration);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("modify", bucketMapping.getBucketName())) {
+            boolean result = updateEntryImpl(bucketMapping, key, mods, expiration);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("Couchbase operation: modify, duration: {}, bucket: {}, key: {}, mods: {}", duration, bucketMapping.getBucketName(), key, mods);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("Couchbase operation: modify, duration: {}, bucket: {}, key: {}, mods: {}", duration, bucketMapping.getBucketName(), key, mods);
+            slowOperationLog.logIfSlow("modify", bucketMapping.getBucketName(), duration, -1);
 
-        return result;
+            return result;
+        }
     }
 
 	private boolean updateEntryImpl(BucketMapping bucketMapping, String key, List<MutationSpec> mods, Integer expiration) throws PersistenceException {
@@ -280,15 +441,16 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 
     @Override
     public boolean delete(String key) throws EntryNotFoundException {
-        Instant startTime = OperationDurationUtil.instance().now();
-
         BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
-        boolean result = deleteImpl(bucketMapping, key);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("delete", bucketMapping.getBucketName())) {
+            boolean result = deleteImpl(bucketMapping, key);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("Couchbase operation: delete, duration: {}, bucket: {}, key: {}", duration, bucketMapping.getBucketName(), key);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("Couchbase operation: delete, duration: {}, bucket: {}, key: {}", duration, bucketMapping.getBucketName(), key);
+            slowOperationLog.logIfSlow("delete", bucketMapping.getBucketName(), duration, -1);
 
-        return result;
+            return result;
+        }
     }
 
 	private boolean deleteImpl(BucketMapping bucketMapping, String key) throws EntryNotFoundException {
@@ -303,19 +465,19 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 
     @Override
     public int delete(String key, ScanConsistency scanConsistency, Expression expression, int count) throws DeleteException {
-        Instant startTime = OperationDurationUtil.instance().now();
-
         BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
     	ScanConsistency useScanConsistency = getScanConsistency(scanConsistency, false);
 
-    	int result = deleteImpl(bucketMapping, key, useScanConsistency, expression, count);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("delete_search", bucketMapping.getBucketName())) {
+            int result = deleteImpl(bucketMapping, key, useScanConsistency, expression, count);
 
-        String attemptInfo = getScanAttemptLogInfo(scanConsistency, useScanConsistency, false);
+            String attemptInfo = getScanAttemptLogInfo(scanConsistency, useScanConsistency, false);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("Couchbase operation: delete_search, duration: {}, bucket: {}, key: {}, expression: {}, count: {}, consistency: {}{}", duration, bucketMapping.getBucketName(), key, expression, count, useScanConsistency, attemptInfo);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("Couchbase operation: delete_search, duration: {}, bucket: {}, key: {}, expression: {}, count: {}, consistency: {}{}", duration, bucketMapping.getBucketName(), key, expression, count, useScanConsistency, attemptInfo);
 
-        return result;
+            return result;
+        }
     }
 
     private int deleteImpl(BucketMapping bucketMapping, String key, ScanConsistency scanConsistency, Expression expression, int count) throws DeleteException {
@@ -342,15 +504,15 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 
     @Override
     public boolean deleteRecursively(String key) throws EntryNotFoundException, SearchException {
-        Instant startTime = OperationDurationUtil.instance().now();
-
         BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
-        boolean result = deleteRecursivelyImpl(bucketMapping, key);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("delete_tree", bucketMapping.getBucketName())) {
+            boolean result = deleteRecursivelyImpl(bucketMapping, key);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("Couchbase operation: delete_tree, duration: {}, bucket: {}, key: {}", duration, bucketMapping.getBucketName(), key);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("Couchbase operation: delete_tree, duration: {}, bucket: {}, key: {}", duration, bucketMapping.getBucketName(), key);
 
-        return result;
+            return result;
+        }
     }
 
 	private boolean deleteRecursivelyImpl(BucketMapping bucketMapping, String key) throws SearchException, EntryNotFoundException {
@@ -377,38 +539,42 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 
     @Override
     public JsonObject lookup(String key, ScanConsistency scanConsistency, String... attributes) throws SearchException {
-        Instant startTime = OperationDurationUtil.instance().now();
-        
     	BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
 
-        boolean secondTry = false; 
-    	ScanConsistency useScanConsistency = getScanConsistency(scanConsistency, attemptWithoutAttributeScanConsistency);
-        JsonObject result = null;
-        SearchException lastException = null;
-		try {
-			result = lookupImpl(bucketMapping, key, useScanConsistency, attributes);
-		} catch (SearchException ex) {
-			lastException = ex;
-		}
-        if ((result == null) || result.isEmpty()) {
-        	ScanConsistency useScanConsistency2 = getScanConsistency(scanConsistency, false);
-        	if (!useScanConsistency2.equals(useScanConsistency)) {
-        		useScanConsistency = useScanConsistency2;
-                secondTry = true; 
-                result = lookupImpl(bucketMapping, key, useScanConsistency, attributes);
-        	} else {
-        		if (lastException != null) {
+        try (OperationTimer timer = OperationDurationUtil.instance().start("lookup", bucketMapping.getBucketName())) {
+            boolean secondTry = false; 
+        	ScanConsistency useScanConsistency = getScanConsistency(scanConsistency, attemptWithoutAttributeScanConsistency);
+            JsonObject result = null;
+            SearchException lastException = null;
+			try {
+				result = lookupImpl(bucketMapping, key, useScanConsistency, attributes);
+			} catch (SearchException ex) {
+				lastException = ex;
+			}
+            if ((result == null) || result.isEmpty()) {
+            	ScanConsistency useScanConsistency2 = getScanConsistency(scanConsistency, false);
+            	if (!useScanConsistency2.equals(useScanConsistency)) {
+            		useScanConsistency = useScanConsistency2;
+                    secondTry = true; 
+                    result = lookupImpl(bucketMapping, key, useScanConsistency, attributes);
+            	} else if (lastException != null) {
             		throw lastException;
-        		}
-        	}
-        }
+            	}
+            }
 
-        String attemptInfo = getScanAttemptLogInfo(scanConsistency, useScanConsistency, secondTry);
+            String attemptInfo = getScanAttemptLogInfo(scanConsistency, useScanConsistency, secondTry);
+            int rows = (result == null) ? 0 : 1;
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("Couchbase operation: lookup, duration: {}, bucket: {}, key: {}, attributes: {}, consistency: {}{}", duration, bucketMapping.getBucketName(), key, attributes, useScanConsistency, attemptInfo);
+            Duration duration = timer.record(rows);
+            OperationDurationUtil.instance().logDebug("Couchbase operation: lookup, duration: {}, bucket: {}, key: {}, attributes: {}, consistency: {}{}", duration, bucketMapping.getBucketName(), key, attributes, useScanConsistency, attemptInfo);
+            slowOperationLog.logIfSlow("lookup", bucketMapping.getBucketName(), duration, rows);
 
-        return result;
+            if (result == null) {
+                throw new SearchException("Failed to lookup entry");
+            }
+
+            return result;
+        }
     }
 
 	private JsonObject lookupImpl(BucketMapping bucketMapping, String key, ScanConsistency scanConsistency, String... attributes) throws SearchException {
@@ -452,56 +618,183 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
             throw new SearchException("Failed to lookup entry", ex);
         }
 
-        throw new SearchException("Failed to lookup entry");
+        return null;
+	}
+
+    @Override
+    public CompletableFuture<JsonObject> lookupAsync(final String key, final String... attributes) {
+        final Instant startTime = OperationDurationUtil.instance().now();
+
+        final BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
+        final Bucket bucket = bucketMapping.getBucket();
+
+        final CompletableFuture<JsonObject> result = new CompletableFuture<JsonObject>();
+        bucket.async().get(key).timeout(bucket.environment().kvTimeout(), TimeUnit.MILLISECONDS).subscribe(new Subscriber<JsonDocument>() {
+
+            private JsonDocument resultDocument;
+
+            @Override
+            public void onNext(JsonDocument document) {
+                this.resultDocument = document;
+            }
+
+            @Override
+            public void onCompleted() {
+                Duration duration = OperationDurationUtil.instance().duration(startTime);
+                OperationDurationUtil.instance().logDebug("Couchbase operation: lookup_async, duration: {}, bucket: {}, key: {}, attributes: {}", duration, bucketMapping.getBucketName(), key, attributes);
+                OperationDurationUtil.instance().record("lookup_async", bucketMapping.getBucketName(), duration, (resultDocument == null) ? 0 : 1);
+
+                if (resultDocument == null) {
+                    result.complete(null);
+                    return;
+                }
+
+                if (ArrayHelper.isNotEmpty(attributes)) {
+                	Set<String> docAtributesKeep = new HashSet<String>(Arrays.asList(attributes));
+                	for (Iterator<String> it = resultDocument.content().getNames().iterator(); it.hasNext();) {
+						String docAtribute = (String) it.next();
+						if (!docAtributesKeep.contains(docAtribute)) {
+							it.remove();
+						}
+					}
+                }
+
+                result.complete(resultDocument.content());
+            }
+
+            @Override
+            public void onError(Throwable ex) {
+                OperationDurationUtil.instance().recordError("lookup_async", bucketMapping.getBucketName());
+                result.completeExceptionally(new SearchException("Failed to lookup entry", ex));
+            }
+        });
+
+        return result;
+    }
+
+    @Override
+    public Map<String, JsonObject> lookup(Collection<String> keys, String... attributes) throws SearchException {
+        // Group keys by bucket
+        Map<String, BucketMapping> bucketMappings = new LinkedHashMap<String, BucketMapping>();
+        Map<String, List<String>> bucketKeys = new LinkedHashMap<String, List<String>>();
+        for (String key : keys) {
+            BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
+            String bucketName = bucketMapping.getBucketName();
+
+            List<String> currentBucketKeys = bucketKeys.get(bucketName);
+            if (currentBucketKeys == null) {
+            	currentBucketKeys = new ArrayList<String>();
+                bucketMappings.put(bucketName, bucketMapping);
+                bucketKeys.put(bucketName, currentBucketKeys);
+            }
+            currentBucketKeys.add(key);
+        }
+
+        Map<String, JsonObject> result = new HashMap<String, JsonObject>(keys.size());
+        try (OperationTimer timer = OperationDurationUtil.instance().start("lookup_batch", null)) {
+            for (Entry<String, List<String>> bucketEntry : bucketKeys.entrySet()) {
+                lookupImpl(bucketMappings.get(bucketEntry.getKey()), bucketEntry.getValue(), result, attributes);
+            }
+
+            Duration duration = timer.record(result.size());
+            OperationDurationUtil.instance().logDebug("Couchbase operation: lookup_batch, duration: {}, buckets: {}, keys: {}, attributes: {}", duration, bucketKeys.keySet(), keys, attributes);
+        }
+
+        return result;
+    }
+
+	private void lookupImpl(BucketMapping bucketMapping, List<String> keys, Map<String, JsonObject> result, String... attributes) throws SearchException {
+		final Bucket bucket = bucketMapping.getBucket();
+		final long kvTimeout = bucket.environment().kvTimeout();
+		try {
+			// Load documents with async API and limit number of concurrent requests. Missing documents are skipped
+			List<JsonDocument> docs = Observable.from(keys).flatMap(new Func1<String, Observable<JsonDocument>>() {
+				@Override
+				public Observable<JsonDocument> call(String key) {
+					return bucket.async().get(key).timeout(kvTimeout, TimeUnit.MILLISECONDS);
+				}
+			}, MAX_CONCURRENT_REQUESTS).toList().toBlocking().single();
+
+			Set<String> docAtributesKeep = null;
+			if (ArrayHelper.isNotEmpty(attributes)) {
+				docAtributesKeep = new HashSet<String>(Arrays.asList(attributes));
+			}
+
+			for (JsonDocument doc : docs) {
+				if (docAtributesKeep != null) {
+                	for (Iterator<String> it = doc.content().getNames().iterator(); it.hasNext();) {
+						String docAtribute = (String) it.next();
+						if (!docAtributesKeep.contains(docAtribute)) {
+							it.remove();
+						}
+					}
+				}
+
+				result.put(doc.id(), doc.content());
+			}
+        } catch (CouchbaseException ex) {
+            throw new SearchException("Failed to lookup entries", ex);
+        } catch (RuntimeException ex) {
+            // Rx wraps checked exceptions like TimeoutException
+            throw new SearchException("Failed to lookup entries", ex);
+        }
 	}
 
 	@Override
     public <O> PagedResult<JsonObject> search(String key, ScanConsistency scanConsistency, Expression expression, SearchScope scope, String[] attributes, Sort[] orderBy,
                                               CouchbaseBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, int start, int count, int pageSize) throws SearchException {
-        Instant startTime = OperationDurationUtil.instance().now();
-
         BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
 
-        boolean secondTry = false;
-    	ScanConsistency useScanConsistency = getScanConsistency(scanConsistency, attemptWithoutAttributeScanConsistency);
-        PagedResult<JsonObject> result = null;
-        int attemps = 20;
-        do {
-			attemps--;
-			try {
-				result = searchImpl(bucketMapping, key, useScanConsistency, expression, scope, attributes, orderBy, batchOperationWraper,
-						returnDataType, start, count, pageSize);
-				break;
-			} catch (SearchException ex) {
-				if (ex.getErrorCode() != 5000) {
-					throw ex;
-				}
-				
-				LOG.warn("Waiting for Indexer Warmup...");
+        SlowOperation slowOperation = slowOperationLog.start("search", bucketMapping.getBucketName());
+
+        try (OperationTimer timer = OperationDurationUtil.instance().start("search", bucketMapping.getBucketName())) {
+            boolean secondTry = false;
+        	ScanConsistency useScanConsistency = getScanConsistency(scanConsistency, attemptWithoutAttributeScanConsistency);
+            PagedResult<JsonObject> result = null;
+            int attemps = 20;
+            do {
+				attemps--;
 				try {
-					Thread.sleep(2000);
-				} catch (InterruptedException ex2) {}
-			}
-        } while (attemps > 0);
-        if ((result == null) || (result.getEntriesCount() == 0)) {
-        	ScanConsistency useScanConsistency2 = getScanConsistency(scanConsistency, false);
-        	if (!useScanConsistency2.equals(useScanConsistency)) {
-        		useScanConsistency = useScanConsistency2;
-                result = searchImpl(bucketMapping, key, useScanConsistency, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, start, count, pageSize);
-                secondTry = true;
-        	}
-        }
+					result = searchImpl(bucketMapping, key, useScanConsistency, expression, scope, attributes, orderBy, batchOperationWraper,
+							returnDataType, start, count, pageSize, slowOperation);
+					break;
+				} catch (SearchException ex) {
+					if (ex.getErrorCode() != 5000) {
+						throw ex;
+					}
+				
+					LOG.warn("Waiting for Indexer Warmup...");
+					try {
+						Thread.sleep(2000);
+					} catch (InterruptedException ex2) {}
+				}
+            } while (attemps > 0);
+            if ((result == null) || (result.getEntriesCount() == 0)) {
+            	ScanConsistency useScanConsistency2 = getScanConsistency(scanConsistency, false);
+            	if (!useScanConsistency2.equals(useScanConsistency)) {
+            		useScanConsistency = useScanConsistency2;
+                    result = searchImpl(bucketMapping, key, useScanConsistency, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, start, count, pageSize, slowOperation);
+                    secondTry = true;
+            	}
+            }
 
-        String attemptInfo = getScanAttemptLogInfo(scanConsistency, useScanConsistency, secondTry);
+            String attemptInfo = getScanAttemptLogInfo(scanConsistency, useScanConsistency, secondTry);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("Couchbase operation: search, duration: {}, bucket: {}, key: {}, expression: {}, scope: {}, attributes: {}, orderBy: {}, batchOperationWraper: {}, returnDataType: {}, start: {}, count: {}, pageSize: {}, consistency: {}{}", duration, bucketMapping.getBucketName(), key, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, start, count, pageSize, useScanConsistency, attemptInfo);
+            Duration duration = timer.record((result == null) ? 0 : result.getEntriesCount());
+            OperationDurationUtil.instance().logDebug("Couchbase operation: search, duration: {}, bucket: {}, key: {}, expression: {}, scope: {}, attributes: {}, orderBy: {}, batchOperationWraper: {}, returnDataType: {}, start: {}, count: {}, pageSize: {}, consistency: {}{}", duration, bucketMapping.getBucketName(), key, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, start, count, pageSize, useScanConsistency, attemptInfo);
 
-        return result;
+            if (slowOperationLog.isSlow(slowOperation, duration)) {
+            	slowOperation.setRows((result == null) ? 0 : result.getEntriesCount());
+            	slowOperationLog.log(slowOperation, duration);
+            }
+
+            return result;
+        }
 	}
 
 	private <O> PagedResult<JsonObject> searchImpl(BucketMapping bucketMapping, String key, ScanConsistency scanConsistency, Expression expression, SearchScope scope, String[] attributes, Sort[] orderBy,
-            CouchbaseBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, int start, int count, int pageSize) throws SearchException {
+            CouchbaseBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, int start, int count, int pageSize,
+            SlowOperation slowOperation) throws SearchException {
         Bucket bucket = bucketMapping.getBucket();
 
         BatchOperation<O> batchOperation = null;
@@ -565,7 +858,7 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 	
 	            Statement query = null;
 	            int currentLimit;
-	            try {
+	            try (BatchOperationPipeline<O> batchOperationPipeline = (batchOperation == null) ? null : batchOperationWraper.createBatchOperationPipeline()) {
 	                List<N1qlQueryRow> lastSearchResultList;
 	                int resultCount = 0;
 	                do {
@@ -576,7 +869,15 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 	                        currentLimit = Math.min(pageSize, count - resultCount);
 	                    }
 	
+	                    // Offset of next page depends on changes which batch action does
+	                    if ((batchOperationPipeline != null) && (resultCount > 0)) {
+	                    	batchOperationPipeline.awaitActions();
+	                    }
+
 	                    query = baseQuery.limit(currentLimit).offset(start + resultCount);
+	                    if (slowOperation != null) {
+	                    	setSlowOperationQuery(slowOperation, query);
+	                    }
 	                    LOG.debug("Execution query: '" + query + "'");
 	                    lastResult = bucket.query(N1qlQuery.simple(query, N1qlParams.build().consistency(scanConsistency)));
 	                    if (!lastResult.finalSuccess()) {
@@ -595,7 +896,7 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 	
 	                    if (batchOperation != null) {
 	                        List<O> entries = batchOperationWraper.createEntities(lastSearchResultList);
-	                        batchOperation.performAction(entries);
+	                        batchOperationPipeline.performAction(entries);
 	                    }
 	
 	                    resultCount += lastSearchResultList.size();
@@ -617,6 +918,10 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 	                    query = ((OffsetPath) query).offset(start);
 	                }
 	
+	                if (slowOperation != null) {
+	                	setSlowOperationQuery(slowOperation, query);
+	                }
+
 	                LOG.debug("Execution query: '" + query + "'");
 	                lastResult = bucket.query(N1qlQuery.simple(query, N1qlParams.build().consistency(scanConsistency)));
 	                if (!lastResult.finalSuccess()) {
@@ -711,6 +1016,24 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 		return disableAttributeMapping;
 	}
 
+    /*
+     * Query contains values inline. Replace them with placeholders and add to parameters
+     * to allow slow operation log redact them
+     */
+    private void setSlowOperationQuery(SlowOperation slowOperation, Statement query) {
+        List<Object> parameters = new ArrayList<Object>();
+
+        StringBuffer queryTemplate = new StringBuffer();
+        Matcher matcher = QUERY_LITERAL_PATTERN.matcher(query.toString());
+        while (matcher.find()) {
+            parameters.add((matcher.group(1) == null) ? matcher.group(2) : matcher.group(1));
+            matcher.appendReplacement(queryTemplate, "?");
+        }
+        matcher.appendTail(queryTemplate);
+
+        slowOperation.setQuery(queryTemplate.toString(), parameters);
+    }
+
 	@Override
     public boolean destroy() {
         boolean result = true;
@@ -0,0 +1,254 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.search.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Normalize filter before conversion to persistence specific filter. Optimizer:
+ * <ul>
+ * <li>removes double negation NOT(NOT(x)) -> x</li>
+ * <li>flattens nested AND/OR filters of same type</li>
+ * <li>removes duplicate clauses from AND/OR filters</li>
+ * <li>replaces AND/OR filter with single clause by this clause</li>
+ * <li>sorts AND/OR clauses from cheap to expensive ones</li>
+ * <li>groups OR equality clauses on same attribute into separate OR filter which backends convert into IN</li>
+ * </ul>
+ * Optimizer never modifies specified filter. It reuses unchanged sub filters and creates new ones only if needed.
+ */
+public class FilterOptimizer {
+
+	private static final Comparator<Filter> COST_COMPARATOR = new Comparator<Filter>() {
+		@Override
+		public int compare(Filter filter1, Filter filter2) {
+			return Integer.compare(getCost(filter1), getCost(filter2));
+		}
+	};
+
+	public Filter optimize(Filter genericFilter) {
+		if (genericFilter == null) {
+			return null;
+		}
+
+		FilterType type = genericFilter.getType();
+		Filter[] filters = genericFilter.getFilters();
+		if ((filters == null) || (filters.length == 0)) {
+			return genericFilter;
+		}
+
+		if (FilterType.NOT == type) {
+			return optimizeNot(genericFilter);
+		}
+
+		if ((FilterType.AND == type) || (FilterType.OR == type)) {
+			return optimizeLogical(genericFilter);
+		}
+
+		return genericFilter;
+	}
+
+	private Filter optimizeNot(Filter genericFilter) {
+		Filter filter = genericFilter.getFilters()[0];
+		Filter optimizedFilter = optimize(filter);
+
+		if ((genericFilter.getMultiValued() == null) && (FilterType.NOT == optimizedFilter.getType()) && (optimizedFilter.getMultiValued() == null)
+				&& (optimizedFilter.getFilters() != null) && (optimizedFilter.getFilters().length == 1)) {
+			return optimizedFilter.getFilters()[0];
+		}
+
+		if (optimizedFilter == filter) {
+			return genericFilter;
+		}
+
+		Filter resultFilter = genericFilter.clone();
+		resultFilter.setFilters(new Filter[] { optimizedFilter });
+
+		return resultFilter;
+	}
+
+	private Filter optimizeLogical(Filter genericFilter) {
+		FilterType type = genericFilter.getType();
+		Filter[] filters = genericFilter.getFilters();
+
+		List<Filter> resultFilters = new ArrayList<Filter>(filters.length);
+		for (Filter filter : filters) {
+			Filter optimizedFilter = optimize(filter);
+
+			// Flatten nested filter of same type
+			if ((type == optimizedFilter.getType()) && (optimizedFilter.getFilters() != null)
+					&& ((optimizedFilter.getMultiValued() == null) || Objects.equals(genericFilter.getMultiValued(), optimizedFilter.getMultiValued()))) {
+				for (Filter nestedFilter : optimizedFilter.getFilters()) {
+					addUnique(resultFilters, nestedFilter);
+				}
+			} else {
+				addUnique(resultFilters, optimizedFilter);
+			}
+		}
+
+		if ((resultFilters.size() == 1) && (genericFilter.getMultiValued() == null)) {
+			return resultFilters.get(0);
+		}
+
+		// Stable sort keeps original order of clauses with same cost
+		Collections.sort(resultFilters, COST_COMPARATOR);
+
+		if (FilterType.OR == type) {
+			resultFilters = groupEqualityFilters(genericFilter, resultFilters);
+		}
+
+		if (Arrays.asList(filters).equals(resultFilters)) {
+			return genericFilter;
+		}
+
+		Filter resultFilter = genericFilter.clone();
+		resultFilter.setFilters(resultFilters.toArray(new Filter[resultFilters.size()]));
+
+		return resultFilter;
+	}
+
+	private List<Filter> groupEqualityFilters(Filter genericFilter, List<Filter> filters) {
+		Map<String, List<Filter>> groups = new LinkedHashMap<String, List<Filter>>();
+		for (Filter filter : filters) {
+			if (isGroupableEqualityFilter(filter)) {
+				List<Filter> group = groups.get(filter.getAttributeName());
+				if (group == null) {
+					group = new ArrayList<Filter>();
+					groups.put(filter.getAttributeName(), group);
+				}
+				group.add(filter);
+			}
+		}
+
+		// All clauses are already in IN form
+		if ((groups.size() == 1) && (groups.values().iterator().next().size() == filters.size())) {
+			return filters;
+		}
+
+		boolean hasGroups = false;
+		for (List<Filter> group : groups.values()) {
+			if (group.size() > 1) {
+				hasGroups = true;
+				break;
+			}
+		}
+
+		if (!hasGroups) {
+			return filters;
+		}
+
+		List<Filter> resultFilters = new ArrayList<Filter>(filters.size());
+		for (Filter filter : filters) {
+			if (!isGroupableEqualityFilter(filter)) {
+				resultFilters.add(filter);
+				continue;
+			}
+
+			List<Filter> group = groups.get(filter.getAttributeName());
+			if (group.size() == 1) {
+				resultFilters.add(filter);
+			} else if (group.get(0) == filter) {
+				Filter groupFilter = Filter.createORFilter(group);
+				if (Boolean.FALSE.equals(genericFilter.getMultiValued())) {
+					groupFilter.multiValued(false);
+				}
+				resultFilters.add(groupFilter);
+			}
+		}
+
+		return resultFilters;
+	}
+
+	private boolean isGroupableEqualityFilter(Filter filter) {
+		return (FilterType.EQUALITY == filter.getType()) && (filter.getFilters() == null) && (filter.getMultiValued() == null)
+				&& (filter.getAttributeName() != null) && (filter.getAssertionValue() != null);
+	}
+
+	private void addUnique(List<Filter> filters, Filter filter) {
+		for (Filter existingFilter : filters) {
+			if (isSameFilter(existingFilter, filter)) {
+				return;
+			}
+		}
+
+		filters.add(filter);
+	}
+
+	private boolean isSameFilter(Filter filter1, Filter filter2) {
+		if (filter1 == filter2) {
+			return true;
+		}
+
+		if ((filter1 == null) || (filter2 == null)) {
+			return false;
+		}
+
+		if ((filter1.getType() != filter2.getType()) || !Objects.equals(filter1.getMultiValued(), filter2.getMultiValued())
+				|| (filter1.getMultiValuedCount() != filter2.getMultiValuedCount())
+				|| !Objects.equals(filter1.getFilterString(), filter2.getFilterString())
+				|| !Objects.equals(filter1.getAttributeName(), filter2.getAttributeName())
+				|| !Objects.deepEquals(filter1.getAssertionValue(), filter2.getAssertionValue())
+				|| !Objects.equals(filter1.getSubInitial(), filter2.getSubInitial())
+				|| !Arrays.equals(filter1.getSubAny(), filter2.getSubAny())
+				|| !Objects.equals(filter1.getSubFinal(), filter2.getSubFinal())) {
+			return false;
+		}
+
+		Filter[] filters1 = filter1.getFilters();
+		Filter[] filters2 = filter2.getFilters();
+		if ((filters1 == null) || (filters2 == null)) {
+			return filters1 == filters2;
+		}
+
+		if (filters1.length != filters2.length) {
+			return false;
+		}
+
+		for (int i = 0; i < filters1.length; i++) {
+			if (!isSameFilter(filters1[i], filters2[i])) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static int getCost(Filter filter) {
+		FilterType type = filter.getType();
+		if (type == null) {
+			return Integer.MAX_VALUE;
+		}
+
+		switch (type) {
+		case EQUALITY:
+			return 0;
+		case LESS_OR_EQUAL:
+		case GREATER_OR_EQUAL:
+			return 1;
+		case PRESENCE:
+			return 2;
+		case SUBSTRING:
+			return 3;
+		case APPROXIMATE_MATCH:
+			return 4;
+		case NOT:
+			return 5;
+		case AND:
+		case OR:
+			return 6;
+		default:
+			return 7;
+		}
+	}
+
+}
@@ -7,14 +7,21 @@
 package io.jans.orm.hybrid.impl;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import io.jans.orm.PersistenceEntryManager;
+import io.jans.orm.cache.EntryCache;
 import io.jans.orm.event.DeleteNotifier;
 import io.jans.orm.exception.KeyConversionException;
 import io.jans.orm.exception.MappingException;
@@ -26,6 +33,7 @@ import io.jans.orm.model.AttributeData;
 import io.jans.orm.model.AttributeDataModification;
 import io.jans.orm.model.BatchOperation;
 import io.jans.orm.model.PagedResult;
+import io.jans.orm.model.RemoveProgressListener;
 import io.jans.orm.model.SearchScope;
 import io.jans.orm.model.SortOrder;
 import io.jans.orm.reflect.property.PropertyAnnotation;
@@ -206,6 +214,52 @@ public class HybridEntryManager extends BaseEntryManager implements Serializable
     	return persistenceEntryManager.find(primaryKey, entryClass, ldapReturnAttributes);
 	}
 
+	@Override
+	protected <T> CompletableFuture<T> findAsync(Object primaryKey, Class<T> entryClass, String[] ldapReturnAttributes) {
+		PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(primaryKey);
+    	return persistenceEntryManager.getAsyncEntryManager().find(primaryKey, entryClass, ldapReturnAttributes);
+	}
+
+	@Override
+	protected CompletableFuture<Void> persistAsync(Object entry) {
+        Class<?> entryClass = entry.getClass();
+        Object dnValue = getDNValue(entry, entryClass);
+
+    	PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(dnValue);
+    	return persistenceEntryManager.getAsyncEntryManager().persist(entry);
+	}
+
+    @Override
+	public <T> Map<String, T> findByKeys(Collection<String> primaryKeys, Class<T> entryClass, String[] ldapReturnAttributes) {
+		// Split DNs between entry managers
+		Map<PersistenceEntryManager, List<String>> primaryKeysByManager = new IdentityHashMap<PersistenceEntryManager, List<String>>();
+		for (String primaryKey : primaryKeys) {
+	        PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(primaryKey);
+	        List<String> managerPrimaryKeys = primaryKeysByManager.get(persistenceEntryManager);
+	        if (managerPrimaryKeys == null) {
+	        	managerPrimaryKeys = new ArrayList<String>();
+	        	primaryKeysByManager.put(persistenceEntryManager, managerPrimaryKeys);
+	        }
+	        managerPrimaryKeys.add(primaryKey);
+		}
+
+		Map<String, T> foundEntries = new HashMap<String, T>();
+		for (Entry<PersistenceEntryManager, List<String>> managerPrimaryKeys : primaryKeysByManager.entrySet()) {
+			foundEntries.putAll(managerPrimaryKeys.getKey().findByKeys(managerPrimaryKeys.getValue(), entryClass, ldapReturnAttributes));
+		}
+
+		// Keep order of requested DNs
+		Map<String, T> result = new LinkedHashMap<String, T>(foundEntries.size());
+		for (String primaryKey : primaryKeys) {
+			T entry = foundEntries.get(primaryKey);
+			if (entry != null) {
+				result.put(primaryKey, entry);
+			}
+		}
+
+		return result;
+	}
+
     @Override
 	public <T> List<T> findEntries(Object entry) {
         Class<?> entryClass = entry.getClass();
@@ -251,6 +305,19 @@ public class HybridEntryManager extends BaseEntryManager implements Serializable
 		return persistenceEntryManager.findEntries(baseDN, entryClass, filter, scope, ldapReturnAttributes, start, count, chunkSize);
 	}
 
+	@Override
+	public <T> Stream<T> streamEntries(String baseDN, Class<T> entryClass, Filter filter) {
+    	PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(baseDN);
+		return persistenceEntryManager.streamEntries(baseDN, entryClass, filter);
+	}
+
+	@Override
+	public <T> Stream<T> streamEntries(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope, String[] ldapReturnAttributes,
+			int count, int chunkSize) {
+    	PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(baseDN);
+		return persistenceEntryManager.streamEntries(baseDN, entryClass, filter, scope, ldapReturnAttributes, count, chunkSize);
+	}
+
 	@Override
 	public <T> List<T> findEntries(String baseDN, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes) {
     	PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(baseDN);
@@ -271,6 +338,14 @@ public class HybridEntryManager extends BaseEntryManager implements Serializable
 	            sortOrder, start, count, chunkSize);
     }
 
+    @Override
+    public <T> PagedResult<T> findPagedEntries(String baseDN, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes, String sortBy,
+            SortOrder sortOrder, String continuationToken, int count) {
+    	PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(baseDN);
+		return persistenceEntryManager.findPagedEntries(baseDN, entryClass, filter, ldapReturnAttributes, sortBy,
+	            sortOrder, continuationToken, count);
+    }
+
 	@Override
 	public boolean hasBranchesSupport(String dn) {
 		PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(dn);
@@ -365,6 +440,36 @@ public class HybridEntryManager extends BaseEntryManager implements Serializable
     	persistenceEntryManager.persist(entry);
 	}
 
+	@Override
+    public void persistOrMerge(Object entry) {
+        Class<?> entryClass = entry.getClass();
+        Object dnValue = getDNValue(entry, entryClass);
+
+    	PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(dnValue);
+    	persistenceEntryManager.persistOrMerge(entry);
+	}
+
+	@Override
+    public void persistAll(Collection<?> entries) {
+		// Split entries between entry managers
+		Map<PersistenceEntryManager, List<Object>> entriesByManager = new IdentityHashMap<PersistenceEntryManager, List<Object>>();
+		for (Object entry : entries) {
+	        Object dnValue = getDNValue(entry, entry.getClass());
+
+	        PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(dnValue);
+	        List<Object> managerEntries = entriesByManager.get(persistenceEntryManager);
+	        if (managerEntries == null) {
+	        	managerEntries = new ArrayList<Object>();
+	        	entriesByManager.put(persistenceEntryManager, managerEntries);
+	        }
+	        managerEntries.add(entry);
+		}
+
+		for (Entry<PersistenceEntryManager, List<Object>> managerEntries : entriesByManager.entrySet()) {
+			managerEntries.getKey().persistAll(managerEntries.getValue());
+		}
+	}
+
 	@Override
     public void remove(Object entry) {
         Class<?> entryClass = entry.getClass();
@@ -386,6 +491,27 @@ public class HybridEntryManager extends BaseEntryManager implements Serializable
     	return persistenceEntryManager.remove(primaryKey, entryClass, filter, count);
 	}
 
+	@Override
+	public <T> long removeInBatches(String primaryKey, Class<T> entryClass, Filter filter, int batchSize, long pauseMillis,
+			RemoveProgressListener progressListener) {
+		PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(primaryKey);
+    	return persistenceEntryManager.removeInBatches(primaryKey, entryClass, filter, batchSize, pauseMillis, progressListener);
+	}
+
+	@Override
+    public void setEntryCache(EntryCache entryCache) {
+        if (this.persistenceEntryManagers == null) {
+            return;
+        }
+
+        // Entries are loaded by entry managers
+        for (PersistenceEntryManager persistenceEntryManager : persistenceEntryManagers.values()) {
+        	if (persistenceEntryManager instanceof BaseEntryManager) {
+        		((BaseEntryManager) persistenceEntryManager).setEntryCache(entryCache);
+        	}
+        }
+    }
+
 	@Override
     public void removeDeleteSubscriber(DeleteNotifier subscriber) {
         if (this.persistenceEntryManagers == null) {
@@ -8,6 +8,7 @@ package io.jans.orm.ldap.impl;
 
 import com.unboundid.ldap.sdk.SearchResult;
 import com.unboundid.ldap.sdk.SearchResultEntry;
+import io.jans.orm.impl.BatchOperationPipeline;
 import io.jans.orm.model.BatchOperation;
 import io.jans.orm.reflect.property.PropertyAnnotation;
 
@@ -43,6 +44,14 @@ public class LdapBatchOperationWraper<T> {
         return batchOperation;
     }
 
+    public BatchOperationPipeline<T> createBatchOperationPipeline() {
+        if (ldapEntryManager == null) {
+            return new BatchOperationPipeline<T>(batchOperation, 0, null);
+        }
+
+        return ldapEntryManager.createBatchOperationPipeline(batchOperation);
+    }
+
     public List<T> createEntities(SearchResult searchResult) {
         if (ldapEntryManager == null) {
             return new ArrayList<T>(0);
@@ -10,6 +10,7 @@ import java.io.Serializable;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
@@ -20,6 +21,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
 
 import org.apache.commons.codec.binary.Base64;
 import io.jans.orm.PersistenceEntryManager;
@@ -32,6 +37,8 @@ import io.jans.orm.exception.EntryPersistenceException;
 import io.jans.orm.exception.operation.SearchException;
 import io.jans.orm.exception.operation.SearchScopeException;
 import io.jans.orm.impl.BaseEntryManager;
+import io.jans.orm.impl.PagedEntriesIterator;
+import io.jans.orm.impl.model.EntryToPersist;
 import io.jans.orm.ldap.operation.LdapOperationService;
 import io.jans.orm.ldap.operation.impl.LdapOperationServiceImpl;
 import io.jans.orm.model.AttributeData;
@@ -44,11 +51,13 @@ import io.jans.orm.model.SearchScope;
 import io.jans.orm.model.SortOrder;
 import io.jans.orm.reflect.property.PropertyAnnotation;
 import io.jans.orm.search.filter.Filter;
+import io.jans.orm.search.filter.FilterOptimizer;
 import io.jans.orm.util.ArrayHelper;
 import io.jans.orm.util.StringHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.unboundid.asn1.ASN1OctetString;
 import com.unboundid.ldap.sdk.Attribute;
 import com.unboundid.ldap.sdk.LDAPConnection;
 import com.unboundid.ldap.sdk.Modification;
@@ -56,6 +65,7 @@ import com.unboundid.ldap.sdk.ModificationType;
 import com.unboundid.ldap.sdk.ResultCode;
 import com.unboundid.ldap.sdk.SearchResult;
 import com.unboundid.ldap.sdk.SearchResultEntry;
+import com.unboundid.ldap.sdk.controls.SimplePagedResultsControl;
 import com.unboundid.util.StaticUtils;
 
 /**
@@ -69,6 +79,7 @@ public class LdapEntryManager extends BaseEntryManager implements Serializable {
 
     private static final Logger LOG = LoggerFactory.getLogger(LdapEntryManager.class);
 
+    private static final FilterOptimizer FILTER_OPTIMIZER = new FilterOptimizer();
     private static final LdapFilterConverter LDAP_FILTER_CONVERTER = new LdapFilterConverter();
     private static final LdapSearchScopeConverter LDAP_SEARCH_SCOPE_CONVERTER = new LdapSearchScopeConverter();
 
@@ -160,6 +171,67 @@ public class LdapEntryManager extends BaseEntryManager implements Serializable {
 
     @Override
     protected void persist(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
+        List<Attribute> ldapAttributes = toLdapAttributes(attributes);
+
+        // Persist entry
+        try {
+            boolean result = getOperationService().addEntry(dn, ldapAttributes);
+            if (!result) {
+                throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn));
+            }
+        } catch (ConnectionException ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn), ex.getCause());
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn), ex);
+        }
+    }
+
+    @Override
+    protected void persistAll(List<EntryToPersist> entries) {
+        Map<String, Collection<Attribute>> ldapEntries = new LinkedHashMap<String, Collection<Attribute>>();
+        for (EntryToPersist entryToPersist : entries) {
+            String dn = entryToPersist.getDn();
+            if (ldapEntries.put(dn, toLdapAttributes(entryToPersist.getAttributes())) != null) {
+                throw new EntryPersistenceException(String.format("Failed to persist entry: %s. Batch contains entries with same DN", dn));
+            }
+        }
+
+        // Persist entries
+        try {
+            boolean result = getOperationService().addEntries(ldapEntries);
+            if (!result) {
+                throw new EntryPersistenceException(String.format("Failed to persist %d entries", ldapEntries.size()));
+            }
+        } catch (ConnectionException ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist %d entries", ldapEntries.size()), ex.getCause());
+        } catch (EntryPersistenceException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist %d entries", ldapEntries.size()), ex);
+        }
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistAsync(final String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
+        List<Attribute> ldapAttributes = toLdapAttributes(attributes);
+
+        // Persist entry
+        return getOperationService().addEntryAsync(dn, ldapAttributes).handle(new BiFunction<Boolean, Throwable, Void>() {
+            @Override
+            public Void apply(Boolean result, Throwable ex) {
+                if (ex != null) {
+                    throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn), unwrapCompletionException(ex));
+                }
+                if (!Boolean.TRUE.equals(result)) {
+                    throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn));
+                }
+
+                return null;
+            }
+        });
+    }
+
+    private List<Attribute> toLdapAttributes(List<AttributeData> attributes) {
         List<Attribute> ldapAttributes = new ArrayList<Attribute>(attributes.size());
         for (AttributeData attribute : attributes) {
             String attributeName = attribute.getName();
@@ -176,17 +248,7 @@ public class LdapEntryManager extends BaseEntryManager implements Serializable {
             }
         }
 
-        // Persist entry
-        try {
-            boolean result = getOperationService().addEntry(dn, ldapAttributes);
-            if (!result) {
-                throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn));
-            }
-        } catch (ConnectionException ex) {
-            throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn), ex.getCause());
-        } catch (Exception ex) {
-            throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn), ex);
-        }
+        return ldapAttributes;
     }
 
     @Override
@@ -408,6 +470,56 @@ public class LdapEntryManager extends BaseEntryManager implements Serializable {
         throw new EntryPersistenceException(String.format("Failed to find entry: %s", dn));
     }
 
+    @Override
+    protected Map<String, List<AttributeData>> find(List<String> dns, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap,
+            String... ldapReturnAttributes) {
+        try {
+            // Load entries
+            Map<String, SearchResultEntry> entries = getOperationService().lookup(dns, ldapReturnAttributes);
+
+            Map<String, List<AttributeData>> result = new HashMap<String, List<AttributeData>>(entries.size());
+            for (Map.Entry<String, SearchResultEntry> entry : entries.entrySet()) {
+                List<AttributeData> attributes = getAttributeDataList(entry.getValue());
+                if (attributes != null) {
+                    result.put(entry.getKey(), attributes);
+                }
+            }
+
+            return result;
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to find entries: %s", dns), ex);
+        }
+    }
+
+    @Override
+    protected CompletableFuture<List<AttributeData>> findAsync(final String dn, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap,
+            String... ldapReturnAttributes) {
+        // Load entry
+        return getOperationService().lookupAsync(dn, ldapReturnAttributes).handle(new BiFunction<SearchResultEntry, Throwable, List<AttributeData>>() {
+            @Override
+            public List<AttributeData> apply(SearchResultEntry entry, Throwable ex) {
+                if (ex != null) {
+                    throw new EntryPersistenceException(String.format("Failed to find entry: %s", dn), unwrapCompletionException(ex));
+                }
+
+                List<AttributeData> result = getAttributeDataList(entry);
+                if (result == null) {
+                    throw new EntryPersistenceException(String.format("Failed to find entry: %s", dn));
+                }
+
+                return result;
+            }
+        });
+    }
+
+    private Throwable unwrapCompletionException(Throwable ex) {
+        if ((ex instanceof CompletionException) && (ex.getCause() != null)) {
+            return ex.getCause();
+        }
+
+        return ex;
+    }
+
     @Override
     public <T> List<T> findEntries(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope, String[] ldapReturnAttributes,
             BatchOperation<T> batchOperation, int start, int count, int chunkSize) {
@@ -421,7 +533,7 @@ public class LdapEntryManager extends BaseEntryManager implements Serializable {
         List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
         String[] currentLdapReturnAttributes = ldapReturnAttributes;
         if (ArrayHelper.isEmpty(currentLdapReturnAttributes)) {
-            currentLdapReturnAttributes = getAttributes(null, propertiesAnnotations, false);
+            currentLdapReturnAttributes = getEntryReturnAttributes(entryClass, propertiesAnnotations);
         }
 
         // Find entries
@@ -458,6 +570,111 @@ public class LdapEntryManager extends BaseEntryManager implements Serializable {
         return entries;
     }
 
+    @Override
+    public <T> Stream<T> streamEntries(final String baseDN, final Class<T> entryClass, Filter filter, SearchScope scope, String[] ldapReturnAttributes,
+            final int count, int chunkSize) {
+        if (StringHelper.isEmptyString(baseDN)) {
+            throw new MappingException("Base DN to find entries is null");
+        }
+
+        // Check entry class
+        checkEntryClass(entryClass, false);
+        String[] objectClasses = getTypeObjectClasses(entryClass);
+        final List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
+        String[] currentLdapReturnAttributes = ldapReturnAttributes;
+        if (ArrayHelper.isEmpty(currentLdapReturnAttributes)) {
+            currentLdapReturnAttributes = getEntryReturnAttributes(entryClass, propertiesAnnotations);
+        }
+
+        // Find entries
+        final Filter searchFilter;
+        if (objectClasses.length > 0) {
+            searchFilter = addObjectClassFilter(filter, objectClasses);
+        } else {
+            searchFilter = filter;
+        }
+
+        final com.unboundid.ldap.sdk.Filter ldapFilter;
+        final com.unboundid.ldap.sdk.SearchScope ldapSearchScope;
+        try {
+            ldapFilter = toLdapFilter(searchFilter);
+            ldapSearchScope = toLdapSearchScope(scope);
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to find entries with baseDN: %s, filter: %s", baseDN, searchFilter), ex);
+        }
+
+        final String[] searchReturnAttributes = currentLdapReturnAttributes;
+        final int pageSize = chunkSize > 0 ? chunkSize : DEFAULT_PAGINATION_SIZE;
+
+        // Keep connection during whole search to allow server resume it by cookie
+        PagedEntriesIterator<T> pagedEntriesIterator = new PagedEntriesIterator<T>() {
+
+            private LDAPConnection connection;
+            private ASN1OctetString cookie;
+            private int loaded = 0;
+
+            @Override
+            protected List<T> loadNextPage() {
+                int limit = pageSize;
+                if (count > 0) {
+                    limit = Math.min(pageSize, count - loaded);
+                }
+
+                SearchResult searchResult;
+                try {
+                    if (connection == null) {
+                        connection = getOperationService().getConnection();
+                    }
+                    searchResult = getOperationService().searchPage(connection, baseDN, ldapFilter, ldapSearchScope, limit, cookie,
+                            searchReturnAttributes);
+
+                    cookie = null;
+                    SimplePagedResultsControl simplePagedResultsControl = SimplePagedResultsControl.get(searchResult);
+                    if (simplePagedResultsControl != null) {
+                        cookie = simplePagedResultsControl.getCookie();
+                    }
+                } catch (Exception ex) {
+                    throw new EntryPersistenceException(String.format("Failed to find entries with baseDN: %s, filter: %s", baseDN, searchFilter), ex);
+                }
+
+                if (!ResultCode.SUCCESS.equals(searchResult.getResultCode())) {
+                    throw new EntryPersistenceException(String.format("Failed to find entries with baseDN: %s, filter: %s", baseDN, searchFilter));
+                }
+
+                List<SearchResultEntry> searchResultEntries = searchResult.getSearchEntries();
+                loaded += searchResultEntries.size();
+
+                if ((cookie == null) || (cookie.getValueLength() == 0) || ((count > 0) && (loaded >= count))) {
+                    finish();
+                }
+
+                return createEntities(entryClass, propertiesAnnotations,
+                        searchResultEntries.toArray(new SearchResultEntry[searchResultEntries.size()]));
+            }
+
+            @Override
+            protected void release() {
+                if (connection == null) {
+                    return;
+                }
+
+                try {
+                    // Abandon not finished paged search
+                    if ((cookie != null) && (cookie.getValueLength() > 0)) {
+                        getOperationService().searchPage(connection, baseDN, ldapFilter, ldapSearchScope, 0, cookie, "dn");
+                    }
+                } catch (Exception ex) {
+                    LOG.debug("Failed to abandon paged search with baseDN: {}, filter: {}", baseDN, searchFilter, ex);
+                } finally {
+                    getOperationService().releaseConnection(connection);
+                    connection = null;
+                }
+            }
+        };
+
+        return pagedEntriesIterator.stream();
+    }
+
     @Override
     public <T> PagedResult<T> findPagedEntries(String baseDN, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes, String sortBy,
             SortOrder sortOrder, int start, int count, int chunkSize) {
@@ -471,7 +688,7 @@ public class LdapEntryManager extends BaseEntryManager implements Serializable {
         List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
         String[] currentLdapReturnAttributes = ldapReturnAttributes;
         if (ArrayHelper.isEmpty(currentLdapReturnAttributes)) {
-            currentLdapReturnAttributes = getAttributes(null, propertiesAnnotations, false);
+            currentLdapReturnAttributes = getEntryReturnAttributes(entryClass, propertiesAnnotations);
         }
 
         // Find entries
@@ -515,7 +732,7 @@ public class LdapEntryManager extends BaseEntryManager implements Serializable {
         List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
         String[] currentLdapReturnAttributes = ldapReturnAttributes;
         if (ArrayHelper.isEmpty(currentLdapReturnAttributes)) {
-            currentLdapReturnAttributes = getAttributes(null, propertiesAnnotations, false);
+            currentLdapReturnAttributes = getEntryReturnAttributes(entryClass, propertiesAnnotations);
         }
 
         // Find entries
@@ -898,7 +1115,7 @@ public class LdapEntryManager extends BaseEntryManager implements Serializable {
     }
 
     private com.unboundid.ldap.sdk.Filter toLdapFilter(Filter genericFilter) throws SearchException {
-        return LDAP_FILTER_CONVERTER.convertToLdapFilter(genericFilter);
+        return LDAP_FILTER_CONVERTER.convertToLdapFilter(FILTER_OPTIMIZER.optimize(genericFilter));
     }
 
     private com.unboundid.ldap.sdk.SearchScope toLdapSearchScope(SearchScope scope) throws SearchScopeException {
@@ -9,14 +9,17 @@ package io.jans.orm.ldap.impl;
 import java.util.HashMap;
 import java.util.Properties;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 
 import io.jans.orm.PersistenceEntryManager;
 import io.jans.orm.PersistenceEntryManagerFactory;
+import io.jans.orm.cache.LruEntryCache;
 import io.jans.orm.exception.operation.ConfigurationException;
 import io.jans.orm.ldap.operation.impl.LdapAuthConnectionProvider;
 import io.jans.orm.ldap.operation.impl.LdapConnectionProvider;
 import io.jans.orm.ldap.operation.impl.LdapOperationServiceImpl;
+import io.jans.orm.ldap.operation.watch.OperationDurationUtil;
 import io.jans.orm.service.BaseFactoryService;
 import io.jans.orm.util.PropertiesHelper;
 import io.jans.orm.util.StringHelper;
@@ -38,6 +41,11 @@ public class LdapEntryManagerFactory implements PersistenceEntryManagerFactory {
 
 	private static final Logger LOG = LoggerFactory.getLogger(LdapEntryManagerFactory.class);
 
+    @PreDestroy
+    public void destroy() {
+    	OperationDurationUtil.instance().removeStatistics();
+    }
+
     @Override
     public String getPersistenceType() {
         return PERSISTENCE_TYPE;
@@ -76,6 +84,8 @@ public class LdapEntryManagerFactory implements PersistenceEntryManagerFactory {
 
         LdapEntryManager ldapEntryManager = new LdapEntryManager(new LdapOperationServiceImpl(connectionProvider, bindConnectionProvider));
         LOG.info("Created LdapEntryManager: {}", ldapEntryManager.getOperationService());
+        ldapEntryManager.setEntryCache(LruEntryCache.create(entryManagerConf));
+        ldapEntryManager.setBatchPrefetchDepth(StringHelper.toInteger(entryManagerConf.getProperty(LdapEntryManager.BATCH_PREFETCH_DEPTH_PROPERTY), 0));
 
         return ldapEntryManager;
     }
@@ -8,6 +8,8 @@ package io.jans.orm.ldap.operation;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import io.jans.orm.ldap.impl.LdapBatchOperationWraper;
 import io.jans.orm.exception.operation.ConnectionException;
@@ -18,6 +20,7 @@ import io.jans.orm.model.PagedResult;
 import io.jans.orm.model.SortOrder;
 import io.jans.orm.operation.PersistenceOperationService;
 
+import com.unboundid.asn1.ASN1OctetString;
 import com.unboundid.ldap.sdk.Attribute;
 import com.unboundid.ldap.sdk.Control;
 import com.unboundid.ldap.sdk.Filter;
@@ -57,6 +60,16 @@ public interface LdapOperationService extends PersistenceOperationService {
     <T> SearchResult search(String dn, Filter filter, SearchScope scope, LdapBatchOperationWraper<T> batchOperationWraper, int start,
                             int searchLimit, int count, Control[] controls, String... attributes) throws SearchException;
 
+    /**
+     * Search one page of entries with simple paged results control. All pages of search should be
+     * requested with the same connection
+     *
+     * @param cookie
+     *            cookie returned by previous page. Null for first page
+     */
+    SearchResult searchPage(LDAPConnection connection, String dn, Filter filter, SearchScope scope, int pageSize, ASN1OctetString cookie,
+                            String... attributes) throws SearchException;
+
     List<SearchResultEntry> searchSearchResultEntryList(String dn, Filter filter, SearchScope scope, int startIndex,
                                                         int count, int pageSize, String sortBy, SortOrder sortOrder,
                                                         PagedResult vlvResponse, String... attributes) throws Exception;
@@ -75,6 +88,25 @@ public interface LdapOperationService extends PersistenceOperationService {
      */
     SearchResultEntry lookup(String dn, String... attributes) throws ConnectionException, SearchException;
 
+    /**
+     * Lookup entries in the directory with pipelined requests over one connection
+     *
+     * @param dns
+     * @param attributes
+     * @return Found entries by DN. Map doesn't contain entries which not exist
+     * @throws ConnectionException
+     */
+    Map<String, SearchResultEntry> lookup(Collection<String> dns, String... attributes) throws ConnectionException, SearchException;
+
+    /**
+     * Lookup entry with async request. Connection is returned to pool after response
+     *
+     * @param dn
+     * @param attributes
+     * @return Future with entry or null if entry not exists
+     */
+    CompletableFuture<SearchResultEntry> lookupAsync(String dn, String... attributes);
+
     /**
      * Use this method to add new entry
      *
@@ -91,6 +123,24 @@ public interface LdapOperationService extends PersistenceOperationService {
      */
     boolean addEntry(String dn, Collection<Attribute> atts) throws DuplicateEntryException, ConnectionException;
 
+    /**
+     * Add entries with pipelined requests over one connection
+     *
+     * @param entries
+     *            entries attributes by DN
+     * @return true if all entries were added
+     */
+    boolean addEntries(Map<String, Collection<Attribute>> entries) throws DuplicateEntryException, ConnectionException;
+
+    /**
+     * Add entry with async request. Connection is returned to pool after response
+     *
+     * @param dn
+     * @param atts
+     * @return Future which completes after entry was added
+     */
+    CompletableFuture<Boolean> addEntryAsync(String dn, Collection<Attribute> atts);
+
     /**
      * This method is used to update set of attributes for an entry
      *
@@ -492,6 +492,10 @@ public class LdapConnectionProvider {
         return ResultCode.SUCCESS == this.creationResultCode;
     }
 
+    public Properties getProperties() {
+        return props;
+    }
+
     public String[] getServers() {
         return servers;
     }
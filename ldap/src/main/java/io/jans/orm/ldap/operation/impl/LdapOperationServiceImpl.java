@@ -9,15 +9,20 @@ package io.jans.orm.ldap.operation.impl;
 import java.io.Serializable;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.jans.orm.ldap.exception.InvalidSimplePageControlException;
 import io.jans.orm.ldap.impl.LdapBatchOperationWraper;
@@ -30,6 +35,7 @@ import io.jans.orm.exception.extension.PersistenceExtension;
 import io.jans.orm.exception.operation.ConnectionException;
 import io.jans.orm.exception.operation.DuplicateEntryException;
 import io.jans.orm.exception.operation.SearchException;
+import io.jans.orm.impl.BatchOperationPipeline;
 import io.jans.orm.ldap.operation.LdapOperationService;
 import io.jans.orm.model.BatchOperation;
 import io.jans.orm.model.PagedResult;
@@ -39,10 +45,17 @@ import io.jans.orm.operation.auth.PasswordEncryptionMethod;
 import io.jans.orm.util.ArrayHelper;
 import io.jans.orm.util.Pair;
 import io.jans.orm.util.StringHelper;
+import io.jans.orm.watch.OperationTimer;
+import io.jans.orm.watch.SlowOperation;
+import io.jans.orm.watch.SlowOperationLog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.AddRequest;
+import com.unboundid.ldap.sdk.AsyncRequestID;
+import com.unboundid.ldap.sdk.AsyncResultListener;
+import com.unboundid.ldap.sdk.AsyncSearchResultListener;
 import com.unboundid.ldap.sdk.Attribute;
 import com.unboundid.ldap.sdk.BindResult;
 import com.unboundid.ldap.sdk.Control;
@@ -82,11 +95,15 @@ public class LdapOperationServiceImpl implements LdapOperationService {
 
     private static final Logger LOG = LoggerFactory.getLogger(LdapOperationServiceImpl.class);
 
+    private static final int MAX_PIPELINED_REQUESTS = 64;
+
     private LdapConnectionProvider connectionProvider;
     private LdapConnectionProvider bindConnectionProvider;
 
 	private PersistenceExtension persistenceExtension;
 
+	private SlowOperationLog slowOperationLog;
+
     private static Map<String, Class<?>> ATTRIBUTE_DATA_TYPES = new HashMap<String, Class<?>>();
     private static List<String> OBJECT_CLASSES = new ArrayList<String>();
     private static final Map<String, Class<?>> OID_SYNTAX_CLASS_MAPPING;
@@ -121,6 +138,7 @@ public class LdapOperationServiceImpl implements LdapOperationService {
     public LdapOperationServiceImpl(LdapConnectionProvider connectionProvider, LdapConnectionProvider bindConnectionProvider) {
         this.connectionProvider = connectionProvider;
         this.bindConnectionProvider = bindConnectionProvider;
+        this.slowOperationLog = SlowOperationLog.create("LDAP", connectionProvider.getProperties());
         populateAttributeDataTypesMapping(getSubschemaSubentry());
     }
 
@@ -203,6 +221,7 @@ public class LdapOperationServiceImpl implements LdapOperationService {
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("LDAP operation: bind, duration: {}, dn: {}", duration, bindDn);
+        OperationDurationUtil.instance().record("bind", null, duration);
 
         return result;
     }
@@ -250,18 +269,25 @@ public class LdapOperationServiceImpl implements LdapOperationService {
     @Override
     public <T> SearchResult search(String dn, Filter filter, SearchScope scope, LdapBatchOperationWraper<T> batchOperationWraper, int start,
                                    int searchLimit, int count, Control[] controls, String... attributes) throws SearchException {
-        Instant startTime = OperationDurationUtil.instance().now();
-        
-        SearchResult result = searchImpl(dn, filter, scope, batchOperationWraper, start, searchLimit, count, controls, attributes);
+        SlowOperation slowOperation = slowOperationLog.start("search", dn);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("LDAP operation: search, duration: {}, dn: {}, filter: {}, scope: {}, batchOperationWraper: {}, start: {}, searchLimit: {}, count: {}, controls: {}, attributes: {}", duration, dn, filter, scope, batchOperationWraper, start, searchLimit, count, controls, attributes);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("search", null)) {
+            SearchResult result = searchImpl(dn, filter, scope, batchOperationWraper, start, searchLimit, count, controls, slowOperation, attributes);
 
-        return result;
+            Duration duration = timer.record(result.getEntryCount());
+            OperationDurationUtil.instance().logDebug("LDAP operation: search, duration: {}, dn: {}, filter: {}, scope: {}, batchOperationWraper: {}, start: {}, searchLimit: {}, count: {}, controls: {}, attributes: {}", duration, dn, filter, scope, batchOperationWraper, start, searchLimit, count, controls, attributes);
+
+            if (slowOperationLog.isSlow(slowOperation, duration)) {
+                slowOperation.setRows(result.getEntryCount());
+                slowOperationLog.log(slowOperation, duration);
+            }
+
+            return result;
+        }
     }
 
     private <T> SearchResult searchImpl(String dn, Filter filter, SearchScope scope, LdapBatchOperationWraper<T> batchOperationWraper, int start,
-            int searchLimit, int count, Control[] controls, String... attributes) throws SearchException {
+            int searchLimit, int count, Control[] controls, SlowOperation slowOperation, String... attributes) throws SearchException {
         SearchRequest searchRequest;
 
         BatchOperation<T> ldapBatchOperation = null;
@@ -303,7 +329,7 @@ public class LdapOperationServiceImpl implements LdapOperationService {
             boolean collectSearchResult;
 
             LDAPConnection ldapConnection = null;
-            try {
+            try (BatchOperationPipeline<T> batchOperationPipeline = (ldapBatchOperation == null) ? null : batchOperationWraper.createBatchOperationPipeline()) {
                 ldapConnection = getConnectionPool().getConnection();
                 ASN1OctetString cookie = null;
                 SimplePagedResponse simplePagedResponse = null;
@@ -329,6 +355,9 @@ public class LdapOperationServiceImpl implements LdapOperationService {
                     collectSearchResult = true;
                     searchRequest.setControls(new Control[] {new SimplePagedResultsControl(searchLimit, cookie)});
                     setControls(searchRequest, controls);
+                    if (slowOperation != null) {
+                        setSlowOperationQuery(slowOperation, scope, filter);
+                    }
                     searchResult = ldapConnection.search(searchRequest);
 
                     if (ldapBatchOperation != null) {
@@ -342,7 +371,7 @@ public class LdapOperationServiceImpl implements LdapOperationService {
 
                     if (ldapBatchOperation != null) {
                         List<T> entries = batchOperationWraper.createEntities(searchResult);
-                        ldapBatchOperation.performAction(entries);
+                        batchOperationPipeline.performAction(entries);
                     }
                     cookie = null;
                     try {
@@ -380,6 +409,9 @@ public class LdapOperationServiceImpl implements LdapOperationService {
             }
         } else {
             setControls(searchRequest, controls);
+            if (slowOperation != null) {
+                setSlowOperationQuery(slowOperation, scope, filter);
+            }
             try {
                 searchResult = getConnectionPool().search(searchRequest);
             } catch (LDAPSearchException ex) {
@@ -390,6 +422,120 @@ public class LdapOperationServiceImpl implements LdapOperationService {
         return searchResult;
     }
 
+    private void setSlowOperationQuery(SlowOperation slowOperation, SearchScope scope, Filter filter) {
+        List<Object> parameters = new ArrayList<Object>();
+
+        StringBuilder query = new StringBuilder();
+        query.append("scope: ").append(scope).append(", filter: ");
+        appendFilterTemplate(query, filter, parameters);
+
+        slowOperation.setQuery(query.toString(), parameters);
+    }
+
+    /*
+     * Render filter with placeholders instead of assertion values. Values are added to parameters
+     * to allow slow operation log redact them
+     */
+    private void appendFilterTemplate(StringBuilder query, Filter filter, List<Object> parameters) {
+        if (filter == null) {
+            return;
+        }
+
+        switch (filter.getFilterType()) {
+        case Filter.FILTER_TYPE_AND:
+        case Filter.FILTER_TYPE_OR:
+            query.append('(').append((filter.getFilterType() == Filter.FILTER_TYPE_AND) ? '&' : '|');
+            for (Filter component : filter.getComponents()) {
+                appendFilterTemplate(query, component, parameters);
+            }
+            query.append(')');
+            break;
+        case Filter.FILTER_TYPE_NOT:
+            query.append("(!");
+            appendFilterTemplate(query, filter.getNOTComponent(), parameters);
+            query.append(')');
+            break;
+        case Filter.FILTER_TYPE_PRESENCE:
+            query.append('(').append(filter.getAttributeName()).append("=*)");
+            break;
+        case Filter.FILTER_TYPE_SUBSTRING:
+            query.append('(').append(filter.getAttributeName()).append('=');
+            if (filter.getSubInitialString() != null) {
+                query.append('?');
+                parameters.add(filter.getSubInitialString());
+            }
+            for (String subAny : filter.getSubAnyStrings()) {
+                query.append("*?");
+                parameters.add(subAny);
+            }
+            query.append('*');
+            if (filter.getSubFinalString() != null) {
+                query.append('?');
+                parameters.add(filter.getSubFinalString());
+            }
+            query.append(')');
+            break;
+        case Filter.FILTER_TYPE_EXTENSIBLE_MATCH:
+            query.append('(');
+            if (filter.getAttributeName() != null) {
+                query.append(filter.getAttributeName());
+            }
+            if (filter.getDNAttributes()) {
+                query.append(":dn");
+            }
+            if (filter.getMatchingRuleID() != null) {
+                query.append(':').append(filter.getMatchingRuleID());
+            }
+            query.append(":=?)");
+            parameters.add(filter.getAssertionValue());
+            break;
+        default:
+            String operator;
+            if (filter.getFilterType() == Filter.FILTER_TYPE_GREATER_OR_EQUAL) {
+                operator = ">=";
+            } else if (filter.getFilterType() == Filter.FILTER_TYPE_LESS_OR_EQUAL) {
+                operator = "<=";
+            } else if (filter.getFilterType() == Filter.FILTER_TYPE_APPROXIMATE_MATCH) {
+                operator = "~=";
+            } else {
+                operator = "=";
+            }
+            query.append('(').append(filter.getAttributeName()).append(operator).append("?)");
+            parameters.add(filter.getAssertionValue());
+            break;
+        }
+    }
+
+    @Override
+    public SearchResult searchPage(LDAPConnection connection, String dn, Filter filter, SearchScope scope, int pageSize, ASN1OctetString cookie,
+            String... attributes) throws SearchException {
+        try (OperationTimer timer = OperationDurationUtil.instance().start("search_page", null)) {
+            SearchResult result = searchPageImpl(connection, dn, filter, scope, pageSize, cookie, attributes);
+
+            Duration duration = timer.record(result.getEntryCount());
+            OperationDurationUtil.instance().logDebug("LDAP operation: search_page, duration: {}, dn: {}, filter: {}, scope: {}, pageSize: {}, attributes: {}", duration, dn, filter, scope, pageSize, attributes);
+
+            return result;
+        }
+    }
+
+    private SearchResult searchPageImpl(LDAPConnection connection, String dn, Filter filter, SearchScope scope, int pageSize, ASN1OctetString cookie,
+            String... attributes) throws SearchException {
+        SearchRequest searchRequest;
+        if (attributes == null) {
+            searchRequest = new SearchRequest(dn, scope, filter);
+        } else {
+            searchRequest = new SearchRequest(dn, scope, filter, attributes);
+        }
+        searchRequest.setControls(new Control[] {new SimplePagedResultsControl(pageSize, cookie)});
+
+        try {
+            return connection.search(searchRequest);
+        } catch (LDAPSearchException ex) {
+            throw new SearchException(ex.getMessage(), ex, ex.getResultCode().intValue());
+        }
+    }
+
     private SimplePagedResponse scrollSimplePagedResultsControl(LDAPConnection ldapConnection, String dn, Filter filter, SearchScope scope,
             Control[] controls, int start) throws LDAPException, InvalidSimplePageControlException {
         SearchRequest searchRequest = new SearchRequest(dn, scope, filter, "dn");
@@ -422,14 +568,14 @@ public class LdapOperationServiceImpl implements LdapOperationService {
     public List<SearchResultEntry> searchSearchResultEntryList(String dn, Filter filter, SearchScope scope, int startIndex,
                                                                int count, int pageSize, String sortBy, SortOrder sortOrder,
                                                                PagedResult vlvResponse, String... attributes) throws Exception {
-        Instant startTime = OperationDurationUtil.instance().now();
-        
-        List<SearchResultEntry> result = searchSearchResultEntryListImpl(dn, filter, scope, startIndex, count, pageSize, sortBy, sortOrder, vlvResponse, attributes);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("search_result_list", null)) {
+            List<SearchResultEntry> result = searchSearchResultEntryListImpl(dn, filter, scope, startIndex, count, pageSize, sortBy, sortOrder, vlvResponse, attributes);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("LDAP operation: search_result_list, duration: {}, dn: {}, filter: {}, scope: {}, startIndex: {}, count: {}, pageSize: {}, sortBy: {}, sortOrder: {}, vlvResponse: {}, attributes: {}", duration, dn, filter, scope, startIndex, count, pageSize, sortBy, sortOrder, vlvResponse, attributes);
+            Duration duration = timer.record(result.size());
+            OperationDurationUtil.instance().logDebug("LDAP operation: search_result_list, duration: {}, dn: {}, filter: {}, scope: {}, startIndex: {}, count: {}, pageSize: {}, sortBy: {}, sortOrder: {}, vlvResponse: {}, attributes: {}", duration, dn, filter, scope, startIndex, count, pageSize, sortBy, sortOrder, vlvResponse, attributes);
 
-        return result;
+            return result;
+        }
     }
 
     private List<SearchResultEntry> searchSearchResultEntryListImpl(String dn, Filter filter, SearchScope scope, int start, int count,
@@ -527,14 +673,14 @@ public class LdapOperationServiceImpl implements LdapOperationService {
     @Deprecated
     public SearchResult searchVirtualListView(String dn, Filter filter, SearchScope scope, int start, int count, String sortBy,
             SortOrder sortOrder, PagedResult vlvResponse, String... attributes) throws Exception {
-        Instant startTime = OperationDurationUtil.instance().now();
+        try (OperationTimer timer = OperationDurationUtil.instance().start("search_virtual_list_view", null)) {
+            SearchResult result = searchVirtualListViewImpl(dn, filter, scope, start, count, sortBy, sortOrder, vlvResponse, attributes);
 
-        SearchResult result = searchVirtualListViewImpl(dn, filter, scope, start, count, sortBy, sortOrder, vlvResponse, attributes);
+            Duration duration = timer.record(result.getEntryCount());
+            OperationDurationUtil.instance().logDebug("LDAP operation: search_virtual_list_view, duration: {}, dn: {}, filter: {}, scope: {}, start: {}, count: {}, sortBy: {}, sortOrder: {}, vlvResponse: {}, attributes: {}", duration, dn, filter, scope, start, count, sortBy, sortOrder, vlvResponse, attributes);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("LDAP operation: search_virtual_list_view, duration: {}, dn: {}, filter: {}, scope: {}, start: {}, count: {}, sortBy: {}, sortOrder: {}, vlvResponse: {}, attributes: {}", duration, dn, filter, scope, start, count, sortBy, sortOrder, vlvResponse, attributes);
-
-        return result;
+            return result;
+        }
     }
 
     private SearchResult searchVirtualListViewImpl(String dn, Filter filter, SearchScope scope, int start, int count, String sortBy,
@@ -601,47 +747,214 @@ public class LdapOperationServiceImpl implements LdapOperationService {
 
     @Override
     public SearchResultEntry lookup(String dn, String... attributes) throws ConnectionException, SearchException {
-        Instant startTime = OperationDurationUtil.instance().now();
-        
-        SearchResultEntry result = lookupImpl(dn, attributes);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("lookup", null)) {
+            SearchResultEntry result = lookupImpl(dn, attributes);
+            int rows = (result == null) ? 0 : 1;
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("LDAP operation: lookup, duration: {}, dn: {}, attributes: {}", duration, dn, attributes);
+            Duration duration = timer.record(rows);
+            OperationDurationUtil.instance().logDebug("LDAP operation: lookup, duration: {}, dn: {}, attributes: {}", duration, dn, attributes);
+            slowOperationLog.logIfSlow("lookup", dn, duration, rows);
 
-        return result;
+            if (result == null) {
+                throw new SearchException(String.format("Failed to lookup entry by DN: '%s'", dn));
+            }
+
+            return result;
+        }
     }
 
     private SearchResultEntry lookupImpl(String dn, String... attributes) throws SearchException {
         try {
-        	SearchResultEntry result;
             if (attributes == null) {
-            	result = getConnectionPool().getEntry(dn);
+            	return getConnectionPool().getEntry(dn);
             } else {
-            	result = getConnectionPool().getEntry(dn, attributes);
-            }
-
-            if (result != null) {
-            	return result;
+            	return getConnectionPool().getEntry(dn, attributes);
             }
         } catch (Exception ex) {
             throw new ConnectionException("Failed to lookup entry", ex);
         }
+    }
 
-        throw new SearchException(String.format("Failed to lookup entry by DN: '%s'", dn));
+    @Override
+    public Map<String, SearchResultEntry> lookup(Collection<String> dns, String... attributes) throws ConnectionException, SearchException {
+        try (OperationTimer timer = OperationDurationUtil.instance().start("lookup_batch", null)) {
+            Map<String, SearchResultEntry> result = lookupImpl(dns, attributes);
+
+            Duration duration = timer.record(result.size());
+            OperationDurationUtil.instance().logDebug("LDAP operation: lookup_batch, duration: {}, dns: {}, attributes: {}", duration, dns, attributes);
+
+            return result;
+        }
+    }
+
+    private Map<String, SearchResultEntry> lookupImpl(Collection<String> dns, String... attributes) throws ConnectionException, SearchException {
+        LDAPConnection connection;
+        try {
+            connection = connectionProvider.getConnection();
+        } catch (LDAPException ex) {
+            throw new ConnectionException("Failed to get connection from pool", ex);
+        }
+
+        // Listeners are called from connection reader thread
+        final Map<String, SearchResultEntry> result = new ConcurrentHashMap<String, SearchResultEntry>(dns.size());
+        String[] returnAttributes = attributes == null ? new String[0] : attributes;
+
+        // Send lookup requests without waiting for previous responses
+        Deque<AsyncRequestID> requestIds = new ArrayDeque<AsyncRequestID>(MAX_PIPELINED_REQUESTS);
+        LDAPException failure = null;
+        try {
+            for (final String dn : dns) {
+                if (requestIds.size() >= MAX_PIPELINED_REQUESTS) {
+                    checkLookupResult(requestIds.poll());
+                }
+
+                AsyncSearchResultListener searchResultListener = new AsyncSearchResultListener() {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    public void searchEntryReturned(SearchResultEntry searchEntry) {
+                        result.put(dn, searchEntry);
+                    }
+
+                    @Override
+                    public void searchReferenceReturned(SearchResultReference searchReference) {
+                    }
+
+                    @Override
+                    public void searchResultReceived(AsyncRequestID requestID, SearchResult searchResult) {
+                        // Result code is checked after request completion
+                    }
+                };
+
+                SearchRequest searchRequest = new SearchRequest(searchResultListener, dn, SearchScope.BASE,
+                        Filter.createPresenceFilter("objectClass"), returnAttributes);
+                requestIds.add(connection.asyncSearch(searchRequest));
+            }
+
+            while (!requestIds.isEmpty()) {
+                checkLookupResult(requestIds.poll());
+            }
+        } catch (LDAPException ex) {
+            failure = ex;
+            throw new ConnectionException("Failed to lookup entries", ex);
+        } finally {
+            if (failure == null) {
+                connectionProvider.releaseConnection(connection);
+            } else {
+                waitForResponses(requestIds);
+                connectionProvider.releaseConnection(connection, failure);
+            }
+        }
+
+        return result;
     }
 
     @Override
-    public boolean addEntry(String dn, Collection<Attribute> attributes) throws DuplicateEntryException, ConnectionException {
-        Instant startTime = OperationDurationUtil.instance().now();
-        
-        boolean result = addEntryImpl(dn, attributes);
+    public CompletableFuture<SearchResultEntry> lookupAsync(final String dn, final String... attributes) {
+        final CompletableFuture<SearchResultEntry> result = new CompletableFuture<SearchResultEntry>();
+
+        final LDAPConnection connection;
+        try {
+            connection = connectionProvider.getConnection();
+        } catch (LDAPException ex) {
+            result.completeExceptionally(new ConnectionException("Failed to get connection from pool", ex));
+            return result;
+        }
+
+        final Instant startTime = OperationDurationUtil.instance().now();
+        AsyncSearchResultListener searchResultListener = new AsyncSearchResultListener() {
+            private static final long serialVersionUID = 1L;
+
+            // Listener methods are called from one connection reader thread
+            private SearchResultEntry searchResultEntry;
+
+            @Override
+            public void searchEntryReturned(SearchResultEntry searchEntry) {
+                this.searchResultEntry = searchEntry;
+            }
+
+            @Override
+            public void searchReferenceReturned(SearchResultReference searchReference) {
+            }
+
+            @Override
+            public void searchResultReceived(AsyncRequestID requestID, SearchResult searchResult) {
+                Duration duration = OperationDurationUtil.instance().duration(startTime);
+                OperationDurationUtil.instance().logDebug("LDAP operation: lookup_async, duration: {}, dn: {}, attributes: {}", duration, dn, attributes);
+
+                ResultCode resultCode = searchResult.getResultCode();
+                if ((resultCode == ResultCode.SUCCESS) || (resultCode == ResultCode.NO_SUCH_OBJECT)) {
+                    connectionProvider.releaseConnection(connection);
+                    OperationDurationUtil.instance().record("lookup_async", null, duration, (searchResultEntry == null) ? 0 : 1);
+                    result.complete(searchResultEntry);
+                } else {
+                    LDAPException ex = new LDAPException(searchResult);
+                    connectionProvider.releaseConnection(connection, ex);
+                    OperationDurationUtil.instance().recordError("lookup_async", null);
+                    result.completeExceptionally(new ConnectionException("Failed to lookup entry", ex));
+                }
+            }
+        };
+
+        try {
+            SearchRequest searchRequest = new SearchRequest(searchResultListener, dn, SearchScope.BASE,
+                    Filter.createPresenceFilter("objectClass"), attributes == null ? new String[0] : attributes);
+            connection.asyncSearch(searchRequest);
+        } catch (LDAPException ex) {
+            connectionProvider.releaseConnection(connection, ex);
+            OperationDurationUtil.instance().recordError("lookup_async", null);
+            result.completeExceptionally(new ConnectionException("Failed to lookup entry", ex));
+        }
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("LDAP operation: add, duration: {}, dn: {}, attributes: {}", duration, dn, attributes);
-        
         return result;
     }
 
+    private void checkLookupResult(AsyncRequestID requestId) throws LDAPException {
+        LDAPResult result = getAsyncResult(requestId);
+
+        // Entry not exists
+        if (result.getResultCode() == ResultCode.NO_SUCH_OBJECT) {
+            return;
+        }
+
+        if (result.getResultCode() != ResultCode.SUCCESS) {
+            throw new LDAPException(result);
+        }
+    }
+
+    private LDAPResult getAsyncResult(AsyncRequestID requestId) throws LDAPException {
+        try {
+            return requestId.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new LDAPException(ResultCode.LOCAL_ERROR, "Interrupted while waiting for response", ex);
+        }
+    }
+
+    private void waitForResponses(Collection<AsyncRequestID> requestIds) {
+        // Wait for responses to already sent requests before return connection to pool
+        for (AsyncRequestID requestId : requestIds) {
+            try {
+                requestId.get();
+            } catch (Exception ex) {
+                LOG.trace("Failed to get response", ex);
+            }
+        }
+    }
+
+    @Override
+    public boolean addEntry(String dn, Collection<Attribute> attributes) throws DuplicateEntryException, ConnectionException {
+        try (OperationTimer timer = OperationDurationUtil.instance().start("add", null)) {
+            boolean result = addEntryImpl(dn, attributes);
+
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("LDAP operation: add, duration: {}, dn: {}, attributes: {}", duration, dn, attributes);
+            slowOperationLog.logIfSlow("add", dn, duration, -1);
+
+            return result;
+        }
+    }
+
     private boolean addEntryImpl(String dn, Collection<Attribute> attributes) throws DuplicateEntryException {
     	if (this.persistenceExtension != null) {
     		updateUserPasswordAttribute(attributes);
@@ -653,24 +966,151 @@ public class LdapOperationServiceImpl implements LdapOperationService {
                 return true;
             }
         } catch (final LDAPException ex) {
-            int errorCode = ex.getResultCode().intValue();
-            if (errorCode == ResultCode.ENTRY_ALREADY_EXISTS_INT_VALUE) {
-                throw new DuplicateEntryException();
+            throwAddEntryException(ex);
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean addEntries(Map<String, Collection<Attribute>> entries) throws DuplicateEntryException, ConnectionException {
+        try (OperationTimer timer = OperationDurationUtil.instance().start("add_batch", null)) {
+            boolean result = addEntriesImpl(entries);
+
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("LDAP operation: add_batch, duration: {}, dns: {}", duration, entries.keySet());
+
+            return result;
+        }
+    }
+
+    private boolean addEntriesImpl(Map<String, Collection<Attribute>> entries) throws DuplicateEntryException, ConnectionException {
+        LDAPConnection connection;
+        try {
+            connection = connectionProvider.getConnection();
+        } catch (LDAPException ex) {
+            throw new ConnectionException("Failed to get connection from pool", ex);
+        }
+
+        // Send add requests without waiting for previous responses
+        Deque<AsyncRequestID> requestIds = new ArrayDeque<AsyncRequestID>(MAX_PIPELINED_REQUESTS);
+        LDAPException failure = null;
+        try {
+            for (Entry<String, Collection<Attribute>> entry : entries.entrySet()) {
+                Collection<Attribute> attributes = entry.getValue();
+                if (this.persistenceExtension != null) {
+                    updateUserPasswordAttribute(attributes);
+                }
+
+                if (requestIds.size() >= MAX_PIPELINED_REQUESTS) {
+                    checkAddEntryResult(requestIds.poll());
+                }
+
+                requestIds.add(connection.asyncAdd(new AddRequest(entry.getKey(), attributes), null));
             }
-            if (errorCode == ResultCode.INSUFFICIENT_ACCESS_RIGHTS_INT_VALUE) {
-                throw new ConnectionException("LDAP config error: insufficient access rights.", ex);
+
+            while (!requestIds.isEmpty()) {
+                checkAddEntryResult(requestIds.poll());
             }
-            if (errorCode == ResultCode.TIME_LIMIT_EXCEEDED_INT_VALUE) {
-                throw new ConnectionException("LDAP Error: time limit exceeded", ex);
+
+            return true;
+        } catch (LDAPException ex) {
+            failure = ex;
+            throwAddEntryException(ex);
+        } finally {
+            if (failure == null) {
+                connectionProvider.releaseConnection(connection);
+            } else {
+                waitForResponses(requestIds);
+                connectionProvider.releaseConnection(connection, failure);
             }
-            if (errorCode == ResultCode.OBJECT_CLASS_VIOLATION_INT_VALUE) {
-                throw new ConnectionException("LDAP config error: schema violation contact LDAP admin.", ex);
+        }
+
+        return false;
+    }
+
+    private void checkAddEntryResult(AsyncRequestID requestId) throws LDAPException {
+        LDAPResult result = getAsyncResult(requestId);
+
+        if (result.getResultCode() != ResultCode.SUCCESS) {
+            throw new LDAPException(result);
+        }
+    }
+
+    private void throwAddEntryException(LDAPException ex) throws DuplicateEntryException, ConnectionException {
+        Exception addEntryException = toAddEntryException(ex);
+        if (addEntryException instanceof DuplicateEntryException) {
+            throw (DuplicateEntryException) addEntryException;
+        }
+
+        throw (ConnectionException) addEntryException;
+    }
+
+    private Exception toAddEntryException(LDAPException ex) {
+        int errorCode = ex.getResultCode().intValue();
+        if (errorCode == ResultCode.ENTRY_ALREADY_EXISTS_INT_VALUE) {
+            return new DuplicateEntryException();
+        }
+        if (errorCode == ResultCode.INSUFFICIENT_ACCESS_RIGHTS_INT_VALUE) {
+            return new ConnectionException("LDAP config error: insufficient access rights.", ex);
+        }
+        if (errorCode == ResultCode.TIME_LIMIT_EXCEEDED_INT_VALUE) {
+            return new ConnectionException("LDAP Error: time limit exceeded", ex);
+        }
+        if (errorCode == ResultCode.OBJECT_CLASS_VIOLATION_INT_VALUE) {
+            return new ConnectionException("LDAP config error: schema violation contact LDAP admin.", ex);
+        }
+
+        return new ConnectionException("Error adding entry to directory. LDAP error number " + errorCode, ex);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addEntryAsync(final String dn, Collection<Attribute> attributes) {
+        final CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
+
+        final LDAPConnection connection;
+        try {
+            connection = connectionProvider.getConnection();
+        } catch (LDAPException ex) {
+            result.completeExceptionally(new ConnectionException("Failed to get connection from pool", ex));
+            return result;
+        }
+
+        if (this.persistenceExtension != null) {
+            updateUserPasswordAttribute(attributes);
+        }
+
+        final Instant startTime = OperationDurationUtil.instance().now();
+        AsyncResultListener resultListener = new AsyncResultListener() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void ldapResultReceived(AsyncRequestID requestID, LDAPResult ldapResult) {
+                Duration duration = OperationDurationUtil.instance().duration(startTime);
+                OperationDurationUtil.instance().logDebug("LDAP operation: add_async, duration: {}, dn: {}", duration, dn);
+
+                if (ldapResult.getResultCode() == ResultCode.SUCCESS) {
+                    connectionProvider.releaseConnection(connection);
+                    OperationDurationUtil.instance().record("add_async", null, duration);
+                    result.complete(true);
+                } else {
+                    LDAPException ex = new LDAPException(ldapResult);
+                    connectionProvider.releaseConnection(connection, ex);
+                    OperationDurationUtil.instance().recordError("add_async", null);
+                    result.completeExceptionally(toAddEntryException(ex));
+                }
             }
+        };
 
-            throw new ConnectionException("Error adding entry to directory. LDAP error number " + errorCode, ex);
+        try {
+            connection.asyncAdd(new AddRequest(dn, attributes), resultListener);
+        } catch (LDAPException ex) {
+            connectionProvider.releaseConnection(connection, ex);
+            OperationDurationUtil.instance().recordError("add_async", null);
+            result.completeExceptionally(toAddEntryException(ex));
         }
 
-        return false;
+        return result;
     }
 
     @Deprecated
@@ -696,14 +1136,15 @@ public class LdapOperationServiceImpl implements LdapOperationService {
 
     @Override
     public boolean updateEntry(String dn, List<Modification> modifications) throws DuplicateEntryException, ConnectionException {
-        Instant startTime = OperationDurationUtil.instance().now();
-        
-        boolean result = updateEntryImpl(dn, modifications);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("modify", null)) {
+            boolean result = updateEntryImpl(dn, modifications);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("LDAP operation: modify, duration: {}, dn: {}, modifications: {}", duration, dn, modifications);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("LDAP operation: modify, duration: {}, dn: {}, modifications: {}", duration, dn, modifications);
+            slowOperationLog.logIfSlow("modify", dn, duration, -1);
 
-        return result;
+            return result;
+        }
     }
 
     private boolean updateEntryImpl(String dn, List<Modification> modifications) throws DuplicateEntryException {
@@ -746,14 +1187,15 @@ public class LdapOperationServiceImpl implements LdapOperationService {
 
     @Override
     public boolean delete(String dn) throws ConnectionException {
-        Instant startTime = OperationDurationUtil.instance().now();
+        try (OperationTimer timer = OperationDurationUtil.instance().start("delete", null)) {
+            boolean result = deleteImpl(dn);
 
-        boolean result = deleteImpl(dn);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("LDAP operation: delete, duration: {}, dn: {}", duration, dn);
+            slowOperationLog.logIfSlow("delete", dn, duration, -1);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("LDAP operation: delete, duration: {}, dn: {}", duration, dn);
-
-        return result;
+            return result;
+        }
     }
 
     private boolean deleteImpl(String dn) {
@@ -768,14 +1210,14 @@ public class LdapOperationServiceImpl implements LdapOperationService {
 
     @Override
     public boolean deleteRecursively(String dn) throws ConnectionException {
-        Instant startTime = OperationDurationUtil.instance().now();
+        try (OperationTimer timer = OperationDurationUtil.instance().start("delete_tree", null)) {
+            boolean result = deleteRecursivelyImpl(dn);
 
-        boolean result = deleteRecursivelyImpl(dn);
-
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("LDAP operation: delete_tree, duration: {}, dn: {}", duration, dn);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("LDAP operation: delete_tree, duration: {}, dn: {}", duration, dn);
 
-        return result;
+            return result;
+        }
     }
 
     protected boolean deleteRecursivelyImpl(String dn) {
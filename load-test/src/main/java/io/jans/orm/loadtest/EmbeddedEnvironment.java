@@ -0,0 +1,22 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.loadtest;
+
+import io.jans.orm.PersistenceEntryManager;
+
+/**
+ * Embedded server with entry manager connected to it
+ */
+public interface EmbeddedEnvironment {
+
+	String getDescription();
+
+	PersistenceEntryManager getEntryManager();
+
+	void close();
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.loadtest;
+
+import java.net.InetAddress;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.InMemoryListenerConfig;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPException;
+
+import io.jans.orm.PersistenceEntryManager;
+import io.jans.orm.ldap.impl.LdapEntryManager;
+import io.jans.orm.ldap.impl.LdapEntryManagerFactory;
+
+/**
+ * UnboundID in-memory directory server with base entries of sample models
+ */
+public class EmbeddedLdapEnvironment implements EmbeddedEnvironment {
+
+	private static final Logger LOG = LoggerFactory.getLogger(EmbeddedLdapEnvironment.class);
+
+	private static final String BIND_DN = "cn=directory manager";
+	private static final String BIND_PASSWORD = "secret";
+
+	private final InMemoryDirectoryServer directoryServer;
+	private final LdapEntryManager entryManager;
+
+	public EmbeddedLdapEnvironment(Properties properties) throws LDAPException {
+		InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(LoadWorkload.BASE_DN);
+		config.addAdditionalBindCredentials(BIND_DN, BIND_PASSWORD);
+		config.setListenerConfigs(InMemoryListenerConfig.createLDAPConfig("default", InetAddress.getLoopbackAddress(), 0, null));
+		// Default schema has no Janssen object classes and attributes
+		config.setSchema(null);
+
+		this.directoryServer = new InMemoryDirectoryServer(config);
+		this.directoryServer.startListening();
+
+		directoryServer.add(new Entry(LoadWorkload.BASE_DN, new Attribute("objectClass", "top", "organization"), new Attribute("o", "jans")));
+		addOrganizationalUnit(LoadWorkload.PEOPLE_BASE_DN, "people");
+		addOrganizationalUnit(LoadWorkload.SESSIONS_BASE_DN, "sessions");
+		addOrganizationalUnit(LoadWorkload.UMA_BASE_DN, "uma");
+		addOrganizationalUnit(LoadWorkload.RESOURCES_BASE_DN, "resources");
+
+		Properties connectionProperties = new Properties();
+		connectionProperties.put("ldap#servers", "localhost:" + directoryServer.getListenPort());
+		connectionProperties.put("ldap#bindDN", BIND_DN);
+		connectionProperties.put("ldap#bindPassword", BIND_PASSWORD);
+		connectionProperties.put("ldap#maxconnections", "64");
+		connectionProperties.putAll(properties);
+
+		LdapEntryManagerFactory ldapEntryManagerFactory = new LdapEntryManagerFactory();
+		this.entryManager = ldapEntryManagerFactory.createEntryManager(connectionProperties);
+		LOG.debug("Created LdapEntryManager: {}", entryManager);
+	}
+
+	private void addOrganizationalUnit(String dn, String name) throws LDAPException {
+		directoryServer.add(new Entry(dn, new Attribute("objectClass", "top", "organizationalUnit"), new Attribute("ou", name)));
+	}
+
+	@Override
+	public String getDescription() {
+		return "LDAP (UnboundID in-memory directory server)";
+	}
+
+	@Override
+	public PersistenceEntryManager getEntryManager() {
+		return entryManager;
+	}
+
+	@Override
+	public void close() {
+		entryManager.destroy();
+		directoryServer.shutDown(true);
+	}
+
+}
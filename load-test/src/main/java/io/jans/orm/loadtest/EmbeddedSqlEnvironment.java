@@ -0,0 +1,103 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jans.orm.PersistenceEntryManager;
+import io.jans.orm.sql.impl.SqlEntryManager;
+import io.jans.orm.sql.impl.SqlEntryManagerFactory;
+
+/**
+ * In-memory H2 database in MySQL compatibility mode with tables of sample models
+ */
+public class EmbeddedSqlEnvironment implements EmbeddedEnvironment {
+
+	private static final Logger LOG = LoggerFactory.getLogger(EmbeddedSqlEnvironment.class);
+
+	public static final String CONNECTION_URI = "jdbc:h2:mem:jans;MODE=MySQL;DATABASE_TO_UPPER=FALSE;DB_CLOSE_DELAY=-1";
+	public static final String SCHEMA_NAME = "jans";
+
+	private static final String USER_NAME = "jans";
+	private static final String USER_PASSWORD = "secret";
+
+	private static final String[] SCHEMA = new String[] {
+		"CREATE SCHEMA jans",
+		"CREATE TABLE jans.jansPerson (doc_id VARCHAR(64) PRIMARY KEY, objectClass VARCHAR(48), dn VARCHAR(128), "
+				+ "uid VARCHAR(64), userPassword VARCHAR(256), role VARCHAR(32), memberOf JSON, mail VARCHAR(96), "
+				+ "displayName VARCHAR(128), jansStatus VARCHAR(16))",
+		"CREATE INDEX jansPerson_uid ON jans.jansPerson (uid)",
+		"CREATE TABLE jans.jansSessId (doc_id VARCHAR(64) PRIMARY KEY, objectClass VARCHAR(48), dn VARCHAR(128), "
+				+ "jansId VARCHAR(64), jansLastAccessTime DATETIME(3), jansUsrDN VARCHAR(128), authnTime DATETIME(3), "
+				+ "jansPermissionGranted SMALLINT, jansAsJwt SMALLINT, jansJwt VARCHAR(4096), jansSessAttr VARCHAR(4096))",
+		"CREATE TABLE jans.jansUmaResource (doc_id VARCHAR(64) PRIMARY KEY, objectClass VARCHAR(48), dn VARCHAR(128), "
+				+ "inum VARCHAR(64), jansId VARCHAR(64), displayName VARCHAR(128), jansFaviconImage VARCHAR(256), "
+				+ "jansUmaScope JSON, jansScopeExpression VARCHAR(1024), jansAssociatedClnt JSON, jansResource JSON, "
+				+ "jansRevision VARCHAR(64), owner VARCHAR(128), description VARCHAR(768), jansTyp VARCHAR(64), "
+				+ "iat DATETIME(3), exp DATETIME(3), del SMALLINT)",
+		"CREATE INDEX jansUmaResource_owner ON jans.jansUmaResource (owner)"
+	};
+
+	private final Connection connection;
+	private final SqlEntryManager entryManager;
+
+	public EmbeddedSqlEnvironment(Properties properties) throws SQLException {
+		// Connection keeps database until environment close
+		this.connection = DriverManager.getConnection(CONNECTION_URI, USER_NAME, USER_PASSWORD);
+		try (Statement statement = connection.createStatement()) {
+			for (String ddl : SCHEMA) {
+				statement.execute(ddl);
+			}
+		}
+
+		Properties connectionProperties = new Properties();
+		connectionProperties.put("sql#db.schema.name", SCHEMA_NAME);
+		connectionProperties.put("sql#connection.uri", CONNECTION_URI);
+		connectionProperties.put("sql#auth.userName", USER_NAME);
+		connectionProperties.put("sql#auth.userPassword", USER_PASSWORD);
+		connectionProperties.put("sql#password.encryption.method", "SSHA-256");
+		connectionProperties.put("sql#connection.pool.max-total", "64");
+		connectionProperties.put("sql#connection.pool.max-idle", "64");
+		connectionProperties.putAll(properties);
+
+		SqlEntryManagerFactory sqlEntryManagerFactory = new SqlEntryManagerFactory();
+		sqlEntryManagerFactory.create();
+
+		this.entryManager = sqlEntryManagerFactory.createEntryManager(connectionProperties);
+		LOG.debug("Created SqlEntryManager: {}", entryManager);
+	}
+
+	@Override
+	public String getDescription() {
+		return "SQL (H2 in MySQL mode)";
+	}
+
+	@Override
+	public PersistenceEntryManager getEntryManager() {
+		return entryManager;
+	}
+
+	@Override
+	public void close() {
+		entryManager.destroy();
+
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("SHUTDOWN");
+			connection.close();
+		} catch (SQLException ex) {
+			LOG.warn("Failed to shutdown H2 database", ex);
+		}
+	}
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.loadtest;
+
+/**
+ * Operations which load test workload can execute
+ */
+public enum LoadOperation {
+
+	PERSIST("persist"),
+	FIND("find"),
+	MERGE("merge"),
+	SEARCH("search"),
+	AUTHENTICATE("authenticate");
+
+	private final String value;
+
+	LoadOperation(String value) {
+		this.value = value;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public static LoadOperation getByValue(String value) {
+		for (LoadOperation operation : values()) {
+			if (operation.value.equalsIgnoreCase(value)) {
+				return operation;
+			}
+		}
+
+		return null;
+	}
+
+}
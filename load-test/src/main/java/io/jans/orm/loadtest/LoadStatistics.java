@@ -0,0 +1,59 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.jans.orm.watch.LatencyHistogram;
+
+/**
+ * Latency and errors of one load test operation
+ */
+public class LoadStatistics {
+
+	private final LoadOperation operation;
+
+	private final LatencyHistogram histogram = new LatencyHistogram();
+	private final LongAdder errors = new LongAdder();
+
+	private volatile Throwable lastError;
+
+	public LoadStatistics(LoadOperation operation) {
+		this.operation = operation;
+	}
+
+	public void record(long durationNanos) {
+		histogram.record(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+	}
+
+	public void recordError(Throwable error) {
+		errors.increment();
+		lastError = error;
+	}
+
+	public LoadOperation getOperation() {
+		return operation;
+	}
+
+	public LatencyHistogram getHistogram() {
+		return histogram;
+	}
+
+	public long getCount() {
+		return histogram.getCount();
+	}
+
+	public long getErrors() {
+		return errors.sum();
+	}
+
+	public Throwable getLastError() {
+		return lastError;
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.loadtest;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Offline load test of persistence layer. It starts embedded server, populates it with sample
+ * entries and executes configured operations mix. Usage:
+ * <pre>
+ * java -jar load-test.jar backend=sql|ldap threads=8 warmup=5 duration=30 entries=1000 mix=persist=5,find=40,merge=15,search=30,authenticate=10
+ * </pre>
+ */
+public final class LoadTest {
+
+	private static final Logger LOG = LoggerFactory.getLogger(LoadTest.class);
+
+	private LoadTest() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadTestConfiguration configuration = LoadTestConfiguration.parse(args);
+		LOG.info("Starting load test with configuration: {}", configuration);
+
+		EmbeddedEnvironment environment = createEnvironment(configuration.getBackend(), configuration.getEntryManagerProperties());
+		try {
+			LoadWorkload workload = new LoadWorkload(environment.getEntryManager(), configuration.getEntries());
+
+			long populateStart = System.nanoTime();
+			workload.populate();
+			LOG.info("Populated {} users in {} ms", configuration.getEntries(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - populateStart));
+
+			LoadTestRunner runner = new LoadTestRunner(workload, configuration.getMix(), configuration.getThreads());
+			LoadTestReport report = runner.run(TimeUnit.SECONDS.toMillis(configuration.getWarmupSeconds()),
+					TimeUnit.SECONDS.toMillis(configuration.getDurationSeconds()));
+
+			System.out.printf("%s, %d threads, %d s, mix: %s%n", environment.getDescription(), configuration.getThreads(),
+					configuration.getDurationSeconds(), configuration.getMix());
+			report.print(System.out);
+		} finally {
+			environment.close();
+		}
+	}
+
+	private static EmbeddedEnvironment createEnvironment(String backend, Properties properties) throws Exception {
+		if ("ldap".equals(backend)) {
+			return new EmbeddedLdapEnvironment(properties);
+		}
+
+		return new EmbeddedSqlEnvironment(properties);
+	}
+
+}
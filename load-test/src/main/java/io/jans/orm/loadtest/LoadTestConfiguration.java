@@ -0,0 +1,125 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.loadtest;
+
+import java.util.Properties;
+
+import io.jans.orm.util.StringHelper;
+
+/**
+ * Load test configuration. It's built from arguments in format name=value, e.g.
+ * "backend=ldap threads=16 duration=60 mix=find=80,merge=20". Arguments with backend
+ * prefix, e.g. "sql#connection.pool.max-total=20", are passed to entry manager factory
+ */
+public class LoadTestConfiguration {
+
+	public static final String DEFAULT_MIX = "persist=5,find=40,merge=15,search=30,authenticate=10";
+
+	private String backend = "sql";
+	private int threads = 8;
+	private int warmupSeconds = 5;
+	private int durationSeconds = 30;
+	private int entries = 1000;
+	private OperationMix mix = OperationMix.parse(DEFAULT_MIX);
+
+	private final Properties entryManagerProperties = new Properties();
+
+	public static LoadTestConfiguration parse(String[] args) {
+		LoadTestConfiguration configuration = new LoadTestConfiguration();
+		for (String arg : args) {
+			int idx = arg.indexOf('=');
+			if (idx == -1) {
+				throw new IllegalArgumentException(String.format("Argument '%s' should be in format name=value", arg));
+			}
+
+			String name = arg.substring(0, idx).trim();
+			String value = arg.substring(idx + 1).trim();
+			if (name.indexOf('#') != -1) {
+				configuration.entryManagerProperties.setProperty(name, value);
+			} else if ("backend".equals(name)) {
+				configuration.backend = StringHelper.toLowerCase(value);
+			} else if ("threads".equals(name)) {
+				configuration.threads = parsePositive(name, value);
+			} else if ("warmup".equals(name)) {
+				configuration.warmupSeconds = parseNonNegative(name, value);
+			} else if ("duration".equals(name)) {
+				configuration.durationSeconds = parsePositive(name, value);
+			} else if ("entries".equals(name)) {
+				configuration.entries = parsePositive(name, value);
+			} else if ("mix".equals(name)) {
+				configuration.mix = OperationMix.parse(value);
+			} else {
+				throw new IllegalArgumentException(String.format("Unknown argument '%s'", name));
+			}
+		}
+
+		if (!"sql".equals(configuration.backend) && !"ldap".equals(configuration.backend)) {
+			throw new IllegalArgumentException(String.format("Unsupported backend '%s'. Supported backends: sql, ldap", configuration.backend));
+		}
+
+		return configuration;
+	}
+
+	private static int parsePositive(String name, String value) {
+		int result = parseNonNegative(name, value);
+		if (result == 0) {
+			throw new IllegalArgumentException(String.format("Argument '%s' should be positive", name));
+		}
+
+		return result;
+	}
+
+	private static int parseNonNegative(String name, String value) {
+		int result;
+		try {
+			result = Integer.parseInt(value);
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException(String.format("Argument '%s' should be a number", name), ex);
+		}
+
+		if (result < 0) {
+			throw new IllegalArgumentException(String.format("Argument '%s' should not be negative", name));
+		}
+
+		return result;
+	}
+
+	public String getBackend() {
+		return backend;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public int getWarmupSeconds() {
+		return warmupSeconds;
+	}
+
+	public int getDurationSeconds() {
+		return durationSeconds;
+	}
+
+	public int getEntries() {
+		return entries;
+	}
+
+	public OperationMix getMix() {
+		return mix;
+	}
+
+	public Properties getEntryManagerProperties() {
+		return entryManagerProperties;
+	}
+
+	@Override
+	public String toString() {
+		return "LoadTestConfiguration [backend=" + backend + ", threads=" + threads + ", warmupSeconds=" + warmupSeconds
+				+ ", durationSeconds=" + durationSeconds + ", entries=" + entries + ", mix=" + mix + "]";
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.loadtest;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.jans.orm.watch.LatencyHistogram;
+
+/**
+ * Throughput and latency percentiles of load test operations
+ */
+public class LoadTestReport {
+
+	private static final String HEADER_FORMAT = "%-14s %10s %10s %9s %9s %9s %9s %9s %9s%n";
+	private static final String ROW_FORMAT = "%-14s %10d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f %9d%n";
+
+	private final Map<LoadOperation, LoadStatistics> statistics;
+	private final long elapsedNanos;
+
+	public LoadTestReport(Map<LoadOperation, LoadStatistics> statistics, long elapsedNanos) {
+		this.statistics = statistics;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public Map<LoadOperation, LoadStatistics> getStatistics() {
+		return statistics;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public double getThroughput(long count) {
+		return count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+	}
+
+	public void print(PrintStream out) {
+		out.printf(HEADER_FORMAT, "operation", "count", "ops/s", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+
+		long totalCount = 0;
+		long totalErrors = 0;
+		for (LoadStatistics operationStatistics : statistics.values()) {
+			LatencyHistogram histogram = operationStatistics.getHistogram();
+			out.printf(ROW_FORMAT, operationStatistics.getOperation().getValue(), histogram.getCount(), getThroughput(histogram.getCount()),
+					toMillis(histogram.getMean()), toMillis(histogram.getValueAtPercentile(50)), toMillis(histogram.getValueAtPercentile(95)),
+					toMillis(histogram.getValueAtPercentile(99)), toMillis(histogram.getMax()), operationStatistics.getErrors());
+
+			totalCount += histogram.getCount();
+			totalErrors += operationStatistics.getErrors();
+		}
+		out.printf("%-14s %10d %10.1f %59d%n", "total", totalCount, getThroughput(totalCount), totalErrors);
+
+		for (LoadStatistics operationStatistics : statistics.values()) {
+			if (operationStatistics.getLastError() != null) {
+				out.printf("Last %s error: %s%n", operationStatistics.getOperation().getValue(), operationStatistics.getLastError());
+			}
+		}
+	}
+
+	private static double toMillis(double micros) {
+		return micros / 1000.0;
+	}
+
+}
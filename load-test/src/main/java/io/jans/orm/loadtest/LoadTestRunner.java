@@ -0,0 +1,87 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes operations of workload from specified number of threads. Operations executed
+ * during warm up are not included into statistics
+ */
+public class LoadTestRunner {
+
+	private final LoadWorkload workload;
+	private final OperationMix mix;
+	private final int threads;
+
+	private volatile boolean running;
+	private volatile boolean measuring;
+
+	public LoadTestRunner(LoadWorkload workload, OperationMix mix, int threads) {
+		this.workload = workload;
+		this.mix = mix;
+		this.threads = threads;
+	}
+
+	public LoadTestReport run(long warmupMillis, long durationMillis) throws InterruptedException {
+		final Map<LoadOperation, LoadStatistics> statistics = new EnumMap<LoadOperation, LoadStatistics>(LoadOperation.class);
+		for (LoadOperation operation : mix.getOperations()) {
+			statistics.put(operation, new LoadStatistics(operation));
+		}
+
+		Runnable worker = new Runnable() {
+			@Override
+			public void run() {
+				Random random = ThreadLocalRandom.current();
+				while (running) {
+					LoadOperation operation = mix.next(random);
+					long start = System.nanoTime();
+					try {
+						workload.execute(operation, random);
+						if (measuring) {
+							statistics.get(operation).record(System.nanoTime() - start);
+						}
+					} catch (RuntimeException ex) {
+						if (measuring) {
+							statistics.get(operation).recordError(ex);
+						}
+					}
+				}
+			}
+		};
+
+		this.running = true;
+		Thread[] workers = new Thread[threads];
+		for (int i = 0; i < threads; i++) {
+			workers[i] = new Thread(worker, "load-test-" + i);
+			workers[i].start();
+		}
+
+		long elapsedNanos;
+		try {
+			TimeUnit.MILLISECONDS.sleep(warmupMillis);
+
+			this.measuring = true;
+			long start = System.nanoTime();
+			TimeUnit.MILLISECONDS.sleep(durationMillis);
+			this.measuring = false;
+			elapsedNanos = System.nanoTime() - start;
+		} finally {
+			this.running = false;
+			for (Thread thread : workers) {
+				thread.join();
+			}
+		}
+
+		return new LoadTestReport(statistics, elapsedNanos);
+	}
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.jans.orm.PersistenceEntryManager;
+import io.jans.orm.exception.AuthenticationException;
+import io.jans.orm.exception.EntryPersistenceException;
+import io.jans.orm.model.base.CustomObjectAttribute;
+import io.jans.orm.search.filter.Filter;
+import io.jans.orm.sql.model.SimpleSessionState;
+import io.jans.orm.sql.model.SimpleUser;
+import io.jans.orm.sql.model.UmaResource;
+import io.jans.orm.sql.model.UserRole;
+
+/**
+ * Workload which imitates authorization server. It uses sample models from sql sample:
+ * <ul>
+ * <li>persist - create new session</li>
+ * <li>find - find user by DN</li>
+ * <li>merge - update last access time of existing session</li>
+ * <li>search - find UMA resources of user</li>
+ * <li>authenticate - authenticate user by uid and password</li>
+ * </ul>
+ *
+ * Filters use only single valued attributes because H2 has no JSON functions which SQL
+ * backend uses for multi valued attributes
+ */
+public class LoadWorkload {
+
+	public static final String BASE_DN = "o=jans";
+	public static final String PEOPLE_BASE_DN = "ou=people,o=jans";
+	public static final String SESSIONS_BASE_DN = "ou=sessions,o=jans";
+	public static final String UMA_BASE_DN = "ou=uma,o=jans";
+	public static final String RESOURCES_BASE_DN = "ou=resources,ou=uma,o=jans";
+
+	private static final String USER_PASSWORD = "secret";
+	private static final int RESOURCES_PER_USER = 2;
+	private static final int SEARCH_SIZE_LIMIT = 10;
+
+	private final PersistenceEntryManager entryManager;
+	private final int entries;
+
+	private final AtomicLong sessionCounter;
+
+	public LoadWorkload(PersistenceEntryManager entryManager, int entries) {
+		this.entryManager = entryManager;
+		this.entries = entries;
+		this.sessionCounter = new AtomicLong(entries);
+	}
+
+	/**
+	 * Persist users with UMA resources and sessions which workload operations use
+	 */
+	public void populate() {
+		for (int i = 0; i < entries; i++) {
+			entryManager.persist(createUser(i));
+			for (int j = 0; j < RESOURCES_PER_USER; j++) {
+				entryManager.persist(createResource(i, j));
+			}
+			entryManager.persist(createSession(i, i));
+		}
+	}
+
+	public void execute(LoadOperation operation, Random random) {
+		int index = random.nextInt(entries);
+		switch (operation) {
+		case PERSIST:
+			entryManager.persist(createSession(sessionCounter.getAndIncrement(), index));
+			break;
+		case FIND:
+			entryManager.find(SimpleUser.class, getUserDn(index));
+			break;
+		case MERGE:
+			SimpleSessionState session = entryManager.find(SimpleSessionState.class, getSessionDn(index));
+			session.setLastUsedAt(new Date());
+			entryManager.merge(session);
+			break;
+		case SEARCH:
+			List<UmaResource> resources = entryManager.findEntries(RESOURCES_BASE_DN, UmaResource.class,
+					Filter.createEqualityFilter("owner", getUserDn(index)), SEARCH_SIZE_LIMIT);
+			if (resources.size() != RESOURCES_PER_USER) {
+				throw new EntryPersistenceException(String.format("Found %d resources of user '%s' instead of %d",
+						resources.size(), getUserDn(index), RESOURCES_PER_USER));
+			}
+			break;
+		case AUTHENTICATE:
+			if (!entryManager.authenticate(PEOPLE_BASE_DN, SimpleUser.class, getUserId(index), USER_PASSWORD)) {
+				throw new AuthenticationException(String.format("Failed to authenticate user '%s'", getUserId(index)));
+			}
+			break;
+		default:
+			throw new IllegalArgumentException(String.format("Unsupported operation '%s'", operation));
+		}
+	}
+
+	private SimpleUser createUser(int index) {
+		SimpleUser user = new SimpleUser();
+		user.setDn(getUserDn(index));
+		user.setUserId(getUserId(index));
+		user.setUserPassword(USER_PASSWORD);
+		user.setUserRole(UserRole.USER);
+		user.setMemberOf(Arrays.asList("inum=group1,ou=groups,o=jans", "inum=group" + (index % 10) + ",ou=groups,o=jans"));
+
+		List<CustomObjectAttribute> customAttributes = new ArrayList<CustomObjectAttribute>();
+		customAttributes.add(new CustomObjectAttribute("mail", getUserId(index) + "@jans.io"));
+		customAttributes.add(new CustomObjectAttribute("displayName", "User " + index));
+		customAttributes.add(new CustomObjectAttribute("jansStatus", "active"));
+		user.setCustomAttributes(customAttributes);
+
+		return user;
+	}
+
+	private UmaResource createResource(int userIndex, int index) {
+		String id = String.format("%08d-%d", userIndex, index);
+
+		UmaResource resource = new UmaResource();
+		resource.setDn(String.format("jansId=%s,%s", id, RESOURCES_BASE_DN));
+		resource.setId(id);
+		resource.setName("Resource " + id);
+		resource.setCreator(getUserDn(userIndex));
+		resource.setScopes(Arrays.asList("inum=read,ou=scopes,o=jans", "inum=write,ou=scopes,o=jans"));
+		resource.setClients(Arrays.asList("inum=client" + (userIndex % 10) + ",ou=clients,o=jans"));
+		resource.setResources(Arrays.asList("https://jans.io/resources/" + id));
+		resource.setCreationDate(new Date());
+
+		return resource;
+	}
+
+	private SimpleSessionState createSession(long index, int userIndex) {
+		Date now = new Date();
+
+		Map<String, String> sessionAttributes = new HashMap<String, String>();
+		sessionAttributes.put("acr", "basic");
+		sessionAttributes.put("client_id", "client" + (userIndex % 10));
+
+		SimpleSessionState session = new SimpleSessionState();
+		session.setDn(getSessionDn(index));
+		session.setId(String.format("%08d", index));
+		session.setUserDn(getUserDn(userIndex));
+		session.setAuthenticationTime(now);
+		session.setLastUsedAt(now);
+		session.setPermissionGranted(Boolean.TRUE);
+		session.setSessionAttributes(sessionAttributes);
+
+		return session;
+	}
+
+	private String getUserDn(int index) {
+		return String.format("inum=%08d,%s", index, PEOPLE_BASE_DN);
+	}
+
+	private String getUserId(int index) {
+		return String.format("user%08d", index);
+	}
+
+	private String getSessionDn(long index) {
+		return String.format("jansId=%08d,%s", index, SESSIONS_BASE_DN);
+	}
+
+}
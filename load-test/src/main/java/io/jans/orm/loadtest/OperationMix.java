@@ -0,0 +1,119 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import io.jans.orm.util.StringHelper;
+
+/**
+ * Weighted mix of operations. Mix is defined as comma separated list of operation
+ * weights, e.g. "persist=5,find=40,merge=15,search=30,authenticate=10"
+ */
+public class OperationMix {
+
+	private final Map<LoadOperation, Integer> weights;
+
+	private final LoadOperation[] operations;
+	private final int[] cumulativeWeights;
+	private final int totalWeight;
+
+	public OperationMix(Map<LoadOperation, Integer> weights) {
+		this.weights = new EnumMap<LoadOperation, Integer>(weights);
+
+		int count = 0;
+		for (Integer weight : this.weights.values()) {
+			if (weight > 0) {
+				count++;
+			}
+		}
+
+		this.operations = new LoadOperation[count];
+		this.cumulativeWeights = new int[count];
+
+		int index = 0;
+		int total = 0;
+		for (Map.Entry<LoadOperation, Integer> weightEntry : this.weights.entrySet()) {
+			if (weightEntry.getValue() > 0) {
+				total += weightEntry.getValue();
+				this.operations[index] = weightEntry.getKey();
+				this.cumulativeWeights[index] = total;
+				index++;
+			}
+		}
+		this.totalWeight = total;
+
+		if (totalWeight == 0) {
+			throw new IllegalArgumentException("Operation mix should contain at least one operation with positive weight");
+		}
+	}
+
+	public static OperationMix parse(String mix) {
+		if (StringHelper.isEmpty(mix)) {
+			throw new IllegalArgumentException("Operation mix is empty");
+		}
+
+		Map<LoadOperation, Integer> weights = new EnumMap<LoadOperation, Integer>(LoadOperation.class);
+		for (String item : StringHelper.split(mix, ",")) {
+			int idx = item.indexOf('=');
+			if (idx == -1) {
+				throw new IllegalArgumentException(String.format("Operation weight '%s' should be in format operation=weight", item));
+			}
+
+			String operationName = item.substring(0, idx).trim();
+			LoadOperation operation = LoadOperation.getByValue(operationName);
+			if (operation == null) {
+				throw new IllegalArgumentException(String.format("Unknown operation '%s' in mix '%s'", operationName, mix));
+			}
+
+			int weight;
+			try {
+				weight = Integer.parseInt(item.substring(idx + 1).trim());
+			} catch (NumberFormatException ex) {
+				throw new IllegalArgumentException(String.format("Invalid weight of operation '%s' in mix '%s'", operationName, mix), ex);
+			}
+			if (weight < 0) {
+				throw new IllegalArgumentException(String.format("Weight of operation '%s' should be positive", operationName));
+			}
+
+			weights.put(operation, weight);
+		}
+
+		return new OperationMix(weights);
+	}
+
+	public LoadOperation next(Random random) {
+		int value = random.nextInt(totalWeight);
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (value < cumulativeWeights[i]) {
+				return operations[i];
+			}
+		}
+
+		return operations[operations.length - 1];
+	}
+
+	public LoadOperation[] getOperations() {
+		return operations;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < operations.length; i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append(operations[i].getValue()).append('=').append(weights.get(operations[i]));
+		}
+
+		return sb.toString();
+	}
+
+}
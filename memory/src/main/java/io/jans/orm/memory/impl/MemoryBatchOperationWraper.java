@@ -0,0 +1,60 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.memory.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.jans.orm.impl.BatchOperationPipeline;
+import io.jans.orm.model.BatchOperation;
+import io.jans.orm.model.EntryData;
+import io.jans.orm.reflect.property.PropertyAnnotation;
+
+/**
+ * In memory batch operation wrapper
+ */
+public class MemoryBatchOperationWraper<T> {
+
+    private MemoryEntryManager MemoryEntryManager;
+    private Class<T> entryClass;
+    private List<PropertyAnnotation> propertiesAnnotations;
+
+    private BatchOperation<T> batchOperation;
+
+    public MemoryBatchOperationWraper(BatchOperation<T> batchOperation) {
+        this.batchOperation = batchOperation;
+    }
+
+    public MemoryBatchOperationWraper(BatchOperation<T> batchOperation, MemoryEntryManager MemoryEntryManager, Class<T> entryClass,
+            List<PropertyAnnotation> propertiesAnnotations) {
+        this.batchOperation = batchOperation;
+        this.MemoryEntryManager = MemoryEntryManager;
+        this.entryClass = entryClass;
+        this.propertiesAnnotations = propertiesAnnotations;
+    }
+
+    public final BatchOperation<T> getBatchOperation() {
+        return batchOperation;
+    }
+
+    public BatchOperationPipeline<T> createBatchOperationPipeline() {
+        if (MemoryEntryManager == null) {
+            return new BatchOperationPipeline<T>(batchOperation, 0, null);
+        }
+
+        return MemoryEntryManager.createBatchOperationPipeline(batchOperation);
+    }
+
+    public List<T> createEntities(List<EntryData> entryDataList) {
+        if (MemoryEntryManager == null) {
+            return new ArrayList<T>(0);
+        }
+
+        return MemoryEntryManager.createEntities(entryClass, propertiesAnnotations, entryDataList);
+    }
+
+}
@@ -0,0 +1,601 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.memory.impl;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jans.orm.PersistenceEntryManager;
+import io.jans.orm.event.DeleteNotifier;
+import io.jans.orm.exception.AuthenticationException;
+import io.jans.orm.exception.EntryDeleteException;
+import io.jans.orm.exception.EntryPersistenceException;
+import io.jans.orm.exception.MappingException;
+import io.jans.orm.exception.operation.SearchException;
+import io.jans.orm.impl.BaseEntryManager;
+import io.jans.orm.memory.operation.MemoryOperationService;
+import io.jans.orm.memory.util.MemoryValueHelper;
+import io.jans.orm.model.AttributeData;
+import io.jans.orm.model.AttributeDataModification;
+import io.jans.orm.model.AttributeDataModification.AttributeModificationType;
+import io.jans.orm.model.BatchOperation;
+import io.jans.orm.model.EntryData;
+import io.jans.orm.model.PagedResult;
+import io.jans.orm.model.SearchScope;
+import io.jans.orm.model.Sort;
+import io.jans.orm.model.SortOrder;
+import io.jans.orm.reflect.property.PropertyAnnotation;
+import io.jans.orm.search.filter.Filter;
+import io.jans.orm.util.ArrayHelper;
+import io.jans.orm.util.StringHelper;
+
+/**
+ * In memory Entry Manager. It keeps entries in process memory only
+ */
+public class MemoryEntryManager extends BaseEntryManager implements Serializable {
+
+	private static final long serialVersionUID = -4316380468314758237L;
+
+	private static final Logger LOG = LoggerFactory.getLogger(MemoryEntryManager.class);
+
+	private List<DeleteNotifier> subscribers;
+
+	protected MemoryEntryManager(MemoryOperationService operationService) {
+		this.operationService = operationService;
+		subscribers = new LinkedList<DeleteNotifier>();
+	}
+
+	@Override
+	public boolean destroy() {
+		if (this.operationService == null) {
+			return true;
+		}
+
+		return ((MemoryOperationService) this.operationService).destroy();
+	}
+
+	public MemoryOperationService getOperationService() {
+		return (MemoryOperationService) operationService;
+	}
+
+	@Override
+	public void addDeleteSubscriber(DeleteNotifier subscriber) {
+		subscribers.add(subscriber);
+	}
+
+	@Override
+	public void removeDeleteSubscriber(DeleteNotifier subscriber) {
+		subscribers.remove(subscriber);
+	}
+
+	@Override
+	public Void merge(Object entry) {
+		Class<?> entryClass = entry.getClass();
+		checkEntryClass(entryClass, true);
+		if (isSchemaEntry(entryClass)) {
+			throw new UnsupportedOperationException("Server doesn't support dynamic schema modifications");
+		} else {
+			return merge(entry, false, false, null);
+		}
+	}
+
+	@Override
+	protected <T> void updateMergeChanges(String baseDn, T entry, boolean isConfigurationUpdate, Class<?> entryClass, Map<String, AttributeData> attributesFromDbMap,
+			List<AttributeDataModification> attributeDataModifications, boolean forceUpdate) {
+		// Update object classes if entry contains custom object classes
+		if (!isConfigurationUpdate) {
+			String[] objectClasses = getObjectClasses(entry, entryClass);
+			AttributeData objectClassAttributeData = attributesFromDbMap.get(OBJECT_CLASS.toLowerCase());
+			String[] objectClassesFromDb = (objectClassAttributeData == null) ? null : objectClassAttributeData.getStringValues();
+
+			if (!Arrays.equals(objectClassesFromDb, objectClasses)) {
+				attributeDataModifications.add(new AttributeDataModification(AttributeModificationType.REPLACE,
+						new AttributeData(OBJECT_CLASS, objectClasses, true), objectClassAttributeData));
+			}
+		}
+	}
+
+	@Override
+	public void remove(Object entry) {
+		Class<?> entryClass = entry.getClass();
+		checkEntryClass(entryClass, true);
+		if (isSchemaEntry(entryClass)) {
+			throw new UnsupportedOperationException("Server doesn't support dynamic schema modifications");
+		}
+
+		Object dnValue = getDNValue(entry, entryClass);
+
+		LOG.debug("Memory entry to remove: '{}'", dnValue.toString());
+
+		remove(dnValue.toString(), entryClass);
+	}
+
+	@Override
+	protected void persist(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
+		List<AttributeData> resultAttributes = toPersistAttributes(attributes);
+
+		// Persist entry
+		try {
+			boolean result = getOperationService().addEntry(dn, resultAttributes, expiration);
+			if (!result) {
+				throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn));
+			}
+		} catch (Exception ex) {
+			throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn), ex);
+		}
+	}
+
+	@Override
+	protected boolean persistOrMerge(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
+		List<AttributeData> resultAttributes = toPersistAttributes(attributes);
+
+		// Add or update entry
+		try {
+			boolean result = getOperationService().addOrUpdateEntry(dn, resultAttributes, expiration);
+			if (!result) {
+				throw new EntryPersistenceException(String.format("Failed to persist or merge entry: '%s'", dn));
+			}
+		} catch (Exception ex) {
+			throw new EntryPersistenceException(String.format("Failed to persist or merge entry: '%s'", dn), ex);
+		}
+
+		return true;
+	}
+
+	private List<AttributeData> toPersistAttributes(List<AttributeData> attributes) {
+		List<AttributeData> resultAttributes = new ArrayList<AttributeData>(attributes.size());
+		for (AttributeData attribute : attributes) {
+			Object[] attributeValues = attribute.getValues();
+			if (ArrayHelper.isEmpty(attributeValues) || (attributeValues[0] == null)) {
+				continue;
+			}
+
+			// Process userPassword
+			if (StringHelper.equalsIgnoreCase(MemoryOperationService.USER_PASSWORD, attribute.getName())) {
+				attribute = new AttributeData(attribute.getName(),
+						getOperationService().createStoragePassword(StringHelper.toStringArray(attributeValues)), attribute.getMultiValued());
+			}
+
+			resultAttributes.add(attribute);
+		}
+
+		return resultAttributes;
+	}
+
+	@Override
+	public void merge(String dn, String[] objectClasses, List<AttributeDataModification> attributeDataModifications, Integer expiration) {
+		// Update entry
+		try {
+			List<AttributeDataModification> modifications = new ArrayList<AttributeDataModification>(attributeDataModifications.size());
+			for (AttributeDataModification attributeDataModification : attributeDataModifications) {
+				AttributeData attribute = attributeDataModification.getAttribute();
+
+				// Process userPassword
+				if ((attribute != null) && (AttributeModificationType.REMOVE != attributeDataModification.getModificationType())
+						&& StringHelper.equalsIgnoreCase(MemoryOperationService.USER_PASSWORD, attribute.getName())) {
+					attribute = new AttributeData(attribute.getName(),
+							getOperationService().createStoragePassword(StringHelper.toStringArray(attribute.getValues())), attribute.getMultiValued());
+					modifications.add(new AttributeDataModification(attributeDataModification.getModificationType(), attribute,
+							attributeDataModification.getOldAttribute()));
+				} else {
+					modifications.add(attributeDataModification);
+				}
+			}
+
+			if ((modifications.size() > 0) || (expiration != null)) {
+				boolean result = getOperationService().updateEntry(dn, modifications, expiration);
+				if (!result) {
+					throw new EntryPersistenceException(String.format("Failed to update entry: '%s'", dn));
+				}
+			}
+		} catch (Exception ex) {
+			throw new EntryPersistenceException(String.format("Failed to update entry: '%s'", dn), ex);
+		}
+	}
+
+	@Override
+	protected <T> void removeByDn(String dn, String[] objectClasses) {
+		// Remove entry
+		try {
+			for (DeleteNotifier subscriber : subscribers) {
+				subscriber.onBeforeRemove(dn);
+			}
+			getOperationService().delete(dn);
+			for (DeleteNotifier subscriber : subscribers) {
+				subscriber.onAfterRemove(dn);
+			}
+		} catch (Exception ex) {
+			throw new EntryDeleteException(String.format("Failed to remove entry: '%s'", dn), ex);
+		}
+	}
+
+	@Override
+	protected <T> void removeRecursivelyFromDn(String dn, String[] objectClasses) {
+		try {
+			for (DeleteNotifier subscriber : subscribers) {
+				subscriber.onBeforeRemove(dn);
+			}
+			getOperationService().deleteRecursively(dn);
+			for (DeleteNotifier subscriber : subscribers) {
+				subscriber.onAfterRemove(dn);
+			}
+		} catch (Exception ex) {
+			throw new EntryDeleteException(String.format("Failed to remove entry: '%s'", dn), ex);
+		}
+	}
+
+	@Override
+	public <T> int remove(String dn, Class<T> entryClass, Filter filter, int count) {
+		if (StringHelper.isEmptyString(dn)) {
+			throw new MappingException("Base DN to delete entries is null");
+		}
+
+		// Remove entries by filter
+		try {
+			return removeImpl(dn, entryClass, filter, count);
+		} finally {
+			invalidateEntryCache(entryClass);
+		}
+	}
+
+	protected <T> int removeImpl(String dn, Class<T> entryClass, Filter filter, int count) {
+		// Check entry class
+		checkEntryClass(entryClass, false);
+		String[] objectClasses = getTypeObjectClasses(entryClass);
+
+		Filter searchFilter;
+		if (objectClasses.length > 0) {
+			searchFilter = addObjectClassFilter(filter, objectClasses);
+		} else {
+			throw new EntryDeleteException(String.format("Failed to delete entries with DN: '%s', filter: '%s' because objectClass is not specified", dn, filter));
+		}
+
+		LOG.trace("Delete filter: {}", searchFilter);
+
+		try {
+			return (int) getOperationService().delete(dn, searchFilter, SearchScope.SUB, count);
+		} catch (Exception ex) {
+			throw new EntryDeleteException(String.format("Failed to delete entries with DN: '%s', filter: '%s'", dn, searchFilter), ex);
+		}
+	}
+
+	@Override
+	protected List<AttributeData> find(String dn, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap, String... ldapReturnAttributes) {
+		try {
+			// Load entry
+			List<AttributeData> result = getOperationService().lookup(dn, ldapReturnAttributes);
+			if (result != null) {
+				return result;
+			}
+		} catch (Exception ex) {
+			throw new EntryPersistenceException(String.format("Failed to find entry: '%s'", dn), ex);
+		}
+
+		throw new EntryPersistenceException(String.format("Failed to find entry: '%s'", dn));
+	}
+
+	@Override
+	protected Map<String, List<AttributeData>> find(List<String> dns, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap,
+			String... ldapReturnAttributes) {
+		try {
+			return getOperationService().lookup(dns, ldapReturnAttributes);
+		} catch (Exception ex) {
+			throw new EntryPersistenceException(String.format("Failed to find entries: '%s'", dns), ex);
+		}
+	}
+
+	@Override
+	public <T> List<T> findEntries(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope, String[] ldapReturnAttributes,
+			BatchOperation<T> batchOperation, int start, int count, int chunkSize) {
+		if (StringHelper.isEmptyString(baseDN)) {
+			throw new MappingException("Base DN to find entries is null");
+		}
+
+		PagedResult<EntryData> searchResult = findEntriesImpl(baseDN, entryClass, filter, scope, ldapReturnAttributes, null, null, batchOperation,
+				start, count, chunkSize);
+		if (searchResult.getEntriesCount() == 0) {
+			return new ArrayList<T>(0);
+		}
+
+		return createEntities(entryClass, searchResult);
+	}
+
+	@Override
+	public <T> PagedResult<T> findPagedEntries(String baseDN, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes, String sortBy,
+			SortOrder sortOrder, int start, int count, int chunkSize) {
+		if (StringHelper.isEmptyString(baseDN)) {
+			throw new MappingException("Base DN to find entries is null");
+		}
+
+		PagedResult<EntryData> searchResult = findEntriesImpl(baseDN, entryClass, filter, SearchScope.SUB, ldapReturnAttributes, sortBy, sortOrder,
+				null, start, count, chunkSize);
+
+		PagedResult<T> result = new PagedResult<T>();
+		result.setEntriesCount(searchResult.getEntriesCount());
+		result.setStart(searchResult.getStart());
+		result.setTotalEntriesCount(searchResult.getTotalEntriesCount());
+
+		if (searchResult.getEntriesCount() == 0) {
+			result.setEntries(new ArrayList<T>(0));
+			return result;
+		}
+
+		result.setEntries(createEntities(entryClass, searchResult));
+
+		return result;
+	}
+
+	protected <T> PagedResult<EntryData> findEntriesImpl(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope,
+			String[] ldapReturnAttributes, String sortBy, SortOrder sortOrder, BatchOperation<T> batchOperation, int start,
+			int count, int chunkSize) {
+		// Check entry class
+		checkEntryClass(entryClass, false);
+		String[] objectClasses = getTypeObjectClasses(entryClass);
+
+		List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
+		String[] currentLdapReturnAttributes = ldapReturnAttributes;
+		if (ArrayHelper.isEmpty(currentLdapReturnAttributes)) {
+			currentLdapReturnAttributes = getEntryReturnAttributes(entryClass, propertiesAnnotations);
+		}
+
+		Filter searchFilter;
+		if (objectClasses.length > 0) {
+			searchFilter = addObjectClassFilter(filter, objectClasses);
+		} else {
+			searchFilter = filter;
+		}
+
+		LOG.trace("Search filter: {}", searchFilter);
+
+		// Prepare default sort
+		Sort[] defaultSort = getDefaultSort(entryClass);
+
+		if (StringHelper.isNotEmpty(sortBy)) {
+			Sort requestedSort = new Sort(sortBy, sortOrder);
+
+			if (ArrayHelper.isEmpty(defaultSort)) {
+				defaultSort = new Sort[] { requestedSort };
+			} else {
+				defaultSort = ArrayHelper.arrayMerge(new Sort[] { requestedSort }, defaultSort);
+			}
+		}
+
+		try {
+			MemoryBatchOperationWraper<T> batchOperationWraper = null;
+			if (batchOperation != null) {
+				batchOperationWraper = new MemoryBatchOperationWraper<T>(batchOperation, this, entryClass, propertiesAnnotations);
+			}
+
+			return getOperationService().search(baseDN, searchFilter, scope, currentLdapReturnAttributes, defaultSort, batchOperationWraper,
+					start, count, chunkSize);
+		} catch (SearchException ex) {
+			throw new EntryPersistenceException(String.format("Failed to find entries with DN: '%s', filter: '%s'", baseDN, searchFilter), ex);
+		}
+	}
+
+	@Override
+	protected <T> boolean contains(String baseDN, String[] objectClasses, Class<T> entryClass, List<PropertyAnnotation> propertiesAnnotations, Filter filter, String[] ldapReturnAttributes) {
+		if (StringHelper.isEmptyString(baseDN)) {
+			throw new MappingException("Base DN to check contain entries is null");
+		}
+
+		// Create filter
+		Filter searchFilter;
+		if (objectClasses.length > 0) {
+			searchFilter = addObjectClassFilter(filter, objectClasses);
+		} else {
+			searchFilter = filter;
+		}
+
+		try {
+			return getOperationService().count(baseDN, searchFilter, SearchScope.SUB) > 0;
+		} catch (SearchException ex) {
+			throw new EntryPersistenceException(String.format("Failed to find entry with baseDN: '%s', filter: '%s'", baseDN, searchFilter), ex);
+		}
+	}
+
+	protected <T> List<T> createEntities(Class<T> entryClass, PagedResult<EntryData> searchResult) {
+		List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
+
+		return createEntities(entryClass, propertiesAnnotations, searchResult.getEntries());
+	}
+
+	protected <T> List<T> createEntities(Class<T> entryClass, List<PropertyAnnotation> propertiesAnnotations, List<EntryData> searchResultEntries) {
+		Map<String, List<AttributeData>> entriesAttributes = new LinkedHashMap<String, List<AttributeData>>(searchResultEntries.size());
+		for (EntryData entryData : searchResultEntries) {
+			AttributeData attributeDataDn = entryData.getAttributeDate(MemoryOperationService.DN);
+			if ((attributeDataDn == null) || (attributeDataDn.getValue() == null)) {
+				throw new MappingException("Failed to convert EntryData to Entry because DN is missing");
+			}
+
+			entriesAttributes.put(attributeDataDn.getValue().toString(), entryData.getAttributeData());
+		}
+
+		return createEntities(entryClass, propertiesAnnotations, entriesAttributes);
+	}
+
+	@Override
+	public <T> boolean authenticate(String baseDN, Class<T> entryClass, String userName, String password) {
+		if (StringHelper.isEmptyString(baseDN)) {
+			throw new MappingException("Base DN to find entries is null");
+		}
+
+		// Check entry class
+		checkEntryClass(entryClass, false);
+		String[] objectClasses = getTypeObjectClasses(entryClass);
+
+		// Find entries
+		Filter searchFilter = Filter.createEqualityFilter(Filter.createLowercaseFilter(MemoryOperationService.UID), StringHelper.toLowerCase(userName));
+		if (objectClasses.length > 0) {
+			searchFilter = addObjectClassFilter(searchFilter, objectClasses);
+		}
+
+		try {
+			PagedResult<EntryData> searchResult = getOperationService().search(baseDN, searchFilter, SearchScope.SUB, MemoryOperationService.UID_ARRAY,
+					null, null, 0, 1, 1);
+			if ((searchResult == null) || (searchResult.getEntriesCount() != 1)) {
+				return false;
+			}
+
+			String bindDn = searchResult.getEntries().get(0).getAttributeDate(MemoryOperationService.DN).getValue().toString();
+
+			return authenticate(bindDn, entryClass, password);
+		} catch (SearchException ex) {
+			throw new AuthenticationException(String.format("Failed to find user DN: '%s'", userName), ex);
+		} catch (Exception ex) {
+			throw new AuthenticationException(String.format("Failed to authenticate user: '%s'", userName), ex);
+		}
+	}
+
+	@Override
+	@Deprecated
+	public boolean authenticate(String bindDn, String password) {
+		return authenticate(bindDn, null, password);
+	}
+
+	@Override
+	public <T> boolean authenticate(String bindDn, Class<T> entryClass, String password) {
+		try {
+			return getOperationService().authenticate(bindDn, password, null);
+		} catch (Exception ex) {
+			throw new AuthenticationException(String.format("Failed to authenticate DN: '%s'", bindDn), ex);
+		}
+	}
+
+	@Override
+	public <T> int countEntries(String baseDN, Class<T> entryClass, Filter filter) {
+		return countEntries(baseDN, entryClass, filter, SearchScope.SUB);
+	}
+
+	@Override
+	public <T> int countEntries(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope) {
+		if (StringHelper.isEmptyString(baseDN)) {
+			throw new MappingException("Base DN to find entries is null");
+		}
+
+		// Check entry class
+		checkEntryClass(entryClass, false);
+		String[] objectClasses = getTypeObjectClasses(entryClass);
+
+		// Find entries
+		Filter searchFilter;
+		if (objectClasses.length > 0) {
+			searchFilter = addObjectClassFilter(filter, objectClasses);
+		} else {
+			searchFilter = filter;
+		}
+
+		try {
+			return getOperationService().count(baseDN, searchFilter, scope);
+		} catch (SearchException ex) {
+			throw new EntryPersistenceException(
+					String.format("Failed to calculate the number of entries with baseDN: '%s', filter: '%s'", baseDN, searchFilter), ex);
+		}
+	}
+
+	protected <T> Sort[] getDefaultSort(Class<T> entryClass) {
+		String[] sortByProperties = getEntrySortByNames(entryClass);
+
+		if (ArrayHelper.isEmpty(sortByProperties)) {
+			// Fall back to sortBy property name
+			sortByProperties = getEntrySortByProperties(entryClass);
+			if (ArrayHelper.isEmpty(sortByProperties)) {
+				return null;
+			}
+		}
+
+		Sort[] sort = new Sort[sortByProperties.length];
+		for (int i = 0; i < sortByProperties.length; i++) {
+			sort[i] = new Sort(sortByProperties[i], SortOrder.ASCENDING);
+		}
+
+		return sort;
+	}
+
+	@Override
+	public List<AttributeData> exportEntry(String dn) {
+		try {
+			// Load entry
+			return getOperationService().lookup(dn);
+		} catch (Exception ex) {
+			throw new EntryPersistenceException(String.format("Failed to find entry: '%s'", dn), ex);
+		}
+	}
+
+	@Override
+	public String encodeTime(String baseDN, Date date) {
+		return MemoryValueHelper.encodeTime(date);
+	}
+
+	@Override
+	protected String encodeTime(Date date) {
+		return encodeTime(null, date);
+	}
+
+	@Override
+	public Date decodeTime(String date) {
+		return decodeTime(null, date);
+	}
+
+	@Override
+	public Date decodeTime(String baseDN, String date) {
+		if (StringHelper.isEmpty(date)) {
+			return null;
+		}
+
+		Date result = MemoryValueHelper.decodeTime(date);
+		if (result == null) {
+			LOG.error("Failed to decode generalized time '{}'", date);
+		}
+
+		return result;
+	}
+
+	@Override
+	public boolean hasBranchesSupport(String dn) {
+		return true;
+	}
+
+	@Override
+	public boolean hasExpirationSupport(String primaryKey) {
+		return true;
+	}
+
+	@Override
+	public String getPersistenceType() {
+		return MemoryEntryManagerFactory.PERSISTENCE_TYPE;
+	}
+
+	@Override
+	public String getPersistenceType(String primaryKey) {
+		return MemoryEntryManagerFactory.PERSISTENCE_TYPE;
+	}
+
+	@Override
+	public PersistenceEntryManager getPersistenceEntryManager(String persistenceType) {
+		if (MemoryEntryManagerFactory.PERSISTENCE_TYPE.equals(persistenceType)) {
+			return this;
+		}
+
+		return null;
+	}
+
+	@Override
+	protected Object getNativeDateAttributeValue(Date dateValue) {
+		return dateValue;
+	}
+
+}
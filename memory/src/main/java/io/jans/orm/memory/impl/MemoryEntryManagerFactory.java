@@ -0,0 +1,77 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.memory.impl;
+
+import java.util.HashMap;
+import java.util.Properties;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jans.orm.PersistenceEntryManager;
+import io.jans.orm.PersistenceEntryManagerFactory;
+import io.jans.orm.cache.LruEntryCache;
+import io.jans.orm.memory.operation.impl.MemoryOperationServiceImpl;
+import io.jans.orm.service.BaseFactoryService;
+import io.jans.orm.util.PropertiesHelper;
+import io.jans.orm.util.StringHelper;
+
+/**
+ * In memory Entry Manager Factory
+ */
+@ApplicationScoped
+public class MemoryEntryManagerFactory implements PersistenceEntryManagerFactory {
+
+    public static final String PERSISTENCE_TYPE = PersistenceEntryManager.PERSITENCE_TYPES.memory.name();
+    public static final String PROPERTIES_FILE = "jans-memory%s.properties";
+
+	private static final Logger LOG = LoggerFactory.getLogger(MemoryEntryManagerFactory.class);
+
+    @PostConstruct
+    public void create() {
+    }
+
+    @PreDestroy
+    public void destroy() {
+    }
+
+    @Override
+    public String getPersistenceType() {
+        return PERSISTENCE_TYPE;
+    }
+
+    @Override
+    public HashMap<String, String> getConfigurationFileNames(String alias) {
+    	String usedAlias = StringHelper.isEmpty(alias) ? "" : "." + alias; 
+
+    	HashMap<String, String> confs = new HashMap<String, String>();
+    	String confFileName = String.format(PROPERTIES_FILE, usedAlias);
+    	confs.put(PERSISTENCE_TYPE + usedAlias, confFileName);
+
+    	return confs;
+    }
+
+	@Override
+    public MemoryEntryManager createEntryManager(Properties conf) {
+		Properties entryManagerConf = PropertiesHelper.filterProperties(conf, "#");
+
+        MemoryEntryManager memoryEntryManager = new MemoryEntryManager(new MemoryOperationServiceImpl(entryManagerConf));
+        LOG.info("Created MemoryEntryManager: {}", memoryEntryManager.getOperationService());
+        memoryEntryManager.setEntryCache(LruEntryCache.create(entryManagerConf));
+        memoryEntryManager.setBatchPrefetchDepth(StringHelper.toInteger(entryManagerConf.getProperty(MemoryEntryManager.BATCH_PREFETCH_DEPTH_PROPERTY), 0));
+
+        return memoryEntryManager;
+    }
+
+	@Override
+	public void initStandalone(BaseFactoryService persistanceFactoryService) {}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.memory.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import io.jans.orm.model.AttributeData;
+
+/**
+ * Immutable snapshot of entry stored in memory. Updates replace whole snapshot
+ */
+public class MemoryEntry {
+
+	private final String dn;
+	private final String key;
+	private final Map<String, AttributeData> attributes;
+	private final long expirationTime;
+
+	/**
+	 * @param dn Original entry DN
+	 * @param key Normalized DN
+	 * @param attributes Attributes by lower case name. Map should not be modified after entry creation
+	 * @param expirationTime Expiration time in milliseconds. 0 if entry never expires
+	 */
+	public MemoryEntry(String dn, String key, Map<String, AttributeData> attributes, long expirationTime) {
+		this.dn = dn;
+		this.key = key;
+		this.attributes = Collections.unmodifiableMap(attributes);
+		this.expirationTime = expirationTime;
+	}
+
+	public String getDn() {
+		return dn;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public AttributeData getAttribute(String attributeName) {
+		if (attributeName == null) {
+			return null;
+		}
+
+		return attributes.get(attributeName.toLowerCase());
+	}
+
+	public Collection<AttributeData> getAttributes() {
+		return attributes.values();
+	}
+
+	public Map<String, AttributeData> getAttributesMap() {
+		return attributes;
+	}
+
+	public long getExpirationTime() {
+		return expirationTime;
+	}
+
+	public boolean isExpired(long now) {
+		return (expirationTime > 0) && (expirationTime <= now);
+	}
+
+	@Override
+	public String toString() {
+		return "MemoryEntry [dn=" + dn + ", attributes=" + attributes.values() + ", expirationTime=" + expirationTime + "]";
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.memory.operation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import io.jans.orm.exception.operation.DeleteException;
+import io.jans.orm.exception.operation.DuplicateEntryException;
+import io.jans.orm.exception.operation.PersistenceException;
+import io.jans.orm.exception.operation.SearchException;
+import io.jans.orm.memory.impl.MemoryBatchOperationWraper;
+import io.jans.orm.memory.operation.impl.MemoryIndex;
+import io.jans.orm.model.AttributeData;
+import io.jans.orm.model.AttributeDataModification;
+import io.jans.orm.model.EntryData;
+import io.jans.orm.model.PagedResult;
+import io.jans.orm.model.SearchScope;
+import io.jans.orm.model.Sort;
+import io.jans.orm.operation.PersistenceOperationService;
+import io.jans.orm.search.filter.Filter;
+
+/**
+ * In memory operation service interface
+ */
+public interface MemoryOperationService extends PersistenceOperationService {
+
+    static String DN = "dn";
+    static String UID = "uid";
+    static String[] UID_ARRAY = new String[] { "uid" };
+    static String USER_PASSWORD = "userPassword";
+    static String OBJECT_CLASS = "objectClass";
+
+    /**
+     * @param expiration Entry time to live in seconds. Entry never expires if it's null or 0
+     */
+    boolean addEntry(String dn, Collection<AttributeData> attributes, Integer expiration) throws DuplicateEntryException, PersistenceException;
+
+    /**
+     * Add entry or put specified attributes into existing entry
+     *
+     * @param expiration Entry time to live in seconds. Existing entry keeps current expiration if it's null
+     */
+    boolean addOrUpdateEntry(String dn, Collection<AttributeData> attributes, Integer expiration) throws PersistenceException;
+
+    /**
+     * @param expiration New entry time to live in seconds. Entry keeps current expiration if it's null
+     */
+    boolean updateEntry(String dn, List<AttributeDataModification> mods, Integer expiration) throws PersistenceException;
+
+    boolean delete(String dn);
+
+	long delete(String baseDn, Filter filter, SearchScope scope, int count) throws DeleteException;
+
+	boolean deleteRecursively(String dn);
+
+	List<AttributeData> lookup(String dn, String... attributes);
+
+	Map<String, List<AttributeData>> lookup(Collection<String> dns, String... attributes);
+
+    <O> PagedResult<EntryData> search(String baseDn, Filter filter, SearchScope scope, String[] attributes, Sort[] orderBy,
+    		MemoryBatchOperationWraper<O> batchOperationWraper, int start, int count, int pageSize) throws SearchException;
+
+    int count(String baseDn, Filter filter, SearchScope scope) throws SearchException;
+
+    /**
+     * Remove expired entries. Service calls it periodically if cleanup interval is specified
+     *
+     * @return Number of removed entries
+     */
+    int removeExpiredEntries();
+
+    int getEntriesCount();
+
+    Collection<MemoryIndex> getIndexes();
+
+    String[] createStoragePassword(String[] passwords);
+
+    boolean destroy();
+
+}
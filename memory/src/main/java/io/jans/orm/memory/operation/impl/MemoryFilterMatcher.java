@@ -0,0 +1,233 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.memory.operation.impl;
+
+import io.jans.orm.exception.operation.SearchException;
+import io.jans.orm.ldap.impl.LdapFilterConverter;
+import io.jans.orm.memory.model.MemoryEntry;
+import io.jans.orm.memory.operation.MemoryOperationService;
+import io.jans.orm.memory.util.MemoryValueHelper;
+import io.jans.orm.model.AttributeData;
+import io.jans.orm.search.filter.Filter;
+import io.jans.orm.search.filter.FilterType;
+import io.jans.orm.util.ArrayHelper;
+import io.jans.orm.util.StringHelper;
+
+/**
+ * Evaluates generic filters against entries stored in memory
+ */
+public class MemoryFilterMatcher {
+
+	private final LdapFilterConverter ldapFilterConverter;
+
+	public MemoryFilterMatcher() {
+		this.ldapFilterConverter = new LdapFilterConverter();
+	}
+
+	/**
+	 * Replace RAW filters with equivalent filter trees to avoid parsing them for each entry
+	 */
+	public Filter convertRawFilters(Filter genericFilter) throws SearchException {
+		if (genericFilter == null) {
+			return null;
+		}
+
+		FilterType type = genericFilter.getType();
+		if (FilterType.RAW == type) {
+			return ldapFilterConverter.convertRawLdapFilterToFilter(genericFilter.getFilterString());
+		}
+
+		if ((FilterType.AND == type) || (FilterType.OR == type) || (FilterType.NOT == type)) {
+			Filter[] filters = genericFilter.getFilters();
+			Filter[] resultFilters = new Filter[filters.length];
+			boolean changed = false;
+			for (int i = 0; i < filters.length; i++) {
+				resultFilters[i] = convertRawFilters(filters[i]);
+				changed |= resultFilters[i] != filters[i];
+			}
+
+			if (changed) {
+				return new Filter(type, resultFilters);
+			}
+		}
+
+		return genericFilter;
+	}
+
+	public boolean match(Filter genericFilter, MemoryEntry entry) throws SearchException {
+		if (genericFilter == null) {
+			return true;
+		}
+
+		FilterType type = genericFilter.getType();
+		switch (type) {
+		case RAW:
+			return match(convertRawFilters(genericFilter), entry);
+		case AND:
+			for (Filter filter : genericFilter.getFilters()) {
+				if (!match(filter, entry)) {
+					return false;
+				}
+			}
+			return true;
+		case OR:
+			for (Filter filter : genericFilter.getFilters()) {
+				if (match(filter, entry)) {
+					return true;
+				}
+			}
+			return false;
+		case NOT:
+			return !match(genericFilter.getFilters()[0], entry);
+		case PRESENCE:
+			AttributeData attribute = entry.getAttribute(getAttributeName(genericFilter));
+			return (attribute != null) && ArrayHelper.isNotEmpty(attribute.getValues());
+		case EQUALITY:
+		case APPROXIMATE_MATCH:
+		case LESS_OR_EQUAL:
+		case GREATER_OR_EQUAL:
+			return matchComparison(genericFilter, entry);
+		case SUBSTRING:
+			return matchSubstring(genericFilter, entry);
+		default:
+			throw new SearchException(String.format("Unsupported filter type '%s' in filter '%s'", type, genericFilter));
+		}
+	}
+
+	private boolean matchComparison(Filter genericFilter, MemoryEntry entry) {
+		String attributeName = getAttributeName(genericFilter);
+		AttributeData attribute = entry.getAttribute(attributeName);
+		if ((attribute == null) || (attribute.getValues() == null)) {
+			return false;
+		}
+
+		FilterType type = genericFilter.getType();
+		boolean ignoreCase = isLowercase(genericFilter) || (FilterType.APPROXIMATE_MATCH == type) || isIgnoreCase(attributeName);
+
+		Object assertionValue = MemoryValueHelper.normalize(genericFilter.getAssertionValue());
+		if (assertionValue == null) {
+			return false;
+		}
+
+		// Multi-valued attribute matches if any value matches
+		for (Object value : attribute.getValues()) {
+			Object storedValue = MemoryValueHelper.normalize(value);
+			if (storedValue == null) {
+				continue;
+			}
+
+			int compareResult;
+			if (ignoreCase) {
+				compareResult = String.valueOf(storedValue).toLowerCase().compareTo(String.valueOf(assertionValue).toLowerCase());
+			} else {
+				Object comparableAssertionValue = MemoryValueHelper.coerce(assertionValue, storedValue);
+				if (comparableAssertionValue == null) {
+					continue;
+				}
+				compareResult = MemoryValueHelper.compareValues(storedValue, comparableAssertionValue);
+			}
+
+			if ((FilterType.LESS_OR_EQUAL == type) && (compareResult <= 0)) {
+				return true;
+			} else if ((FilterType.GREATER_OR_EQUAL == type) && (compareResult >= 0)) {
+				return true;
+			} else if (compareResult == 0) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private boolean matchSubstring(Filter genericFilter, MemoryEntry entry) {
+		AttributeData attribute = entry.getAttribute(getAttributeName(genericFilter));
+		if ((attribute == null) || (attribute.getValues() == null)) {
+			return false;
+		}
+
+		boolean ignoreCase = isLowercase(genericFilter);
+		String subInitial = toMatchCase(genericFilter.getSubInitial(), ignoreCase);
+		String subFinal = toMatchCase(genericFilter.getSubFinal(), ignoreCase);
+		String[] subAny = genericFilter.getSubAny();
+
+		for (Object value : attribute.getValues()) {
+			if (value == null) {
+				continue;
+			}
+
+			String storedValue = toMatchCase(String.valueOf(MemoryValueHelper.normalize(value)), ignoreCase);
+			if (matchSubstring(storedValue, subInitial, subAny, subFinal, ignoreCase)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private boolean matchSubstring(String value, String subInitial, String[] subAny, String subFinal, boolean ignoreCase) {
+		int position = 0;
+		if (subInitial != null) {
+			if (!value.startsWith(subInitial)) {
+				return false;
+			}
+			position = subInitial.length();
+		}
+
+		if (subAny != null) {
+			for (String any : subAny) {
+				int index = value.indexOf(toMatchCase(any, ignoreCase), position);
+				if (index == -1) {
+					return false;
+				}
+				position = index + any.length();
+			}
+		}
+
+		if (subFinal != null) {
+			return (value.length() - subFinal.length() >= position) && value.endsWith(subFinal);
+		}
+
+		return true;
+	}
+
+	private String toMatchCase(String value, boolean ignoreCase) {
+		if ((value == null) || !ignoreCase) {
+			return value;
+		}
+
+		return value.toLowerCase();
+	}
+
+	/**
+	 * Attribute name of filter. Lowercase filter wraps attribute into nested filter
+	 */
+	public static String getAttributeName(Filter genericFilter) {
+		if (genericFilter.getAttributeName() != null) {
+			return genericFilter.getAttributeName();
+		}
+
+		if (isLowercase(genericFilter)) {
+			return genericFilter.getFilters()[0].getAttributeName();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Values of these attributes are compared ignoring case
+	 */
+	public static boolean isIgnoreCase(String attributeName) {
+		return StringHelper.equalsIgnoreCase(MemoryOperationService.OBJECT_CLASS, attributeName);
+	}
+
+	public static boolean isLowercase(Filter genericFilter) {
+		Filter[] filters = genericFilter.getFilters();
+
+		return (filters != null) && (filters.length == 1) && (filters[0] != null) && (FilterType.LOWERCASE == filters[0].getType());
+	}
+
+}
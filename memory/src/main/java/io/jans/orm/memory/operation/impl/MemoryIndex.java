@@ -0,0 +1,204 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.memory.operation.impl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import io.jans.orm.memory.util.MemoryValueHelper;
+import io.jans.orm.model.AttributeData;
+
+/**
+ * Secondary index of attribute values to entry keys. Hash index supports equality lookups,
+ * sorted index supports also range and prefix lookups.
+ *
+ * Updates are serialized per index, lookups are lock free. Lookup result may contain
+ * entries which doesn't match anymore, caller should check entries against filter
+ *
+ * Index of attribute which is compared ignoring case stores values in lower case
+ */
+public class MemoryIndex {
+
+	public enum IndexType {
+		HASH, SORTED
+	}
+
+	private final String attributeName;
+	private final IndexType type;
+	private final boolean ignoreCase;
+
+	private final ConcurrentMap<Object, Set<String>> index;
+	private final ConcurrentNavigableMap<Object, Set<String>> sortedIndex;
+
+	public MemoryIndex(String attributeName, IndexType type) {
+		this(attributeName, type, false);
+	}
+
+	public MemoryIndex(String attributeName, IndexType type, boolean ignoreCase) {
+		this.attributeName = attributeName.toLowerCase();
+		this.type = type;
+		this.ignoreCase = ignoreCase;
+
+		if (IndexType.SORTED == type) {
+			this.sortedIndex = new ConcurrentSkipListMap<Object, Set<String>>(MemoryValueHelper.VALUE_COMPARATOR);
+			this.index = this.sortedIndex;
+		} else {
+			this.sortedIndex = null;
+			this.index = new ConcurrentHashMap<Object, Set<String>>();
+		}
+	}
+
+	public String getAttributeName() {
+		return attributeName;
+	}
+
+	public IndexType getType() {
+		return type;
+	}
+
+	public boolean isIgnoreCase() {
+		return ignoreCase;
+	}
+
+	public synchronized void add(String key, AttributeData attribute) {
+		if ((attribute == null) || (attribute.getValues() == null)) {
+			return;
+		}
+
+		for (Object value : attribute.getValues()) {
+			Object indexValue = toIndexValue(value);
+			if (indexValue == null) {
+				continue;
+			}
+
+			Set<String> keys = index.get(indexValue);
+			if (keys == null) {
+				keys = ConcurrentHashMap.newKeySet();
+				index.put(indexValue, keys);
+			}
+			keys.add(key);
+		}
+	}
+
+	public synchronized void remove(String key, AttributeData attribute) {
+		if ((attribute == null) || (attribute.getValues() == null)) {
+			return;
+		}
+
+		for (Object value : attribute.getValues()) {
+			Object indexValue = toIndexValue(value);
+			if (indexValue == null) {
+				continue;
+			}
+
+			Set<String> keys = index.get(indexValue);
+			if (keys != null) {
+				keys.remove(key);
+				if (keys.isEmpty()) {
+					index.remove(indexValue);
+				}
+			}
+		}
+	}
+
+	public synchronized void clear() {
+		index.clear();
+	}
+
+	public Set<String> findEqual(Object assertionValue) {
+		Set<String> result = new HashSet<String>();
+		for (Object value : getCandidateValues(assertionValue)) {
+			Set<String> keys = index.get(value);
+			if (keys != null) {
+				result.addAll(keys);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return Keys of entries with values in range or null if index is not sorted
+	 */
+	public Set<String> findRange(Object assertionValue, boolean greaterOrEqual) {
+		if (sortedIndex == null) {
+			return null;
+		}
+
+		Set<String> result = new HashSet<String>();
+		for (Object value : getCandidateValues(assertionValue)) {
+			ConcurrentNavigableMap<Object, Set<String>> range = greaterOrEqual ? sortedIndex.tailMap(value, true)
+					: sortedIndex.headMap(value, true).descendingMap();
+
+			// Values of other kinds are stored in other parts of index
+			int rank = MemoryValueHelper.rank(value);
+			for (Map.Entry<Object, Set<String>> entry : range.entrySet()) {
+				if (MemoryValueHelper.rank(entry.getKey()) != rank) {
+					break;
+				}
+				result.addAll(entry.getValue());
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return Keys of entries with string values which starts with prefix or null if index is not sorted
+	 */
+	public Set<String> findPrefix(String prefix) {
+		if (sortedIndex == null) {
+			return null;
+		}
+
+		// Lower case prefix selects also entries with values in other case. Caller filters them out
+		String indexPrefix = ignoreCase ? prefix.toLowerCase() : prefix;
+
+		Set<String> result = new HashSet<String>();
+		for (Set<String> keys : sortedIndex.subMap(indexPrefix, true, indexPrefix + Character.MAX_VALUE, true).values()) {
+			result.addAll(keys);
+		}
+
+		return result;
+	}
+
+	private Object toIndexValue(Object value) {
+		Object indexValue = MemoryValueHelper.normalize(value);
+		if (ignoreCase && (indexValue != null)) {
+			return String.valueOf(indexValue).toLowerCase();
+		}
+
+		return indexValue;
+	}
+
+	private List<Object> getCandidateValues(Object assertionValue) {
+		if (!ignoreCase) {
+			return MemoryValueHelper.getCandidateValues(assertionValue);
+		}
+
+		List<Object> result = new ArrayList<Object>(1);
+		Object indexValue = toIndexValue(assertionValue);
+		if (indexValue != null) {
+			result.add(indexValue);
+		}
+
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "MemoryIndex [attributeName=" + attributeName + ", type=" + type + ", ignoreCase=" + ignoreCase + "]";
+	}
+
+}
@@ -0,0 +1,877 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.memory.operation.impl;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jans.orm.exception.extension.PersistenceExtension;
+import io.jans.orm.exception.operation.DeleteException;
+import io.jans.orm.exception.operation.DuplicateEntryException;
+import io.jans.orm.exception.operation.PersistenceException;
+import io.jans.orm.exception.operation.SearchException;
+import io.jans.orm.impl.BatchOperationPipeline;
+import io.jans.orm.memory.impl.MemoryBatchOperationWraper;
+import io.jans.orm.memory.model.MemoryEntry;
+import io.jans.orm.memory.operation.MemoryOperationService;
+import io.jans.orm.memory.operation.impl.MemoryIndex.IndexType;
+import io.jans.orm.memory.util.MemoryValueHelper;
+import io.jans.orm.model.AttributeData;
+import io.jans.orm.model.AttributeDataModification;
+import io.jans.orm.model.AttributeDataModification.AttributeModificationType;
+import io.jans.orm.model.BatchOperation;
+import io.jans.orm.model.EntryData;
+import io.jans.orm.model.PagedResult;
+import io.jans.orm.model.SearchScope;
+import io.jans.orm.model.Sort;
+import io.jans.orm.model.SortOrder;
+import io.jans.orm.operation.auth.PasswordEncryptionHelper;
+import io.jans.orm.operation.auth.PasswordEncryptionMethod;
+import io.jans.orm.search.filter.Filter;
+import io.jans.orm.search.filter.FilterOptimizer;
+import io.jans.orm.search.filter.FilterType;
+import io.jans.orm.util.ArrayHelper;
+import io.jans.orm.util.StringHelper;
+
+/**
+ * Stores entries in concurrent map keyed by normalized DN. Separate sorted map of reversed DNs
+ * allows to select entries by search scope without full scan. Optional secondary indexes
+ * allow to avoid full scan for filters with equality, range and prefix conditions.
+ *
+ * Entries are immutable snapshots. All changes of entry and it's index records are done
+ * atomically per DN, readers don't take locks
+ */
+public class MemoryOperationServiceImpl implements MemoryOperationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MemoryOperationServiceImpl.class);
+
+    public static final String HASH_INDEXES_PROPERTY = "index.hash";
+    public static final String SORTED_INDEXES_PROPERTY = "index.sorted";
+    public static final String CLEANUP_INTERVAL_PROPERTY = "expiration.cleanup-interval";
+    public static final String PASSWORD_ENCRYPTION_METHOD_PROPERTY = "password.encryption.method";
+
+    public static final int DEFAULT_CLEANUP_INTERVAL = 60;
+
+    private final ConcurrentMap<String, MemoryEntry> entries;
+    private final ConcurrentNavigableMap<String, String> tree;
+    private final Map<String, MemoryIndex> indexes;
+
+    private final Clock clock;
+    private final MemoryFilterMatcher filterMatcher;
+    private final FilterOptimizer filterOptimizer;
+    private final PasswordEncryptionMethod passwordEncryptionMethod;
+
+    private ScheduledExecutorService cleanupExecutor;
+    private volatile boolean destroyed;
+
+    private PersistenceExtension persistenceExtension;
+
+    public MemoryOperationServiceImpl(Properties props) {
+        this(props, Clock.systemUTC());
+    }
+
+    /**
+     * @param clock Clock to calculate and check expiration time of entries
+     */
+    public MemoryOperationServiceImpl(Properties props, Clock clock) {
+        this.clock = clock;
+        this.entries = new ConcurrentHashMap<String, MemoryEntry>();
+        this.tree = new ConcurrentSkipListMap<String, String>();
+        this.filterMatcher = new MemoryFilterMatcher();
+        this.filterOptimizer = new FilterOptimizer();
+
+        Map<String, MemoryIndex> indexes = new HashMap<String, MemoryIndex>();
+        addIndexes(indexes, props.getProperty(HASH_INDEXES_PROPERTY), IndexType.HASH);
+        addIndexes(indexes, props.getProperty(SORTED_INDEXES_PROPERTY), IndexType.SORTED);
+        this.indexes = Collections.unmodifiableMap(indexes);
+        LOG.debug("Using next indexes: '{}'", indexes.values());
+
+        if (props.containsKey(PASSWORD_ENCRYPTION_METHOD_PROPERTY)) {
+            this.passwordEncryptionMethod = PasswordEncryptionMethod.getMethod(props.getProperty(PASSWORD_ENCRYPTION_METHOD_PROPERTY));
+        } else {
+            this.passwordEncryptionMethod = PasswordEncryptionMethod.HASH_METHOD_SHA256;
+        }
+
+        int cleanupInterval = StringHelper.toInteger(props.getProperty(CLEANUP_INTERVAL_PROPERTY), DEFAULT_CLEANUP_INTERVAL);
+        if (cleanupInterval > 0) {
+            startCleanup(cleanupInterval);
+        }
+    }
+
+    private void addIndexes(Map<String, MemoryIndex> indexes, String attributeNames, IndexType type) {
+        if (StringHelper.isEmpty(attributeNames)) {
+            return;
+        }
+
+        for (String attributeName : StringHelper.split(attributeNames, ",")) {
+            if (StringHelper.isNotEmpty(attributeName)) {
+                MemoryIndex index = new MemoryIndex(attributeName, type, MemoryFilterMatcher.isIgnoreCase(attributeName));
+                indexes.put(index.getAttributeName(), index);
+            }
+        }
+    }
+
+    private void startCleanup(int cleanupInterval) {
+        this.cleanupExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "orm-memory-cleanup");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        this.cleanupExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    int removed = removeExpiredEntries();
+                    LOG.debug("Removed expired entries: {}", removed);
+                } catch (RuntimeException ex) {
+                    LOG.error("Failed to remove expired entries", ex);
+                }
+            }
+        }, cleanupInterval, cleanupInterval, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public boolean isConnected() {
+        return !destroyed;
+    }
+
+    @Override
+    public boolean authenticate(String dn, String password, String objectClass) throws SearchException {
+        if (password == null) {
+            return false;
+        }
+
+        MemoryEntry entry = getEntry(toKey(dn), clock.millis());
+        if (entry == null) {
+            return false;
+        }
+
+        AttributeData attribute = entry.getAttribute(USER_PASSWORD);
+        if ((attribute == null) || !(attribute.getValue() instanceof String)) {
+            return false;
+        }
+
+        String userPassword = (String) attribute.getValue();
+        if (persistenceExtension == null) {
+            return PasswordEncryptionHelper.compareCredentials(password, userPassword);
+        } else {
+            return persistenceExtension.compareHashedPasswords(password, userPassword);
+        }
+    }
+
+    @Override
+    public boolean addEntry(String dn, Collection<AttributeData> attributes, Integer expiration) throws DuplicateEntryException, PersistenceException {
+        final long now = clock.millis();
+        final String key = toKey(dn);
+
+        Map<String, AttributeData> entryAttributes = new LinkedHashMap<String, AttributeData>();
+        for (AttributeData attribute : attributes) {
+            putAttribute(entryAttributes, attribute);
+        }
+        final MemoryEntry newEntry = new MemoryEntry(dn, key, entryAttributes, toExpirationTime(expiration, now));
+
+        final boolean[] duplicate = new boolean[1];
+        entries.compute(key, new BiFunction<String, MemoryEntry, MemoryEntry>() {
+            @Override
+            public MemoryEntry apply(String entryKey, MemoryEntry existingEntry) {
+                if ((existingEntry != null) && !existingEntry.isExpired(now)) {
+                    duplicate[0] = true;
+                    return existingEntry;
+                }
+
+                updateIndexes(existingEntry, newEntry);
+                return newEntry;
+            }
+        });
+
+        if (duplicate[0]) {
+            throw new DuplicateEntryException(String.format("Entry with DN '%s' already exists", dn));
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean addOrUpdateEntry(String dn, final Collection<AttributeData> attributes, final Integer expiration) throws PersistenceException {
+        final long now = clock.millis();
+        final String key = toKey(dn);
+        final String entryDn = dn;
+
+        entries.compute(key, new BiFunction<String, MemoryEntry, MemoryEntry>() {
+            @Override
+            public MemoryEntry apply(String entryKey, MemoryEntry existingEntry) {
+                boolean exists = (existingEntry != null) && !existingEntry.isExpired(now);
+
+                Map<String, AttributeData> entryAttributes;
+                if (exists) {
+                    entryAttributes = new LinkedHashMap<String, AttributeData>(existingEntry.getAttributesMap());
+                } else {
+                    entryAttributes = new LinkedHashMap<String, AttributeData>();
+                }
+
+                // Attributes without values don't change existing entry
+                for (AttributeData attribute : attributes) {
+                    putAttribute(entryAttributes, attribute);
+                }
+
+                long expirationTime = (exists && (expiration == null)) ? existingEntry.getExpirationTime() : toExpirationTime(expiration, now);
+                MemoryEntry newEntry = new MemoryEntry(exists ? existingEntry.getDn() : entryDn, entryKey, entryAttributes, expirationTime);
+
+                updateIndexes(existingEntry, newEntry);
+
+                return newEntry;
+            }
+        });
+
+        return true;
+    }
+
+    @Override
+    public boolean updateEntry(String dn, final List<AttributeDataModification> mods, final Integer expiration) throws PersistenceException {
+        final long now = clock.millis();
+        final String key = toKey(dn);
+
+        final boolean[] updated = new boolean[1];
+        entries.compute(key, new BiFunction<String, MemoryEntry, MemoryEntry>() {
+            @Override
+            public MemoryEntry apply(String entryKey, MemoryEntry existingEntry) {
+                if ((existingEntry == null) || existingEntry.isExpired(now)) {
+                    return existingEntry;
+                }
+
+                Map<String, AttributeData> entryAttributes = new LinkedHashMap<String, AttributeData>(existingEntry.getAttributesMap());
+                for (AttributeDataModification modification : mods) {
+                    applyModification(entryAttributes, modification);
+                }
+
+                long expirationTime = (expiration == null) ? existingEntry.getExpirationTime() : toExpirationTime(expiration, now);
+                MemoryEntry newEntry = new MemoryEntry(existingEntry.getDn(), entryKey, entryAttributes, expirationTime);
+
+                updateIndexes(existingEntry, newEntry);
+                updated[0] = true;
+
+                return newEntry;
+            }
+        });
+
+        return updated[0];
+    }
+
+    private void applyModification(Map<String, AttributeData> entryAttributes, AttributeDataModification modification) {
+        AttributeData attribute = modification.getAttribute();
+        if (AttributeModificationType.REMOVE == modification.getModificationType()) {
+            AttributeData removeAttribute = (attribute == null) ? modification.getOldAttribute() : attribute;
+            entryAttributes.remove(removeAttribute.getName().toLowerCase());
+            return;
+        }
+
+        // Empty values means that attribute should be removed
+        if (!putAttribute(entryAttributes, attribute)) {
+            entryAttributes.remove(attribute.getName().toLowerCase());
+        }
+    }
+
+    private boolean putAttribute(Map<String, AttributeData> entryAttributes, AttributeData attribute) {
+        Object[] values = attribute.getValues();
+        if (ArrayHelper.isEmpty(values) || (values[0] == null)) {
+            return false;
+        }
+
+        entryAttributes.put(attribute.getName().toLowerCase(), copyAttribute(attribute));
+
+        return true;
+    }
+
+    @Override
+    public boolean delete(String dn) {
+        return deleteByKey(toKey(dn)) != null;
+    }
+
+    private MemoryEntry deleteByKey(String key) {
+        final MemoryEntry[] removed = new MemoryEntry[1];
+        entries.computeIfPresent(key, new BiFunction<String, MemoryEntry, MemoryEntry>() {
+            @Override
+            public MemoryEntry apply(String entryKey, MemoryEntry existingEntry) {
+                updateIndexes(existingEntry, null);
+                removed[0] = existingEntry;
+
+                return null;
+            }
+        });
+
+        if ((removed[0] == null) || removed[0].isExpired(clock.millis())) {
+            return null;
+        }
+
+        return removed[0];
+    }
+
+    @Override
+    public long delete(String baseDn, Filter filter, SearchScope scope, int count) throws DeleteException {
+        List<MemoryEntry> matchedEntries;
+        try {
+            matchedEntries = findEntries(baseDn, filter, scope, count);
+        } catch (SearchException ex) {
+            throw new DeleteException(String.format("Failed to find entries to delete. DN: '%s', filter: '%s'", baseDn, filter), ex);
+        }
+
+        long deleted = 0;
+        for (MemoryEntry matchedEntry : matchedEntries) {
+            if (deleteByKey(matchedEntry.getKey()) != null) {
+                deleted++;
+            }
+        }
+
+        return deleted;
+    }
+
+    @Override
+    public boolean deleteRecursively(String dn) {
+        String key = toKey(dn);
+
+        List<String> keys = new ArrayList<String>(getScopeKeys(key, SearchScope.SUB));
+        // Remove children first
+        Collections.reverse(keys);
+        for (String entryKey : keys) {
+            deleteByKey(entryKey);
+        }
+
+        return true;
+    }
+
+    @Override
+    public List<AttributeData> lookup(String dn, String... attributes) {
+        MemoryEntry entry = getEntry(toKey(dn), clock.millis());
+        if (entry == null) {
+            return null;
+        }
+
+        return getAttributeDataList(entry, attributes, false);
+    }
+
+    @Override
+    public Map<String, List<AttributeData>> lookup(Collection<String> dns, String... attributes) {
+        long now = clock.millis();
+
+        Map<String, List<AttributeData>> result = new HashMap<String, List<AttributeData>>(dns.size());
+        for (String dn : dns) {
+            MemoryEntry entry = getEntry(toKey(dn), now);
+            if (entry != null) {
+                result.put(dn, getAttributeDataList(entry, attributes, false));
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public <O> PagedResult<EntryData> search(String baseDn, Filter filter, SearchScope scope, String[] attributes, Sort[] orderBy,
+            MemoryBatchOperationWraper<O> batchOperationWraper, int start, int count, int pageSize) throws SearchException {
+        BatchOperation<O> batchOperation = null;
+        if (batchOperationWraper != null) {
+            batchOperation = (BatchOperation<O>) batchOperationWraper.getBatchOperation();
+        }
+
+        List<MemoryEntry> matchedEntries = findEntries(baseDn, filter, scope, 0);
+        if (ArrayHelper.isNotEmpty(orderBy)) {
+            Collections.sort(matchedEntries, new EntryComparator(orderBy));
+        }
+
+        int fromIndex = Math.min(Math.max(start, 0), matchedEntries.size());
+        int toIndex = matchedEntries.size();
+        if (count > 0) {
+            toIndex = Math.min(fromIndex + count, toIndex);
+        }
+
+        List<EntryData> searchResultList = new ArrayList<EntryData>(toIndex - fromIndex);
+        if ((pageSize > 0) && (batchOperation != null)) {
+            try (BatchOperationPipeline<O> batchOperationPipeline = batchOperationWraper.createBatchOperationPipeline()) {
+                for (int pageStart = fromIndex; pageStart < toIndex; pageStart += pageSize) {
+                    int pageEnd = Math.min(pageStart + pageSize, toIndex);
+                    List<EntryData> lastResult = toEntryDataList(matchedEntries.subList(pageStart, pageEnd), attributes);
+
+                    if (batchOperation.collectSearchResult(lastResult.size())) {
+                        searchResultList.addAll(lastResult);
+                    }
+
+                    List<O> batchEntries = batchOperationWraper.createEntities(lastResult);
+                    batchOperationPipeline.performAction(batchEntries);
+                }
+            }
+        } else {
+            searchResultList.addAll(toEntryDataList(matchedEntries.subList(fromIndex, toIndex), attributes));
+        }
+
+        PagedResult<EntryData> result = new PagedResult<EntryData>();
+        result.setEntries(searchResultList);
+        result.setEntriesCount(searchResultList.size());
+        result.setStart(start);
+        result.setTotalEntriesCount(matchedEntries.size());
+
+        return result;
+    }
+
+    @Override
+    public int count(String baseDn, Filter filter, SearchScope scope) throws SearchException {
+        return findEntries(baseDn, filter, scope, 0).size();
+    }
+
+    private List<MemoryEntry> findEntries(String baseDn, Filter filter, SearchScope scope, int limit) throws SearchException {
+        long now = clock.millis();
+        String baseKey = toKey(baseDn);
+        Filter searchFilter = filterOptimizer.optimize(filterMatcher.convertRawFilters(filter));
+
+        Collection<String> keys;
+        if (SearchScope.BASE == scope) {
+            keys = Collections.singletonList(baseKey);
+        } else {
+            keys = findIndexedKeys(searchFilter);
+            if (keys == null) {
+                keys = getScopeKeys(baseKey, scope);
+            } else {
+                LOG.trace("Use index to search entries with filter: '{}'", searchFilter);
+            }
+        }
+
+        List<MemoryEntry> result = new ArrayList<MemoryEntry>();
+        for (String key : keys) {
+            if (!isInScope(key, baseKey, scope)) {
+                continue;
+            }
+
+            MemoryEntry entry = getEntry(key, now);
+            if ((entry != null) && filterMatcher.match(searchFilter, entry)) {
+                result.add(entry);
+                if ((limit > 0) && (result.size() >= limit)) {
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return Keys of entries which can match filter or null if filter can't be resolved with indexes
+     */
+    private Set<String> findIndexedKeys(Filter filter) {
+        if ((filter == null) || indexes.isEmpty()) {
+            return null;
+        }
+
+        FilterType type = filter.getType();
+        if (FilterType.AND == type) {
+            // Use the most selective condition, others are checked against entries
+            Set<String> result = null;
+            for (Filter childFilter : filter.getFilters()) {
+                Set<String> childResult = findIndexedKeys(childFilter);
+                if ((childResult != null) && ((result == null) || (childResult.size() < result.size()))) {
+                    result = childResult;
+                }
+            }
+
+            return result;
+        }
+
+        if (FilterType.OR == type) {
+            Set<String> result = new HashSet<String>();
+            for (Filter childFilter : filter.getFilters()) {
+                Set<String> childResult = findIndexedKeys(childFilter);
+                if (childResult == null) {
+                    return null;
+                }
+                result.addAll(childResult);
+            }
+
+            return result;
+        }
+
+        // Lowercase filter matches values of any case but index of attribute may store values as is
+        if ((filter.getAttributeName() == null) || MemoryFilterMatcher.isLowercase(filter)) {
+            return null;
+        }
+
+        MemoryIndex index = indexes.get(filter.getAttributeName().toLowerCase());
+        if (index == null) {
+            return null;
+        }
+
+        switch (type) {
+        case EQUALITY:
+            return index.findEqual(filter.getAssertionValue());
+        case GREATER_OR_EQUAL:
+            return index.findRange(filter.getAssertionValue(), true);
+        case LESS_OR_EQUAL:
+            return index.findRange(filter.getAssertionValue(), false);
+        case SUBSTRING:
+            if (StringHelper.isEmpty(filter.getSubInitial())) {
+                return null;
+            }
+            return index.findPrefix(filter.getSubInitial());
+        default:
+            return null;
+        }
+    }
+
+    private Collection<String> getScopeKeys(String baseKey, SearchScope scope) {
+        if (SearchScope.BASE == scope) {
+            return Collections.singletonList(baseKey);
+        }
+
+        Collection<String> subtreeKeys;
+        String baseTreeKey = toTreeKey(baseKey);
+        if (StringHelper.isEmpty(baseTreeKey)) {
+            subtreeKeys = tree.values();
+        } else {
+            List<String> keys = new ArrayList<String>();
+            keys.add(baseKey);
+            // All children tree keys start with "<base tree key>,"
+            keys.addAll(tree.subMap(baseTreeKey + ',', true, baseTreeKey + (char) (',' + 1), false).values());
+            subtreeKeys = keys;
+        }
+
+        return subtreeKeys;
+    }
+
+    private boolean isInScope(String key, String baseKey, SearchScope scope) {
+        if (SearchScope.BASE == scope) {
+            return key.equals(baseKey);
+        }
+
+        if (SearchScope.ONE == scope) {
+            return baseKey.equals(getParentKey(key));
+        }
+
+        if (baseKey.isEmpty() || key.equals(baseKey)) {
+            return true;
+        }
+
+        return key.endsWith(baseKey) && (key.length() > baseKey.length() + 1)
+        		&& (key.charAt(key.length() - baseKey.length() - 1) == ',') && (key.charAt(key.length() - baseKey.length() - 2) != '\\');
+    }
+
+    private MemoryEntry getEntry(String key, long now) {
+        MemoryEntry entry = entries.get(key);
+        if ((entry == null) || entry.isExpired(now)) {
+            return null;
+        }
+
+        return entry;
+    }
+
+    @Override
+    public int removeExpiredEntries() {
+        final long now = clock.millis();
+
+        int removed = 0;
+        for (MemoryEntry entry : entries.values()) {
+            if (!entry.isExpired(now)) {
+                continue;
+            }
+
+            final boolean[] expired = new boolean[1];
+            entries.computeIfPresent(entry.getKey(), new BiFunction<String, MemoryEntry, MemoryEntry>() {
+                @Override
+                public MemoryEntry apply(String entryKey, MemoryEntry existingEntry) {
+                    // Entry can be replaced after expiration
+                    if (!existingEntry.isExpired(now)) {
+                        return existingEntry;
+                    }
+
+                    updateIndexes(existingEntry, null);
+                    expired[0] = true;
+
+                    return null;
+                }
+            });
+
+            if (expired[0]) {
+                removed++;
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Called under entry lock to keep indexes consistent with entries
+     */
+    private void updateIndexes(MemoryEntry oldEntry, MemoryEntry newEntry) {
+        if ((oldEntry == null) && (newEntry != null)) {
+            tree.put(toTreeKey(newEntry.getKey()), newEntry.getKey());
+        } else if ((oldEntry != null) && (newEntry == null)) {
+            tree.remove(toTreeKey(oldEntry.getKey()));
+        }
+
+        for (MemoryIndex index : indexes.values()) {
+            AttributeData oldAttribute = (oldEntry == null) ? null : oldEntry.getAttribute(index.getAttributeName());
+            AttributeData newAttribute = (newEntry == null) ? null : newEntry.getAttribute(index.getAttributeName());
+            // Unchanged attributes are shared between entry snapshots
+            if (oldAttribute == newAttribute) {
+                continue;
+            }
+
+            if (oldAttribute != null) {
+                index.remove(oldEntry.getKey(), oldAttribute);
+            }
+            if (newAttribute != null) {
+                index.add(newEntry.getKey(), newAttribute);
+            }
+        }
+    }
+
+    private List<EntryData> toEntryDataList(List<MemoryEntry> memoryEntries, String[] attributes) {
+        List<EntryData> result = new ArrayList<EntryData>(memoryEntries.size());
+        for (MemoryEntry entry : memoryEntries) {
+            result.add(new EntryData(getAttributeDataList(entry, attributes, true)));
+        }
+
+        return result;
+    }
+
+    private List<AttributeData> getAttributeDataList(MemoryEntry entry, String[] attributes, boolean addDn) {
+        List<AttributeData> result = new ArrayList<AttributeData>();
+        if (addDn) {
+            result.add(new AttributeData(DN, entry.getDn()));
+        }
+
+        if (ArrayHelper.isEmpty(attributes)) {
+            for (AttributeData attribute : entry.getAttributes()) {
+                result.add(copyAttribute(attribute));
+            }
+        } else {
+            for (String attributeName : attributes) {
+                AttributeData attribute = entry.getAttribute(attributeName);
+                if (attribute != null) {
+                    result.add(copyAttribute(attribute));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private AttributeData copyAttribute(AttributeData attribute) {
+        return new AttributeData(attribute.getName(), MemoryValueHelper.copyValues(attribute.getValues()), attribute.getMultiValued());
+    }
+
+    private long toExpirationTime(Integer expiration, long now) {
+        if ((expiration == null) || (expiration <= 0)) {
+            return 0;
+        }
+
+        return now + expiration * 1000L;
+    }
+
+    /**
+     * Normalized DN: lower case RDNs without surrounding spaces
+     */
+    public static String toKey(String dn) {
+        if (dn == null) {
+            return "";
+        }
+
+        List<String> rdns = splitRdns(dn);
+        StringBuilder key = new StringBuilder(dn.length());
+        for (String rdn : rdns) {
+            if (key.length() > 0) {
+                key.append(',');
+            }
+            key.append(rdn);
+        }
+
+        return key.toString();
+    }
+
+    /**
+     * Key with RDNs in reverse order. Entries of subtree have common prefix
+     */
+    private static String toTreeKey(String key) {
+        List<String> rdns = splitRdns(key);
+        StringBuilder treeKey = new StringBuilder(key.length());
+        for (int i = rdns.size() - 1; i >= 0; i--) {
+            if (treeKey.length() > 0) {
+                treeKey.append(',');
+            }
+            treeKey.append(rdns.get(i));
+        }
+
+        return treeKey.toString();
+    }
+
+    private static String getParentKey(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            char ch = key.charAt(i);
+            if (ch == '\\') {
+                i++;
+            } else if (ch == ',') {
+                return key.substring(i + 1);
+            }
+        }
+
+        return "";
+    }
+
+    private static List<String> splitRdns(String dn) {
+        List<String> rdns = new ArrayList<String>();
+
+        int rdnStart = 0;
+        for (int i = 0; i <= dn.length(); i++) {
+            if (i < dn.length()) {
+                char ch = dn.charAt(i);
+                if (ch == '\\') {
+                    i++;
+                    continue;
+                }
+                if (ch != ',') {
+                    continue;
+                }
+            }
+
+            String rdn = dn.substring(rdnStart, Math.min(i, dn.length())).trim().toLowerCase();
+            if (!rdn.isEmpty()) {
+                rdns.add(rdn);
+            }
+            rdnStart = i + 1;
+        }
+
+        return rdns;
+    }
+
+    @Override
+    public int getEntriesCount() {
+        return entries.size();
+    }
+
+    @Override
+    public Collection<MemoryIndex> getIndexes() {
+        return indexes.values();
+    }
+
+    @Override
+    public String[] createStoragePassword(String[] passwords) {
+        if (ArrayHelper.isEmpty(passwords)) {
+            return passwords;
+        }
+
+        String[] results = new String[passwords.length];
+        for (int i = 0; i < passwords.length; i++) {
+            if (persistenceExtension == null) {
+                results[i] = PasswordEncryptionHelper.createStoragePassword(passwords[i], passwordEncryptionMethod);
+            } else {
+                results[i] = persistenceExtension.createHashedPassword(passwords[i]);
+            }
+        }
+
+        return results;
+    }
+
+    @Override
+    public boolean destroy() {
+        this.destroyed = true;
+        if (this.cleanupExecutor != null) {
+            this.cleanupExecutor.shutdownNow();
+            this.cleanupExecutor = null;
+        }
+
+        entries.clear();
+        tree.clear();
+        for (MemoryIndex index : indexes.values()) {
+            index.clear();
+        }
+
+        return true;
+    }
+
+    @Override
+    public void setPersistenceExtension(PersistenceExtension persistenceExtension) {
+        this.persistenceExtension = persistenceExtension;
+    }
+
+    @Override
+    public boolean isSupportObjectClass(String objectClass) {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "MemoryOperationServiceImpl [indexes=" + indexes.values() + ", entries=" + entries.size() + "]";
+    }
+
+    private static class EntryComparator implements Comparator<MemoryEntry> {
+
+        private final Sort[] orderBy;
+
+        public EntryComparator(Sort[] orderBy) {
+            this.orderBy = orderBy;
+        }
+
+        @Override
+        public int compare(MemoryEntry entry1, MemoryEntry entry2) {
+            for (Sort sort : orderBy) {
+                Object value1 = getSortValue(entry1, sort.getName());
+                Object value2 = getSortValue(entry2, sort.getName());
+
+                int result;
+                if (value1 == null) {
+                    // Entries without value are last
+                    result = (value2 == null) ? 0 : 1;
+                } else if (value2 == null) {
+                    result = -1;
+                } else {
+                    result = MemoryValueHelper.compareValues(value1, value2);
+                    if (SortOrder.DESCENDING == sort.getSortOrder()) {
+                        result = -result;
+                    }
+                }
+
+                if (result != 0) {
+                    return result;
+                }
+            }
+
+            return 0;
+        }
+
+        private Object getSortValue(MemoryEntry entry, String attributeName) {
+            AttributeData attribute = entry.getAttribute(attributeName);
+            if ((attribute == null) || ArrayHelper.isEmpty(attribute.getValues())) {
+                return null;
+            }
+
+            return MemoryValueHelper.normalize(attribute.getValues()[0]);
+        }
+
+    }
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.memory.util;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import io.jans.orm.annotation.AttributeEnum;
+
+/**
+ * Conversion and comparison of attribute values stored in memory.
+ * Values are compared after normalization: integral numbers as Long, other numbers as Double,
+ * enums by value. Values of different kinds are ordered by kind
+ */
+public final class MemoryValueHelper {
+
+	private static final int RANK_BOOLEAN = 0;
+	private static final int RANK_NUMBER = 1;
+	private static final int RANK_DATE = 2;
+	private static final int RANK_STRING = 3;
+	private static final int RANK_OTHER = 4;
+
+	public static final Comparator<Object> VALUE_COMPARATOR = new Comparator<Object>() {
+		@Override
+		public int compare(Object value1, Object value2) {
+			return compareValues(value1, value2);
+		}
+	};
+
+	private MemoryValueHelper() {
+	}
+
+	public static Object normalize(Object value) {
+		if (value == null) {
+			return null;
+		}
+
+		if (value instanceof String) {
+			return value;
+		} else if (value instanceof AttributeEnum) {
+			return ((AttributeEnum) value).getValue();
+		} else if ((value instanceof Long) || (value instanceof Integer) || (value instanceof Short) || (value instanceof Byte)) {
+			return ((Number) value).longValue();
+		} else if (value instanceof Number) {
+			return ((Number) value).doubleValue();
+		} else if ((value instanceof Boolean) || (value instanceof Date)) {
+			return value;
+		}
+
+		return value.toString();
+	}
+
+	public static int rank(Object value) {
+		if (value instanceof String) {
+			return RANK_STRING;
+		} else if (value instanceof Number) {
+			return RANK_NUMBER;
+		} else if (value instanceof Date) {
+			return RANK_DATE;
+		} else if (value instanceof Boolean) {
+			return RANK_BOOLEAN;
+		}
+
+		return RANK_OTHER;
+	}
+
+	/**
+	 * Compare normalized values
+	 */
+	public static int compareValues(Object value1, Object value2) {
+		int rank1 = rank(value1);
+		int rank2 = rank(value2);
+		if (rank1 != rank2) {
+			return Integer.compare(rank1, rank2);
+		}
+
+		switch (rank1) {
+		case RANK_STRING:
+			return ((String) value1).compareTo((String) value2);
+		case RANK_NUMBER:
+			if ((value1 instanceof Long) && (value2 instanceof Long)) {
+				return Long.compare((Long) value1, (Long) value2);
+			}
+			return Double.compare(((Number) value1).doubleValue(), ((Number) value2).doubleValue());
+		case RANK_DATE:
+			return Long.compare(((Date) value1).getTime(), ((Date) value2).getTime());
+		case RANK_BOOLEAN:
+			return Boolean.compare((Boolean) value1, (Boolean) value2);
+		default:
+			return String.valueOf(value1).compareTo(String.valueOf(value2));
+		}
+	}
+
+	/**
+	 * Convert normalized assertion value to the kind of normalized stored value
+	 *
+	 * @return Converted value or null if conversion is not possible
+	 */
+	public static Object coerce(Object assertionValue, Object storedValue) {
+		int storedRank = rank(storedValue);
+		if (rank(assertionValue) == storedRank) {
+			return assertionValue;
+		}
+
+		if (storedRank == RANK_STRING) {
+			if (assertionValue instanceof Date) {
+				return encodeTime((Date) assertionValue);
+			}
+			return String.valueOf(assertionValue);
+		}
+
+		if (!(assertionValue instanceof String)) {
+			return null;
+		}
+
+		String assertionString = (String) assertionValue;
+		switch (storedRank) {
+		case RANK_NUMBER:
+			return parseNumber(assertionString);
+		case RANK_DATE:
+			return decodeTime(assertionString);
+		case RANK_BOOLEAN:
+			return parseBoolean(assertionString);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Build all normalized values which assertion value can be compared with.
+	 * It allows to use index without knowing type of stored values
+	 */
+	public static List<Object> getCandidateValues(Object assertionValue) {
+		Object normalizedValue = normalize(assertionValue);
+
+		List<Object> result = new ArrayList<Object>(2);
+		if (normalizedValue == null) {
+			return result;
+		}
+		result.add(normalizedValue);
+
+		if (normalizedValue instanceof String) {
+			String assertionString = (String) normalizedValue;
+			Object converted = parseNumber(assertionString);
+			if (converted == null) {
+				converted = parseBoolean(assertionString);
+			}
+			if (converted == null) {
+				converted = decodeTime(assertionString);
+			}
+			if (converted != null) {
+				result.add(converted);
+			}
+		} else if (normalizedValue instanceof Date) {
+			result.add(encodeTime((Date) normalizedValue));
+		} else {
+			result.add(String.valueOf(normalizedValue));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Make copy of value to prevent modification of stored entry
+	 */
+	public static Object copyValue(Object value) {
+		if (value instanceof Date) {
+			return new Date(((Date) value).getTime());
+		}
+
+		return value;
+	}
+
+	public static Object[] copyValues(Object[] values) {
+		if (values == null) {
+			return null;
+		}
+
+		Object[] result = new Object[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = copyValue(values[i]);
+		}
+
+		return result;
+	}
+
+	public static String encodeTime(Date date) {
+		if (date == null) {
+			return null;
+		}
+
+		return DateTimeFormatter.ISO_INSTANT.format(date.toInstant());
+	}
+
+	public static Date decodeTime(String date) {
+		// Fast check to avoid exceptions on values which are not dates
+		if ((date == null) || (date.length() < 10) || (date.charAt(4) != '-') || (date.charAt(7) != '-')) {
+			return null;
+		}
+
+		String dateZ = date.endsWith("Z") ? date : date + "Z";
+		try {
+			return new Date(Instant.parse(dateZ).toEpochMilli());
+		} catch (DateTimeParseException ex) {
+			return null;
+		}
+	}
+
+	private static Object parseNumber(String value) {
+		if (value.isEmpty()) {
+			return null;
+		}
+
+		char first = value.charAt(0);
+		if (!Character.isDigit(first) && (first != '-') && (first != '+')) {
+			return null;
+		}
+
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException ex) {
+			try {
+				return Double.parseDouble(value);
+			} catch (NumberFormatException ex2) {
+				return null;
+			}
+		}
+	}
+
+	private static Boolean parseBoolean(String value) {
+		if ("true".equalsIgnoreCase(value)) {
+			return Boolean.TRUE;
+		} else if ("false".equalsIgnoreCase(value)) {
+			return Boolean.FALSE;
+		}
+
+		return null;
+	}
+
+}
@@ -0,0 +1,172 @@
+package io.jans.orm.memory.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.jans.orm.AsyncPersistenceEntryManager;
+import io.jans.orm.impl.BaseAsyncEntryManager;
+import io.jans.orm.memory.impl.MemoryEntryManager;
+import io.jans.orm.memory.impl.MemoryEntryManagerFactory;
+import io.jans.orm.memory.impl.test.MemoryEntryManagerTest.TestPerson;
+import io.jans.orm.search.filter.Filter;
+
+public class MemoryAsyncEntryManagerTest {
+
+	private static final String PEOPLE_DN = "ou=people,o=jans";
+
+	private MemoryEntryManager entryManager;
+	private AsyncPersistenceEntryManager asyncEntryManager;
+
+	@BeforeMethod
+	public void init() {
+		Properties properties = new Properties();
+		properties.put("memory#index.hash", "uid,objectClass");
+		properties.put("memory#expiration.cleanup-interval", "0");
+
+		MemoryEntryManagerFactory memoryEntryManagerFactory = new MemoryEntryManagerFactory();
+		this.entryManager = memoryEntryManagerFactory.createEntryManager(properties);
+		this.asyncEntryManager = entryManager.getAsyncEntryManager();
+	}
+
+	@AfterMethod
+	public void destroy() {
+		entryManager.destroy();
+	}
+
+	@Test
+	public void checkPersistAndFind() throws Exception {
+		asyncEntryManager.persist(new TestPerson("1", "user1", "User 1")).get(10, TimeUnit.SECONDS);
+
+		TestPerson person = asyncEntryManager.find(TestPerson.class, "inum=1,ou=people,o=jans").get(10, TimeUnit.SECONDS);
+		assertEquals(person.getUid(), "user1");
+		assertEquals(person.getDisplayName(), "User 1");
+	}
+
+	@Test
+	public void checkFindNotExisting() throws Exception {
+		try {
+			asyncEntryManager.find(TestPerson.class, "inum=1,ou=people,o=jans").get(10, TimeUnit.SECONDS);
+			fail("Find of not existing entry should fail");
+		} catch (ExecutionException ex) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void checkFindEntriesAndCount() throws Exception {
+		entryManager.persistAll(Arrays.asList(new TestPerson("1", "user1", "active"), new TestPerson("2", "user2", "active"),
+				new TestPerson("3", "user3", "disabled")));
+
+		Filter filter = Filter.createEqualityFilter("displayName", "active");
+		List<TestPerson> persons = asyncEntryManager.findEntries(PEOPLE_DN, TestPerson.class, filter).get(10, TimeUnit.SECONDS);
+		assertEquals(persons.size(), 2);
+
+		assertEquals(asyncEntryManager.countEntries(PEOPLE_DN, TestPerson.class, null).get(10, TimeUnit.SECONDS), Integer.valueOf(3));
+	}
+
+	@Test
+	public void checkMergeAndRemove() throws Exception {
+		TestPerson person = new TestPerson("1", "user1", "User 1");
+		entryManager.persist(person);
+		entryManager.persist(new TestPerson("2", "user2", "User 2"));
+
+		person.setDisplayName("User 1 updated");
+		asyncEntryManager.merge(person).get(10, TimeUnit.SECONDS);
+		assertEquals(entryManager.find(TestPerson.class, "inum=1,ou=people,o=jans").getDisplayName(), "User 1 updated");
+
+		asyncEntryManager.remove(person).get(10, TimeUnit.SECONDS);
+		asyncEntryManager.remove("inum=2,ou=people,o=jans", TestPerson.class).get(10, TimeUnit.SECONDS);
+		assertEquals(entryManager.countEntries(PEOPLE_DN, TestPerson.class, null), 0);
+	}
+
+	@Test
+	public void checkOperationsUseExecutors() throws Exception {
+		CountingExecutor asyncExecutor = new CountingExecutor();
+		CountingExecutor mappingExecutor = new CountingExecutor();
+		entryManager.setAsyncExecutor(asyncExecutor);
+		entryManager.setAsyncMappingExecutor(mappingExecutor);
+
+		asyncEntryManager.persist(new TestPerson("1", "user1", "User 1")).get(10, TimeUnit.SECONDS);
+		assertEquals(asyncExecutor.count.get(), 1);
+		assertEquals(mappingExecutor.count.get(), 0);
+
+		// Loaded entry is mapped to entity outside of I/O executor
+		asyncEntryManager.find(TestPerson.class, "inum=1,ou=people,o=jans").get(10, TimeUnit.SECONDS);
+		assertEquals(asyncExecutor.count.get(), 2);
+		assertEquals(mappingExecutor.count.get(), 1);
+	}
+
+	@Test
+	public void checkRejectedOperation() throws Exception {
+		ExecutorService executor = BaseAsyncEntryManager.createExecutor(1, 1);
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					started.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+			assertTrue(started.await(10, TimeUnit.SECONDS));
+
+			entryManager.setAsyncExecutor(executor);
+
+			// First operation waits in queue and second one doesn't fit into it
+			CompletableFuture<Void> queued = asyncEntryManager.persist(new TestPerson("1", "user1", "User 1"));
+			CompletableFuture<Void> rejected = asyncEntryManager.persist(new TestPerson("2", "user2", "User 2"));
+
+			assertFalse(queued.isDone());
+			assertTrue(rejected.isCompletedExceptionally());
+			try {
+				rejected.get();
+				fail("Operation should be rejected");
+			} catch (ExecutionException ex) {
+				assertTrue(ex.getCause() instanceof RejectedExecutionException);
+			}
+
+			release.countDown();
+			queued.get(10, TimeUnit.SECONDS);
+			assertEquals(entryManager.countEntries(PEOPLE_DN, TestPerson.class, null), 1);
+		} finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	private static class CountingExecutor implements Executor {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public void execute(Runnable command) {
+			count.incrementAndGet();
+			command.run();
+		}
+
+	}
+
+}
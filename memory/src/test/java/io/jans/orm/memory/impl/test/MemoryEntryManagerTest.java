@@ -0,0 +1,187 @@
+package io.jans.orm.memory.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.jans.orm.PersistenceEntryManager;
+import io.jans.orm.annotation.AttributeName;
+import io.jans.orm.annotation.DN;
+import io.jans.orm.annotation.DataEntry;
+import io.jans.orm.annotation.ObjectClass;
+import io.jans.orm.memory.impl.MemoryEntryManager;
+import io.jans.orm.memory.impl.MemoryEntryManagerFactory;
+import io.jans.orm.model.RemoveProgressListener;
+import io.jans.orm.model.SortOrder;
+import io.jans.orm.search.filter.Filter;
+
+public class MemoryEntryManagerTest {
+
+	private static final String PEOPLE_DN = "ou=people,o=jans";
+
+	private MemoryEntryManager entryManager;
+
+	@BeforeMethod
+	public void init() {
+		Properties properties = new Properties();
+		properties.put("memory#index.hash", "uid,objectClass");
+		properties.put("memory#expiration.cleanup-interval", "0");
+
+		MemoryEntryManagerFactory memoryEntryManagerFactory = new MemoryEntryManagerFactory();
+		this.entryManager = memoryEntryManagerFactory.createEntryManager(properties);
+	}
+
+	@AfterMethod
+	public void destroy() {
+		entryManager.destroy();
+	}
+
+	@Test
+	public void checkPersistAll() {
+		entryManager.persistAll(Arrays.asList(new TestPerson("1", "user1", "active"), new TestPerson("2", "user2", "active"),
+				new TestPerson("3", "user3", "disabled")));
+
+		assertEquals(entryManager.countEntries(PEOPLE_DN, TestPerson.class, null), 3);
+		assertEquals(entryManager.find(TestPerson.class, "inum=3,ou=people,o=jans").getDisplayName(), "disabled");
+	}
+
+	@Test
+	public void checkPersistAllEmpty() {
+		entryManager.persistAll(new ArrayList<TestPerson>());
+
+		assertEquals(entryManager.countEntries(PEOPLE_DN, TestPerson.class, null), 0);
+	}
+
+	@Test
+	public void checkFindByKeys() {
+		entryManager.persistAll(Arrays.asList(new TestPerson("1", "user1", "active"), new TestPerson("2", "user2", "active"),
+				new TestPerson("3", "user3", "disabled")));
+
+		List<String> dns = Arrays.asList("inum=3,ou=people,o=jans", "inum=9,ou=people,o=jans", "inum=1,ou=people,o=jans", "inum=3,ou=people,o=jans");
+		Map<String, TestPerson> persons = entryManager.findByKeys(dns, TestPerson.class, null);
+
+		// Missing and duplicate keys are skipped, order of requested keys is kept
+		assertEquals(new ArrayList<String>(persons.keySet()), Arrays.asList("inum=3,ou=people,o=jans", "inum=1,ou=people,o=jans"));
+		assertEquals(persons.get("inum=1,ou=people,o=jans").getUid(), "user1");
+	}
+
+	@Test(expectedExceptions = UnsupportedOperationException.class)
+	public void checkFindPagedEntriesWithToken() {
+		PersistenceEntryManager persistenceEntryManager = entryManager;
+		persistenceEntryManager.findPagedEntries(PEOPLE_DN, TestPerson.class, null, null, "uid", SortOrder.ASCENDING, null, 10);
+	}
+
+	@Test
+	public void checkRemoveInBatches() {
+		for (int i = 0; i < 5; i++) {
+			entryManager.persist(new TestPerson(String.valueOf(i), "user" + i, "expired"));
+		}
+		entryManager.persist(new TestPerson("9", "user9", "active"));
+
+		final List<Integer> batches = new ArrayList<Integer>();
+		long removed = entryManager.removeInBatches(PEOPLE_DN, TestPerson.class, Filter.createEqualityFilter("displayName", "expired"), 2, 1,
+				new RemoveProgressListener() {
+					@Override
+					public boolean onProgress(int batchRemoved, long totalRemoved) {
+						batches.add(batchRemoved);
+						return true;
+					}
+				});
+
+		assertEquals(removed, 5);
+		assertEquals(batches, Arrays.asList(2, 2, 1));
+		assertEquals(entryManager.countEntries(PEOPLE_DN, TestPerson.class, null), 1);
+	}
+
+	@Test
+	public void checkRemoveInBatchesStoppedByListener() {
+		for (int i = 0; i < 5; i++) {
+			entryManager.persist(new TestPerson(String.valueOf(i), "user" + i, "expired"));
+		}
+
+		long removed = entryManager.removeInBatches(PEOPLE_DN, TestPerson.class, null, 2, 0, new RemoveProgressListener() {
+			@Override
+			public boolean onProgress(int batchRemoved, long totalRemoved) {
+				return false;
+			}
+		});
+
+		assertEquals(removed, 2);
+		assertEquals(entryManager.countEntries(PEOPLE_DN, TestPerson.class, null), 3);
+	}
+
+	@Test
+	public void checkRemoveInBatchesInterrupted() {
+		for (int i = 0; i < 5; i++) {
+			entryManager.persist(new TestPerson(String.valueOf(i), "user" + i, "expired"));
+		}
+
+		Thread.currentThread().interrupt();
+		try {
+			long removed = entryManager.removeInBatches(PEOPLE_DN, TestPerson.class, null, 2, 10, null);
+
+			assertEquals(removed, 2);
+			assertTrue(Thread.currentThread().isInterrupted());
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
+	@DataEntry
+	@ObjectClass(value = "jansPerson")
+	public static class TestPerson {
+
+		@DN
+		private String dn;
+
+		@AttributeName
+		private String uid;
+
+		@AttributeName
+		private String displayName;
+
+		public TestPerson() {
+		}
+
+		public TestPerson(String inum, String uid, String displayName) {
+			this.dn = String.format("inum=%s,ou=people,o=jans", inum);
+			this.uid = uid;
+			this.displayName = displayName;
+		}
+
+		public String getDn() {
+			return dn;
+		}
+
+		public void setDn(String dn) {
+			this.dn = dn;
+		}
+
+		public String getUid() {
+			return uid;
+		}
+
+		public void setUid(String uid) {
+			this.uid = uid;
+		}
+
+		public String getDisplayName() {
+			return displayName;
+		}
+
+		public void setDisplayName(String displayName) {
+			this.displayName = displayName;
+		}
+
+	}
+
+}
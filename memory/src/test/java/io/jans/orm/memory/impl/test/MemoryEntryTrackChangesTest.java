@@ -0,0 +1,250 @@
+package io.jans.orm.memory.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.util.Properties;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.jans.orm.annotation.AttributeName;
+import io.jans.orm.annotation.DN;
+import io.jans.orm.annotation.DataEntry;
+import io.jans.orm.annotation.ObjectClass;
+import io.jans.orm.memory.impl.MemoryEntryManager;
+import io.jans.orm.memory.impl.MemoryEntryManagerFactory;
+
+public class MemoryEntryTrackChangesTest {
+
+	private static final String PERSON_DN = "inum=1,ou=people,o=jans";
+
+	private MemoryEntryManager entryManager;
+
+	@BeforeMethod
+	public void init() {
+		Properties properties = new Properties();
+		properties.put("memory#expiration.cleanup-interval", "0");
+
+		MemoryEntryManagerFactory memoryEntryManagerFactory = new MemoryEntryManagerFactory();
+		this.entryManager = memoryEntryManagerFactory.createEntryManager(properties);
+	}
+
+	@AfterMethod
+	public void destroy() {
+		entryManager.destroy();
+	}
+
+	@Test
+	public void checkMergeAfterPersistUsesSnapshot() {
+		TrackedPerson person = new TrackedPerson("user1", "User 1", "user1@jans.io");
+		entryManager.persist(person);
+
+		changeMail(TrackedPerson.class, "changed@jans.io");
+
+		person.setDisplayName("User 1 updated");
+		entryManager.merge(person);
+
+		// Not changed attributes are not written, so concurrent change is kept
+		TrackedPerson loaded = entryManager.find(TrackedPerson.class, PERSON_DN);
+		assertEquals(loaded.getDisplayName(), "User 1 updated");
+		assertEquals(loaded.getMail(), "changed@jans.io");
+	}
+
+	@Test
+	public void checkMergeAfterPersistWithoutObjectClasses() {
+		NoObjectClassPerson person = new NoObjectClassPerson();
+		person.setDn(PERSON_DN);
+		person.setUid("user1");
+		person.setMail("user1@jans.io");
+		entryManager.persist(person);
+
+		changeMail(NoObjectClassPerson.class, "changed@jans.io");
+
+		person.setUid("user2");
+		entryManager.merge(person);
+
+		NoObjectClassPerson loaded = entryManager.find(NoObjectClassPerson.class, PERSON_DN);
+		assertEquals(loaded.getUid(), "user2");
+		assertEquals(loaded.getMail(), "changed@jans.io");
+	}
+
+	@Test
+	public void checkMergeAfterFindUsesSnapshot() {
+		entryManager.persist(new TrackedPerson("user1", "User 1", "user1@jans.io"));
+
+		TrackedPerson person = entryManager.find(TrackedPerson.class, PERSON_DN);
+		changeMail(TrackedPerson.class, "changed@jans.io");
+
+		person.setDisplayName("User 1 updated");
+		entryManager.merge(person);
+
+		TrackedPerson loaded = entryManager.find(TrackedPerson.class, PERSON_DN);
+		assertEquals(loaded.getDisplayName(), "User 1 updated");
+		assertEquals(loaded.getMail(), "changed@jans.io");
+	}
+
+	@Test
+	public void checkMergeAddedAndRemovedAttributes() {
+		TrackedPerson person = new TrackedPerson("user1", null, "user1@jans.io");
+		entryManager.persist(person);
+
+		person.setDisplayName("User 1");
+		person.setMail(null);
+		entryManager.merge(person);
+
+		TrackedPerson loaded = entryManager.find(TrackedPerson.class, PERSON_DN);
+		assertEquals(loaded.getDisplayName(), "User 1");
+		assertNull(loaded.getMail());
+
+		// Snapshot should be updated after merge
+		person.setMail("user1@jans.io");
+		entryManager.merge(person);
+
+		loaded = entryManager.find(TrackedPerson.class, PERSON_DN);
+		assertEquals(loaded.getDisplayName(), "User 1");
+		assertEquals(loaded.getMail(), "user1@jans.io");
+	}
+
+	@Test
+	public void checkMergeDetachedEntry() {
+		entryManager.persist(new TrackedPerson("user1", "User 1", "user1@jans.io"));
+
+		TrackedPerson person = new TrackedPerson("user1", "User 1", null);
+		entryManager.merge(person);
+
+		// Detached entry is compared with stored entry
+		assertNull(entryManager.find(TrackedPerson.class, PERSON_DN).getMail());
+	}
+
+	@Test
+	public void checkPersistOrMergeRemovesSnapshot() {
+		TrackedPerson person = new TrackedPerson("user1", "User 1", "user1@jans.io");
+		entryManager.persist(person);
+
+		entryManager.persistOrMerge(person);
+		changeMail(TrackedPerson.class, "changed@jans.io");
+
+		person.setDisplayName("User 1 updated");
+		entryManager.merge(person);
+
+		// Without snapshot entry is compared with stored entry
+		TrackedPerson loaded = entryManager.find(TrackedPerson.class, PERSON_DN);
+		assertEquals(loaded.getDisplayName(), "User 1 updated");
+		assertEquals(loaded.getMail(), "user1@jans.io");
+	}
+
+	private <T extends TrackedEntry> void changeMail(Class<T> entryClass, String mail) {
+		T entry = entryManager.find(entryClass, PERSON_DN);
+		entry.setMail(mail);
+		entryManager.merge(entry);
+	}
+
+	public interface TrackedEntry {
+
+		void setMail(String mail);
+
+	}
+
+	@DataEntry(trackChanges = true)
+	@ObjectClass(value = "jansPerson")
+	public static class TrackedPerson implements TrackedEntry {
+
+		@DN
+		private String dn;
+
+		@AttributeName
+		private String uid;
+
+		@AttributeName
+		private String displayName;
+
+		@AttributeName
+		private String mail;
+
+		public TrackedPerson() {
+		}
+
+		public TrackedPerson(String uid, String displayName, String mail) {
+			this.dn = PERSON_DN;
+			this.uid = uid;
+			this.displayName = displayName;
+			this.mail = mail;
+		}
+
+		public String getDn() {
+			return dn;
+		}
+
+		public void setDn(String dn) {
+			this.dn = dn;
+		}
+
+		public String getUid() {
+			return uid;
+		}
+
+		public void setUid(String uid) {
+			this.uid = uid;
+		}
+
+		public String getDisplayName() {
+			return displayName;
+		}
+
+		public void setDisplayName(String displayName) {
+			this.displayName = displayName;
+		}
+
+		public String getMail() {
+			return mail;
+		}
+
+		@Override
+		public void setMail(String mail) {
+			this.mail = mail;
+		}
+
+	}
+
+	@DataEntry(trackChanges = true)
+	public static class NoObjectClassPerson implements TrackedEntry {
+
+		@DN
+		private String dn;
+
+		@AttributeName
+		private String uid;
+
+		@AttributeName
+		private String mail;
+
+		public String getDn() {
+			return dn;
+		}
+
+		public void setDn(String dn) {
+			this.dn = dn;
+		}
+
+		public String getUid() {
+			return uid;
+		}
+
+		public void setUid(String uid) {
+			this.uid = uid;
+		}
+
+		public String getMail() {
+			return mail;
+		}
+
+		@Override
+		public void setMail(String mail) {
+			this.mail = mail;
+		}
+
+	}
+
+}
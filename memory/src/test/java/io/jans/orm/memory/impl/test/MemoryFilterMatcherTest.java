@@ -0,0 +1,109 @@
+package io.jans.orm.memory.impl.test;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import io.jans.orm.exception.operation.SearchException;
+import io.jans.orm.memory.model.MemoryEntry;
+import io.jans.orm.memory.operation.impl.MemoryFilterMatcher;
+import io.jans.orm.model.AttributeData;
+import io.jans.orm.search.filter.Filter;
+
+public class MemoryFilterMatcherTest {
+
+	private MemoryFilterMatcher filterMatcher;
+	private MemoryEntry entry;
+
+	@BeforeClass
+	public void init() {
+		this.filterMatcher = new MemoryFilterMatcher();
+
+		Map<String, AttributeData> attributes = new LinkedHashMap<String, AttributeData>();
+		attributes.put("objectclass", new AttributeData("objectClass", new Object[] { "top", "jansPerson" }, true));
+		attributes.put("uid", new AttributeData("uid", "Test"));
+		attributes.put("age", new AttributeData("age", 23));
+		attributes.put("enabled", new AttributeData("enabled", true));
+		attributes.put("added", new AttributeData("added", new Date(1608130698398L)));
+		attributes.put("role", new AttributeData("role", new Object[] { "admin", "user" }, true));
+
+		this.entry = new MemoryEntry("inum=1,ou=people,o=jans", "inum=1,ou=people,o=jans", attributes, 0);
+	}
+
+	@Test
+	public void checkEqFilters() throws SearchException {
+		assertTrue(filterMatcher.match(Filter.createEqualityFilter("uid", "Test"), entry));
+		assertFalse(filterMatcher.match(Filter.createEqualityFilter("uid", "test"), entry));
+		assertTrue(filterMatcher.match(Filter.createEqualityFilter(Filter.createLowercaseFilter("uid"), "test"), entry));
+
+		// Attribute names are case insensitive
+		assertTrue(filterMatcher.match(Filter.createEqualityFilter("UID", "Test"), entry));
+
+		// Assertion values are converted to stored value type
+		assertTrue(filterMatcher.match(Filter.createEqualityFilter("age", 23L), entry));
+		assertTrue(filterMatcher.match(Filter.createEqualityFilter("age", "23"), entry));
+		assertTrue(filterMatcher.match(Filter.createEqualityFilter("enabled", "true"), entry));
+		assertTrue(filterMatcher.match(Filter.createEqualityFilter("added", new Date(1608130698398L)), entry));
+		assertTrue(filterMatcher.match(Filter.createEqualityFilter("added", "2020-12-16T14:58:18.398Z"), entry));
+
+		// Object classes are case insensitive
+		assertTrue(filterMatcher.match(Filter.createEqualityFilter("objectClass", "jansperson"), entry));
+	}
+
+	@Test
+	public void checkMultivaluedEqFilters() throws SearchException {
+		assertTrue(filterMatcher.match(Filter.createEqualityFilter("role", "user").multiValued(), entry));
+		assertTrue(filterMatcher.match(Filter.createEqualityFilter("role", "admin"), entry));
+		assertFalse(filterMatcher.match(Filter.createEqualityFilter("role", "guest"), entry));
+	}
+
+	@Test
+	public void checkRangeFilters() throws SearchException {
+		assertTrue(filterMatcher.match(Filter.createLessOrEqualFilter("age", 23), entry));
+		assertTrue(filterMatcher.match(Filter.createGreaterOrEqualFilter("age", 20), entry));
+		assertFalse(filterMatcher.match(Filter.createGreaterOrEqualFilter("age", 24), entry));
+
+		assertTrue(filterMatcher.match(Filter.createGreaterOrEqualFilter("added", "2020-12-16T00:00:00Z"), entry));
+		assertFalse(filterMatcher.match(Filter.createLessOrEqualFilter("added", new Date(1608130698397L)), entry));
+	}
+
+	@Test
+	public void checkPresenceAndSubstringFilters() throws SearchException {
+		assertTrue(filterMatcher.match(Filter.createPresenceFilter("uid"), entry));
+		assertFalse(filterMatcher.match(Filter.createPresenceFilter("mail"), entry));
+
+		assertTrue(filterMatcher.match(Filter.createSubstringFilter("uid", "Te", null, null), entry));
+		assertTrue(filterMatcher.match(Filter.createSubstringFilter("uid", null, new String[] { "es" }, "t"), entry));
+		assertFalse(filterMatcher.match(Filter.createSubstringFilter("uid", "te", null, null), entry));
+		assertTrue(filterMatcher.match(Filter.createSubstringFilter(Filter.createLowercaseFilter("uid"), "te", null, null), entry));
+
+		// Initial and final substrings should not overlap
+		assertFalse(filterMatcher.match(Filter.createSubstringFilter("uid", "Tes", null, "st"), entry));
+	}
+
+	@Test
+	public void checkLogicalFilters() throws SearchException {
+		Filter uidFilter = Filter.createEqualityFilter("uid", "Test");
+		Filter ageFilter = Filter.createEqualityFilter("age", 30);
+
+		assertFalse(filterMatcher.match(Filter.createANDFilter(uidFilter, ageFilter), entry));
+		assertTrue(filterMatcher.match(Filter.createORFilter(uidFilter, ageFilter), entry));
+		assertTrue(filterMatcher.match(Filter.createNOTFilter(ageFilter), entry));
+	}
+
+	@Test
+	public void checkRawFilters() throws SearchException {
+		assertTrue(filterMatcher.match(Filter.create("(&(uid=Test)(age>=20))"), entry));
+		assertFalse(filterMatcher.match(Filter.create("(|(uid=Other)(role=guest))"), entry));
+
+		Filter converted = filterMatcher.convertRawFilters(Filter.createANDFilter(Filter.create("(uid=Test)"), Filter.createPresenceFilter("age")));
+		assertTrue(filterMatcher.match(converted, entry));
+	}
+
+}
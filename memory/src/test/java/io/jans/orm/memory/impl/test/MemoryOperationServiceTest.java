@@ -0,0 +1,214 @@
+package io.jans.orm.memory.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.jans.orm.exception.operation.DuplicateEntryException;
+import io.jans.orm.exception.operation.PersistenceException;
+import io.jans.orm.memory.operation.impl.MemoryOperationServiceImpl;
+import io.jans.orm.model.AttributeData;
+import io.jans.orm.model.AttributeDataModification;
+import io.jans.orm.model.AttributeDataModification.AttributeModificationType;
+import io.jans.orm.model.EntryData;
+import io.jans.orm.model.PagedResult;
+import io.jans.orm.model.SearchScope;
+import io.jans.orm.model.Sort;
+import io.jans.orm.model.SortOrder;
+import io.jans.orm.search.filter.Filter;
+
+public class MemoryOperationServiceTest {
+
+	private MutableClock clock;
+	private MemoryOperationServiceImpl operationService;
+
+	@BeforeMethod
+	public void init() throws PersistenceException {
+		Properties props = new Properties();
+		props.setProperty(MemoryOperationServiceImpl.HASH_INDEXES_PROPERTY, "uid,objectClass");
+		props.setProperty(MemoryOperationServiceImpl.SORTED_INDEXES_PROPERTY, "age");
+		props.setProperty(MemoryOperationServiceImpl.CLEANUP_INTERVAL_PROPERTY, "0");
+
+		this.clock = new MutableClock();
+		this.operationService = new MemoryOperationServiceImpl(props, clock);
+
+		addUser("inum=1,ou=people,o=jans", "user1", 20);
+		addUser("inum=2,ou=people,o=jans", "user2", 30);
+		addUser("inum=3,ou=people,o=jans", "user3", 40);
+		addUser("inum=4,ou=groups,o=jans", "group1", 50);
+		addUser("ou=people,o=jans", "people", 0);
+	}
+
+	@AfterMethod
+	public void destroy() {
+		operationService.destroy();
+	}
+
+	@Test
+	public void checkSearchScopes() throws Exception {
+		assertEquals(operationService.count("o=jans", null, SearchScope.SUB), 5);
+		assertEquals(operationService.count("ou=people,o=jans", null, SearchScope.SUB), 4);
+		assertEquals(operationService.count("ou=people,o=jans", null, SearchScope.ONE), 3);
+		assertEquals(operationService.count("ou=people,o=jans", null, SearchScope.BASE), 1);
+		assertEquals(operationService.count("ou=groups,o=jans", null, SearchScope.ONE), 1);
+
+		// DN is case insensitive
+		assertEquals(operationService.count("OU=People, O=jans", null, SearchScope.ONE), 3);
+	}
+
+	@Test
+	public void checkIndexedSearch() throws Exception {
+		assertEquals(operationService.count("o=jans", Filter.createEqualityFilter("uid", "user2"), SearchScope.SUB), 1);
+		assertEquals(operationService.count("ou=groups,o=jans", Filter.createEqualityFilter("uid", "user2"), SearchScope.SUB), 0);
+		assertEquals(operationService.count("o=jans", Filter.createGreaterOrEqualFilter("age", 30), SearchScope.SUB), 3);
+		assertEquals(operationService.count("o=jans", Filter.createLessOrEqualFilter("age", "30"), SearchScope.SUB), 3);
+		assertEquals(operationService.count("o=jans", Filter.createANDFilter(Filter.createGreaterOrEqualFilter("age", 30),
+				Filter.createSubstringFilter("uid", "user", null, null)), SearchScope.SUB), 2);
+		assertEquals(operationService.count("o=jans", Filter.createORFilter(Filter.createEqualityFilter("uid", "user1"),
+				Filter.createEqualityFilter("age", 50)), SearchScope.SUB), 2);
+	}
+
+	@Test
+	public void checkUpdateIndexes() throws Exception {
+		List<AttributeDataModification> mods = Arrays.asList(
+				new AttributeDataModification(AttributeModificationType.REPLACE, new AttributeData("uid", "user5")),
+				new AttributeDataModification(AttributeModificationType.REMOVE, null, new AttributeData("age", 20)));
+		assertTrue(operationService.updateEntry("inum=1,ou=people,o=jans", mods, null));
+
+		assertEquals(operationService.count("o=jans", Filter.createEqualityFilter("uid", "user1"), SearchScope.SUB), 0);
+		assertEquals(operationService.count("o=jans", Filter.createEqualityFilter("uid", "user5"), SearchScope.SUB), 1);
+		assertEquals(operationService.count("o=jans", Filter.createLessOrEqualFilter("age", 20), SearchScope.SUB), 1);
+
+		assertFalse(operationService.updateEntry("inum=9,ou=people,o=jans", mods, null));
+	}
+
+	@Test
+	public void checkAddOrUpdateEntry() throws Exception {
+		// Existing entry keeps attributes which are not specified
+		assertTrue(operationService.addOrUpdateEntry("inum=1,ou=people,o=jans", Arrays.asList(new AttributeData("uid", "user5"),
+				new AttributeData("age", new Object[0])), null));
+		assertEquals(operationService.count("o=jans", Filter.createEqualityFilter("uid", "user1"), SearchScope.SUB), 0);
+		assertEquals(operationService.count("o=jans", Filter.createEqualityFilter("uid", "user5"), SearchScope.SUB), 1);
+		assertEquals(operationService.count("o=jans", Filter.createLessOrEqualFilter("age", 20), SearchScope.SUB), 2);
+
+		assertTrue(operationService.addOrUpdateEntry("inum=5,ou=people,o=jans", Collections.singletonList(new AttributeData("uid", "user6")), null));
+		assertEquals(operationService.getEntriesCount(), 6);
+		assertEquals(operationService.count("o=jans", Filter.createEqualityFilter("uid", "user6"), SearchScope.SUB), 1);
+	}
+
+	@Test(expectedExceptions = DuplicateEntryException.class)
+	public void checkDuplicateEntry() throws Exception {
+		addUser("inum=1,ou=people,o=jans", "user1", 20);
+	}
+
+	@Test
+	public void checkPagedSearch() throws Exception {
+		Sort[] orderBy = new Sort[] { new Sort("age", SortOrder.DESCENDING) };
+		PagedResult<EntryData> result = operationService.search("ou=people,o=jans", Filter.createPresenceFilter("uid"), SearchScope.ONE,
+				new String[] { "uid" }, orderBy, null, 1, 1, 0);
+
+		assertEquals(result.getTotalEntriesCount(), 3);
+		assertEquals(result.getEntriesCount(), 1);
+		assertEquals(result.getEntries().get(0).getAttributeDate("uid").getValue(), "user2");
+		assertNull(result.getEntries().get(0).getAttributeDate("age"));
+	}
+
+	@Test
+	public void checkExpiration() throws Exception {
+		operationService.addEntry("inum=5,ou=people,o=jans", Collections.singletonList(new AttributeData("uid", "user6")), 1);
+		assertNotNull(operationService.lookup("inum=5,ou=people,o=jans"));
+
+		clock.advance(1000);
+
+		assertNull(operationService.lookup("inum=5,ou=people,o=jans"));
+		assertEquals(operationService.count("o=jans", Filter.createEqualityFilter("uid", "user6"), SearchScope.SUB), 0);
+		assertEquals(operationService.removeExpiredEntries(), 1);
+		assertEquals(operationService.getEntriesCount(), 5);
+
+		// Entry with same DN can be added after expiration
+		operationService.addEntry("inum=5,ou=people,o=jans", Collections.singletonList(new AttributeData("uid", "user6")), null);
+		assertEquals(operationService.count("o=jans", Filter.createEqualityFilter("uid", "user6"), SearchScope.SUB), 1);
+	}
+
+	@Test
+	public void checkDelete() throws Exception {
+		assertEquals(operationService.delete("o=jans", Filter.createGreaterOrEqualFilter("age", 30), SearchScope.SUB, 0), 3);
+		assertEquals(operationService.getEntriesCount(), 2);
+
+		operationService.deleteRecursively("ou=people,o=jans");
+		assertEquals(operationService.getEntriesCount(), 0);
+		assertEquals(operationService.count("o=jans", Filter.createEqualityFilter("uid", "user1"), SearchScope.SUB), 0);
+	}
+
+	@Test
+	public void checkIgnoreCaseIndex() throws Exception {
+		operationService.addEntry("inum=6,ou=people,o=jans", Arrays.asList(new AttributeData("uid", "User7"),
+				new AttributeData("objectClass", new Object[] { "top", "JansPerson" }, true)), null);
+
+		// Object class is compared ignoring case. Index lookup should return same result as full scan
+		assertEquals(operationService.count("o=jans", Filter.createEqualityFilter("objectClass", "jansPerson"), SearchScope.SUB), 1);
+		assertEquals(operationService.count("o=jans", Filter.createEqualityFilter("objectClass", "JANSPERSON"), SearchScope.SUB), 1);
+		assertEquals(operationService.count("o=jans", Filter.createANDFilter(Filter.createEqualityFilter("objectClass", "jansperson"),
+				Filter.createPresenceFilter("uid")), SearchScope.SUB), 1);
+		assertEquals(operationService.count("o=jans", Filter.createSubstringFilter("objectClass", "Jans", null, null), SearchScope.SUB), 1);
+		assertEquals(operationService.count("o=jans", Filter.createSubstringFilter("objectClass", "jans", null, null), SearchScope.SUB), 0);
+
+		// Other attributes are compared case sensitive unless filter is lowercase or approximate
+		assertEquals(operationService.count("o=jans", Filter.createEqualityFilter("uid", "user7"), SearchScope.SUB), 0);
+		assertEquals(operationService.count("o=jans", Filter.createEqualityFilter(Filter.createLowercaseFilter("uid"), "user7"), SearchScope.SUB), 1);
+		assertEquals(operationService.count("o=jans", Filter.createApproximateMatchFilter("uid", "user7"), SearchScope.SUB), 1);
+
+		operationService.delete("inum=6,ou=people,o=jans");
+		assertEquals(operationService.count("o=jans", Filter.createEqualityFilter("objectClass", "jansPerson"), SearchScope.SUB), 0);
+	}
+
+	private void addUser(String dn, String uid, int age) throws PersistenceException {
+		operationService.addEntry(dn, Arrays.asList(new AttributeData("uid", uid), new AttributeData("age", age)), null);
+	}
+
+	private static class MutableClock extends Clock {
+
+		private volatile long millis = 1608130698000L;
+
+		public void advance(long delta) {
+			this.millis += delta;
+		}
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+	}
+
+}
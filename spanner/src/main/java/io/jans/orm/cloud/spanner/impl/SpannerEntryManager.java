@@ -9,12 +9,16 @@ package io.jans.orm.cloud.spanner.impl;
 import java.io.Serializable;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import javax.inject.Inject;
 
@@ -34,6 +38,9 @@ import io.jans.orm.exception.MappingException;
 import io.jans.orm.exception.operation.SearchException;
 import io.jans.orm.impl.BaseEntryManager;
 import io.jans.orm.impl.GenericKeyConverter;
+import io.jans.orm.impl.PagedEntriesIterator;
+import io.jans.orm.impl.model.EntryToPersist;
+import io.jans.orm.impl.model.KeysetPosition;
 import io.jans.orm.impl.model.ParsedKey;
 import io.jans.orm.model.AttributeData;
 import io.jans.orm.model.AttributeDataModification;
@@ -46,6 +53,7 @@ import io.jans.orm.model.Sort;
 import io.jans.orm.model.SortOrder;
 import io.jans.orm.reflect.property.PropertyAnnotation;
 import io.jans.orm.search.filter.Filter;
+import io.jans.orm.search.filter.FilterOptimizer;
 import io.jans.orm.search.filter.FilterProcessor;
 import io.jans.orm.util.ArrayHelper;
 import io.jans.orm.util.StringHelper;
@@ -68,6 +76,7 @@ public class SpannerEntryManager extends BaseEntryManager implements Serializabl
 
     private final SpannerFilterConverter filterConverter;
 	private FilterProcessor filterProcessor;
+	private FilterOptimizer filterOptimizer;
 
 	private static final GenericKeyConverter KEY_CONVERTER = new GenericKeyConverter(false);
 
@@ -77,6 +86,7 @@ public class SpannerEntryManager extends BaseEntryManager implements Serializabl
         this.operationService = operationService;
         this.filterConverter = new SpannerFilterConverter(operationService);
         this.filterProcessor = new FilterProcessor();
+        this.filterOptimizer = new FilterOptimizer();
         subscribers = new LinkedList<DeleteNotifier>();
     }
 
@@ -174,7 +184,89 @@ public class SpannerEntryManager extends BaseEntryManager implements Serializabl
 
     @Override
     protected void persist(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
-    	ArrayList<AttributeData> resultAttributes = new ArrayList<>(attributes.size() + 1);
+    	List<AttributeData> resultAttributes = toPersistAttributes(attributes);
+
+        // Persist entry
+        try {
+        	ParsedKey parsedKey = toSQLKey(dn);
+            resultAttributes.add(new AttributeData(SpannerOperationService.DN, dn));
+            resultAttributes.add(new AttributeData(SpannerOperationService.DOC_ID, parsedKey.getKey()));
+
+            boolean result = getOperationService().addEntry(parsedKey.getKey(), objectClasses[0], resultAttributes);
+            if (!result) {
+                throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn));
+            }
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn), ex);
+        }
+    }
+
+    @Override
+    protected boolean persistOrMerge(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
+    	List<AttributeData> resultAttributes = toPersistAttributes(attributes);
+
+        // Add or update entry
+        try {
+        	ParsedKey parsedKey = toSQLKey(dn);
+            resultAttributes.add(new AttributeData(SpannerOperationService.DN, dn));
+            resultAttributes.add(new AttributeData(SpannerOperationService.DOC_ID, parsedKey.getKey()));
+
+            boolean result = getOperationService().addOrUpdateEntry(parsedKey.getKey(), objectClasses[0], resultAttributes);
+            if (!result) {
+                throw new EntryPersistenceException(String.format("Failed to persist or merge entry: '%s'", dn));
+            }
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist or merge entry: '%s'", dn), ex);
+        }
+
+        return true;
+    }
+
+    @Override
+    protected void persistAll(List<EntryToPersist> entries) {
+    	// Group entries by table
+    	Map<String, Map<String, Collection<AttributeData>>> tableEntries = new LinkedHashMap<String, Map<String, Collection<AttributeData>>>();
+        for (EntryToPersist entryToPersist : entries) {
+        	String dn = entryToPersist.getDn();
+        	String objectClass = entryToPersist.getObjectClasses()[0];
+
+        	ParsedKey parsedKey;
+        	List<AttributeData> resultAttributes;
+            try {
+            	parsedKey = toSQLKey(dn);
+            	resultAttributes = toPersistAttributes(entryToPersist.getAttributes());
+            } catch (Exception ex) {
+                throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn), ex);
+            }
+            resultAttributes.add(new AttributeData(SpannerOperationService.DN, dn));
+            resultAttributes.add(new AttributeData(SpannerOperationService.DOC_ID, parsedKey.getKey()));
+
+            Map<String, Collection<AttributeData>> keyEntries = tableEntries.get(objectClass);
+            if (keyEntries == null) {
+            	keyEntries = new LinkedHashMap<String, Collection<AttributeData>>();
+            	tableEntries.put(objectClass, keyEntries);
+            }
+
+            if (keyEntries.put(parsedKey.getKey(), resultAttributes) != null) {
+                throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'. Batch contains entries with same key", dn));
+            }
+        }
+
+        // Persist entries
+        try {
+            boolean result = getOperationService().addEntries(tableEntries);
+            if (!result) {
+                throw new EntryPersistenceException(String.format("Failed to persist entries with objectClasses: '%s'", tableEntries.keySet()));
+            }
+        } catch (EntryPersistenceException ex) {
+        	throw ex;
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist entries with objectClasses: '%s'", tableEntries.keySet()), ex);
+        }
+    }
+
+    private List<AttributeData> toPersistAttributes(List<AttributeData> attributes) {
+    	List<AttributeData> resultAttributes = new ArrayList<>(attributes.size() + 2);
         for (AttributeData attribute : attributes) {
             String attributeName = attribute.getName();
             Object[] attributeValues = attribute.getValues();
@@ -209,19 +301,7 @@ public class SpannerEntryManager extends BaseEntryManager implements Serializabl
             }
         }
 
-        // Persist entry
-        try {
-        	ParsedKey parsedKey = toSQLKey(dn);
-            resultAttributes.add(new AttributeData(SpannerOperationService.DN, dn));
-            resultAttributes.add(new AttributeData(SpannerOperationService.DOC_ID, parsedKey.getKey()));
-
-            boolean result = getOperationService().addEntry(parsedKey.getKey(), objectClasses[0], resultAttributes);
-            if (!result) {
-                throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn));
-            }
-        } catch (Exception ex) {
-            throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn), ex);
-        }
+        return resultAttributes;
     }
 
     @Override
@@ -330,7 +410,11 @@ public class SpannerEntryManager extends BaseEntryManager implements Serializabl
 		}
 
 		// Remove entries by filter
-		return removeImpl(dn, entryClass, filter, count);
+		try {
+			return removeImpl(dn, entryClass, filter, count);
+		} finally {
+			invalidateEntryCache(entryClass);
+		}
 	}
 
     protected <T> int removeImpl(String dn, Class<T> entryClass, Filter filter, int count) {
@@ -390,6 +474,29 @@ public class SpannerEntryManager extends BaseEntryManager implements Serializabl
         throw new EntryPersistenceException(String.format("Failed to find entry: '%s'", dn));
     }
 
+    @Override
+    protected Map<String, List<AttributeData>> find(List<String> dns, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap,
+            String... ldapReturnAttributes) {
+        try {
+            Map<String, String> dnsByKey = new HashMap<String, String>(dns.size());
+            for (String dn : dns) {
+                dnsByKey.put(toSQLKey(dn).getKey(), dn);
+            }
+
+            // Load entries
+            Map<String, List<AttributeData>> entries = getOperationService().lookup(dnsByKey.keySet(), objectClasses[0], toInternalAttributes(ldapReturnAttributes));
+
+            Map<String, List<AttributeData>> result = new HashMap<String, List<AttributeData>>(entries.size());
+            for (Entry<String, List<AttributeData>> entry : entries.entrySet()) {
+                result.put(dnsByKey.get(entry.getKey()), entry.getValue());
+            }
+
+            return result;
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to find entries: '%s'", dns), ex);
+        }
+    }
+
     @Override
     public <T> List<T> findEntries(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope, String[] ldapReturnAttributes,
                                    BatchOperation<T> batchOperation, int start, int count, int chunkSize) {
@@ -408,6 +515,54 @@ public class SpannerEntryManager extends BaseEntryManager implements Serializabl
         return entries;
     }
 
+    /*
+     * Load pages with keyset pagination, so DB doesn't read entries of previous pages again
+     */
+    @Override
+    public <T> Stream<T> streamEntries(final String baseDN, final Class<T> entryClass, final Filter filter, final SearchScope scope,
+            final String[] ldapReturnAttributes, final int count, int chunkSize) {
+        if (StringHelper.isEmptyString(baseDN)) {
+            throw new MappingException("Base DN to find entries is null");
+        }
+
+        final int pageSize = chunkSize > 0 ? chunkSize : DEFAULT_PAGINATION_SIZE;
+
+        PagedEntriesIterator<T> pagedEntriesIterator = new PagedEntriesIterator<T>() {
+
+            private KeysetPosition position = KeysetPosition.first();
+            private int loaded = 0;
+
+            @Override
+            protected List<T> loadNextPage() {
+                int limit = pageSize;
+                if (count > 0) {
+                    limit = Math.min(pageSize, count - loaded);
+                    if (limit <= 0) {
+                        return null;
+                    }
+                }
+
+                PagedResult<EntryData> searchResult = findEntriesImpl(baseDN, entryClass, filter, scope, ldapReturnAttributes, null, null,
+                        null, SearchReturnDataType.SEARCH, position, 0, limit, 0);
+                loaded += searchResult.getEntriesCount();
+
+                if (searchResult.getContinuationToken() == null) {
+                    finish();
+                } else {
+                    position = getOperationService().getKeysetTokenCodec().decode(searchResult.getContinuationToken());
+                }
+
+                if (searchResult.getEntriesCount() == 0) {
+                    return null;
+                }
+
+                return createEntities(baseDN, entryClass, searchResult);
+            }
+        };
+
+        return pagedEntriesIterator.stream();
+    }
+
     @Override
     public <T> PagedResult<T> findPagedEntries(String baseDN, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes, String sortBy,
             SortOrder sortOrder, int start, int count, int chunkSize) {
@@ -418,10 +573,39 @@ public class SpannerEntryManager extends BaseEntryManager implements Serializabl
         PagedResult<EntryData> searchResult = findEntriesImpl(baseDN, entryClass, filter, SearchScope.SUB, ldapReturnAttributes, sortBy, sortOrder,
                 null, SearchReturnDataType.SEARCH_COUNT, start, count, chunkSize);
 
+        return toPagedResult(baseDN, entryClass, searchResult);
+    }
+
+    /**
+     * Search page of entries which follows entries of previous page. Unlike search with start offset
+     * DB doesn't read skipped entries, so loading of each next page takes same time
+     *
+     * Token is encrypted with key from keyset.token.key property. Without it token can be used only
+     * with entry manager which returned it, so property should be set if there are several nodes
+     *
+     * @param continuationToken Token from previous page result or null to load first page
+     * @return Page of entries and token to load next page
+     */
+    @Override
+    public <T> PagedResult<T> findPagedEntries(String baseDN, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes, String sortBy,
+            SortOrder sortOrder, String continuationToken, int count) {
+        if (StringHelper.isEmptyString(baseDN)) {
+            throw new MappingException("Base DN to find entries is null");
+        }
+
+        KeysetPosition position = getOperationService().getKeysetTokenCodec().decode(continuationToken);
+        PagedResult<EntryData> searchResult = findEntriesImpl(baseDN, entryClass, filter, SearchScope.SUB, ldapReturnAttributes, sortBy, sortOrder,
+                null, SearchReturnDataType.SEARCH, position, 0, count, 0);
+
+        return toPagedResult(baseDN, entryClass, searchResult);
+    }
+
+    private <T> PagedResult<T> toPagedResult(String baseDN, Class<T> entryClass, PagedResult<EntryData> searchResult) {
         PagedResult<T> result = new PagedResult<T>();
         result.setEntriesCount(searchResult.getEntriesCount());
         result.setStart(searchResult.getStart());
         result.setTotalEntriesCount(searchResult.getTotalEntriesCount());
+        result.setContinuationToken(searchResult.getContinuationToken());
 
         if (searchResult.getEntriesCount() == 0) {
             result.setEntries(new ArrayList<T>(0));
@@ -437,6 +621,13 @@ public class SpannerEntryManager extends BaseEntryManager implements Serializabl
     protected <T> PagedResult<EntryData> findEntriesImpl(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope,
             String[] ldapReturnAttributes, String sortBy, SortOrder sortOrder, BatchOperation<T> batchOperation, SearchReturnDataType returnDataType, int start,
             int count, int chunkSize) {
+        return findEntriesImpl(baseDN, entryClass, filter, scope, ldapReturnAttributes, sortBy, sortOrder, batchOperation, returnDataType,
+                null, start, count, chunkSize);
+    }
+
+    private <T> PagedResult<EntryData> findEntriesImpl(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope,
+            String[] ldapReturnAttributes, String sortBy, SortOrder sortOrder, BatchOperation<T> batchOperation, SearchReturnDataType returnDataType,
+            KeysetPosition position, int start, int count, int chunkSize) {
         // Check entry class
         checkEntryClass(entryClass, false);
         String[] objectClasses = getTypeObjectClasses(entryClass);
@@ -444,7 +635,7 @@ public class SpannerEntryManager extends BaseEntryManager implements Serializabl
         List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
         String[] currentLdapReturnAttributes = ldapReturnAttributes;
         if (ArrayHelper.isEmpty(currentLdapReturnAttributes)) {
-            currentLdapReturnAttributes = getAttributes(null, propertiesAnnotations, false);
+            currentLdapReturnAttributes = getEntryReturnAttributes(entryClass, propertiesAnnotations);
         }
 
         Filter searchFilter;
@@ -491,8 +682,13 @@ public class SpannerEntryManager extends BaseEntryManager implements Serializabl
             if (batchOperation != null) {
                 batchOperationWraper = new SpannerBatchOperationWraper<T>(batchOperation, this, entryClass, propertiesAnnotations);
             }
-            searchResult = searchImpl(key, objectClasses[0], convertedExpression, scope, currentLdapReturnAttributes,
-                    defaultSort, batchOperationWraper, returnDataType, start, count, chunkSize);
+            if (position == null) {
+            	searchResult = searchImpl(key, objectClasses[0], convertedExpression, scope, currentLdapReturnAttributes,
+            			defaultSort, batchOperationWraper, returnDataType, start, count, chunkSize);
+            } else {
+            	searchResult = getOperationService().search(key, objectClasses[0], convertedExpression, scope,
+            			toInternalAttributes(currentLdapReturnAttributes), defaultSort, batchOperationWraper, returnDataType, position, count, chunkSize);
+            }
 
             if (searchResult == null) {
                 throw new EntryPersistenceException(String.format("Failed to find entries with key: '%s', expression: '%s'", key, convertedExpression));
@@ -788,14 +984,18 @@ public class SpannerEntryManager extends BaseEntryManager implements Serializabl
     
     private ConvertedExpression toSqlFilter(String key, String objectClass, Filter genericFilter, Map<String, PropertyAnnotation> propertiesAnnotationsMap) throws SearchException {
     	TableMapping tableMapping = getOperationService().getTabeMapping(key, objectClass);
-        return filterConverter.convertToSqlFilter(tableMapping, excludeObjectClassFilters(genericFilter), propertiesAnnotationsMap);
+        return filterConverter.convertToSqlFilter(tableMapping, normalizeFilter(genericFilter), propertiesAnnotationsMap);
     }
 
     private ConvertedExpression toSqlFilterWithEmptyAlias(String key, String objectClass, Filter genericFilter, Map<String, PropertyAnnotation> propertiesAnnotationsMap) throws SearchException {
     	TableMapping tableMapping = getOperationService().getTabeMapping(key, objectClass);
-        return filterConverter.convertToSqlFilter(tableMapping, excludeObjectClassFilters(genericFilter), propertiesAnnotationsMap, true);
+        return filterConverter.convertToSqlFilter(tableMapping, normalizeFilter(genericFilter), propertiesAnnotationsMap, true);
     }
 
+	private Filter normalizeFilter(Filter genericFilter) {
+		return filterOptimizer.optimize(excludeObjectClassFilters(genericFilter));
+	}
+
 	private Filter excludeObjectClassFilters(Filter genericFilter) {
 		return filterProcessor.excludeFilter(genericFilter, FilterProcessor.OBJECT_CLASS_EQUALITY_FILTER, FilterProcessor.OBJECT_CLASS_PRESENCE_FILTER);
 	}
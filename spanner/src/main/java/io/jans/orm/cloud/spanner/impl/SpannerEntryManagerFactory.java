@@ -18,8 +18,10 @@ import org.slf4j.LoggerFactory;
 
 import io.jans.orm.PersistenceEntryManager;
 import io.jans.orm.PersistenceEntryManagerFactory;
+import io.jans.orm.cache.LruEntryCache;
 import io.jans.orm.cloud.spanner.operation.impl.SpannerConnectionProvider;
 import io.jans.orm.cloud.spanner.operation.impl.SpannerOperationServiceImpl;
+import io.jans.orm.cloud.spanner.operation.watch.OperationDurationUtil;
 import io.jans.orm.exception.operation.ConfigurationException;
 import io.jans.orm.service.BaseFactoryService;
 import io.jans.orm.util.PropertiesHelper;
@@ -44,6 +46,7 @@ public class SpannerEntryManagerFactory implements PersistenceEntryManagerFactor
 
     @PreDestroy
     public void destroy() {
+    	OperationDurationUtil.instance().removeStatistics();
     }
 
     @Override
@@ -77,6 +80,8 @@ public class SpannerEntryManagerFactory implements PersistenceEntryManagerFactor
         
         SpannerEntryManager sqlEntryManager = new SpannerEntryManager(new SpannerOperationServiceImpl(entryManagerConf, connectionProvider));
         LOG.info("Created SpannerEntryManager: {}", sqlEntryManager.getOperationService());
+        sqlEntryManager.setEntryCache(LruEntryCache.create(entryManagerConf));
+        sqlEntryManager.setBatchPrefetchDepth(StringHelper.toInteger(entryManagerConf.getProperty(SpannerEntryManager.BATCH_PREFETCH_DEPTH_PROPERTY), 0));
 
         return sqlEntryManager;
     }
@@ -25,6 +25,8 @@ import io.jans.orm.exception.operation.EntryConvertationException;
 import io.jans.orm.exception.operation.EntryNotFoundException;
 import io.jans.orm.exception.operation.PersistenceException;
 import io.jans.orm.exception.operation.SearchException;
+import io.jans.orm.impl.model.KeysetPosition;
+import io.jans.orm.impl.model.KeysetTokenCodec;
 import io.jans.orm.model.AttributeData;
 import io.jans.orm.model.AttributeDataModification;
 import io.jans.orm.model.EntryData;
@@ -55,8 +57,21 @@ public interface SpannerOperationService extends PersistenceOperationService {
 
     SpannerConnectionProvider getConnectionProvider();
 
+    KeysetTokenCodec getKeysetTokenCodec();
+
     boolean addEntry(String key, String objectClass, Collection<AttributeData> attributes) throws DuplicateEntryException, PersistenceException;
 
+    /**
+     * Add entry or update columns of existing entry with one write
+     */
+    boolean addOrUpdateEntry(String key, String objectClass, Collection<AttributeData> attributes) throws PersistenceException;
+
+    /**
+     * Add entries grouped by objectClass and key with minimal number of writes. Entries which don't fit
+     * one commit are sent in next writes, so earlier writes stay committed if later one fails
+     */
+    boolean addEntries(Map<String, Map<String, Collection<AttributeData>>> entries) throws DuplicateEntryException, PersistenceException;
+
     boolean updateEntry(String key, String objectClass, List<AttributeDataModification> mods) throws UnsupportedOperationException, PersistenceException;
 
     boolean delete(String key, String objectClass) throws EntryNotFoundException;
@@ -66,10 +81,20 @@ public interface SpannerOperationService extends PersistenceOperationService {
 
 	List<AttributeData> lookup(String key, String objectClass, String... attributes) throws SearchException, EntryConvertationException;
 
+	Map<String, List<AttributeData>> lookup(Collection<String> keys, String objectClass, String... attributes) throws SearchException, EntryConvertationException;
+
     <O> PagedResult<EntryData> search(String key, String objectClass, ConvertedExpression expression, SearchScope scope,
             String[] attributes, Sort[] orderBy, SpannerBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType,
             int start, int count, int pageSize) throws SearchException;
 
+    /**
+     * Search entries after specified position. Entries are sorted by requested sort and doc_id to
+     * continue from last returned entry without offset
+     */
+    <O> PagedResult<EntryData> search(String key, String objectClass, ConvertedExpression expression, SearchScope scope,
+            String[] attributes, Sort[] orderBy, SpannerBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType,
+            KeysetPosition position, int count, int pageSize) throws SearchException;
+
     String[] createStoragePassword(String[] passwords);
     
     boolean isBinaryAttribute(String attribute);
@@ -60,6 +60,9 @@ import io.jans.orm.exception.operation.EntryNotFoundException;
 import io.jans.orm.exception.operation.IncompatibleTypeException;
 import io.jans.orm.exception.operation.PersistenceException;
 import io.jans.orm.exception.operation.SearchException;
+import io.jans.orm.impl.BatchOperationPipeline;
+import io.jans.orm.impl.model.KeysetPosition;
+import io.jans.orm.impl.model.KeysetTokenCodec;
 import io.jans.orm.model.AttributeData;
 import io.jans.orm.model.AttributeDataModification;
 import io.jans.orm.model.AttributeDataModification.AttributeModificationType;
@@ -72,14 +75,23 @@ import io.jans.orm.model.SortOrder;
 import io.jans.orm.operation.auth.PasswordEncryptionHelper;
 import io.jans.orm.util.ArrayHelper;
 import io.jans.orm.util.StringHelper;
+import io.jans.orm.watch.OperationTimer;
+import io.jans.orm.watch.SlowOperation;
+import io.jans.orm.watch.SlowOperationLog;
 import net.sf.jsqlparser.expression.Alias;
 import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.expression.Function;
 import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.Parenthesis;
 import net.sf.jsqlparser.expression.UserVariable;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
 import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
 import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThan;
 import net.sf.jsqlparser.expression.operators.relational.InExpression;
+import net.sf.jsqlparser.expression.operators.relational.IsNullExpression;
+import net.sf.jsqlparser.expression.operators.relational.MinorThan;
 import net.sf.jsqlparser.schema.Column;
 import net.sf.jsqlparser.schema.Table;
 import net.sf.jsqlparser.statement.delete.Delete;
@@ -104,6 +116,17 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 
 	public static final Object[] NO_OBJECTS = new Object[0];
 
+	/**
+	 * Secret to encrypt continuation tokens of keyset pagination. All nodes which serve same
+	 * clients should have same value, otherwise tokens are valid only on node which issued them
+	 */
+	public static final String KEYSET_TOKEN_KEY_PROPERTY = KeysetTokenCodec.KEY_PROPERTY;
+
+	// Spanner limits number of column values changed in one commit
+	private static final int MAX_COMMIT_MUTATIONS = 20000;
+
+	private static final String KEYSET_PARAMETER_PREFIX = "keyset_";
+
     private Properties props;
     private SpannerConnectionProvider connectionProvider;
 
@@ -115,6 +138,9 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 
 	private Table tableAlias = new Table("doc");
 
+	private SlowOperationLog slowOperationLog;
+	private KeysetTokenCodec keysetTokenCodec;
+
     @SuppressWarnings("unused")
     private SpannerOperationServiceImpl() {
     }
@@ -127,6 +153,8 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 
 	private void init() {
 		this.databaseClient = connectionProvider.getClient();
+		this.slowOperationLog = SlowOperationLog.create("Spanner", props);
+		this.keysetTokenCodec = KeysetTokenCodec.create(props);
 	}
 
     @Override
@@ -134,6 +162,11 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
         return connectionProvider;
     }
 
+    @Override
+    public KeysetTokenCodec getKeysetTokenCodec() {
+        return keysetTokenCodec;
+    }
+
     @Override
     public boolean authenticate(String key, String password, String objectClass) throws SearchException {
         return authenticateImpl(key, password, objectClass);
@@ -176,86 +209,201 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
         OperationDurationUtil.instance().logDebug("Spanner operation: bind, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
+        OperationDurationUtil.instance().record("bind", tableMapping.getTableName(), duration);
 
         return result;
     }
 
     @Override
     public boolean addEntry(String key, String objectClass, Collection<AttributeData> attributes) throws DuplicateEntryException, PersistenceException {
-        Instant startTime = OperationDurationUtil.instance().now();
-
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = addEntryImpl(tableMapping, key, attributes);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("add", tableMapping.getTableName())) {
+            boolean result = addEntryImpl(tableMapping, key, attributes);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("SQL operation: add, duration: {}, table: {}, key: {}, attributes: {}", duration, tableMapping.getTableName(), key, attributes);
-        
-        return result;
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("SQL operation: add, duration: {}, table: {}, key: {}, attributes: {}", duration, tableMapping.getTableName(), key, attributes);
+            slowOperationLog.logIfSlow("add", tableMapping.getTableName(), duration, -1);
+
+            return result;
+        }
     }
 
 	private boolean addEntryImpl(TableMapping tableMapping, String key, Collection<AttributeData> attributes) throws PersistenceException {
 		try {
 			MessageDigest messageDigest = getMessageDigestInstance();
-			Map<String, StructField> columTypes = tableMapping.getColumTypes();
 
-			WriteBuilder mutationBuilder = Mutation.newInsertOrUpdateBuilder(tableMapping.getTableName());
 			List<Mutation> mutations = new LinkedList<>();
-			for (AttributeData attribute : attributes) {
-				String attributeName = attribute.getName();
-				StructField attributeType = columTypes.get(attributeName.toLowerCase());
+			buildAddEntryMutations(tableMapping, key, attributes, false, messageDigest, mutations);
 
-				// If column not inside table we should check if there is child table
-				if (attributeType == null) {
-					TableMapping childTableMapping = connectionProvider.getChildTableMappingByKey(key, tableMapping, attributeName);
-					if (childTableMapping == null) {
-			            throw new PersistenceException(String.format("Failed to add entry. Column '%s' is undefined", attributeName));
-					}
+			databaseClient.write(mutations);
 
-					Map<String, StructField> childColumTypes = childTableMapping.getColumTypes();
-					if (childColumTypes == null) {
-			            throw new PersistenceException(String.format("Failed to add entry. Column '%s' is undefined", attributeName));
-					}
-					StructField childAttributeType = childColumTypes.get(attributeName.toLowerCase());
-					
-					// Build Mutation for child table
-					for (Object value : attribute.getValues()) {
-						// Build Mutation for child table
-						String dictDocId = getStringUniqueKey(messageDigest, value);
+			return true;
+        } catch (SpannerException | IllegalStateException ex) {
+            throw new PersistenceException("Failed to add entry", ex);
+        }
+	}
+
+    @Override
+    public boolean addOrUpdateEntry(String key, String objectClass, Collection<AttributeData> attributes) throws PersistenceException {
+        TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("add_or_update", tableMapping.getTableName())) {
+            boolean result = addOrUpdateEntryImpl(tableMapping, key, attributes);
+
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("Spanner operation: add_or_update, duration: {}, table: {}, key: {}, attributes: {}", duration, tableMapping.getTableName(), key, attributes);
+
+            return result;
+        }
+    }
+
+	/*
+	 * Entry row is written with insert or update mutation. Child tables values of specified
+	 * attributes are replaced in same write
+	 */
+	private boolean addOrUpdateEntryImpl(TableMapping tableMapping, String key, Collection<AttributeData> attributes) throws PersistenceException {
+		try {
+			MessageDigest messageDigest = getMessageDigestInstance();
+
+			List<Mutation> mutations = new LinkedList<>();
+			buildAddEntryMutations(tableMapping, key, attributes, true, messageDigest, mutations);
+
+			databaseClient.write(mutations);
+
+			return true;
+        } catch (SpannerException | IllegalStateException ex) {
+            throw new PersistenceException("Failed to add or update entry", ex);
+        }
+	}
+
+    @Override
+    public boolean addEntries(Map<String, Map<String, Collection<AttributeData>>> entries) throws DuplicateEntryException, PersistenceException {
+        try (OperationTimer timer = OperationDurationUtil.instance().start("add_batch", null)) {
+            int count = addEntriesImpl(entries);
 
-						WriteBuilder childMutationBuilder = Mutation.newInsertOrUpdateBuilder(childTableMapping.getTableName());
-						childMutationBuilder.
-							set(SpannerOperationService.DOC_ID).to(key).
-							set(SpannerOperationService.DICT_DOC_ID).to(dictDocId);
-						
-						setMutationBuilderValue(childMutationBuilder, childAttributeType, value);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("SQL operation: add_batch, duration: {}, tables: {}, count: {}", duration, entries.keySet(), count);
+        }
 
-						mutations.add(childMutationBuilder.build());
+        return true;
+    }
+
+	private int addEntriesImpl(Map<String, Map<String, Collection<AttributeData>>> entries) throws PersistenceException {
+		try {
+			MessageDigest messageDigest = getMessageDigestInstance();
+
+			int count = 0;
+			int commitMutations = 0;
+			List<Mutation> mutations = new ArrayList<>();
+			for (Entry<String, Map<String, Collection<AttributeData>>> objectClassEntries : entries.entrySet()) {
+				String objectClass = objectClassEntries.getKey();
+				for (Entry<String, Collection<AttributeData>> keyEntry : objectClassEntries.getValue().entrySet()) {
+					String key = keyEntry.getKey();
+					Collection<AttributeData> attributes = keyEntry.getValue();
+
+					TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
+					List<Mutation> entryMutations = new ArrayList<>();
+					int entryCommitMutations = buildAddEntryMutations(tableMapping, key, attributes, false, messageDigest, entryMutations);
+					if (entryCommitMutations > MAX_COMMIT_MUTATIONS) {
+						throw new PersistenceException(String.format("Failed to add entry with key '%s'. Count of mutations %d exceeds commit limit %d",
+								key, entryCommitMutations, MAX_COMMIT_MUTATIONS));
 					}
-				} else {
-					setMutationBuilderValue(mutationBuilder, attributeType, attribute.getValues());
+
+					// Send parent and child tables rows in one write while it fits commit limits
+					if (commitMutations + entryCommitMutations > MAX_COMMIT_MUTATIONS) {
+						databaseClient.write(mutations);
+						mutations = new ArrayList<>();
+						commitMutations = 0;
+					}
+
+					mutations.addAll(entryMutations);
+					commitMutations += entryCommitMutations;
+					count++;
 				}
 			}
-			mutations.add(0, mutationBuilder.build());
 
-			databaseClient.write(mutations);
+			if (mutations.size() > 0) {
+				databaseClient.write(mutations);
+			}
 
-			return true;
+			return count;
         } catch (SpannerException | IllegalStateException ex) {
-            throw new PersistenceException("Failed to add entry", ex);
+            throw new PersistenceException("Failed to add entries", ex);
         }
 	}
 
+	/*
+	 * Adds entry row and child tables rows mutations to list. Returns number of column values in mutations
+	 *
+	 * @param replaceChildValues Remove existing child tables rows of specified attributes before adding new ones
+	 */
+	private int buildAddEntryMutations(TableMapping tableMapping, String key, Collection<AttributeData> attributes, boolean replaceChildValues,
+			MessageDigest messageDigest, List<Mutation> mutations) throws PersistenceException {
+		Map<String, StructField> columTypes = tableMapping.getColumTypes();
+
+		int entryMutationsIndex = mutations.size();
+		int columnValues = 0;
+
+		WriteBuilder mutationBuilder = Mutation.newInsertOrUpdateBuilder(tableMapping.getTableName());
+		for (AttributeData attribute : attributes) {
+			String attributeName = attribute.getName();
+			StructField attributeType = columTypes.get(attributeName.toLowerCase());
+
+			// If column not inside table we should check if there is child table
+			if (attributeType == null) {
+				TableMapping childTableMapping = connectionProvider.getChildTableMappingByKey(key, tableMapping, attributeName);
+				if (childTableMapping == null) {
+		            throw new PersistenceException(String.format("Failed to add entry. Column '%s' is undefined", attributeName));
+				}
+
+				Map<String, StructField> childColumTypes = childTableMapping.getColumTypes();
+				if (childColumTypes == null) {
+		            throw new PersistenceException(String.format("Failed to add entry. Column '%s' is undefined", attributeName));
+				}
+				StructField childAttributeType = childColumTypes.get(attributeName.toLowerCase());
+
+				if (replaceChildValues) {
+					// Mutations are applied in order, so old values are removed before new ones are added
+					mutations.add(Mutation.delete(childTableMapping.getTableName(), KeySet.prefixRange(Key.of(key))));
+					columnValues++;
+				}
+				
+				// Build Mutation for child table
+				for (Object value : attribute.getValues()) {
+					// Build Mutation for child table
+					String dictDocId = getStringUniqueKey(messageDigest, value);
+
+					WriteBuilder childMutationBuilder = Mutation.newInsertOrUpdateBuilder(childTableMapping.getTableName());
+					childMutationBuilder.
+						set(SpannerOperationService.DOC_ID).to(key).
+						set(SpannerOperationService.DICT_DOC_ID).to(dictDocId);
+					
+					setMutationBuilderValue(childMutationBuilder, childAttributeType, value);
+
+					mutations.add(childMutationBuilder.build());
+					columnValues += 3;
+				}
+			} else {
+				setMutationBuilderValue(mutationBuilder, attributeType, attribute.getValues());
+				columnValues++;
+			}
+		}
+		mutations.add(entryMutationsIndex, mutationBuilder.build());
+
+		return columnValues;
+	}
+
 	@Override
     public boolean updateEntry(String key, String objectClass, List<AttributeDataModification> mods) throws UnsupportedOperationException, PersistenceException {
-        Instant startTime = OperationDurationUtil.instance().now();
-        
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = updateEntryImpl(tableMapping, key, mods);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("modify", tableMapping.getTableName())) {
+            boolean result = updateEntryImpl(tableMapping, key, mods);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("SQL operation: modify, duration: {}, table: {}, key: {}, mods: {}", duration, tableMapping.getTableName(), key, mods);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("SQL operation: modify, duration: {}, table: {}, key: {}, mods: {}", duration, tableMapping.getTableName(), key, mods);
+            slowOperationLog.logIfSlow("modify", tableMapping.getTableName(), duration, -1);
 
-        return result;
+            return result;
+        }
     }
 
 	private boolean updateEntryImpl(TableMapping tableMapping, String key, List<AttributeDataModification> mods)
@@ -362,15 +510,16 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 
 	@Override
     public boolean delete(String key, String objectClass) throws EntryNotFoundException {
-        Instant startTime = OperationDurationUtil.instance().now();
-
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = deleteImpl(tableMapping, key);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("delete", tableMapping.getTableName())) {
+            boolean result = deleteImpl(tableMapping, key);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("SQL operation: delete, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("SQL operation: delete, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
+            slowOperationLog.logIfSlow("delete", tableMapping.getTableName(), duration, -1);
 
-        return result;
+            return result;
+        }
     }
 
 	private boolean deleteImpl(TableMapping tableMapping, String key) throws EntryNotFoundException {
@@ -390,16 +539,16 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 
     @Override
     public long delete(String key, String objectClass, ConvertedExpression expression, int count) throws DeleteException {
-        Instant startTime = OperationDurationUtil.instance().now();
-
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
 
-    	long result = deleteImpl(tableMapping, expression, count);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("delete_search", tableMapping.getTableName())) {
+            long result = deleteImpl(tableMapping, expression, count);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("SQL operation: delete_search, duration: {}, table: {}, key: {}, expression: {}, count: {}", duration, tableMapping.getTableName(), key, expression, count);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("SQL operation: delete_search, duration: {}, table: {}, key: {}, expression: {}, count: {}", duration, tableMapping.getTableName(), key, expression, count);
 
-        return result;
+            return result;
+        }
     }
 
     private long deleteImpl(TableMapping tableMapping, ConvertedExpression expression, int count) throws DeleteException {
@@ -460,15 +609,15 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 
     @Override
     public boolean deleteRecursively(String key, String objectClass) throws EntryNotFoundException, SearchException {
-        Instant startTime = OperationDurationUtil.instance().now();
-
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = deleteRecursivelyImpl(tableMapping, key);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("delete_tree", tableMapping.getTableName())) {
+            boolean result = deleteRecursivelyImpl(tableMapping, key);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("SQL operation: delete_tree, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("SQL operation: delete_tree, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
 
-        return result;
+            return result;
+        }
     }
 
 	private boolean deleteRecursivelyImpl(TableMapping tableMapping, String key) throws SearchException, EntryNotFoundException {
@@ -478,16 +627,22 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 
     @Override
     public List<AttributeData> lookup(String key, String objectClass, String... attributes) throws SearchException, EntryConvertationException {
-        Instant startTime = OperationDurationUtil.instance().now();
-        
     	TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
 
-    	List<AttributeData> result = lookupImpl(tableMapping, key, attributes);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("lookup", tableMapping.getTableName())) {
+            List<AttributeData> result = lookupImpl(tableMapping, key, attributes);
+            int rows = (result == null) ? 0 : 1;
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("SQL operation: lookup, duration: {}, table: {}, key: {}, attributes: {}", duration, tableMapping.getTableName(), key, attributes);
+            Duration duration = timer.record(rows);
+            OperationDurationUtil.instance().logDebug("SQL operation: lookup, duration: {}, table: {}, key: {}, attributes: {}", duration, tableMapping.getTableName(), key, attributes);
+            slowOperationLog.logIfSlow("lookup", tableMapping.getTableName(), duration, rows);
 
-        return result;
+            if (result == null) {
+                throw new SearchException(String.format("Failed to lookup entry by key: '%s'", key));
+            }
+
+            return result;
+        }
     }
 
 	private List<AttributeData> lookupImpl(TableMapping tableMapping, String key, String... attributes) throws SearchException, EntryConvertationException {
@@ -536,34 +691,128 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
                 }
 			}
 
-			if (result != null) {
-				return result;
-			}
+			return result;
 		} catch (SpannerException ex) {
 			throw new SearchException(String.format("Failed to lookup query by key: '%s'", key), ex);
 		}
+	}
+
+    @Override
+    public Map<String, List<AttributeData>> lookup(Collection<String> keys, String objectClass, String... attributes) throws SearchException, EntryConvertationException {
+        // Table depends only on object class
+    	TableMapping tableMapping = connectionProvider.getTableMappingByKey(keys.iterator().next(), objectClass);
+
+        try (OperationTimer timer = OperationDurationUtil.instance().start("lookup_batch", tableMapping.getTableName())) {
+            Map<String, List<AttributeData>> result = lookupImpl(tableMapping, keys, attributes);
+
+            Duration duration = timer.record(result.size());
+            OperationDurationUtil.instance().logDebug("SQL operation: lookup_batch, duration: {}, table: {}, keys: {}, attributes: {}", duration, tableMapping.getTableName(), keys, attributes);
+
+            return result;
+        }
+    }
+
+	private Map<String, List<AttributeData>> lookupImpl(TableMapping tableMapping, Collection<String> keys, String... attributes) throws SearchException, EntryConvertationException {
+		try {
+			String tableName = tableMapping.getTableName();
+
+			Map<String, List<AttributeData>> result = new HashMap<String, List<AttributeData>>(keys.size());
+
+			// If all requested attributes belong to one table get rows by primary keys
+			Set<String> childTables = connectionProvider.getTableChildAttributes(tableName);
+			if (childTables == null) {
+				KeySet.Builder keySetBuilder = KeySet.newBuilder();
+				for (String key : keys) {
+					keySetBuilder.addKey(Key.of(key));
+				}
+
+				Collection<String> columns;
+				if (attributes == null) {
+					// Request all attributes
+					columns = tableMapping.getColumTypes().keySet();
+				} else {
+					// Request only required attributes
+					columns = new ArrayList<String>(Arrays.asList(attributes));
+					if (!columns.contains(DOC_ID)) {
+						columns.add(DOC_ID);
+					}
+				}
+
+                try (ResultSet resultSet = databaseClient.singleUse().read(tableName, keySetBuilder.build(), columns)) {
+                	List<AttributeData> attributeDataList;
+                	while ((attributeDataList = getAttributeDataList(tableMapping.getObjectClass(), resultSet, true)) != null) {
+                		result.put(resultSet.getString(DOC_ID), attributeDataList);
+                	}
+                }
+			} else {
+				Table table = buildTable(tableMapping);
+				PlainSelect sqlSelectQuery = new PlainSelect();
+				sqlSelectQuery.setFromItem(table);
+
+				List<SelectItem> selectItems = buildSelectAttributes(tableMapping, keys.iterator().next(), attributes);
+				sqlSelectQuery.addSelectItems(selectItems);
+
+				Function unnestFunction = new Function();
+				unnestFunction.setName("UNNEST");
+				unnestFunction.setParameters(new ExpressionList(new UserVariable(DOC_ID)));
+
+				InExpression whereExp = new InExpression().withLeftExpression(new Column(tableAlias, DOC_ID)).withRightExpression(unnestFunction);
+				sqlSelectQuery.setWhere(whereExp);
+
+	    		Statement statement = Statement.newBuilder(sqlSelectQuery.toString()).bind(DOC_ID).toStringArray(keys).build();
+                LOG.debug("Executing lookup query: '{}'", statement);
 
-		throw new SearchException(String.format("Failed to lookup entry by key: '%s'", key));
+                try (ResultSet resultSet = databaseClient.singleUse().executeQuery(statement)) {
+                	List<AttributeData> attributeDataList;
+                	while ((attributeDataList = getAttributeDataList(tableMapping.getObjectClass(), resultSet, true)) != null) {
+                		result.put(resultSet.getString(DOC_ID), attributeDataList);
+                	}
+                }
+			}
+
+			return result;
+		} catch (SpannerException ex) {
+			throw new SearchException(String.format("Failed to lookup query by keys: '%s'", keys), ex);
+		}
 	}
 
 	@Override
     public <O> PagedResult<EntryData> search(String key, String objectClass, ConvertedExpression expression, SearchScope scope, String[] attributes, Sort[] orderBy,
                                               SpannerBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, int start, int count, int pageSize) throws SearchException {
-        Instant startTime = OperationDurationUtil.instance().now();
+		return search(key, objectClass, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, null, start, count, pageSize);
+	}
 
+	@Override
+    public <O> PagedResult<EntryData> search(String key, String objectClass, ConvertedExpression expression, SearchScope scope, String[] attributes, Sort[] orderBy,
+                                              SpannerBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, KeysetPosition position, int count, int pageSize) throws SearchException {
+		return search(key, objectClass, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, position, 0, count, pageSize);
+	}
+
+    private <O> PagedResult<EntryData> search(String key, String objectClass, ConvertedExpression expression, SearchScope scope, String[] attributes, Sort[] orderBy,
+                                              SpannerBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, KeysetPosition position, int start, int count, int pageSize) throws SearchException {
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
 
-        PagedResult<EntryData> result = searchImpl(tableMapping, key, expression, scope, attributes, orderBy, batchOperationWraper,
-						returnDataType, start, count, pageSize);
+        SlowOperation slowOperation = slowOperationLog.start("search", tableMapping.getTableName());
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("SQL operation: search, duration: {}, table: {}, key: {}, expression: {}, scope: {}, attributes: {}, orderBy: {}, batchOperationWraper: {}, returnDataType: {}, start: {}, count: {}, pageSize: {}", duration, tableMapping.getTableName(), key, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, start, count, pageSize);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("search", tableMapping.getTableName())) {
+            PagedResult<EntryData> result = searchImpl(tableMapping, key, expression, scope, attributes, orderBy, batchOperationWraper,
+                    returnDataType, position, start, count, pageSize, slowOperation);
 
-        return result;
+            Duration duration = timer.record(result.getEntriesCount());
+            OperationDurationUtil.instance().logDebug("SQL operation: search, duration: {}, table: {}, key: {}, expression: {}, scope: {}, attributes: {}, orderBy: {}, batchOperationWraper: {}, returnDataType: {}, start: {}, count: {}, pageSize: {}", duration, tableMapping.getTableName(), key, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, start, count, pageSize);
+
+            if (slowOperationLog.isSlow(slowOperation, duration)) {
+            	slowOperation.setRows(result.getEntriesCount());
+            	slowOperationLog.log(slowOperation, duration);
+            }
+
+            return result;
+        }
 	}
 
 	private <O> PagedResult<EntryData> searchImpl(TableMapping tableMapping, String key, ConvertedExpression expression, SearchScope scope, String[] attributes, Sort[] orderBy,
-            SpannerBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, int start, int count, int pageSize) throws SearchException {
+            SpannerBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, KeysetPosition keysetPosition, int start, int count, int pageSize,
+            SlowOperation slowOperation) throws SearchException {
         BatchOperation<O> batchOperation = null;
         if (batchOperationWraper != null) {
             batchOperation = (BatchOperation<O>) batchOperationWraper.getBatchOperation();
@@ -582,25 +831,123 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 		}
 
         if (orderBy != null) {
-        	OrderByElement[] orderByElements = new OrderByElement[orderBy.length];
-        	for (int i = 0; i < orderBy.length; i++) {
-        		Column column = new Column(orderBy[i].getName());
-        		orderByElements[i] = new OrderByElement();
-        		orderByElements[i].setExpression(column);
-        		
-        		if (orderBy[i].getSortOrder() != null) {
-        			orderByElements[i].setAscDescPresent(true);
-        			orderByElements[i].setAsc(SortOrder.ASCENDING == orderBy[i].getSortOrder());
-        		}
-        	}
-
-            sqlSelectQuery.withOrderByElements(Arrays.asList(orderByElements));
+            sqlSelectQuery.withOrderByElements(buildOrderByElements(orderBy));
         }
 
         List<EntryData> searchResultList = new LinkedList<EntryData>();
+        KeysetPosition nextPosition = null;
         if ((SearchReturnDataType.SEARCH == returnDataType) || (SearchReturnDataType.SEARCH_COUNT == returnDataType)) {
         	List<EntryData> lastResult = null;
-	        if (pageSize > 0) {
+	        if ((keysetPosition != null) || ((batchOperation != null) && (pageSize > 0))) {
+	    		boolean collectSearchResult;
+
+	            // Batch scans and continuation requests use keyset pagination instead of growing offset
+	    		Sort[] keysetOrderBy = buildKeysetOrderBy(orderBy);
+	            sqlSelectQuery.withOrderByElements(buildOrderByElements(keysetOrderBy));
+
+	            KeysetPosition currentPosition = (keysetPosition == null) ? new KeysetPosition(null, start) : keysetPosition;
+	            int pageLimit = (pageSize > 0) ? pageSize : count;
+	            if (currentPosition.hasValues() && (currentPosition.getValues().length != keysetOrderBy.length)) {
+	            	throw new SearchException(String.format("Keyset position doesn't match search sort. Key: '%s'", key));
+	            }
+
+	            Expression whereExp = sqlSelectQuery.getWhere();
+
+	            int currentLimit;
+	    		try (BatchOperationPipeline<O> batchOperationPipeline = (batchOperation == null) ? null : batchOperationWraper.createBatchOperationPipeline()) {
+	                int resultCount = 0;
+	                int lastCountRows = 0;
+	                do {
+	                    collectSearchResult = true;
+
+	                    currentLimit = pageLimit;
+	                    if (count > 0) {
+	                        currentLimit = Math.min(pageLimit, count - resultCount);
+	                    }
+
+	    	    		Limit limit = null;
+	                    if (currentLimit > 0) {
+	                    	limit = new Limit();
+	                    	limit.setRowCount(new LongValue(currentLimit));
+	                    }
+	                    sqlSelectQuery.setLimit(limit);
+
+	                    // Skip counts rows which batch action may still change
+	                    if ((batchOperationPipeline != null) && (resultCount > 0) && (currentPosition.getSkip() > 0)) {
+	                    	batchOperationPipeline.awaitActions();
+	                    }
+
+	                    Offset offset = null;
+	                    if (currentPosition.getSkip() > 0) {
+	                    	offset = new Offset();
+	                    	offset.setOffset(currentPosition.getSkip());
+	                    }
+	                    sqlSelectQuery.setOffset(offset);
+
+	                    Expression pageWhereExp = whereExp;
+	                    if (currentPosition.hasValues()) {
+	                    	Expression keysetExp = buildKeysetExpression(keysetOrderBy);
+	                    	pageWhereExp = (whereExp == null) ? keysetExp : new AndExpression(whereExp, keysetExp);
+	                    }
+	                    sqlSelectQuery.setWhere(pageWhereExp);
+
+	    				Statement.Builder statementBuilder = Statement.newBuilder(sqlSelectQuery.toString());
+	    				applyParametersBinding(statementBuilder, expression);
+	                    if (currentPosition.hasValues()) {
+	                    	applyKeysetParametersBinding(statementBuilder, tableMapping, keysetOrderBy, currentPosition.getValues());
+	                    }
+
+	    				Statement statement = statementBuilder.build();
+	                    if (slowOperation != null) {
+	                    	slowOperation.setQuery(statement.getSql(), statement.getParameters());
+	                    }
+	                    LOG.debug("Executing keyset query: '{}'", statement);
+
+	                    Object[] lastValues;
+	                    try (ResultSet resultSet = databaseClient.singleUse().executeQuery(statement)) {
+	                    	lastResult = new LinkedList<EntryData>();
+	                    	lastValues = getKeysetEntryDataList(tableMapping, resultSet, keysetOrderBy, lastResult);
+	                    }
+
+		    			lastCountRows = lastResult.size();
+
+	                    if (batchOperation != null) {
+	                        collectSearchResult = batchOperation.collectSearchResult(lastCountRows);
+	                    }
+	                    if (collectSearchResult) {
+	                        searchResultList.addAll(lastResult);
+	                    }
+
+	                    if (batchOperation != null) {
+	                        List<O> entries = batchOperationWraper.createEntities(lastResult);
+	                        batchOperationPipeline.performAction(entries);
+	                    }
+
+	                    resultCount += lastCountRows;
+
+	                    // Skip rows after last known key if last row has no key values
+	                    if (lastValues != null) {
+	                    	currentPosition = new KeysetPosition(lastValues, 0);
+	                    } else {
+	                    	currentPosition = new KeysetPosition(currentPosition.getValues(), currentPosition.getSkip() + lastCountRows);
+	                    }
+
+	                    if ((currentLimit <= 0) || (lastCountRows < currentLimit)) {
+	                    	currentPosition = null;
+	                        break;
+	                    }
+
+	                    if ((count > 0) && (resultCount >= count)) {
+	                        break;
+	                    }
+	                } while (lastCountRows > 0);
+
+	                nextPosition = currentPosition;
+	    		} catch (SpannerException | EntryConvertationException | IncompatibleTypeException ex) {
+	    			LOG.error("Failed to execute query with expression: '{}'", expression);
+	    			throw new SearchException(String.format("Failed to execute query '%s'  with key: '%s'", sqlSelectQuery, key), ex);
+	    		}
+	        } else if (pageSize > 0) {
 	    		boolean collectSearchResult;
 	    		Limit limit = new Limit();
 	    		sqlSelectQuery.setLimit(limit);
@@ -609,7 +956,7 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 	    		sqlSelectQuery.setOffset(offset);
 	
 	            int currentLimit;
-	    		try {
+	    		try (BatchOperationPipeline<O> batchOperationPipeline = (batchOperation == null) ? null : batchOperationWraper.createBatchOperationPipeline()) {
 	                int resultCount = 0;
 	                int lastCountRows = 0;
 	                do {
@@ -620,6 +967,11 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 	                        currentLimit = Math.min(pageSize, count - resultCount);
 	                    }
 
+	                    // Offset of next page depends on changes which batch action does
+	                    if ((batchOperationPipeline != null) && (resultCount > 0)) {
+	                    	batchOperationPipeline.awaitActions();
+	                    }
+
 	                    // Change limit and offset
 	    	    		limit.setRowCount(new LongValue(currentLimit));
 	    	    		offset.setOffset(start + resultCount);
@@ -628,6 +980,9 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 	    				applyParametersBinding(statementBuilder, expression);
 
 	    				Statement statement = statementBuilder.build();
+	                    if (slowOperation != null) {
+	                    	slowOperation.setQuery(statement.getSql(), statement.getParameters());
+	                    }
 	                    LOG.debug("Executing query: '{}'", statement);
 
 	                    try (ResultSet resultSet = databaseClient.singleUse().executeQuery(statement)) {
@@ -645,7 +1000,7 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 	
 	                    if (batchOperation != null) {
 	                        List<O> entries = batchOperationWraper.createEntities(lastResult);
-	                        batchOperation.performAction(entries);
+	                        batchOperationPipeline.performAction(entries);
 	                    }
 	
 	                    resultCount += lastCountRows;
@@ -679,6 +1034,9 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
     				applyParametersBinding(statementBuilder, expression);
 
     				Statement statement = statementBuilder.build();
+                    if (slowOperation != null) {
+                    	slowOperation.setQuery(statement.getSql(), statement.getParameters());
+                    }
                     LOG.debug("Executing query: '{}'", statement);
 
                     try (ResultSet resultSet = databaseClient.singleUse().executeQuery(statement)) {
@@ -696,6 +1054,9 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
         result.setEntries(searchResultList);
         result.setEntriesCount(searchResultList.size());
         result.setStart(start);
+        if (nextPosition != null) {
+        	result.setContinuationToken(keysetTokenCodec.encode(nextPosition));
+        }
 
         if ((SearchReturnDataType.COUNT == returnDataType) || (SearchReturnDataType.SEARCH_COUNT == returnDataType)) {
     		PlainSelect sqlCountSelectQuery = new PlainSelect();
@@ -737,6 +1098,131 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
         return result;
     }
 
+	private List<OrderByElement> buildOrderByElements(Sort[] orderBy) {
+    	OrderByElement[] orderByElements = new OrderByElement[orderBy.length];
+    	for (int i = 0; i < orderBy.length; i++) {
+    		Column column = new Column(orderBy[i].getName());
+    		orderByElements[i] = new OrderByElement();
+    		orderByElements[i].setExpression(column);
+    		
+    		if (orderBy[i].getSortOrder() != null) {
+    			orderByElements[i].setAscDescPresent(true);
+    			orderByElements[i].setAsc(SortOrder.ASCENDING == orderBy[i].getSortOrder());
+    		}
+    	}
+
+    	return Arrays.asList(orderByElements);
+	}
+
+	/*
+	 * Sort by requested columns and unique key to get stable order of rows
+	 */
+	private Sort[] buildKeysetOrderBy(Sort[] orderBy) {
+		Sort docIdOrder = new Sort(DOC_ID, SortOrder.ASCENDING);
+		if (ArrayHelper.isEmpty(orderBy)) {
+			return new Sort[] { docIdOrder };
+		}
+
+		return ArrayHelper.arrayMerge(orderBy, new Sort[] { docIdOrder });
+	}
+
+	/*
+	 * Build condition to select rows after specified key:
+	 * (c1 > @v1) OR (c1 = @v1 AND c2 > @v2) OR ... OR (c1 = @v1 AND ... AND doc_id > @id).
+	 * Spanner places NULL values first in ascending order. These are selected explicitly
+	 * after last row in descending order
+	 */
+	private Expression buildKeysetExpression(Sort[] keysetOrderBy) {
+		Expression result = null;
+		Expression prefix = null;
+		for (int i = 0; i < keysetOrderBy.length; i++) {
+			Column column = new Column(tableAlias, keysetOrderBy[i].getName());
+			UserVariable value = new UserVariable(KEYSET_PARAMETER_PREFIX + i);
+
+			Expression after;
+			if (SortOrder.DESCENDING == keysetOrderBy[i].getSortOrder()) {
+				after = new MinorThan().withLeftExpression(column).withRightExpression(value);
+				if (i < keysetOrderBy.length - 1) {
+					after = new Parenthesis(new OrExpression(after, new IsNullExpression().withLeftExpression(column)));
+				}
+			} else {
+				after = new GreaterThan().withLeftExpression(column).withRightExpression(value);
+			}
+
+			Expression term = (prefix == null) ? after : new AndExpression(prefix, after);
+			result = (result == null) ? term : new OrExpression(result, term);
+
+			Expression equal = new EqualsTo().withLeftExpression(column).withRightExpression(value);
+			prefix = (prefix == null) ? equal : new AndExpression(prefix, equal);
+		}
+
+		return new Parenthesis(result);
+	}
+
+	private void applyKeysetParametersBinding(Statement.Builder builder, TableMapping tableMapping, Sort[] keysetOrderBy, Object[] values) throws IncompatibleTypeException {
+		for (int i = 0; i < keysetOrderBy.length; i++) {
+			StructField structField = tableMapping.getColumTypes().get(keysetOrderBy[i].getName().toLowerCase());
+			if (structField == null) {
+				throw new IncompatibleTypeException(String.format("Keyset column '%s' is undefined", keysetOrderBy[i].getName()));
+			}
+
+			setMutationBuilderValue(builder.bind(KEYSET_PARAMETER_PREFIX + i), structField, false, values[i]);
+		}
+	}
+
+	/*
+	 * Convert result set rows to entries
+	 *
+	 * @return Keyset values of last row or null if some of them can't be used as key
+	 */
+	private Object[] getKeysetEntryDataList(TableMapping tableMapping, ResultSet resultSet, Sort[] keysetOrderBy, List<EntryData> entryDataList) throws EntryConvertationException {
+		Object[] lastValues = null;
+
+		List<AttributeData> attributeDataList = null;
+		do {
+			attributeDataList = getAttributeDataList(tableMapping.getObjectClass(), resultSet, false);
+			if (attributeDataList != null) {
+				entryDataList.add(new EntryData(attributeDataList));
+				lastValues = getKeysetValues(resultSet, keysetOrderBy);
+			}
+		} while (attributeDataList != null);
+
+		return lastValues;
+	}
+
+	private Object[] getKeysetValues(ResultSet resultSet, Sort[] keysetOrderBy) {
+		List<StructField> structFields = resultSet.getType().getStructFields();
+
+		Object[] values = new Object[keysetOrderBy.length];
+		for (int i = 0; i < keysetOrderBy.length; i++) {
+			int index = -1;
+			for (int j = 0; j < structFields.size(); j++) {
+				if (keysetOrderBy[i].getName().equalsIgnoreCase(structFields.get(j).getName())) {
+					index = j;
+					break;
+				}
+			}
+
+			if ((index == -1) || resultSet.isNull(index)) {
+				return null;
+			}
+
+			// Only types which Spanner returns with full precision are used as key
+			Code columnTypeCode = structFields.get(index).getType().getCode();
+			if (Code.STRING == columnTypeCode) {
+				values[i] = resultSet.getString(index);
+			} else if (Code.INT64 == columnTypeCode) {
+				values[i] = resultSet.getLong(index);
+			} else if (Code.BOOL == columnTypeCode) {
+				values[i] = resultSet.getBoolean(index);
+			} else {
+				return null;
+			}
+		}
+
+		return values;
+	}
+
 	public String[] createStoragePassword(String[] passwords) {
         if (ArrayHelper.isEmpty(passwords)) {
             return passwords;
@@ -21,6 +21,11 @@ public class OperationDurationUtil extends DurationUtil {
     	return instance;
     }
 
+    @Override
+    public String getBackend() {
+        return "Spanner";
+    }
+
     public void logDebug(String format, Object... arguments) {
         if (log.isDebugEnabled()) {
             log.debug(format, arguments);
@@ -9,6 +9,7 @@ package io.jans.orm.sql.impl;
 import java.util.ArrayList;
 import java.util.List;
 
+import io.jans.orm.impl.BatchOperationPipeline;
 import io.jans.orm.model.BatchOperation;
 import io.jans.orm.model.EntryData;
 import io.jans.orm.reflect.property.PropertyAnnotation;
@@ -42,6 +43,14 @@ public class SqlBatchOperationWraper<T> {
         return batchOperation;
     }
 
+    public BatchOperationPipeline<T> createBatchOperationPipeline() {
+        if (SqlEntryManager == null) {
+            return new BatchOperationPipeline<T>(batchOperation, 0, null);
+        }
+
+        return SqlEntryManager.createBatchOperationPipeline(batchOperation);
+    }
+
     public List<T> createEntities(List<EntryData> entryDataList) {
         if (SqlEntryManager == null) {
             return new ArrayList<T>(0);
@@ -11,12 +11,16 @@ import java.text.SimpleDateFormat;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import javax.inject.Inject;
 
@@ -36,6 +40,9 @@ import io.jans.orm.exception.MappingException;
 import io.jans.orm.exception.operation.SearchException;
 import io.jans.orm.impl.BaseEntryManager;
 import io.jans.orm.impl.GenericKeyConverter;
+import io.jans.orm.impl.PagedEntriesIterator;
+import io.jans.orm.impl.model.EntryToPersist;
+import io.jans.orm.impl.model.KeysetPosition;
 import io.jans.orm.impl.model.ParsedKey;
 import io.jans.orm.model.AttributeData;
 import io.jans.orm.model.AttributeDataModification;
@@ -43,14 +50,17 @@ import io.jans.orm.model.AttributeDataModification.AttributeModificationType;
 import io.jans.orm.model.BatchOperation;
 import io.jans.orm.model.EntryData;
 import io.jans.orm.model.PagedResult;
+import io.jans.orm.model.RemoveProgressListener;
 import io.jans.orm.model.SearchScope;
 import io.jans.orm.model.SortOrder;
 import io.jans.orm.reflect.property.PropertyAnnotation;
 import io.jans.orm.search.filter.Filter;
+import io.jans.orm.search.filter.FilterOptimizer;
 import io.jans.orm.search.filter.FilterProcessor;
 import io.jans.orm.sql.model.ConvertedExpression;
 import io.jans.orm.sql.model.SearchReturnDataType;
 import io.jans.orm.sql.operation.SqlOperationService;
+import io.jans.orm.sql.operation.impl.SqlConnectionProvider.PrimaryReadsScope;
 import io.jans.orm.util.ArrayHelper;
 import io.jans.orm.util.StringHelper;
 
@@ -72,6 +82,7 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
 
     private final SqlFilterConverter filterConverter;
 	private FilterProcessor filterProcessor;
+	private FilterOptimizer filterOptimizer;
 
 	private static final GenericKeyConverter KEY_CONVERTER = new GenericKeyConverter(false);
 
@@ -81,6 +92,7 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
         this.operationService = operationService;
         this.filterConverter = new SqlFilterConverter(operationService);
         this.filterProcessor = new FilterProcessor();
+        this.filterOptimizer = new FilterOptimizer();
         subscribers = new LinkedList<DeleteNotifier>();
     }
 
@@ -97,6 +109,14 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
         return ((SqlOperationService) operationService);
     }
 
+    /**
+     * Read entries from primary DB instead of read replicas in current thread until returned scope is closed.
+     * It allows to read entries which were just written and are not replicated yet
+     */
+    public PrimaryReadsScope startPrimaryReads() {
+        return getOperationService().getConnectionProvider().startPrimaryReads();
+    }
+
     @Override
     public void addDeleteSubscriber(DeleteNotifier subscriber) {
         subscribers.add(subscriber);
@@ -118,6 +138,22 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
         }
     }
 
+    @Override
+    protected Void merge(Object entry, boolean isSchemaUpdate, boolean isConfigurationUpdate, AttributeModificationType schemaModificationType) {
+        // Modifications are calculated from current entry attributes. Read replica can return old version of entry
+        try (PrimaryReadsScope primaryReadsScope = startPrimaryReads()) {
+            return super.merge(entry, isSchemaUpdate, isConfigurationUpdate, schemaModificationType);
+        }
+    }
+
+    @Override
+    public void persistOrMerge(Object entry) {
+        // Check if entry exists in primary DB if dialect has no upsert statement
+        try (PrimaryReadsScope primaryReadsScope = startPrimaryReads()) {
+            super.persistOrMerge(entry);
+        }
+    }
+
     @Override
     protected <T> void updateMergeChanges(String baseDn, T entry, boolean isConfigurationUpdate, Class<?> entryClass, Map<String, AttributeData> attributesFromDbMap,
             List<AttributeDataModification> attributeDataModifications, boolean forceUpdate) {
@@ -167,7 +203,88 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
 
     @Override
     protected void persist(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
-    	ArrayList<AttributeData> resultAttributes = new ArrayList<>(attributes.size() + 1);
+    	List<AttributeData> resultAttributes = toPersistAttributes(attributes);
+
+        // Persist entry
+        try {
+        	ParsedKey parsedKey = toSQLKey(dn);
+            resultAttributes.add(new AttributeData(SqlOperationService.DN, dn));
+            resultAttributes.add(new AttributeData(SqlOperationService.DOC_ID, parsedKey.getKey()));
+
+            boolean result = getOperationService().addEntry(parsedKey.getKey(), objectClasses[0], resultAttributes);
+            if (!result) {
+                throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn));
+            }
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn), ex);
+        }
+    }
+
+    @Override
+    protected boolean persistOrMerge(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
+    	List<AttributeData> resultAttributes = toPersistAttributes(attributes);
+
+        // Add or update entry
+        try {
+        	ParsedKey parsedKey = toSQLKey(dn);
+            resultAttributes.add(new AttributeData(SqlOperationService.DN, dn));
+            resultAttributes.add(new AttributeData(SqlOperationService.DOC_ID, parsedKey.getKey()));
+
+            // Base implementation persists or merges entry if DB has no upsert statement
+            return getOperationService().addOrUpdateEntry(parsedKey.getKey(), objectClasses[0], resultAttributes);
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist or merge entry: '%s'", dn), ex);
+        }
+    }
+
+    @Override
+    protected void persistAll(List<EntryToPersist> entries) {
+    	// Group entries by table
+    	Map<String, Map<String, Collection<AttributeData>>> tableEntries = new LinkedHashMap<String, Map<String, Collection<AttributeData>>>();
+        for (EntryToPersist entryToPersist : entries) {
+        	String dn = entryToPersist.getDn();
+        	String objectClass = entryToPersist.getObjectClasses()[0];
+
+        	ParsedKey parsedKey;
+        	List<AttributeData> resultAttributes;
+            try {
+            	parsedKey = toSQLKey(dn);
+            	resultAttributes = toPersistAttributes(entryToPersist.getAttributes());
+            } catch (Exception ex) {
+                throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn), ex);
+            }
+            resultAttributes.add(new AttributeData(SqlOperationService.DN, dn));
+            resultAttributes.add(new AttributeData(SqlOperationService.DOC_ID, parsedKey.getKey()));
+
+            Map<String, Collection<AttributeData>> keyEntries = tableEntries.get(objectClass);
+            if (keyEntries == null) {
+            	keyEntries = new LinkedHashMap<String, Collection<AttributeData>>();
+            	tableEntries.put(objectClass, keyEntries);
+            }
+
+            if (keyEntries.put(parsedKey.getKey(), resultAttributes) != null) {
+                throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'. Batch contains entries with same key", dn));
+            }
+        }
+
+        // Persist entries
+        for (Map.Entry<String, Map<String, Collection<AttributeData>>> tableEntry : tableEntries.entrySet()) {
+        	String objectClass = tableEntry.getKey();
+            try {
+                boolean result = getOperationService().addEntries(objectClass, tableEntry.getValue());
+                if (!result) {
+                    throw new EntryPersistenceException(String.format("Failed to persist entries with objectClass: '%s'", objectClass));
+                }
+            } catch (EntryPersistenceException ex) {
+            	throw ex;
+            } catch (Exception ex) {
+                throw new EntryPersistenceException(String.format("Failed to persist entries with objectClass: '%s'", objectClass), ex);
+            }
+        }
+    }
+
+    private List<AttributeData> toPersistAttributes(List<AttributeData> attributes) {
+    	List<AttributeData> resultAttributes = new ArrayList<>(attributes.size() + 2);
         for (AttributeData attribute : attributes) {
             String attributeName = attribute.getName();
             Object[] attributeValues = attribute.getValues();
@@ -202,19 +319,7 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
             }
         }
 
-        // Persist entry
-        try {
-        	ParsedKey parsedKey = toSQLKey(dn);
-            resultAttributes.add(new AttributeData(SqlOperationService.DN, dn));
-            resultAttributes.add(new AttributeData(SqlOperationService.DOC_ID, parsedKey.getKey()));
-
-            boolean result = getOperationService().addEntry(parsedKey.getKey(), objectClasses[0], resultAttributes);
-            if (!result) {
-                throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn));
-            }
-        } catch (Exception ex) {
-            throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn), ex);
-        }
+        return resultAttributes;
     }
 
     @Override
@@ -323,7 +428,11 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
 		}
 
 		// Remove entries by filter
-		return removeImpl(dn, entryClass, filter, count);
+		try {
+			return removeImpl(dn, entryClass, filter, count);
+		} finally {
+			invalidateEntryCache(entryClass);
+		}
 	}
 
     protected <T> int removeImpl(String dn, Class<T> entryClass, Filter filter, int count) {
@@ -331,6 +440,46 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
         checkEntryClass(entryClass, false);
         String[] objectClasses = getTypeObjectClasses(entryClass);
 
+        ParsedKey keyWithInum = toSQLKey(dn);
+        ConvertedExpression convertedExpression = toDeleteExpression(dn, entryClass, objectClasses, filter);
+        
+        try {
+        	int processed = (int) getOperationService().delete(keyWithInum.getKey(), objectClasses[0], convertedExpression, count);
+        	
+        	return processed;
+        } catch (Exception ex) {
+            throw new EntryDeleteException(String.format("Failed to delete entries with key: '%s', expression: '%s'", keyWithInum.getKey(), convertedExpression), ex);
+        }
+    }
+
+    @Override
+	public <T> long removeInBatches(String dn, Class<T> entryClass, Filter filter, int batchSize, long pauseMillis,
+			RemoveProgressListener progressListener) {
+		if (StringHelper.isEmptyString(dn)) {
+			throw new MappingException("Base DN to delete entries is null");
+		}
+		if (batchSize <= 0) {
+			throw new MappingException("Batch size should be greater than 0");
+		}
+
+        // Check entry class
+        checkEntryClass(entryClass, false);
+        String[] objectClasses = getTypeObjectClasses(entryClass);
+
+        ParsedKey keyWithInum = toSQLKey(dn);
+        ConvertedExpression convertedExpression = toDeleteExpression(dn, entryClass, objectClasses, filter);
+
+		// Remove entries by filter in batches
+        try {
+        	return getOperationService().deleteInBatches(keyWithInum.getKey(), objectClasses[0], convertedExpression, batchSize, pauseMillis, progressListener);
+        } catch (Exception ex) {
+            throw new EntryDeleteException(String.format("Failed to delete entries with key: '%s', expression: '%s'", keyWithInum.getKey(), convertedExpression), ex);
+		} finally {
+			invalidateEntryCache(entryClass);
+		}
+	}
+
+    private <T> ConvertedExpression toDeleteExpression(String dn, Class<T> entryClass, String[] objectClasses, Filter filter) {
         Filter searchFilter;
         if (objectClasses.length > 0) {
 			LOG.trace("Filter: {}", filter);
@@ -350,21 +499,11 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
         List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
         Map<String, PropertyAnnotation> propertiesAnnotationsMap = prepareEntryPropertiesTypes(entryClass, propertiesAnnotations);
 
-        ParsedKey keyWithInum = toSQLKey(dn);
-        ConvertedExpression convertedExpression;
 		try {
-			convertedExpression = toSqlFilterWithEmptyAlias(searchFilter, propertiesAnnotationsMap);
+			return toSqlFilterWithEmptyAlias(searchFilter, propertiesAnnotationsMap);
 		} catch (SearchException ex) {
             throw new EntryDeleteException(String.format("Failed to convert filter '%s' to expression", searchFilter), ex);
 		}
-        
-        try {
-        	int processed = (int) getOperationService().delete(keyWithInum.getKey(), objectClasses[0], convertedExpression, count);
-        	
-        	return processed;
-        } catch (Exception ex) {
-            throw new EntryDeleteException(String.format("Failed to delete entries with key: '%s', expression: '%s'", keyWithInum.getKey(), convertedExpression), ex);
-        }
     }
 
 	@Override
@@ -383,6 +522,29 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
         throw new EntryPersistenceException(String.format("Failed to find entry: '%s'", dn));
     }
 
+    @Override
+    protected Map<String, List<AttributeData>> find(List<String> dns, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap,
+            String... ldapReturnAttributes) {
+        try {
+            Map<String, String> dnsByKey = new HashMap<String, String>(dns.size());
+            for (String dn : dns) {
+                dnsByKey.put(toSQLKey(dn).getKey(), dn);
+            }
+
+            // Load entries
+            Map<String, List<AttributeData>> entries = getOperationService().lookup(dnsByKey.keySet(), objectClasses[0], toInternalAttributes(ldapReturnAttributes));
+
+            Map<String, List<AttributeData>> result = new HashMap<String, List<AttributeData>>(entries.size());
+            for (Entry<String, List<AttributeData>> entry : entries.entrySet()) {
+                result.put(dnsByKey.get(entry.getKey()), entry.getValue());
+            }
+
+            return result;
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to find entries: '%s'", dns), ex);
+        }
+    }
+
     @Override
     public <T> List<T> findEntries(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope, String[] ldapReturnAttributes,
                                    BatchOperation<T> batchOperation, int start, int count, int chunkSize) {
@@ -401,6 +563,54 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
         return entries;
     }
 
+    /*
+     * Load pages with keyset pagination, so DB doesn't read entries of previous pages again
+     */
+    @Override
+    public <T> Stream<T> streamEntries(final String baseDN, final Class<T> entryClass, final Filter filter, final SearchScope scope,
+            final String[] ldapReturnAttributes, final int count, int chunkSize) {
+        if (StringHelper.isEmptyString(baseDN)) {
+            throw new MappingException("Base DN to find entries is null");
+        }
+
+        final int pageSize = chunkSize > 0 ? chunkSize : DEFAULT_PAGINATION_SIZE;
+
+        PagedEntriesIterator<T> pagedEntriesIterator = new PagedEntriesIterator<T>() {
+
+            private KeysetPosition position = KeysetPosition.first();
+            private int loaded = 0;
+
+            @Override
+            protected List<T> loadNextPage() {
+                int limit = pageSize;
+                if (count > 0) {
+                    limit = Math.min(pageSize, count - loaded);
+                    if (limit <= 0) {
+                        return null;
+                    }
+                }
+
+                PagedResult<EntryData> searchResult = findEntriesImpl(baseDN, entryClass, filter, scope, ldapReturnAttributes, null, null,
+                        null, SearchReturnDataType.SEARCH, position, 0, limit, 0);
+                loaded += searchResult.getEntriesCount();
+
+                if (searchResult.getContinuationToken() == null) {
+                    finish();
+                } else {
+                    position = getOperationService().getKeysetTokenCodec().decode(searchResult.getContinuationToken());
+                }
+
+                if (searchResult.getEntriesCount() == 0) {
+                    return null;
+                }
+
+                return createEntities(baseDN, entryClass, searchResult);
+            }
+        };
+
+        return pagedEntriesIterator.stream();
+    }
+
     @Override
     public <T> PagedResult<T> findPagedEntries(String baseDN, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes, String sortBy,
             SortOrder sortOrder, int start, int count, int chunkSize) {
@@ -411,10 +621,39 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
         PagedResult<EntryData> searchResult = findEntriesImpl(baseDN, entryClass, filter, SearchScope.SUB, ldapReturnAttributes, sortBy, sortOrder,
                 null, SearchReturnDataType.SEARCH_COUNT, start, count, chunkSize);
 
+        return toPagedResult(baseDN, entryClass, searchResult);
+    }
+
+    /**
+     * Search page of entries which follows entries of previous page. Unlike search with start offset
+     * DB doesn't read skipped entries, so loading of each next page takes same time
+     *
+     * Token is encrypted with key from keyset.token.key property. Without it token can be used only
+     * with entry manager which returned it, so property should be set if there are several nodes
+     *
+     * @param continuationToken Token from previous page result or null to load first page
+     * @return Page of entries and token to load next page
+     */
+    @Override
+    public <T> PagedResult<T> findPagedEntries(String baseDN, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes, String sortBy,
+            SortOrder sortOrder, String continuationToken, int count) {
+        if (StringHelper.isEmptyString(baseDN)) {
+            throw new MappingException("Base DN to find entries is null");
+        }
+
+        KeysetPosition position = getOperationService().getKeysetTokenCodec().decode(continuationToken);
+        PagedResult<EntryData> searchResult = findEntriesImpl(baseDN, entryClass, filter, SearchScope.SUB, ldapReturnAttributes, sortBy, sortOrder,
+                null, SearchReturnDataType.SEARCH, position, 0, count, 0);
+
+        return toPagedResult(baseDN, entryClass, searchResult);
+    }
+
+    private <T> PagedResult<T> toPagedResult(String baseDN, Class<T> entryClass, PagedResult<EntryData> searchResult) {
         PagedResult<T> result = new PagedResult<T>();
         result.setEntriesCount(searchResult.getEntriesCount());
         result.setStart(searchResult.getStart());
         result.setTotalEntriesCount(searchResult.getTotalEntriesCount());
+        result.setContinuationToken(searchResult.getContinuationToken());
 
         if (searchResult.getEntriesCount() == 0) {
             result.setEntries(new ArrayList<T>(0));
@@ -430,6 +669,13 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
     protected <T> PagedResult<EntryData> findEntriesImpl(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope,
             String[] ldapReturnAttributes, String sortBy, SortOrder sortOrder, BatchOperation<T> batchOperation, SearchReturnDataType returnDataType, int start,
             int count, int chunkSize) {
+        return findEntriesImpl(baseDN, entryClass, filter, scope, ldapReturnAttributes, sortBy, sortOrder, batchOperation, returnDataType,
+                null, start, count, chunkSize);
+    }
+
+    private <T> PagedResult<EntryData> findEntriesImpl(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope,
+            String[] ldapReturnAttributes, String sortBy, SortOrder sortOrder, BatchOperation<T> batchOperation, SearchReturnDataType returnDataType,
+            KeysetPosition position, int start, int count, int chunkSize) {
         // Check entry class
         checkEntryClass(entryClass, false);
         String[] objectClasses = getTypeObjectClasses(entryClass);
@@ -437,7 +683,7 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
         List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
         String[] currentLdapReturnAttributes = ldapReturnAttributes;
         if (ArrayHelper.isEmpty(currentLdapReturnAttributes)) {
-            currentLdapReturnAttributes = getAttributes(null, propertiesAnnotations, false);
+            currentLdapReturnAttributes = getEntryReturnAttributes(entryClass, propertiesAnnotations);
         }
 
         Filter searchFilter;
@@ -484,8 +730,13 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
             if (batchOperation != null) {
                 batchOperationWraper = new SqlBatchOperationWraper<T>(batchOperation, this, entryClass, propertiesAnnotations);
             }
-            searchResult = searchImpl(keyWithInum.getKey(), objectClasses[0], convertedExpression, scope, currentLdapReturnAttributes,
-                    defaultSort, batchOperationWraper, returnDataType, start, count, chunkSize);
+            if (position == null) {
+            	searchResult = searchImpl(keyWithInum.getKey(), objectClasses[0], convertedExpression, scope, currentLdapReturnAttributes,
+            			defaultSort, batchOperationWraper, returnDataType, start, count, chunkSize);
+            } else {
+            	searchResult = getOperationService().search(keyWithInum.getKey(), objectClasses[0], convertedExpression, scope,
+            			toInternalAttributes(currentLdapReturnAttributes), defaultSort, batchOperationWraper, returnDataType, position, count, chunkSize);
+            }
 
             if (searchResult == null) {
                 throw new EntryPersistenceException(String.format("Failed to find entries with key: '%s', expression: '%s'", keyWithInum.getKey(), convertedExpression));
@@ -615,7 +866,8 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
             throw new EntryPersistenceException(String.format("Failed to convert filter '%s' to expression", searchFilter));
 		}
 
-		try {
+		// Authentication reads user entry from primary DB
+		try (PrimaryReadsScope primaryReadsScope = startPrimaryReads()) {
             PagedResult<EntryData> searchResult = searchImpl(toSQLKey(baseDN).getKey(), objectClasses[0], convertedExpression,
                     SearchScope.SUB, SqlOperationService.UID_ARRAY, null, null, SearchReturnDataType.SEARCH, 0, 1, 1);
             if ((searchResult == null) || (searchResult.getEntriesCount() != 1)) {
@@ -775,20 +1027,24 @@ public class SqlEntryManager extends BaseEntryManager implements Serializable {
     }
 
     private ConvertedExpression toSqlFilter(Filter genericFilter, Map<String, PropertyAnnotation> propertiesAnnotationsMap) throws SearchException {
-        return filterConverter.convertToSqlFilter(excludeObjectClassFilters(genericFilter), propertiesAnnotationsMap);
+        return filterConverter.convertToSqlFilter(normalizeFilter(genericFilter), propertiesAnnotationsMap);
     }
 
     private ConvertedExpression toSqlFilterWithEmptyAlias(Filter genericFilter, Map<String, PropertyAnnotation> propertiesAnnotationsMap) throws SearchException {
-        return filterConverter.convertToSqlFilter(excludeObjectClassFilters(genericFilter), propertiesAnnotationsMap, true);
+        return filterConverter.convertToSqlFilter(normalizeFilter(genericFilter), propertiesAnnotationsMap, true);
     }
 
     private ConvertedExpression toSqlFilter(Filter genericFilter, Map<String, PropertyAnnotation> propertiesAnnotationsMap, Function<? super Filter, Boolean> processor) throws SearchException {
-        return filterConverter.convertToSqlFilter(excludeObjectClassFilters(genericFilter), propertiesAnnotationsMap, processor);
+        return filterConverter.convertToSqlFilter(normalizeFilter(genericFilter), propertiesAnnotationsMap, processor);
     }
     private ConvertedExpression toSqlFilterWithEmptyAlias(Filter genericFilter, Map<String, PropertyAnnotation> propertiesAnnotationsMap, Function<? super Filter, Boolean> processor) throws SearchException {
-        return filterConverter.convertToSqlFilter(excludeObjectClassFilters(genericFilter), propertiesAnnotationsMap, processor, true);
+        return filterConverter.convertToSqlFilter(normalizeFilter(genericFilter), propertiesAnnotationsMap, processor, true);
     }
 
+	private Filter normalizeFilter(Filter genericFilter) {
+		return filterOptimizer.optimize(excludeObjectClassFilters(genericFilter));
+	}
+
 	private Filter excludeObjectClassFilters(Filter genericFilter) {
 		return filterProcessor.excludeFilter(genericFilter, FilterProcessor.OBJECT_CLASS_EQUALITY_FILTER, FilterProcessor.OBJECT_CLASS_PRESENCE_FILTER);
 	}
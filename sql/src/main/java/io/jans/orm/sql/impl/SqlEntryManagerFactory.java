@@ -18,10 +18,12 @@ import org.slf4j.LoggerFactory;
 
 import io.jans.orm.PersistenceEntryManager;
 import io.jans.orm.PersistenceEntryManagerFactory;
+import io.jans.orm.cache.LruEntryCache;
 import io.jans.orm.exception.operation.ConfigurationException;
 import io.jans.orm.service.BaseFactoryService;
 import io.jans.orm.sql.operation.impl.SqlConnectionProvider;
 import io.jans.orm.sql.operation.impl.SqlOperationServiceImpl;
+import io.jans.orm.sql.operation.watch.OperationDurationUtil;
 import io.jans.orm.util.PropertiesHelper;
 import io.jans.orm.util.StringHelper;
 
@@ -44,6 +46,7 @@ public class SqlEntryManagerFactory implements PersistenceEntryManagerFactory {
 
     @PreDestroy
     public void destroy() {
+    	OperationDurationUtil.instance().removeStatistics();
     }
 
     @Override
@@ -77,6 +80,8 @@ public class SqlEntryManagerFactory implements PersistenceEntryManagerFactory {
         
         SqlEntryManager sqlEntryManager = new SqlEntryManager(new SqlOperationServiceImpl(entryManagerConf, connectionProvider));
         LOG.info("Created SqlEntryManager: {}", sqlEntryManager.getOperationService());
+        sqlEntryManager.setEntryCache(LruEntryCache.create(entryManagerConf));
+        sqlEntryManager.setBatchPrefetchDepth(StringHelper.toInteger(entryManagerConf.getProperty(SqlEntryManager.BATCH_PREFETCH_DEPTH_PROPERTY), 0));
 
         return sqlEntryManager;
     }
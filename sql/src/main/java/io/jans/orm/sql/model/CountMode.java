@@ -0,0 +1,59 @@
+/*
+ * Janssen Project software is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.sql.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.jans.orm.annotation.AttributeEnum;
+
+/**
+ * Method to calculate total count of entries for search with count
+ */
+public enum CountMode implements AttributeEnum {
+
+	/**
+	 * Separate COUNT(*) query
+	 */
+    EXACT("exact"),
+	/**
+	 * COUNT(*) OVER() column in page query if DB supports window functions
+	 */
+    WINDOW("window"),
+	/**
+	 * Table statistics for search without filter or with object class filter only. Count of filtered search is calculated as in WINDOW mode
+	 */
+    APPROXIMATE("approximate");
+
+    private String value;
+
+    private static Map<String, CountMode> MAP_BY_VALUES = new HashMap<String, CountMode>();
+
+    static {
+        for (CountMode enumType : values()) {
+            MAP_BY_VALUES.put(enumType.getValue(), enumType);
+        }
+    }
+
+    CountMode(String value) {
+        this.value = value;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    public static CountMode getByValue(String value) {
+        return MAP_BY_VALUES.get(value);
+    }
+
+    @Override
+    public CountMode resolveByValue(String value) {
+        return getByValue(value);
+    }
+}
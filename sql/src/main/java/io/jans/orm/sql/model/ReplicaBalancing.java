@@ -0,0 +1,55 @@
+/*
+ * Janssen Project software is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.sql.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.jans.orm.annotation.AttributeEnum;
+
+/**
+ * Method to select read replica for read operation
+ */
+public enum ReplicaBalancing implements AttributeEnum {
+
+	/**
+	 * Use replicas one by one
+	 */
+    ROUND_ROBIN("round-robin"),
+	/**
+	 * Use replica with lowest count of active connections
+	 */
+    LEAST_LOADED("least-loaded");
+
+    private String value;
+
+    private static Map<String, ReplicaBalancing> MAP_BY_VALUES = new HashMap<String, ReplicaBalancing>();
+
+    static {
+        for (ReplicaBalancing enumType : values()) {
+            MAP_BY_VALUES.put(enumType.getValue(), enumType);
+        }
+    }
+
+    ReplicaBalancing(String value) {
+        this.value = value;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    public static ReplicaBalancing getByValue(String value) {
+        return MAP_BY_VALUES.get(value);
+    }
+
+    @Override
+    public ReplicaBalancing resolveByValue(String value) {
+        return getByValue(value);
+    }
+}
@@ -10,6 +10,7 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import com.querydsl.core.types.OrderSpecifier;
 
@@ -19,10 +20,13 @@ import io.jans.orm.exception.operation.EntryConvertationException;
 import io.jans.orm.exception.operation.EntryNotFoundException;
 import io.jans.orm.exception.operation.PersistenceException;
 import io.jans.orm.exception.operation.SearchException;
+import io.jans.orm.impl.model.KeysetPosition;
+import io.jans.orm.impl.model.KeysetTokenCodec;
 import io.jans.orm.model.AttributeData;
 import io.jans.orm.model.AttributeDataModification;
 import io.jans.orm.model.EntryData;
 import io.jans.orm.model.PagedResult;
+import io.jans.orm.model.RemoveProgressListener;
 import io.jans.orm.model.SearchScope;
 import io.jans.orm.operation.PersistenceOperationService;
 import io.jans.orm.sql.impl.SqlBatchOperationWraper;
@@ -52,21 +56,53 @@ public interface SqlOperationService extends PersistenceOperationService {
 
     SqlConnectionProvider getConnectionProvider();
 
+    KeysetTokenCodec getKeysetTokenCodec();
+
     boolean addEntry(String key, String objectClass, Collection<AttributeData> attributes) throws DuplicateEntryException, PersistenceException;
 
+    boolean addEntries(String objectClass, Map<String, Collection<AttributeData>> entries) throws DuplicateEntryException, PersistenceException;
+
+    /**
+     * Add entry or update existing entry columns with one statement
+     *
+     * @return False if DB has no upsert statement or entry wasn't written
+     */
+    boolean addOrUpdateEntry(String key, String objectClass, Collection<AttributeData> attributes) throws PersistenceException;
+
     boolean updateEntry(String key, String objectClass, List<AttributeDataModification> mods) throws UnsupportedOperationException, PersistenceException;
 
     boolean delete(String key, String objectClass) throws EntryNotFoundException;
 	long delete(String key, String objectClass, ConvertedExpression expression, int count) throws DeleteException;
 
+	/**
+	 * Delete entries in batches ordered by primary key. Each batch selects keys of matched rows and
+	 * deletes these rows by keys in separate statement
+	 *
+	 * @param pauseMillis Pause between batches in milliseconds
+	 * @param progressListener Listener which is called after each batch. It can be null
+	 * @return Count of deleted entries
+	 */
+	long deleteInBatches(String key, String objectClass, ConvertedExpression expression, int batchSize, long pauseMillis,
+			RemoveProgressListener progressListener) throws DeleteException;
+
 	boolean deleteRecursively(String key, String objectClass) throws EntryNotFoundException, SearchException;
 
 	List<AttributeData> lookup(String key, String objectClass, String... attributes) throws SearchException, EntryConvertationException;
 
+	Map<String, List<AttributeData>> lookup(Collection<String> keys, String objectClass, String... attributes) throws SearchException, EntryConvertationException;
+
     <O> PagedResult<EntryData> search(String key, String objectClass, ConvertedExpression expression, SearchScope scope,
             String[] attributes, OrderSpecifier<?>[] orderBy, SqlBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType,
             int start, int count, int pageSize) throws SearchException;
 
+    /**
+     * Search entries after specified position. Entries are sorted by requested sort and doc_id to
+     * continue from last returned entry without offset
+     */
+    <O> PagedResult<EntryData> search(String key, String objectClass, ConvertedExpression expression, SearchScope scope,
+            String[] attributes, OrderSpecifier<?>[] orderBy, SqlBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType,
+            KeysetPosition position, int count, int pageSize) throws SearchException;
+
     String[] createStoragePassword(String[] passwords);
     
     boolean isBinaryAttribute(String attribute);
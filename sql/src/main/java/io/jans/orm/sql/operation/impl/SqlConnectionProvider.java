@@ -13,16 +13,19 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.dbcp2.ConnectionFactory;
 import org.apache.commons.dbcp2.DriverManagerConnectionFactory;
 import org.apache.commons.dbcp2.PoolableConnection;
 import org.apache.commons.dbcp2.PoolableConnectionFactory;
 import org.apache.commons.dbcp2.PoolingDataSource;
-import org.apache.commons.pool2.ObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.slf4j.Logger;
@@ -39,11 +42,15 @@ import io.jans.orm.exception.operation.ConfigurationException;
 import io.jans.orm.exception.operation.ConnectionException;
 import io.jans.orm.operation.auth.PasswordEncryptionMethod;
 import io.jans.orm.sql.dsl.template.SqlJsonMySQLTemplates;
+import io.jans.orm.sql.model.ReplicaBalancing;
 import io.jans.orm.sql.model.ResultCode;
 import io.jans.orm.sql.model.TableMapping;
+import io.jans.orm.sql.operation.watch.SqlConnectionPoolStatistics;
 import io.jans.orm.util.ArrayHelper;
 import io.jans.orm.util.PropertiesHelper;
 import io.jans.orm.util.StringHelper;
+import io.jans.orm.watch.ConnectionPoolStatisticsMXBean;
+import io.jans.orm.watch.OperationMetrics;
 
 /**
  * Perform connection pool initialization
@@ -63,6 +70,14 @@ public class SqlConnectionProvider {
 
     private GenericObjectPoolConfig<PoolableConnection> objectPoolConfig;
     private PoolingDataSource<PoolableConnection> poolingDataSource;
+    private int maxOpenPreparedStatements;
+
+    private ConnectionPool primaryPool;
+    private List<ConnectionPool> replicaPools;
+    private ReplicaBalancing replicaBalancing;
+    private Set<String> primaryObjectClasses;
+    private final AtomicInteger replicaCounter = new AtomicInteger();
+    private final ThreadLocal<Integer> primaryReadsDepth = new ThreadLocal<Integer>();
 
     private int creationResultCode;
 
@@ -71,6 +86,8 @@ public class SqlConnectionProvider {
     private PasswordEncryptionMethod passwordEncryptionMethod;
 
 	private String dbType;
+	private int dbMajorVersion;
+	private String dbVersion;
 	private String schemaName;
 
 	private SQLTemplates sqlTemplates;
@@ -131,35 +148,20 @@ public class SqlConnectionProvider {
         connectionProperties.setProperty("password", userPassword);
 
 		this.objectPoolConfig = new GenericObjectPoolConfig<>();
+		applyPoolProperties(props, objectPoolConfig);
 
-        Integer cpMaxTotal = StringHelper.toInteger(props.getProperty("connection.pool.max-total"), null);
-        if (cpMaxTotal != null) {
-        	objectPoolConfig.setMaxTotal(cpMaxTotal);
-        }
+        // Pool prepared statements per connection to reuse cached search statements. Disabled by default
+        this.maxOpenPreparedStatements = StringHelper.toInt(props.getProperty("connection.pool.max-open-prepared-statements"), 0);
 
-        Integer cpMaxIdle = StringHelper.toInteger(props.getProperty("connection.pool.max-idle"), null);
-        if (cpMaxIdle != null) {
-        	objectPoolConfig.setMaxIdle(cpMaxIdle);
-        }
-
-        Integer cpMinIdle = StringHelper.toInteger(props.getProperty("connection.pool.min-idle"), null);
-        if (cpMinIdle != null) {
-        	objectPoolConfig.setMinIdle(cpMinIdle);
-        }
+        openWithWaitImpl();
+        LOG.info("Created connection pool");
 
-        Integer cpMaxWaitTimeMillis = StringHelper.toInteger(props.getProperty("connection.pool.max-wait-time-millis"), null);
-        if (cpMaxWaitTimeMillis != null) {
-        	objectPoolConfig.setMaxWaitMillis(cpMaxWaitTimeMillis);
-        }
+        openReplicas();
 
-        Integer cpMinEvictableIdleTimeMillis = StringHelper.toInteger(props.getProperty("connection.pool.min-evictable-idle-time-millis"), null);
-        if (cpMaxWaitTimeMillis != null) {
-        	objectPoolConfig.setMinEvictableIdleTimeMillis(cpMinEvictableIdleTimeMillis);
+        for (ConnectionPool pool : getPools()) {
+        	OperationMetrics.instance().registerConnectionPool(pool.getStatistics());
         }
 
-        openWithWaitImpl();
-        LOG.info("Created connection pool");
-
         if (props.containsKey("password.encryption.method")) {
             this.passwordEncryptionMethod = PasswordEncryptionMethod.getMethod(props.getProperty("password.encryption.method"));
         } else {
@@ -183,7 +185,9 @@ public class SqlConnectionProvider {
         try (Connection con = this.poolingDataSource.getConnection()) {
         	DatabaseMetaData databaseMetaData = con.getMetaData();
         	this.dbType = databaseMetaData.getDatabaseProductName().toLowerCase();
-            LOG.debug("Database product name: '{}'", dbType);
+        	this.dbMajorVersion = databaseMetaData.getDatabaseMajorVersion();
+        	this.dbVersion = databaseMetaData.getDatabaseProductVersion();
+            LOG.debug("Database product name: '{}', version: '{}'", dbType, dbVersion);
             loadTableMetaData(databaseMetaData);
         } catch (Exception ex) {
             throw new ConnectionException("Failed to detect database product name", ex);
@@ -192,6 +196,80 @@ public class SqlConnectionProvider {
         this.creationResultCode = ResultCode.SUCCESS_INT_VALUE;
     }
 
+    private void applyPoolProperties(Properties poolProps, GenericObjectPoolConfig<PoolableConnection> poolConfig) {
+        Integer cpMaxTotal = StringHelper.toInteger(poolProps.getProperty("connection.pool.max-total"), null);
+        if (cpMaxTotal != null) {
+        	poolConfig.setMaxTotal(cpMaxTotal);
+        }
+
+        Integer cpMaxIdle = StringHelper.toInteger(poolProps.getProperty("connection.pool.max-idle"), null);
+        if (cpMaxIdle != null) {
+        	poolConfig.setMaxIdle(cpMaxIdle);
+        }
+
+        Integer cpMinIdle = StringHelper.toInteger(poolProps.getProperty("connection.pool.min-idle"), null);
+        if (cpMinIdle != null) {
+        	poolConfig.setMinIdle(cpMinIdle);
+        }
+
+        Integer cpMaxWaitTimeMillis = StringHelper.toInteger(poolProps.getProperty("connection.pool.max-wait-time-millis"), null);
+        if (cpMaxWaitTimeMillis != null) {
+        	poolConfig.setMaxWaitMillis(cpMaxWaitTimeMillis);
+        }
+
+        Integer cpMinEvictableIdleTimeMillis = StringHelper.toInteger(poolProps.getProperty("connection.pool.min-evictable-idle-time-millis"), null);
+        if (cpMinEvictableIdleTimeMillis != null) {
+        	poolConfig.setMinEvictableIdleTimeMillis(cpMinEvictableIdleTimeMillis);
+        }
+    }
+
+    /**
+     * Change primary and replica pools settings at runtime. It accepts same connection.pool.* properties
+     * as initial configuration. Properties which are not specified keep current values.
+     *
+     * Pools don't close borrowed connections. If pool size is reduced, extra connections are closed when
+     * these are returned to pool
+     */
+    public synchronized void reconfigurePool(Properties poolProps) {
+    	GenericObjectPoolConfig<PoolableConnection> newObjectPoolConfig = objectPoolConfig.clone();
+    	applyPoolProperties(poolProps, newObjectPoolConfig);
+    	this.objectPoolConfig = newObjectPoolConfig;
+
+    	for (ConnectionPool pool : getPools()) {
+    		pool.getPool().setConfig(newObjectPoolConfig);
+    		try {
+    			// Create idle connections if min-idle was increased
+				pool.getPool().preparePool();
+			} catch (Exception ex) {
+				LOG.warn("Failed to create idle connections in pool '{}'", pool.getStatistics().getName(), ex);
+			}
+    	}
+
+    	LOG.info("Reconfigured connection pools. Max total: '{}', max idle: '{}', min idle: '{}', max wait: '{}'", newObjectPoolConfig.getMaxTotal(),
+    			newObjectPoolConfig.getMaxIdle(), newObjectPoolConfig.getMinIdle(), newObjectPoolConfig.getMaxWaitMillis());
+    }
+
+    private List<ConnectionPool> getPools() {
+    	List<ConnectionPool> pools = new ArrayList<ConnectionPool>();
+    	if (primaryPool != null) {
+    		pools.add(primaryPool);
+    	}
+    	if (replicaPools != null) {
+    		pools.addAll(replicaPools);
+    	}
+
+    	return pools;
+    }
+
+    public List<ConnectionPoolStatisticsMXBean> getPoolStatistics() {
+    	List<ConnectionPoolStatisticsMXBean> result = new ArrayList<ConnectionPoolStatisticsMXBean>();
+    	for (ConnectionPool pool : getPools()) {
+    		result.add(pool.getStatistics());
+    	}
+
+    	return result;
+    }
+
     private void loadTableMetaData(DatabaseMetaData databaseMetaData) throws SQLException {
         LOG.info("Scanning DB metadata...");
 
@@ -272,19 +350,80 @@ public class SqlConnectionProvider {
     }
 
     private void open() {
-		ConnectionFactory connectionFactory = new DriverManagerConnectionFactory(connectionUri, connectionProperties);
+		this.primaryPool = createPool("primary", connectionUri);
+		this.poolingDataSource = primaryPool.getDataSource();
+    }
+
+    /*
+     * Replicas use same credentials, driver properties and pool configuration as primary DB.
+     * Replica pools are created lazily by DBCP, so unavailable replica doesn't prevent startup
+     */
+    private void openReplicas() {
+        this.replicaPools = new ArrayList<ConnectionPool>();
+        if (props.containsKey("connection.replica.uris")) {
+            String[] replicaUris = StringHelper.split(props.getProperty("connection.replica.uris"), ",");
+            for (String replicaUri : replicaUris) {
+                if (StringHelper.isNotEmpty(replicaUri)) {
+                    replicaPools.add(createPool("replica-" + (replicaPools.size() + 1), replicaUri));
+                }
+            }
+        }
+
+        this.replicaBalancing = ReplicaBalancing.getByValue(StringHelper.toLowerCase(props.getProperty("connection.replica.balancing")));
+        if (this.replicaBalancing == null) {
+            this.replicaBalancing = ReplicaBalancing.ROUND_ROBIN;
+        }
+
+        this.primaryObjectClasses = new HashSet<String>();
+        if (props.containsKey("connection.replica.primary-object-classes")) {
+            String[] objectClasses = StringHelper.split(props.getProperty("connection.replica.primary-object-classes").toLowerCase(), ",");
+            this.primaryObjectClasses.addAll(Arrays.asList(objectClasses));
+        }
+
+        if (replicaPools.size() > 0) {
+            LOG.info("Created '{}' read replica connection pools. Balancing: '{}'", replicaPools.size(), replicaBalancing.getValue());
+        }
+    }
+
+    private ConnectionPool createPool(String name, String uri) {
+		MonitoredConnectionFactory connectionFactory = new MonitoredConnectionFactory(new DriverManagerConnectionFactory(uri, connectionProperties));
 		PoolableConnectionFactory poolableConnectionFactory = new PoolableConnectionFactory(connectionFactory, null);
-		ObjectPool<PoolableConnection> objectPool = new GenericObjectPool<>(poolableConnectionFactory, objectPoolConfig);
+		if (maxOpenPreparedStatements > 0) {
+			poolableConnectionFactory.setPoolStatements(true);
+			poolableConnectionFactory.setMaxOpenPreparedStatements(maxOpenPreparedStatements);
+		}
+		GenericObjectPool<PoolableConnection> objectPool = new GenericObjectPool<>(poolableConnectionFactory, objectPoolConfig);
 
-		this.poolingDataSource = new PoolingDataSource<>(objectPool);
+		PoolingDataSource<PoolableConnection> dataSource = new PoolingDataSource<>(objectPool);
 		poolableConnectionFactory.setPool(objectPool);
+
+		SqlConnectionPoolStatistics statistics = new SqlConnectionPoolStatistics(name, objectPool);
+		connectionFactory.setStatistics(statistics);
+
+		return new ConnectionPool(objectPool, dataSource, statistics);
     }
 
 	public boolean destroy() {
+		for (ConnectionPool pool : getPools()) {
+			OperationMetrics.instance().unregisterConnectionPool(pool.getStatistics());
+		}
+
+		boolean result = closeDataSource(this.poolingDataSource);
+
+		if (this.replicaPools != null) {
+			for (ConnectionPool replicaPool : replicaPools) {
+				result &= closeDataSource(replicaPool.getDataSource());
+			}
+		}
+
+		return result;
+	}
+
+	private boolean closeDataSource(PoolingDataSource<PoolableConnection> dataSource) {
 		boolean result = true;
-		if (this.poolingDataSource != null) {
+		if (dataSource != null) {
 			try {
-				this.poolingDataSource.close();
+				dataSource.close();
 			} catch (RuntimeException ex) {
 				LOG.error("Failed to close connection pool", ex);
 				result = false;
@@ -349,6 +488,18 @@ public class SqlConnectionProvider {
         return passwordEncryptionMethod;
     }
 
+	public String getDbType() {
+		return dbType;
+	}
+
+	public int getDbMajorVersion() {
+		return dbMajorVersion;
+	}
+
+	public String getDbVersion() {
+		return dbVersion;
+	}
+
 	public String getSchemaName() {
 		return schemaName;
 	}
@@ -382,6 +533,81 @@ public class SqlConnectionProvider {
 		}
 	}
 
+	/**
+	 * Get connection for read operation. Connection is taken from read replica pool if replicas are configured,
+	 * object class is not marked to be read from primary DB and current thread is not in primary reads scope.
+	 * Primary DB connection is returned if replica is not available
+	 */
+	public Connection getReadConnection(String objectClass) {
+		ConnectionPool replicaPool = selectReplica(objectClass);
+		if (replicaPool == null) {
+			return getConnection();
+		}
+
+		try {
+			return replicaPool.getDataSource().getConnection();
+		} catch (SQLException ex) {
+			LOG.warn("Failed to get connection from read replica '{}' pool. Using primary DB", replicaPool.getStatistics().getName(), ex);
+			return getConnection();
+		}
+	}
+
+	private ConnectionPool selectReplica(String objectClass) {
+		if ((replicaPools == null) || replicaPools.isEmpty() || isPrimaryReads()) {
+			return null;
+		}
+
+		if ((objectClass != null) && primaryObjectClasses.contains(objectClass.toLowerCase())) {
+			return null;
+		}
+
+		if (ReplicaBalancing.LEAST_LOADED == replicaBalancing) {
+			ConnectionPool result = null;
+			int minActive = Integer.MAX_VALUE;
+			for (ConnectionPool replicaPool : replicaPools) {
+				int active = replicaPool.getPool().getNumActive();
+				if (active < minActive) {
+					minActive = active;
+					result = replicaPool;
+				}
+			}
+
+			return result;
+		}
+
+		int index = (replicaCounter.getAndIncrement() & Integer.MAX_VALUE) % replicaPools.size();
+
+		return replicaPools.get(index);
+	}
+
+	public boolean hasReplicas() {
+		return (replicaPools != null) && !replicaPools.isEmpty();
+	}
+
+	/**
+	 * Start scope in which all reads of current thread use primary DB. It allows to read own writes
+	 * which are not replicated yet. Scopes can be nested
+	 */
+	public PrimaryReadsScope startPrimaryReads() {
+		Integer depth = primaryReadsDepth.get();
+		primaryReadsDepth.set(depth == null ? 1 : depth + 1);
+
+		return new PrimaryReadsScope();
+	}
+
+	private void endPrimaryReads() {
+		Integer depth = primaryReadsDepth.get();
+		if ((depth == null) || (depth <= 1)) {
+			primaryReadsDepth.remove();
+		} else {
+			primaryReadsDepth.set(depth - 1);
+		}
+	}
+
+	public boolean isPrimaryReads() {
+		return primaryReadsDepth.get() != null;
+	}
+
 	public DatabaseMetaData getDatabaseMetaData() {
         try (Connection con = this.poolingDataSource.getConnection()) {
         	DatabaseMetaData databaseMetaData = con.getMetaData();
@@ -391,4 +617,81 @@ public class SqlConnectionProvider {
         }
 	}
 	
+	/**
+	 * Scope of reads from primary DB. Should be closed in same thread
+	 */
+	public class PrimaryReadsScope implements AutoCloseable {
+
+		private boolean closed;
+
+		private PrimaryReadsScope() {
+		}
+
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				endPrimaryReads();
+			}
+		}
+
+	}
+
+	private static class ConnectionPool {
+
+		private final GenericObjectPool<PoolableConnection> pool;
+		private final PoolingDataSource<PoolableConnection> dataSource;
+		private final SqlConnectionPoolStatistics statistics;
+
+		public ConnectionPool(GenericObjectPool<PoolableConnection> pool, PoolingDataSource<PoolableConnection> dataSource,
+				SqlConnectionPoolStatistics statistics) {
+			this.pool = pool;
+			this.dataSource = dataSource;
+			this.statistics = statistics;
+		}
+
+		public GenericObjectPool<PoolableConnection> getPool() {
+			return pool;
+		}
+
+		public PoolingDataSource<PoolableConnection> getDataSource() {
+			return dataSource;
+		}
+
+		public SqlConnectionPoolStatistics getStatistics() {
+			return statistics;
+		}
+
+	}
+
+	/*
+	 * Counts failed attempts to open new connection
+	 */
+	private static class MonitoredConnectionFactory implements ConnectionFactory {
+
+		private final ConnectionFactory connectionFactory;
+		private SqlConnectionPoolStatistics statistics;
+
+		public MonitoredConnectionFactory(ConnectionFactory connectionFactory) {
+			this.connectionFactory = connectionFactory;
+		}
+
+		public void setStatistics(SqlConnectionPoolStatistics statistics) {
+			this.statistics = statistics;
+		}
+
+		@Override
+		public Connection createConnection() throws SQLException {
+			try {
+				return connectionFactory.createConnection();
+			} catch (SQLException | RuntimeException ex) {
+				if (statistics != null) {
+					statistics.recordCreationError();
+				}
+				throw ex;
+			}
+		}
+
+	}
+
 }
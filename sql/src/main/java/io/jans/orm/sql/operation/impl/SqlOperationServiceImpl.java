@@ -8,15 +8,15 @@ package io.jans.orm.sql.operation.impl;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -27,8 +27,12 @@ import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.querydsl.core.QueryException;
+import com.querydsl.core.types.Constant;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Order;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Path;
 import com.querydsl.core.types.Predicate;
@@ -39,6 +43,7 @@ import com.querydsl.sql.SQLQuery;
 import com.querydsl.sql.SQLQueryFactory;
 import com.querydsl.sql.dml.SQLDeleteClause;
 import com.querydsl.sql.dml.SQLInsertClause;
+import com.querydsl.sql.dml.SQLMergeClause;
 import com.querydsl.sql.dml.SQLUpdateClause;
 
 import io.jans.orm.exception.MappingException;
@@ -49,23 +54,34 @@ import io.jans.orm.exception.operation.EntryConvertationException;
 import io.jans.orm.exception.operation.EntryNotFoundException;
 import io.jans.orm.exception.operation.PersistenceException;
 import io.jans.orm.exception.operation.SearchException;
+import io.jans.orm.impl.BatchOperationPipeline;
+import io.jans.orm.impl.model.KeysetPosition;
+import io.jans.orm.impl.model.KeysetTokenCodec;
 import io.jans.orm.model.AttributeData;
 import io.jans.orm.model.AttributeDataModification;
 import io.jans.orm.model.AttributeDataModification.AttributeModificationType;
 import io.jans.orm.model.BatchOperation;
 import io.jans.orm.model.EntryData;
 import io.jans.orm.model.PagedResult;
+import io.jans.orm.model.RemoveProgressListener;
 import io.jans.orm.model.SearchScope;
 import io.jans.orm.operation.auth.PasswordEncryptionHelper;
 import io.jans.orm.sql.impl.SqlBatchOperationWraper;
 import io.jans.orm.sql.model.ConvertedExpression;
+import io.jans.orm.sql.model.CountMode;
 import io.jans.orm.sql.model.JsonAttributeValue;
 import io.jans.orm.sql.model.SearchReturnDataType;
 import io.jans.orm.sql.model.TableMapping;
 import io.jans.orm.sql.operation.SqlOperationService;
+import io.jans.orm.sql.operation.impl.SqlConnectionProvider.PrimaryReadsScope;
+import io.jans.orm.sql.operation.impl.SqlStatementCache.BoundStatement;
 import io.jans.orm.sql.operation.watch.OperationDurationUtil;
 import io.jans.orm.util.ArrayHelper;
 import io.jans.orm.util.StringHelper;
+import io.jans.orm.util.ThreadHelper;
+import io.jans.orm.watch.OperationTimer;
+import io.jans.orm.watch.SlowOperation;
+import io.jans.orm.watch.SlowOperationLog;
 
 /**
  * Base service which performs all supported SQL operations
@@ -78,6 +94,26 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 
 	private static final ObjectMapper JSON_OBJECT_MAPPER = new ObjectMapper();
 
+	private static final int MAX_LOOKUP_KEYS = 500;
+
+	/**
+	 * Fetch size of single query which reads all pages of paged search. Query keeps connection
+	 * and open result set until last page is processed, batch operation action of each page runs
+	 * meanwhile. Actions which write entries use another connection from pool
+	 */
+	public static final String STREAMING_FETCH_SIZE_PROPERTY = "streaming.fetchSize";
+	public static final String COUNT_MODE_PROPERTY = "count.mode";
+	/**
+	 * Secret to encrypt continuation tokens of keyset pagination. All nodes which serve same
+	 * clients should have same value, otherwise tokens are valid only on node which issued them
+	 */
+	public static final String KEYSET_TOKEN_KEY_PROPERTY = KeysetTokenCodec.KEY_PROPERTY;
+
+	static final String WINDOW_COUNT_COLUMN = "jans_total_count";
+
+	private static final Expression<?> COUNT_EXPRESSION = Expressions.as(ExpressionUtils.count(Wildcard.all), "TOTAL");
+	private static final Expression<?> WINDOW_COUNT_EXPRESSION = Expressions.as(Expressions.numberTemplate(Long.class, "count(*) over()"), WINDOW_COUNT_COLUMN);
+
     private Properties props;
     private SqlConnectionProvider connectionProvider;
 
@@ -91,6 +127,18 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 
 	private Path<String> docAlias = ExpressionUtils.path(String.class, DOC_ALIAS);
 
+	private SlowOperationLog slowOperationLog;
+
+	private boolean jsonFormatClause;
+
+	private SqlStatementCache statementCache;
+	private KeysetTokenCodec keysetTokenCodec;
+
+	private int streamingFetchSize;
+
+	private CountMode countMode;
+	private boolean windowCount;
+
     @SuppressWarnings("unused")
     private SqlOperationServiceImpl() {
     }
@@ -104,6 +152,21 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 	private void init() {
 		this.sqlQueryFactory = connectionProvider.getSqlQueryFactory();
 		this.schemaName = connectionProvider.getSchemaName();
+		this.slowOperationLog = SlowOperationLog.create("SQL", props);
+		this.statementCache = SqlStatementCache.create(sqlQueryFactory, props);
+		this.keysetTokenCodec = KeysetTokenCodec.create(props);
+		// Search with page size reads all pages by single streaming query if fetch size is specified
+		this.streamingFetchSize = StringHelper.toInt(props.getProperty(STREAMING_FETCH_SIZE_PROPERTY), 0);
+		this.countMode = CountMode.getByValue(StringHelper.toLowerCase(props.getProperty(COUNT_MODE_PROPERTY)));
+		if (this.countMode == null) {
+			this.countMode = CountMode.EXACT;
+		}
+		// Window functions are supported since MySQL 8.0
+		String dbType = connectionProvider.getDbType();
+		boolean windowFunctions = ("mysql".equals(dbType) && (connectionProvider.getDbMajorVersion() >= 8)) || "postgresql".equals(dbType) || "h2".equals(dbType);
+		this.windowCount = (CountMode.EXACT != this.countMode) && windowFunctions;
+		// H2 stores character string as JSON string if value is not marked as JSON text
+		this.jsonFormatClause = "h2".equals(connectionProvider.getDbType());
 	}
 
     @Override
@@ -111,6 +174,11 @@ public class SqlOperationServiceImpl implements SqlOperationService {
         return connectionProvider;
     }
 
+    @Override
+    public KeysetTokenCodec getKeysetTokenCodec() {
+        return keysetTokenCodec;
+    }
+
     @Override
     public boolean authenticate(String key, String password, String objectClass) throws SearchException {
         return authenticateImpl(key, password, objectClass);
@@ -122,7 +190,11 @@ public class SqlOperationServiceImpl implements SqlOperationService {
         boolean result = false;
         if (password != null) {
 	        try {
-		        List<AttributeData> attributes = lookup(key, objectClass, USER_PASSWORD);
+		        // Password can be changed recently, so it's verified against primary DB
+		        List<AttributeData> attributes;
+		        try (PrimaryReadsScope primaryReadsScope = connectionProvider.startPrimaryReads()) {
+		        	attributes = lookup(key, objectClass, USER_PASSWORD);
+		        }
 		        
 		        Object userPasswordObj = null;
 		        for (AttributeData attribute : attributes) {
@@ -153,21 +225,23 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
         OperationDurationUtil.instance().logDebug("SQL operation: bind, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
+        OperationDurationUtil.instance().record("bind", tableMapping.getTableName(), duration);
 
         return result;
     }
 
     @Override
     public boolean addEntry(String key, String objectClass, Collection<AttributeData> attributes) throws DuplicateEntryException, PersistenceException {
-        Instant startTime = OperationDurationUtil.instance().now();
-
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = addEntryImpl(tableMapping, key, attributes);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("add", tableMapping.getTableName())) {
+            boolean result = addEntryImpl(tableMapping, key, attributes);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("SQL operation: add, duration: {}, table: {}, key: {}, attributes: {}", duration, tableMapping.getTableName(), key, attributes);
-        
-        return result;
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("SQL operation: add, duration: {}, table: {}, key: {}, attributes: {}", duration, tableMapping.getTableName(), key, attributes);
+            slowOperationLog.logIfSlow("add", tableMapping.getTableName(), duration, -1);
+
+            return result;
+        }
     }
 
 	private boolean addEntryImpl(TableMapping tableMapping, String key, Collection<AttributeData> attributes) throws PersistenceException {
@@ -177,17 +251,7 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 			RelationalPathBase<Object> tableRelationalPath = buildTableRelationalPath(tableMapping);
 			SQLInsertClause sqlInsertQuery = this.sqlQueryFactory.insert(tableRelationalPath);
 
-			for (AttributeData attribute : attributes) {
-				String attributeType = columTypes.get(attribute.getName().toLowerCase());
-				boolean multiValued = (attributeType != null) && "json".equals(attributeType);
-
-				sqlInsertQuery.columns(Expressions.stringPath(attribute.getName()));
-				if (multiValued || Boolean.TRUE.equals(attribute.getMultiValued())) {
-					sqlInsertQuery.values(convertValueToDbJson(attribute.getValues()));
-				} else {
-					sqlInsertQuery.values(attribute.getValue());
-				}
-			}
+			addInsertValues(sqlInsertQuery, columTypes, attributes);
 			
 			long rowInserted = sqlInsertQuery.execute();
 
@@ -197,17 +261,132 @@ public class SqlOperationServiceImpl implements SqlOperationService {
         }
 	}
 
+    @Override
+    public boolean addEntries(String objectClass, Map<String, Collection<AttributeData>> entries) throws DuplicateEntryException, PersistenceException {
+    	if (entries.isEmpty()) {
+    		return true;
+    	}
+
+        TableMapping tableMapping = connectionProvider.getTableMappingByKey(entries.keySet().iterator().next(), objectClass);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("add_batch", tableMapping.getTableName())) {
+            boolean result = addEntriesImpl(tableMapping, entries.values());
+
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("SQL operation: add_batch, duration: {}, table: {}, keys: {}", duration, tableMapping.getTableName(), entries.keySet());
+
+            return result;
+        }
+    }
+
+	private boolean addEntriesImpl(TableMapping tableMapping, Collection<Collection<AttributeData>> entries) throws PersistenceException {
+		try {
+			Map<String, String> columTypes = tableMapping.getColumTypes();
+
+			RelationalPathBase<Object> tableRelationalPath = buildTableRelationalPath(tableMapping);
+			SQLInsertClause sqlInsertQuery = this.sqlQueryFactory.insert(tableRelationalPath);
+
+			// Entries with same columns set are sent in one JDBC batch
+			for (Collection<AttributeData> attributes : entries) {
+				addInsertValues(sqlInsertQuery, columTypes, attributes);
+				sqlInsertQuery.addBatch();
+			}
+
+			long rowInserted = sqlInsertQuery.execute();
+
+			// Some drivers return Statement.SUCCESS_NO_INFO for rewritten batch statements
+			return (rowInserted == entries.size()) || (rowInserted < 0);
+        } catch (QueryException ex) {
+            throw new PersistenceException("Failed to add entries", ex);
+        }
+	}
+
+	private void addInsertValues(SQLInsertClause sqlInsertQuery, Map<String, String> columTypes, Collection<AttributeData> attributes) {
+		for (AttributeData attribute : attributes) {
+			sqlInsertQuery.columns(Expressions.stringPath(attribute.getName()));
+			sqlInsertQuery.values(toInsertValue(columTypes, attribute));
+		}
+	}
+
+	private Object toInsertValue(Map<String, String> columTypes, AttributeData attribute) {
+		String attributeType = columTypes.get(attribute.getName().toLowerCase());
+		boolean multiValued = (attributeType != null) && "json".equals(attributeType);
+
+		if (multiValued || Boolean.TRUE.equals(attribute.getMultiValued())) {
+			return toDbJsonValue(attribute.getValues());
+		}
+
+		return attribute.getValue();
+	}
+
+    @Override
+    public boolean addOrUpdateEntry(String key, String objectClass, Collection<AttributeData> attributes) throws PersistenceException {
+        TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("add_or_update", tableMapping.getTableName())) {
+            boolean result = addOrUpdateEntryImpl(tableMapping, attributes);
+
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("SQL operation: add_or_update, duration: {}, table: {}, key: {}, attributes: {}", duration, tableMapping.getTableName(), key, attributes);
+
+            return result;
+        }
+    }
+
+	/*
+	 * Insert row or update columns of existing row with same doc_id: INSERT ... ON DUPLICATE KEY UPDATE in MySQL,
+	 * INSERT ... ON CONFLICT DO UPDATE in PostgreSQL and MERGE in H2
+	 *
+	 * @return False if DB has no upsert statement
+	 */
+	private boolean addOrUpdateEntryImpl(TableMapping tableMapping, Collection<AttributeData> attributes) throws PersistenceException {
+		String dbType = connectionProvider.getDbType();
+		if (!"h2".equals(dbType) && !SqlUpsertClause.isSupported(dbType)) {
+			return false;
+		}
+
+		try {
+			Map<String, String> columTypes = tableMapping.getColumTypes();
+
+			RelationalPathBase<Object> tableRelationalPath = buildTableRelationalPath(tableMapping);
+			if ("h2".equals(dbType)) {
+				SQLMergeClause sqlMergeQuery = this.sqlQueryFactory.merge(tableRelationalPath).keys(Expressions.stringPath(SqlOperationService.DOC_ID));
+				for (AttributeData attribute : attributes) {
+					sqlMergeQuery.columns(Expressions.stringPath(attribute.getName()));
+					sqlMergeQuery.values(toInsertValue(columTypes, attribute));
+				}
+
+				return sqlMergeQuery.execute() == 1;
+			}
+
+			SQLInsertClause sqlInsertQuery = this.sqlQueryFactory.insert(tableRelationalPath);
+			addInsertValues(sqlInsertQuery, columTypes, attributes);
+
+			List<String> columnNames = new ArrayList<String>(attributes.size());
+			for (AttributeData attribute : attributes) {
+				columnNames.add(attribute.getName());
+			}
+			SqlUpsertClause.apply(sqlInsertQuery, dbType, SqlUpsertClause.isRowAliasSupported(dbType, connectionProvider.getDbVersion()), columnNames);
+
+			// MySQL returns 1 for inserted row, 2 for updated row and 0 if values were not changed
+			long rowsAffected = sqlInsertQuery.execute();
+
+			return (rowsAffected > 0) || ((rowsAffected == 0) && "mysql".equals(dbType));
+        } catch (QueryException ex) {
+            throw new PersistenceException("Failed to add or update entry", ex);
+        }
+	}
+
     @Override
     public boolean updateEntry(String key, String objectClass, List<AttributeDataModification> mods) throws UnsupportedOperationException, PersistenceException {
-        Instant startTime = OperationDurationUtil.instance().now();
-        
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = updateEntryImpl(tableMapping, key, mods);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("modify", tableMapping.getTableName())) {
+            boolean result = updateEntryImpl(tableMapping, key, mods);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("SQL operation: modify, duration: {}, table: {}, key: {}, mods: {}", duration, tableMapping.getTableName(), key, mods);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("SQL operation: modify, duration: {}, table: {}, key: {}, mods: {}", duration, tableMapping.getTableName(), key, mods);
+            slowOperationLog.logIfSlow("modify", tableMapping.getTableName(), duration, -1);
 
-        return result;
+            return result;
+        }
     }
 
 	private boolean updateEntryImpl(TableMapping tableMapping, String key, List<AttributeDataModification> mods) throws PersistenceException {
@@ -227,13 +406,13 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 				AttributeModificationType type = attributeMod.getModificationType();
                 if ((AttributeModificationType.ADD == type) || (AttributeModificationType.FORCE_UPDATE == type)) {
 					if (multiValued || Boolean.TRUE.equals(attribute.getMultiValued())) {
-    					sqlUpdateQuery.set(path, convertValueToDbJson(attribute.getValues()));
+    					sqlUpdateQuery.set(path, toDbJsonValue(attribute.getValues()));
     				} else {
     					sqlUpdateQuery.set(path, attribute.getValue());
     				}
                 } else if (AttributeModificationType.REPLACE == type) {
 					if (multiValued || Boolean.TRUE.equals(attribute.getMultiValued())) {
-    					sqlUpdateQuery.set(path, convertValueToDbJson(attribute.getValues()));
+    					sqlUpdateQuery.set(path, toDbJsonValue(attribute.getValues()));
     				} else {
     					sqlUpdateQuery.set(path, attribute.getValue());
     				}
@@ -257,15 +436,16 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 
     @Override
     public boolean delete(String key, String objectClass) throws EntryNotFoundException {
-        Instant startTime = OperationDurationUtil.instance().now();
-
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = deleteImpl(tableMapping, key);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("delete", tableMapping.getTableName())) {
+            boolean result = deleteImpl(tableMapping, key);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("SQL operation: delete, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("SQL operation: delete, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
+            slowOperationLog.logIfSlow("delete", tableMapping.getTableName(), duration, -1);
 
-        return result;
+            return result;
+        }
     }
 
 	private boolean deleteImpl(TableMapping tableMapping, String key) throws EntryNotFoundException {
@@ -286,16 +466,16 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 
     @Override
     public long delete(String key, String objectClass, ConvertedExpression expression, int count) throws DeleteException {
-        Instant startTime = OperationDurationUtil.instance().now();
-
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
 
-    	long result = deleteImpl(tableMapping, expression, count);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("delete_search", tableMapping.getTableName())) {
+            long result = deleteImpl(tableMapping, expression, count);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("SQL operation: delete_search, duration: {}, table: {}, key: {}, expression: {}, count: {}", duration, tableMapping.getTableName(), key, expression, count);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("SQL operation: delete_search, duration: {}, table: {}, key: {}, expression: {}, count: {}", duration, tableMapping.getTableName(), key, expression, count);
 
-        return result;
+            return result;
+        }
     }
 
     private long deleteImpl(TableMapping tableMapping, ConvertedExpression expression, int count) throws DeleteException {
@@ -319,16 +499,91 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 	}
 
     @Override
-    public boolean deleteRecursively(String key, String objectClass) throws EntryNotFoundException, SearchException {
-        Instant startTime = OperationDurationUtil.instance().now();
+    public long deleteInBatches(String key, String objectClass, ConvertedExpression expression, int batchSize, long pauseMillis,
+    		RemoveProgressListener progressListener) throws DeleteException {
+        TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
+
+        Predicate exp = (Predicate) expression.expression();
+        Path<String> docIdPath = Expressions.stringPath(SqlOperationService.DOC_ID);
+
+        long totalDeleted = 0;
+        String lastDocId = null;
+        while (true) {
+            // Keys are selected after last processed key, so rows which were not deleted are not selected again
+            List<String> docIds;
+            long deleted;
+            try (OperationTimer timer = OperationDurationUtil.instance().start("delete_batch", tableMapping.getTableName())) {
+	            docIds = selectDocIds(tableMapping, exp, lastDocId, batchSize);
+	            if (docIds.isEmpty()) {
+	            	timer.record();
+	            	break;
+	            }
+
+	            // Filter is checked again because rows could be changed after select
+	            deleted = 0;
+	            for (int i = 0; i < docIds.size(); i += MAX_LOOKUP_KEYS) {
+	            	List<String> docIdsChunk = docIds.subList(i, Math.min(i + MAX_LOOKUP_KEYS, docIds.size()));
+	            	deleted += deleteImpl(tableMapping, ExpressionUtils.and(ExpressionUtils.in(docIdPath, docIdsChunk), exp));
+	            }
+
+	            Duration duration = timer.record(deleted);
+	            OperationDurationUtil.instance().logDebug("SQL operation: delete_batch, duration: {}, table: {}, key: {}, expression: {}, count: {}", duration, tableMapping.getTableName(), key, expression, deleted);
+            }
+
+            totalDeleted += deleted;
+            lastDocId = docIds.get(docIds.size() - 1);
+
+            if ((progressListener != null) && !progressListener.onProgress((int) deleted, totalDeleted)) {
+            	break;
+            }
+
+            if ((docIds.size() < batchSize) || !ThreadHelper.pause(pauseMillis)) {
+            	break;
+            }
+        }
+
+        return totalDeleted;
+    }
+
+	private List<String> selectDocIds(TableMapping tableMapping, Predicate exp, String lastDocId, int count) throws DeleteException {
+		try {
+			RelationalPathBase<Object> tableRelationalPath = buildTableRelationalPath(tableMapping);
+			Path<String> docIdPath = Expressions.stringPath(SqlOperationService.DOC_ID);
+
+			Predicate whereExp = exp;
+			if (lastDocId != null) {
+				whereExp = ExpressionUtils.and(exp, ExpressionUtils.predicate(Ops.GT, docIdPath, Expressions.constant(lastDocId)));
+			}
+
+			// Read keys from primary DB. Replica can return keys of rows which are deleted already
+			return sqlQueryFactory.select(docIdPath).from(tableRelationalPath).where(whereExp)
+					.orderBy(new OrderSpecifier<String>(Order.ASC, docIdPath)).limit(count).fetch();
+        } catch (QueryException ex) {
+            throw new DeleteException(String.format("Failed to select entries to delete. Expression: '%s'", exp), ex);
+        }
+	}
 
+	private long deleteImpl(TableMapping tableMapping, Predicate exp) throws DeleteException {
+		try {
+			RelationalPathBase<Object> tableRelationalPath = buildTableRelationalPath(tableMapping);
+
+			return this.sqlQueryFactory.delete(tableRelationalPath).where(exp).execute();
+        } catch (QueryException ex) {
+            throw new DeleteException(String.format("Failed to delete entries. Expression: '%s'", exp), ex);
+        }
+	}
+
+    @Override
+    public boolean deleteRecursively(String key, String objectClass) throws EntryNotFoundException, SearchException {
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = deleteRecursivelyImpl(tableMapping, key);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("delete_tree", tableMapping.getTableName())) {
+            boolean result = deleteRecursivelyImpl(tableMapping, key);
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("SQL operation: delete_tree, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
+            Duration duration = timer.record();
+            OperationDurationUtil.instance().logDebug("SQL operation: delete_tree, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
 
-        return result;
+            return result;
+        }
     }
 
 	private boolean deleteRecursivelyImpl(TableMapping tableMapping, String key) throws SearchException, EntryNotFoundException {
@@ -338,16 +593,22 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 
     @Override
     public List<AttributeData> lookup(String key, String objectClass, String... attributes) throws SearchException, EntryConvertationException {
-        Instant startTime = OperationDurationUtil.instance().now();
-        
     	TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
 
-    	List<AttributeData> result = lookupImpl(tableMapping, key, attributes);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("lookup", tableMapping.getTableName())) {
+            List<AttributeData> result = lookupImpl(tableMapping, key, attributes);
+            int rows = (result == null) ? 0 : 1;
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("SQL operation: lookup, duration: {}, table: {}, key: {}, attributes: {}", duration, tableMapping.getTableName(), key, attributes);
+            Duration duration = timer.record(rows);
+            OperationDurationUtil.instance().logDebug("SQL operation: lookup, duration: {}, table: {}, key: {}, attributes: {}", duration, tableMapping.getTableName(), key, attributes);
+            slowOperationLog.logIfSlow("lookup", tableMapping.getTableName(), duration, rows);
 
-        return result;
+            if (result == null) {
+                throw new SearchException(String.format("Failed to lookup entry by key: '%s'", key));
+            }
+
+            return result;
+        }
     }
 
 	private List<AttributeData> lookupImpl(TableMapping tableMapping, String key, String... attributes) throws SearchException, EntryConvertationException {
@@ -361,37 +622,107 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 			SQLQuery<?> sqlSelectQuery = sqlQueryFactory.select(attributesExp).from(tableRelationalPath)
 					.where(whereExp).limit(1);
 			
-			try (ResultSet resultSet = sqlSelectQuery.getResults();) {
-				List<AttributeData> result = getAttributeDataList(resultSet, true);
-				if (result != null) {
-					return result;
+			try (Connection connection = connectionProvider.getReadConnection(tableMapping.getObjectClass());
+					ResultSet resultSet = sqlSelectQuery.clone(connection).getResults();) {
+				if (resultSet.next()) {
+					SqlRowDecoder rowDecoder = SqlRowDecoder.create(this, resultSet.getMetaData(), tableMapping, true);
+					return rowDecoder.decode(resultSet);
 				}
 			}
 		} catch (SQLException | QueryException ex) {
 			throw new SearchException(String.format("Failed to lookup query by key: '%s'", key), ex);
 		}
 
-		throw new SearchException(String.format("Failed to lookup entry by key: '%s'", key));
+		return null;
+	}
+
+    @Override
+    public Map<String, List<AttributeData>> lookup(Collection<String> keys, String objectClass, String... attributes) throws SearchException, EntryConvertationException {
+        // Table depends only on object class
+    	TableMapping tableMapping = connectionProvider.getTableMappingByKey(keys.iterator().next(), objectClass);
+
+    	Map<String, List<AttributeData>> result = new HashMap<String, List<AttributeData>>(keys.size());
+    	List<String> keysList = new ArrayList<String>(keys);
+    	try (OperationTimer timer = OperationDurationUtil.instance().start("lookup_batch", tableMapping.getTableName())) {
+	    	for (int i = 0; i < keysList.size(); i += MAX_LOOKUP_KEYS) {
+	    		List<String> keysChunk = keysList.subList(i, Math.min(i + MAX_LOOKUP_KEYS, keysList.size()));
+	    		lookupImpl(tableMapping, keysChunk, result, attributes);
+	    	}
+
+	        Duration duration = timer.record(result.size());
+	        OperationDurationUtil.instance().logDebug("SQL operation: lookup_batch, duration: {}, table: {}, keys: {}, attributes: {}", duration, tableMapping.getTableName(), keys, attributes);
+    	}
+
+        return result;
+    }
+
+	private void lookupImpl(TableMapping tableMapping, List<String> keys, Map<String, List<AttributeData>> result, String... attributes) throws SearchException, EntryConvertationException {
+		try {
+			RelationalPathBase<Object> tableRelationalPath = buildTableRelationalPath(tableMapping);
+
+			Predicate whereExp = ExpressionUtils.in(Expressions.stringPath(SqlOperationService.DOC_ID), keys);
+			Expression<?> attributesExp = buildSelectAttributes(attributes);
+
+			SQLQuery<?> sqlSelectQuery = sqlQueryFactory.select(attributesExp).from(tableRelationalPath)
+					.where(whereExp);
+
+			try (Connection connection = connectionProvider.getReadConnection(tableMapping.getObjectClass());
+					ResultSet resultSet = sqlSelectQuery.clone(connection).getResults();) {
+				SqlRowDecoder rowDecoder = null;
+				while (resultSet.next()) {
+					if (rowDecoder == null) {
+						rowDecoder = SqlRowDecoder.create(this, resultSet.getMetaData(), tableMapping, true);
+					}
+					result.put(resultSet.getString(SqlOperationService.DOC_ID), rowDecoder.decode(resultSet));
+				}
+			}
+		} catch (SQLException | QueryException ex) {
+			throw new SearchException(String.format("Failed to lookup query by keys: '%s'", keys), ex);
+		}
 	}
 
 	@Override
     public <O> PagedResult<EntryData> search(String key, String objectClass, ConvertedExpression expression, SearchScope scope, String[] attributes, OrderSpecifier<?>[] orderBy,
                                               SqlBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, int start, int count, int pageSize) throws SearchException {
-        Instant startTime = OperationDurationUtil.instance().now();
+		return search(key, objectClass, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, null, start, count, pageSize);
+	}
+
+	@Override
+    public <O> PagedResult<EntryData> search(String key, String objectClass, ConvertedExpression expression, SearchScope scope, String[] attributes, OrderSpecifier<?>[] orderBy,
+                                              SqlBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, KeysetPosition position, int count, int pageSize) throws SearchException {
+		return search(key, objectClass, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, position, 0, count, pageSize);
+	}
 
+    private <O> PagedResult<EntryData> search(String key, String objectClass, ConvertedExpression expression, SearchScope scope, String[] attributes, OrderSpecifier<?>[] orderBy,
+                                              SqlBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, KeysetPosition position, int start, int count, int pageSize) throws SearchException {
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
 
-        PagedResult<EntryData> result = searchImpl(tableMapping, key, expression, scope, attributes, orderBy, batchOperationWraper,
-						returnDataType, start, count, pageSize);
+        SlowOperation slowOperation = slowOperationLog.start("search", tableMapping.getTableName());
 
-        Duration duration = OperationDurationUtil.instance().duration(startTime);
-        OperationDurationUtil.instance().logDebug("SQL operation: search, duration: {}, table: {}, key: {}, expression: {}, scope: {}, attributes: {}, orderBy: {}, batchOperationWraper: {}, returnDataType: {}, start: {}, count: {}, pageSize: {}", duration, tableMapping.getTableName(), key, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, start, count, pageSize);
+        try (OperationTimer timer = OperationDurationUtil.instance().start("search", tableMapping.getTableName())) {
+            PagedResult<EntryData> result = searchImpl(tableMapping, key, expression, scope, attributes, orderBy, batchOperationWraper,
+                    returnDataType, position, start, count, pageSize, slowOperation);
 
-        return result;
+            Duration duration = timer.record(result.getEntriesCount());
+            OperationDurationUtil.instance().logDebug("SQL operation: search, duration: {}, table: {}, key: {}, expression: {}, scope: {}, attributes: {}, orderBy: {}, batchOperationWraper: {}, returnDataType: {}, start: {}, count: {}, pageSize: {}", duration, tableMapping.getTableName(), key, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, start, count, pageSize);
+
+            if (slowOperationLog.isSlow(slowOperation, duration)) {
+            	slowOperation.setRows(result.getEntriesCount());
+            	slowOperationLog.log(slowOperation, duration, new SlowOperationLog.Explainer() {
+					@Override
+					public String explain(SlowOperation slowOperation) {
+						return SqlOperationServiceImpl.this.explain(slowOperation.getQuery(), (List<?>) slowOperation.getParameters());
+					}
+				});
+            }
+
+            return result;
+        }
 	}
 
 	private <O> PagedResult<EntryData> searchImpl(TableMapping tableMapping, String key, ConvertedExpression expression, SearchScope scope, String[] attributes, OrderSpecifier<?>[] orderBy,
-            SqlBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, int start, int count, int pageSize) throws SearchException {
+            SqlBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, KeysetPosition keysetPosition, int start, int count, int pageSize,
+            SlowOperation slowOperation) throws SearchException {
         BatchOperation<O> batchOperation = null;
         if (batchOperationWraper != null) {
             batchOperation = (BatchOperation<O>) batchOperationWraper.getBatchOperation();
@@ -400,31 +731,127 @@ public class SqlOperationServiceImpl implements SqlOperationService {
         RelationalPathBase<Object> tableRelationalPath = buildTableRelationalPath(tableMapping);
 
 		Expression<?> attributesExp = buildSelectAttributes(attributes);
-
-		SQLQuery<?> sqlSelectQuery;
-		if (expression == null) {
-			sqlSelectQuery = sqlQueryFactory.select(attributesExp).from(tableRelationalPath);
-		} else {
-			Predicate whereExp = (Predicate) expression.expression();
-			sqlSelectQuery = sqlQueryFactory.select(attributesExp).from(tableRelationalPath).where(whereExp);
-		}
-
-        SQLQuery<?> baseQuery = sqlSelectQuery;
-        if (orderBy != null) {
-            baseQuery = sqlSelectQuery.orderBy(orderBy);
-        }
+		Predicate whereExp = (expression == null) ? null : (Predicate) expression.expression();
 
         List<EntryData> searchResultList = new LinkedList<EntryData>();
 
+        // Page query returns total count in additional column to avoid separate count query
+        boolean approximateCount = (CountMode.APPROXIMATE == countMode) && ((whereExp == null) || isObjectClassPredicate(whereExp, tableMapping.getObjectClass()));
+        boolean useWindowCount = windowCount && !approximateCount && (SearchReturnDataType.SEARCH_COUNT == returnDataType);
+        Expression<?> attributesWithCountExp = useWindowCount ? Expressions.list(attributesExp, WINDOW_COUNT_EXPRESSION) : attributesExp;
+
         String queryStr = null;
+        KeysetPosition nextPosition = null;
+        Integer totalCount = null;
         if ((SearchReturnDataType.SEARCH == returnDataType) || (SearchReturnDataType.SEARCH_COUNT == returnDataType)) {
         	List<EntryData> lastResult = null;
-	        if (pageSize > 0) {
+	        if ((keysetPosition != null) || ((batchOperation != null) && (pageSize > 0) && (streamingFetchSize == 0))) {
+	            boolean collectSearchResult;
+
+	            // Batch scans and continuation requests use keyset pagination instead of growing offset
+	            OrderSpecifier<?>[] keysetOrderBy = buildKeysetOrderBy(orderBy);
+	            KeysetPosition currentPosition = (keysetPosition == null) ? new KeysetPosition(null, start) : keysetPosition;
+	            int pageLimit = (pageSize > 0) ? pageSize : count;
+	            if (currentPosition.hasValues() && (currentPosition.getValues().length != keysetOrderBy.length)) {
+	            	throw new SearchException(String.format("Keyset position doesn't match search sort. Key: '%s'", key));
+	            }
+
+	            int currentLimit;
+	    		try (BatchOperationPipeline<O> batchOperationPipeline = (batchOperation == null) ? null : batchOperationWraper.createBatchOperationPipeline()) {
+	                int resultCount = 0;
+	                int lastCountRows = 0;
+	                do {
+	                    collectSearchResult = true;
+
+	                    currentLimit = pageLimit;
+	                    if (count > 0) {
+	                        currentLimit = Math.min(pageLimit, count - resultCount);
+	                    }
+
+	                    // Skip counts rows which batch action may still change
+	                    if ((batchOperationPipeline != null) && (resultCount > 0) && (currentPosition.getSkip() > 0)) {
+	                    	batchOperationPipeline.awaitActions();
+	                    }
+
+	                    Predicate pageWhereExp = whereExp;
+	                    if (currentPosition.hasValues()) {
+	                    	Predicate keysetExp = buildKeysetPredicate(keysetOrderBy, currentPosition.getValues());
+	                    	pageWhereExp = (whereExp == null) ? keysetExp : ExpressionUtils.and(whereExp, keysetExp);
+	                    }
+
+	                    BoundStatement statement = statementCache.prepare(tableRelationalPath, attributesExp, pageWhereExp, keysetOrderBy,
+	                    		(currentLimit > 0) ? Long.valueOf(currentLimit) : null,
+	                    		(currentPosition.getSkip() > 0) ? Long.valueOf(currentPosition.getSkip()) : null);
+	                    queryStr = statement.getSql();
+	                    if (slowOperation != null) {
+	                    	slowOperation.setQuery(queryStr, statement.getBindings());
+	                    }
+	                    LOG.debug("Executing keyset query: '" + queryStr + "'");
+
+	                    SearchPage page = executeKeysetSearch(tableMapping, statement, keysetOrderBy);
+	                    lastResult = page.getEntries();
+		    			lastCountRows = lastResult.size();
+
+	                    if (batchOperation != null) {
+	                        collectSearchResult = batchOperation.collectSearchResult(lastCountRows);
+	                    }
+	                    if (collectSearchResult) {
+	                        searchResultList.addAll(lastResult);
+	                    }
+
+	                    if (batchOperation != null) {
+	                        List<O> entries = batchOperationWraper.createEntities(lastResult);
+	                        batchOperationPipeline.performAction(entries);
+	                    }
+
+	                    resultCount += lastCountRows;
+
+	                    // Skip rows after last known key if last row has no key values
+	                    if (page.getLastValues() != null) {
+	                    	currentPosition = new KeysetPosition(page.getLastValues(), 0);
+	                    } else {
+	                    	currentPosition = new KeysetPosition(currentPosition.getValues(), currentPosition.getSkip() + lastCountRows);
+	                    }
+
+	                    if ((currentLimit <= 0) || (lastCountRows < currentLimit)) {
+	                    	currentPosition = null;
+	                        break;
+	                    }
+
+	                    if ((count > 0) && (resultCount >= count)) {
+	                        break;
+	                    }
+	                } while (lastCountRows > 0);
+
+	                nextPosition = currentPosition;
+        		} catch (QueryException ex) {
+        			throw new SearchException(String.format("Failed to build search entries query. Key: '%s', expression: '%s'", key, expression.expression()), ex);
+	    		} catch (SQLException | EntryConvertationException ex) {
+	    			throw new SearchException(String.format("Failed to execute query '%s'  with key: '%s'", queryStr, key), ex);
+	    		}
+	        } else if ((streamingFetchSize > 0) && (pageSize > 0)) {
+	    		try (BatchOperationPipeline<O> batchOperationPipeline = (batchOperation == null) ? null : batchOperationWraper.createBatchOperationPipeline()) {
+	                Long limit = (count > 0) ? Long.valueOf(count) : null;
+	                Long offset = (start > 0) ? Long.valueOf(start) : null;
+
+                    BoundStatement statement = statementCache.prepare(tableRelationalPath, attributesExp, whereExp, orderBy, limit, offset);
+                    queryStr = statement.getSql();
+                    if (slowOperation != null) {
+                    	slowOperation.setQuery(queryStr, statement.getBindings());
+                    }
+                    LOG.debug("Executing streaming query: '" + queryStr + "'");
+
+                    executeStreamingSearch(tableMapping, statement, pageSize, batchOperationWraper, batchOperationPipeline, searchResultList);
+        		} catch (QueryException ex) {
+        			throw new SearchException(String.format("Failed to build search entries query. Key: '%s', expression: '%s'", key, expression.expression()), ex);
+	    		} catch (SQLException | EntryConvertationException ex) {
+	    			throw new SearchException(String.format("Failed to execute query '%s'  with key: '%s'", queryStr, key), ex);
+	    		}
+	        } else if (pageSize > 0) {
 	            boolean collectSearchResult;
 	
-	            SQLQuery<?> query;
 	            int currentLimit;
-	    		try {
+	    		try (BatchOperationPipeline<O> batchOperationPipeline = (batchOperation == null) ? null : batchOperationWraper.createBatchOperationPipeline()) {
 	                int resultCount = 0;
 	                int lastCountRows = 0;
 	                do {
@@ -435,13 +862,26 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 	                        currentLimit = Math.min(pageSize, count - resultCount);
 	                    }
 	
-	                    query = baseQuery.limit(currentLimit).offset(start + resultCount);
-
-	                    queryStr = query.getSQL().getSQL();
+	                    // Only first page query calculates total count
+	                    boolean firstPage = resultCount == 0;
+	                    // Offset of next page depends on changes which batch action does
+	                    if ((batchOperationPipeline != null) && !firstPage) {
+	                    	batchOperationPipeline.awaitActions();
+	                    }
+	                    BoundStatement statement = statementCache.prepare(tableRelationalPath, firstPage ? attributesWithCountExp : attributesExp,
+	                    		whereExp, orderBy, (long) currentLimit, (long) (start + resultCount));
+	                    queryStr = statement.getSql();
+	                    if (slowOperation != null) {
+	                    	slowOperation.setQuery(queryStr, statement.getBindings());
+	                    }
 	                    LOG.debug("Executing query: '" + queryStr + "'");
 
-	                    try (ResultSet resultSet = query.getResults()) {
-	                    	lastResult = getEntryDataList(resultSet);
+	                    if (firstPage && useWindowCount) {
+	                    	SearchPage page = executeWindowCountSearch(tableMapping, statement);
+	                    	lastResult = page.getEntries();
+	                    	totalCount = page.getTotalCount();
+	                    } else {
+	                    	lastResult = executeSearch(tableMapping, statement);
 	                    }
 
 		    			lastCountRows = lastResult.size();
@@ -455,7 +895,7 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 	
 	                    if (batchOperation != null) {
 	                        List<O> entries = batchOperationWraper.createEntities(lastResult);
-	                        batchOperation.performAction(entries);
+	                        batchOperationPipeline.performAction(entries);
 	                    }
 	
 	                    resultCount += lastCountRows;
@@ -471,22 +911,25 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 	    		}
 	        } else {
 	    		try {
-	                SQLQuery<?> query = baseQuery;
-	                if (count > 0) {
-	                    query = query.limit(count);
-	                }
-	                if (start > 0) {
-	                    query = query.offset(start);
-	                }
-	
-                    queryStr = query.getSQL().getSQL();
+	                Long limit = (count > 0) ? Long.valueOf(count) : null;
+	                Long offset = (start > 0) ? Long.valueOf(start) : null;
+
+                    BoundStatement statement = statementCache.prepare(tableRelationalPath, attributesWithCountExp, whereExp, orderBy, limit, offset);
+                    queryStr = statement.getSql();
+                    if (slowOperation != null) {
+                    	slowOperation.setQuery(queryStr, statement.getBindings());
+                    }
 
                     LOG.debug("Execution query: '" + queryStr + "'");
 
-                    try (ResultSet resultSet = query.getResults()) {
-		    			lastResult = getEntryDataList(resultSet);
-		    			searchResultList.addAll(lastResult);
+                    if (useWindowCount) {
+                    	SearchPage page = executeWindowCountSearch(tableMapping, statement);
+                    	lastResult = page.getEntries();
+                    	totalCount = page.getTotalCount();
+                    } else {
+                    	lastResult = executeSearch(tableMapping, statement);
                     }
+	    			searchResultList.addAll(lastResult);
         		} catch (QueryException ex) {
         			String sqlExpression = queryStr;
         			if (StringHelper.isEmpty(sqlExpression)) {
@@ -503,21 +946,25 @@ public class SqlOperationServiceImpl implements SqlOperationService {
         result.setEntries(searchResultList);
         result.setEntriesCount(searchResultList.size());
         result.setStart(start);
+        if (nextPosition != null) {
+        	result.setContinuationToken(keysetTokenCodec.encode(nextPosition));
+        }
 
-        if ((SearchReturnDataType.COUNT == returnDataType) || (SearchReturnDataType.SEARCH_COUNT == returnDataType)) {
-    		SQLQuery<?> sqlCountSelectQuery;
-    		if (expression == null) {
-    			sqlCountSelectQuery = sqlQueryFactory.select(Expressions.as(ExpressionUtils.count(Wildcard.all), "TOTAL")).from(tableRelationalPath);
-    		} else {
-    			Predicate whereExp = (Predicate) expression.expression();
-    			sqlCountSelectQuery = sqlQueryFactory.select(Expressions.as(ExpressionUtils.count(Wildcard.all), "TOTAL")).from(tableRelationalPath).where(whereExp);
-    		}
+        if (((SearchReturnDataType.COUNT == returnDataType) || (SearchReturnDataType.SEARCH_COUNT == returnDataType)) && approximateCount) {
+        	totalCount = getApproximateCount(tableMapping);
+        }
 
+        if (totalCount != null) {
+        	result.setTotalEntriesCount(totalCount);
+        } else if ((SearchReturnDataType.COUNT == returnDataType) || (SearchReturnDataType.SEARCH_COUNT == returnDataType)) {
     		try {
-                queryStr = sqlCountSelectQuery.getSQL().getSQL();
+    			BoundStatement statement = statementCache.prepare(tableRelationalPath, COUNT_EXPRESSION, whereExp, null, null, null);
+                queryStr = statement.getSql();
                 LOG.debug("Calculating count. Execution query: '" + queryStr + "'");
 
-                try (ResultSet countResult = sqlCountSelectQuery.getResults()) {
+                try (Connection connection = connectionProvider.getReadConnection(tableMapping.getObjectClass());
+                		PreparedStatement preparedStatement = prepareStatement(connection, statement);
+                		ResultSet countResult = preparedStatement.executeQuery()) {
                 	if (!countResult.next()) {
                         throw new SearchException("Failed to calculate count entries. Query: '" + queryStr + "'");
                 	}
@@ -534,6 +981,345 @@ public class SqlOperationServiceImpl implements SqlOperationService {
         return result;
     }
 
+	private List<EntryData> executeSearch(TableMapping tableMapping, BoundStatement statement) throws SQLException, EntryConvertationException {
+		try (Connection connection = connectionProvider.getReadConnection(tableMapping.getObjectClass());
+				PreparedStatement preparedStatement = prepareStatement(connection, statement);
+				ResultSet resultSet = preparedStatement.executeQuery()) {
+			return getEntryDataList(tableMapping, resultSet);
+		}
+	}
+
+	/*
+	 * Run page query with COUNT(*) OVER() column. Total count is unknown if page is empty
+	 */
+	private SearchPage executeWindowCountSearch(TableMapping tableMapping, BoundStatement statement) throws SQLException, EntryConvertationException {
+		try (Connection connection = connectionProvider.getReadConnection(tableMapping.getObjectClass());
+				PreparedStatement preparedStatement = prepareStatement(connection, statement);
+				ResultSet resultSet = preparedStatement.executeQuery()) {
+			List<EntryData> entryDataList = new LinkedList<>();
+			Integer totalCount = null;
+
+			SqlRowDecoder rowDecoder = null;
+			while (resultSet.next()) {
+				if (rowDecoder == null) {
+					rowDecoder = SqlRowDecoder.create(this, resultSet.getMetaData(), tableMapping, false);
+					totalCount = resultSet.getInt(WINDOW_COUNT_COLUMN);
+				}
+
+				entryDataList.add(new EntryData(rowDecoder.decode(resultSet)));
+			}
+
+			return new SearchPage(entryDataList, null, totalCount);
+		}
+	}
+
+	/*
+	 * Table stores entries of one object class. Predicate which checks only this object class selects all table rows
+	 */
+	private boolean isObjectClassPredicate(Expression<?> expression, String objectClass) {
+		if (!(expression instanceof Operation)) {
+			return false;
+		}
+
+		Operation<?> operation = (Operation<?>) expression;
+		if (Ops.AND == operation.getOperator()) {
+			for (Expression<?> arg : operation.getArgs()) {
+				if (!isObjectClassPredicate(arg, objectClass)) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		if (((Ops.EQ == operation.getOperator()) || (Ops.EQ_IGNORE_CASE == operation.getOperator())) && (operation.getArgs().size() == 2)) {
+			Expression<?> path = operation.getArg(0);
+			Expression<?> value = operation.getArg(1);
+
+			return (path instanceof Path) && StringHelper.equalsIgnoreCase(((Path<?>) path).getMetadata().getName(), OBJECT_CLASS)
+					&& (value instanceof Constant) && StringHelper.equalsIgnoreCase(String.valueOf(((Constant<?>) value).getConstant()), objectClass);
+		}
+
+		return false;
+	}
+
+	/*
+	 * Estimated count of table rows from DB statistics
+	 *
+	 * @return Count or null if DB doesn't provide statistics for table
+	 */
+	private Integer getApproximateCount(TableMapping tableMapping) {
+		String dbType = connectionProvider.getDbType();
+
+		String queryStr;
+		if ("mysql".equals(dbType)) {
+			queryStr = "SELECT TABLE_ROWS FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?";
+		} else if ("postgresql".equals(dbType)) {
+			queryStr = "SELECT n_live_tup FROM pg_stat_user_tables WHERE schemaname = ? AND relname = ?";
+		} else if ("h2".equals(dbType)) {
+			queryStr = "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?";
+		} else {
+			return null;
+		}
+
+		try (Connection connection = connectionProvider.getReadConnection(tableMapping.getObjectClass());
+				PreparedStatement preparedStatement = connection.prepareStatement(queryStr)) {
+			preparedStatement.setString(1, schemaName);
+			preparedStatement.setString(2, tableMapping.getTableName());
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				if (resultSet.next()) {
+					long count = resultSet.getLong(1);
+					if (!resultSet.wasNull() && (count >= 0)) {
+						return (int) Math.min(count, Integer.MAX_VALUE);
+					}
+				}
+			}
+		} catch (SQLException ex) {
+			LOG.warn("Failed to get approximate count of entries in table '{}'", tableMapping.getTableName(), ex);
+		}
+
+		return null;
+	}
+
+	private SearchPage executeKeysetSearch(TableMapping tableMapping, BoundStatement statement, OrderSpecifier<?>[] keysetOrderBy) throws SQLException, EntryConvertationException {
+		try (Connection connection = connectionProvider.getReadConnection(tableMapping.getObjectClass());
+				PreparedStatement preparedStatement = prepareStatement(connection, statement);
+				ResultSet resultSet = preparedStatement.executeQuery()) {
+			List<EntryData> entryDataList = new LinkedList<>();
+			Object[] lastValues = null;
+
+			SqlRowDecoder rowDecoder = null;
+			int[] keyIndexes = null;
+			while (resultSet.next()) {
+				if (rowDecoder == null) {
+					rowDecoder = SqlRowDecoder.create(this, resultSet.getMetaData(), tableMapping, false);
+					keyIndexes = getKeysetColumnIndexes(resultSet.getMetaData(), keysetOrderBy);
+				}
+
+				entryDataList.add(new EntryData(rowDecoder.decode(resultSet)));
+				lastValues = (keyIndexes == null) ? null : getKeysetValues(resultSet, keyIndexes);
+			}
+
+			return new SearchPage(entryDataList, lastValues, null);
+		}
+	}
+
+	/*
+	 * Sort by requested columns and unique key to get stable order of rows
+	 */
+	private OrderSpecifier<?>[] buildKeysetOrderBy(OrderSpecifier<?>[] orderBy) {
+		OrderSpecifier<?> docIdOrder = new OrderSpecifier<String>(Order.ASC, Expressions.stringPath(DOC_ID));
+		if (ArrayHelper.isEmpty(orderBy)) {
+			return new OrderSpecifier<?>[] { docIdOrder };
+		}
+
+		return ArrayHelper.arrayMerge(orderBy, new OrderSpecifier<?>[] { docIdOrder });
+	}
+
+	/*
+	 * Build condition to select rows after specified key:
+	 * (c1 > v1) OR (c1 = v1 AND c2 > v2) OR ... OR (c1 = v1 AND ... AND doc_id > id).
+	 * Rows with NULL values in sort columns are placed by DB at one end of result. These are
+	 * selected explicitly if they should follow last row
+	 */
+	private Predicate buildKeysetPredicate(OrderSpecifier<?>[] keysetOrderBy, Object[] values) throws SearchException {
+		boolean nullsLast = "postgresql".equals(connectionProvider.getDbType());
+
+		Predicate result = null;
+		Predicate prefix = null;
+		for (int i = 0; i < keysetOrderBy.length; i++) {
+			if (!(keysetOrderBy[i].getTarget() instanceof Path)) {
+				throw new SearchException(String.format("Keyset position can't be used with sort by expression '%s'", keysetOrderBy[i].getTarget()));
+			}
+
+			String columnName = ((Path<?>) keysetOrderBy[i].getTarget()).getMetadata().getName();
+			Path<Object> column = Expressions.path(Object.class, docAlias, columnName);
+			Expression<Object> value = Expressions.constant(values[i]);
+
+			boolean ascending = keysetOrderBy[i].isAscending();
+			Predicate after = ExpressionUtils.predicate(ascending ? Ops.GT : Ops.LT, column, value);
+			if ((i < keysetOrderBy.length - 1) && (ascending == nullsLast)) {
+				after = ExpressionUtils.or(after, ExpressionUtils.isNull(column));
+			}
+
+			Predicate term = (prefix == null) ? after : ExpressionUtils.and(prefix, after);
+			result = (result == null) ? term : ExpressionUtils.or(result, term);
+
+			Predicate equal = ExpressionUtils.predicate(Ops.EQ, column, value);
+			prefix = (prefix == null) ? equal : ExpressionUtils.and(prefix, equal);
+		}
+
+		return result;
+	}
+
+	/*
+	 * Find result set columns of keyset sort
+	 *
+	 * @return Column indexes or null if result set doesn't contain all sort columns
+	 */
+	private int[] getKeysetColumnIndexes(ResultSetMetaData metaData, OrderSpecifier<?>[] keysetOrderBy) throws SQLException {
+		int[] indexes = new int[keysetOrderBy.length];
+		for (int i = 0; i < keysetOrderBy.length; i++) {
+			if (!(keysetOrderBy[i].getTarget() instanceof Path)) {
+				return null;
+			}
+
+			String columnName = ((Path<?>) keysetOrderBy[i].getTarget()).getMetadata().getName();
+			indexes[i] = -1;
+			for (int j = 1; j <= metaData.getColumnCount(); j++) {
+				if (columnName.equalsIgnoreCase(metaData.getColumnLabel(j))) {
+					indexes[i] = j;
+					break;
+				}
+			}
+
+			if (indexes[i] == -1) {
+				return null;
+			}
+		}
+
+		return indexes;
+	}
+
+	/*
+	 * @return Values of current row or null if some of them can't be used as key
+	 */
+	private Object[] getKeysetValues(ResultSet resultSet, int[] keyIndexes) throws SQLException {
+		Object[] values = new Object[keyIndexes.length];
+		for (int i = 0; i < keyIndexes.length; i++) {
+			values[i] = KeysetPosition.toSupportedValue(resultSet.getObject(keyIndexes[i]));
+			if (values[i] == null) {
+				return null;
+			}
+		}
+
+		return values;
+	}
+
+	/*
+	 * Run single query and pass rows to batch operation in chunks while reading result set.
+	 * MySQL driver streams rows only with Integer.MIN_VALUE fetch size. PostgreSQL driver uses
+	 * cursor only if auto commit is disabled.
+	 * Chunk is decoded before action is called, but connection and result set stay open while
+	 * action runs. Batch prefetch depth allows to read next chunks while slow action runs, so
+	 * read connection (and PostgreSQL transaction) is not held for whole processing time
+	 */
+	private <O> void executeStreamingSearch(TableMapping tableMapping, BoundStatement statement, int chunkSize,
+			SqlBatchOperationWraper<O> batchOperationWraper, BatchOperationPipeline<O> batchOperationPipeline,
+			List<EntryData> searchResultList) throws SQLException, EntryConvertationException {
+		String dbType = connectionProvider.getDbType();
+		boolean useCursor = "postgresql".equals(dbType);
+		int fetchSize = "mysql".equals(dbType) ? Integer.MIN_VALUE : streamingFetchSize;
+
+		try (Connection connection = connectionProvider.getReadConnection(tableMapping.getObjectClass())) {
+			boolean autoCommit = connection.getAutoCommit();
+			if (useCursor && autoCommit) {
+				connection.setAutoCommit(false);
+			}
+
+			try (PreparedStatement preparedStatement = prepareStatement(connection, statement)) {
+				preparedStatement.setFetchSize(fetchSize);
+				try (ResultSet resultSet = preparedStatement.executeQuery()) {
+					SqlRowDecoder rowDecoder = null;
+					List<EntryData> chunk = new ArrayList<EntryData>(chunkSize);
+					while (resultSet.next()) {
+						if (rowDecoder == null) {
+							rowDecoder = SqlRowDecoder.create(this, resultSet.getMetaData(), tableMapping, false);
+						}
+
+						chunk.add(new EntryData(rowDecoder.decode(resultSet)));
+						if (chunk.size() >= chunkSize) {
+							processSearchChunk(chunk, batchOperationWraper, batchOperationPipeline, searchResultList);
+							chunk = new ArrayList<EntryData>(chunkSize);
+						}
+					}
+
+					if (chunk.size() > 0) {
+						processSearchChunk(chunk, batchOperationWraper, batchOperationPipeline, searchResultList);
+					}
+				} finally {
+					// Pooled statement should not keep streaming mode
+					preparedStatement.setFetchSize(0);
+				}
+			} finally {
+				if (useCursor && autoCommit) {
+					connection.rollback();
+					connection.setAutoCommit(true);
+				}
+			}
+		}
+	}
+
+	private <O> void processSearchChunk(List<EntryData> chunk, SqlBatchOperationWraper<O> batchOperationWraper,
+			BatchOperationPipeline<O> batchOperationPipeline, List<EntryData> searchResultList) {
+		if (batchOperationPipeline == null) {
+			searchResultList.addAll(chunk);
+			return;
+		}
+
+		BatchOperation<O> batchOperation = (BatchOperation<O>) batchOperationWraper.getBatchOperation();
+		if (batchOperation.collectSearchResult(chunk.size())) {
+			searchResultList.addAll(chunk);
+		}
+
+		List<O> entries = batchOperationWraper.createEntities(chunk);
+		batchOperationPipeline.performAction(entries);
+	}
+
+	private PreparedStatement prepareStatement(Connection connection, BoundStatement statement) throws SQLException {
+		PreparedStatement preparedStatement = connection.prepareStatement(statement.getSql());
+		try {
+			List<Object> bindings = statement.getBindings();
+			List<Path<?>> paths = statement.getPaths();
+			for (int i = 0; i < bindings.size(); i++) {
+				sqlQueryFactory.getConfiguration().set(preparedStatement, paths.get(i), i + 1, bindings.get(i));
+			}
+		} catch (SQLException | RuntimeException ex) {
+			preparedStatement.close();
+			throw ex;
+		}
+
+		return preparedStatement;
+	}
+
+	public SqlStatementCache getStatementCache() {
+		return statementCache;
+	}
+
+	private String explain(String queryStr, List<?> bindings) {
+		if (StringHelper.isEmpty(queryStr)) {
+			return null;
+		}
+
+		try (Connection connection = connectionProvider.getConnection();
+				PreparedStatement preparedStatement = connection.prepareStatement("EXPLAIN " + queryStr)) {
+			if (bindings != null) {
+				for (int i = 0; i < bindings.size(); i++) {
+					preparedStatement.setObject(i + 1, bindings.get(i));
+				}
+			}
+
+			StringBuilder explain = new StringBuilder();
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				int columnCount = resultSet.getMetaData().getColumnCount();
+				while (resultSet.next()) {
+					for (int i = 1; i <= columnCount; i++) {
+						if (i > 1) {
+							explain.append(" | ");
+						}
+						explain.append(resultSet.getString(i));
+					}
+					explain.append('\n');
+				}
+			}
+
+			return explain.toString();
+		} catch (SQLException ex) {
+			LOG.warn("Failed to explain query: '{}'", queryStr, ex);
+			return null;
+		}
+	}
+
 	public String[] createStoragePassword(String[] passwords) {
         if (ArrayHelper.isEmpty(passwords)) {
             return passwords;
@@ -551,109 +1337,22 @@ public class SqlOperationServiceImpl implements SqlOperationService {
         return results;
     }
 
-    private List<AttributeData> getAttributeDataList(ResultSet resultSet, boolean skipDn) throws EntryConvertationException {
-        try {
-            if ((resultSet == null)) {
-                return null;
-            }
-
-            if (!resultSet.next()) {
-            	return null;
-            }
-
-            List<AttributeData> result = new ArrayList<AttributeData>();
-	        int columnsCount = resultSet.getMetaData().getColumnCount();
-	        for (int i = 1; i <= columnsCount; i++) {
-	        	ResultSetMetaData metaData = resultSet.getMetaData();
-	        	String shortAttributeName = metaData.getColumnName(i);
-	        	String columnTypeName = metaData.getColumnTypeName(i).toLowerCase();
-	        	boolean isNullable = metaData.isNullable(i) == ResultSetMetaData.columnNullable;
-
-	        	Object attributeObject = resultSet.getObject(shortAttributeName);
-
-	        	if (SqlOperationService.DOC_ID.equalsIgnoreCase(shortAttributeName) ||
-	        		SqlOperationService.ID.equalsIgnoreCase(shortAttributeName)) {
-	        		// Skip internal attributes 
-	        		continue;
-	        	}
-
-	        	if (skipDn && SqlOperationService.DN.equalsIgnoreCase(shortAttributeName)) {
-	        		// Skip DN attribute 
-	        		continue;
-	        	}
-
-	        	String attributeName = fromInternalAttribute(shortAttributeName);
-	
-	        	Boolean multiValued = Boolean.FALSE;
-	            Object[] attributeValueObjects;
-	            if (attributeObject == null) {
-	                attributeValueObjects = NO_OBJECTS;
-	                if (isNullable) {
-	                	// Ignore columns with default NULL values
-	                	continue;
-	                }
-	            } else {
-	            	if ("json".equals(columnTypeName)) {
-	            		attributeValueObjects = convertDbJsonToValue(attributeObject.toString());
-	            		multiValued = Boolean.TRUE;
-	            	} else if (attributeObject instanceof Integer) {
-						int columnType = resultSet.getMetaData().getColumnType(i);
-						if (columnType == java.sql.Types.SMALLINT) {
-							if (attributeObject.equals(0)) {
-								attributeObject = Boolean.FALSE;
-							} else if (attributeObject.equals(1)) {
-								attributeObject = Boolean.TRUE;
-							}
-						}
-
-						attributeValueObjects = new Object[] { attributeObject };
-					} else if ((attributeObject instanceof Boolean) || (attributeObject instanceof Long)) {
-						attributeValueObjects = new Object[] { attributeObject };
-					} else if (attributeObject instanceof String) {
-						Object value = attributeObject.toString();
-						try {
-							SimpleDateFormat jsonDateFormat = new SimpleDateFormat(SQL_DATA_FORMAT);
-							value = jsonDateFormat.parse(attributeObject.toString());
-						} catch (Exception ex) {
-						}
-						attributeValueObjects = new Object[] { value };
-					} else if (attributeObject instanceof Timestamp) {
-						attributeValueObjects = new Object[] {
-								new java.util.Date(((Timestamp) attributeObject).getTime()) };
-					} else {
-						Object value = attributeObject.toString();
-						attributeValueObjects = new Object[] { value };
-					}
-	            }
-	            
-	            unescapeValues(attributeValueObjects);
-	
-	            AttributeData tmpAttribute = new AttributeData(attributeName, attributeValueObjects, multiValued);
-	            if (multiValued != null) {
-	            	tmpAttribute.setMultiValued(multiValued);
-	            }
-	            result.add(tmpAttribute);
-	        }
+    private List<EntryData> getEntryDataList(TableMapping tableMapping, ResultSet resultSet) throws EntryConvertationException {
+    	List<EntryData> entryDataList = new LinkedList<>();
 
-	        return result;
+        try {
+        	SqlRowDecoder rowDecoder = null;
+        	while (resultSet.next()) {
+        		if (rowDecoder == null) {
+        			rowDecoder = SqlRowDecoder.create(this, resultSet.getMetaData(), tableMapping, false);
+        		}
+
+        		EntryData entryData = new EntryData(rowDecoder.decode(resultSet));
+        		entryDataList.add(entryData);
+        	}
         } catch (SQLException ex) {
         	throw new EntryConvertationException("Failed to convert entry!", ex);
         }
-    }
-
-    private List<EntryData> getEntryDataList(ResultSet resultSet) throws EntryConvertationException, SQLException {
-    	List<EntryData> entryDataList = new LinkedList<>();
-
-    	List<AttributeData> attributeDataList = null;
-    	while (!resultSet.isLast()) {
-    		attributeDataList = getAttributeDataList(resultSet, false);
-    		if (attributeDataList == null) {
-    			break;
-    		}
-
-    		EntryData entryData = new EntryData(attributeDataList);
-    		entryDataList.add(entryData);
-    	}
 
     	return entryDataList;
 	}
@@ -676,6 +1375,10 @@ public class SqlOperationServiceImpl implements SqlOperationService {
     public boolean destroy() {
         boolean result = true;
 
+        if (slowOperationLog != null) {
+            slowOperationLog.destroy();
+        }
+
         if (connectionProvider != null) {
             try {
                 connectionProvider.destroy();
@@ -851,7 +1554,16 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 		}
 	}
 
-	private Object[] convertDbJsonToValue(String jsonValue) {
+	private Object toDbJsonValue(Object[] values) {
+		String jsonValue = convertValueToDbJson(values);
+		if (jsonFormatClause) {
+			return Expressions.template(Object.class, "{0} format json", Expressions.constant(jsonValue));
+		}
+
+		return jsonValue;
+	}
+
+	Object[] convertDbJsonToValue(String jsonValue) {
 		try {
 //			Object[] values = JSON_OBJECT_MAPPER.readValue(jsonValue, Object[].class);
 
@@ -869,4 +1581,30 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 		}
 	}
 
+	private static class SearchPage {
+
+		private final List<EntryData> entries;
+		private final Object[] lastValues;
+		private final Integer totalCount;
+
+		public SearchPage(List<EntryData> entries, Object[] lastValues, Integer totalCount) {
+			this.entries = entries;
+			this.lastValues = lastValues;
+			this.totalCount = totalCount;
+		}
+
+		public List<EntryData> getEntries() {
+			return entries;
+		}
+
+		public Object[] getLastValues() {
+			return lastValues;
+		}
+
+		public Integer getTotalCount() {
+			return totalCount;
+		}
+
+	}
+
 }
@@ -0,0 +1,223 @@
+/*
+ * Janssen Project software is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.sql.operation.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import io.jans.orm.model.AttributeData;
+import io.jans.orm.sql.model.TableMapping;
+import io.jans.orm.sql.operation.SqlOperationService;
+
+/**
+ * Converts result set rows to attributes. Decoder resolves column names, types and
+ * attribute names once per result set and reads values by column index
+ */
+public class SqlRowDecoder {
+
+	private static final DateTimeFormatter SQL_DATE_FORMATTER = new DateTimeFormatterBuilder()
+			.append(DateTimeFormatter.ISO_LOCAL_DATE).optionalStart().appendLiteral(' ').optionalEnd()
+			.optionalStart().appendLiteral('T').optionalEnd().append(DateTimeFormatter.ISO_LOCAL_TIME).toFormatter();
+
+	private enum ColumnKind {
+		JSON, SMALLINT, DATE, VALUE
+	}
+
+	private final SqlOperationServiceImpl operationService;
+
+	private final int[] indexes;
+	private final String[] attributeNames;
+	private final ColumnKind[] kinds;
+	private final boolean[] nullables;
+
+	private SqlRowDecoder(SqlOperationServiceImpl operationService, int[] indexes, String[] attributeNames, ColumnKind[] kinds, boolean[] nullables) {
+		this.operationService = operationService;
+		this.indexes = indexes;
+		this.attributeNames = attributeNames;
+		this.kinds = kinds;
+		this.nullables = nullables;
+	}
+
+	/**
+	 * Build decoder for result set columns
+	 *
+	 * @param tableMapping Table mapping with declared column types. Result set types are used if it's null
+	 * @param skipDn Don't return DN attribute
+	 */
+	public static SqlRowDecoder create(SqlOperationServiceImpl operationService, ResultSetMetaData metaData, TableMapping tableMapping,
+			boolean skipDn) throws SQLException {
+		Map<String, String> columTypes = (tableMapping == null) ? null : tableMapping.getColumTypes();
+
+		int columnsCount = metaData.getColumnCount();
+
+		List<Integer> indexes = new ArrayList<Integer>(columnsCount);
+		for (int i = 1; i <= columnsCount; i++) {
+			String columnName = metaData.getColumnName(i);
+			if (SqlOperationService.DOC_ID.equalsIgnoreCase(columnName) || SqlOperationService.ID.equalsIgnoreCase(columnName)
+					|| SqlOperationServiceImpl.WINDOW_COUNT_COLUMN.equalsIgnoreCase(columnName)) {
+				// Skip internal attributes
+				continue;
+			}
+
+			if (skipDn && SqlOperationService.DN.equalsIgnoreCase(columnName)) {
+				// Skip DN attribute
+				continue;
+			}
+
+			indexes.add(i);
+		}
+
+		int count = indexes.size();
+		int[] columnIndexes = new int[count];
+		String[] attributeNames = new String[count];
+		ColumnKind[] kinds = new ColumnKind[count];
+		boolean[] nullables = new boolean[count];
+		for (int i = 0; i < count; i++) {
+			int index = indexes.get(i);
+			String columnName = metaData.getColumnName(index);
+
+			String columnTypeName = null;
+			if (columTypes != null) {
+				columnTypeName = columTypes.get(columnName.toLowerCase());
+			}
+			if (columnTypeName == null) {
+				columnTypeName = metaData.getColumnTypeName(index).toLowerCase();
+			}
+
+			columnIndexes[i] = index;
+			attributeNames[i] = operationService.fromInternalAttribute(columnName);
+			kinds[i] = getColumnKind(columnTypeName, metaData.getColumnType(index));
+			nullables[i] = metaData.isNullable(index) == ResultSetMetaData.columnNullable;
+		}
+
+		return new SqlRowDecoder(operationService, columnIndexes, attributeNames, kinds, nullables);
+	}
+
+	/**
+	 * Convert current result set row to attributes
+	 */
+	public List<AttributeData> decode(ResultSet resultSet) throws SQLException {
+		List<AttributeData> result = new ArrayList<AttributeData>(indexes.length);
+		for (int i = 0; i < indexes.length; i++) {
+			Object attributeObject = resultSet.getObject(indexes[i]);
+
+			Boolean multiValued = Boolean.FALSE;
+			Object[] attributeValueObjects;
+			if (attributeObject == null) {
+				if (nullables[i]) {
+					// Ignore columns with default NULL values
+					continue;
+				}
+				attributeValueObjects = SqlOperationService.NO_OBJECTS;
+			} else {
+				switch (kinds[i]) {
+				case JSON:
+					String jsonValue;
+					if (attributeObject instanceof byte[]) {
+						// H2 returns JSON values as UTF-8 encoded text
+						jsonValue = new String((byte[]) attributeObject, StandardCharsets.UTF_8);
+					} else {
+						jsonValue = attributeObject.toString();
+					}
+					attributeValueObjects = operationService.convertDbJsonToValue(jsonValue);
+					multiValued = Boolean.TRUE;
+					break;
+				case SMALLINT:
+					attributeValueObjects = new Object[] { decodeSmallInt(attributeObject) };
+					break;
+				case DATE:
+					attributeValueObjects = new Object[] { decodeDate(attributeObject) };
+					break;
+				default:
+					attributeValueObjects = new Object[] { decodeValue(attributeObject) };
+				}
+			}
+
+			operationService.unescapeValues(attributeValueObjects);
+
+			AttributeData tmpAttribute = new AttributeData(attributeNames[i], attributeValueObjects, multiValued);
+			tmpAttribute.setMultiValued(multiValued);
+			result.add(tmpAttribute);
+		}
+
+		return result;
+	}
+
+	private static ColumnKind getColumnKind(String columnTypeName, int columnType) {
+		if ("json".equals(columnTypeName)) {
+			return ColumnKind.JSON;
+		}
+
+		if (columnType == Types.SMALLINT) {
+			return ColumnKind.SMALLINT;
+		}
+
+		if ((columnType == Types.TIMESTAMP) || (columnType == Types.TIMESTAMP_WITH_TIMEZONE) || (columnType == Types.DATE)
+				|| columnTypeName.startsWith("datetime") || columnTypeName.startsWith("timestamp")) {
+			return ColumnKind.DATE;
+		}
+
+		return ColumnKind.VALUE;
+	}
+
+	private Object decodeSmallInt(Object attributeObject) {
+		if (attributeObject instanceof Number) {
+			int value = ((Number) attributeObject).intValue();
+			if (value == 0) {
+				return Boolean.FALSE;
+			} else if (value == 1) {
+				return Boolean.TRUE;
+			}
+		}
+
+		return decodeValue(attributeObject);
+	}
+
+	private Object decodeDate(Object attributeObject) {
+		if (attributeObject instanceof Timestamp) {
+			return new Date(((Timestamp) attributeObject).getTime());
+		} else if (attributeObject instanceof Date) {
+			return attributeObject;
+		} else if (attributeObject instanceof LocalDateTime) {
+			return Date.from(((LocalDateTime) attributeObject).atZone(ZoneId.systemDefault()).toInstant());
+		} else if (attributeObject instanceof String) {
+			try {
+				LocalDateTime localDateTime = LocalDateTime.parse((String) attributeObject, SQL_DATE_FORMATTER);
+				return Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
+			} catch (DateTimeParseException ex) {
+				return attributeObject;
+			}
+		}
+
+		return decodeValue(attributeObject);
+	}
+
+	private Object decodeValue(Object attributeObject) {
+		if ((attributeObject instanceof String) || (attributeObject instanceof Integer) || (attributeObject instanceof Boolean)
+				|| (attributeObject instanceof Long)) {
+			return attributeObject;
+		} else if (attributeObject instanceof Timestamp) {
+			return new Date(((Timestamp) attributeObject).getTime());
+		}
+
+		return attributeObject.toString();
+	}
+
+}
@@ -0,0 +1,428 @@
+/*
+ * Janssen Project software is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.sql.operation.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+import com.querydsl.sql.RelationalPathBase;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.SQLSerializer;
+
+import io.jans.orm.util.StringHelper;
+
+/**
+ * Cache of generated select statements keyed by query shape. Shape is the query with
+ * constant values replaced by placeholders. Cached statement is reused for all queries
+ * with same shape and only constant values are bound to it on each call.
+ *
+ * Shape is cached only if each Querydsl bind parameter is a query constant. Other shapes
+ * (literals inlined into SQL, transformed values) are always serialized. Bind parameters are
+ * matched to constants by value, so positions of equal constants are part of the shape.
+ */
+public class SqlStatementCache {
+
+	public static final String MAX_SIZE_PROPERTY = "statementCache.maxSize";
+
+	private static final int DEFAULT_MAX_SIZE = 1000;
+
+	private static final CachedStatement NOT_CACHEABLE_STATEMENT = new CachedStatement(null, null, null);
+
+	private final SQLQueryFactory sqlQueryFactory;
+	private final int maxSize;
+
+	private final LinkedHashMap<String, CachedStatement> statements;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * @param maxSize Maximum count of cached statements. 0 to disable cache
+	 */
+	public SqlStatementCache(SQLQueryFactory sqlQueryFactory, final int maxSize) {
+		this.sqlQueryFactory = sqlQueryFactory;
+		this.maxSize = maxSize;
+		this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = -1781632916224839164L;
+
+			@Override
+			protected boolean removeEldestEntry(Entry<String, CachedStatement> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	public static SqlStatementCache create(SQLQueryFactory sqlQueryFactory, Properties props) {
+		int maxSize = StringHelper.toInt(props.getProperty(MAX_SIZE_PROPERTY), DEFAULT_MAX_SIZE);
+
+		return new SqlStatementCache(sqlQueryFactory, Math.max(0, maxSize));
+	}
+
+	/**
+	 * Build select statement and collect values to bind
+	 *
+	 * @param limit Limit or null if query has no limit
+	 * @param offset Offset or null if query has no offset
+	 */
+	public BoundStatement prepare(RelationalPathBase<?> table, Expression<?> select, Predicate where, OrderSpecifier<?>[] orderBy,
+			Long limit, Long offset) {
+		if (maxSize == 0) {
+			return serialize(buildQuery(table, select, where, orderBy, limit, offset));
+		}
+
+		QueryShape shape = new QueryShape();
+		shape.append(table.getSchemaName()).append('.').append(table.getTableName()).append(' ').append(table.toString()).append('|');
+		select.accept(shape, null);
+		shape.append('|');
+		if (where != null) {
+			where.accept(shape, null);
+		}
+		shape.append('|');
+		if (orderBy != null) {
+			for (OrderSpecifier<?> order : orderBy) {
+				order.getTarget().accept(shape, null);
+				shape.append(' ').append(order.getOrder().name()).append(' ').append(order.getNullHandling().name()).append(',');
+			}
+		}
+		shape.append('|').append(limit != null).append('|').append(offset != null);
+
+		List<Object> bindings = shape.getConstants();
+		int constantsCount = bindings.size();
+		appendEqualConstants(shape, bindings);
+		if (limit != null) {
+			bindings.add(limit);
+		}
+		if (offset != null) {
+			bindings.add(offset);
+		}
+
+		String key = shape.toString();
+		CachedStatement cachedStatement = null;
+		if (shape.isCacheable()) {
+			synchronized (statements) {
+				cachedStatement = statements.get(key);
+			}
+		}
+
+		if ((cachedStatement != null) && (cachedStatement != NOT_CACHEABLE_STATEMENT)) {
+			hits.incrementAndGet();
+			return new BoundStatement(cachedStatement.getSql(), toBindings(bindings, cachedStatement.getMapping()), cachedStatement.getPaths());
+		}
+		misses.incrementAndGet();
+
+		BoundStatement boundStatement = serialize(buildQuery(table, select, where, orderBy, limit, offset));
+		if (shape.isCacheable() && (cachedStatement == null)) {
+			int[] mapping = mapBindings(boundStatement.getBindings(), bindings, constantsCount);
+			if (mapping != null) {
+				cachedStatement = new CachedStatement(boundStatement.getSql(), mapping, boundStatement.getPaths());
+			} else {
+				cachedStatement = NOT_CACHEABLE_STATEMENT;
+			}
+
+			synchronized (statements) {
+				statements.put(key, cachedStatement);
+			}
+		}
+
+		return boundStatement;
+	}
+
+	public int getSize() {
+		synchronized (statements) {
+			return statements.size();
+		}
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public void clear() {
+		synchronized (statements) {
+			statements.clear();
+		}
+	}
+
+	private SQLQuery<?> buildQuery(RelationalPathBase<?> table, Expression<?> select, Predicate where, OrderSpecifier<?>[] orderBy,
+			Long limit, Long offset) {
+		SQLQuery<?> query = sqlQueryFactory.select(select).from(table);
+		if (where != null) {
+			query = query.where(where);
+		}
+		if (orderBy != null) {
+			query = query.orderBy(orderBy);
+		}
+		if (limit != null) {
+			query = query.limit(limit);
+		}
+		if (offset != null) {
+			query = query.offset(offset);
+		}
+
+		return query;
+	}
+
+	private BoundStatement serialize(SQLQuery<?> query) {
+		SQLSerializer serializer = new SQLSerializer(sqlQueryFactory.getConfiguration());
+		serializer.serialize(query.getMetadata(), false);
+
+		return new BoundStatement(serializer.toString(), serializer.getConstants(), serializer.getConstantPaths());
+	}
+
+	/*
+	 * Equal values can't be distinguished when bind parameters are mapped to constants. Queries
+	 * with different sets of equal values get own shapes, so mapping built for one query is valid
+	 * for all queries with same shape
+	 */
+	private void appendEqualConstants(QueryShape shape, List<Object> constants) {
+		Map<Object, Integer> firstIndexes = new HashMap<Object, Integer>(constants.size() * 2);
+		for (int i = 0; i < constants.size(); i++) {
+			Integer firstIndex = firstIndexes.putIfAbsent(constants.get(i), i);
+			if (firstIndex != null) {
+				shape.append("|E").append(i).append('=').append(firstIndex);
+			}
+		}
+	}
+
+	/*
+	 * Map serialized bind parameters to query constants. Templates can change order of
+	 * parameters, so these are matched by value. Limit and offset are bound after constants
+	 *
+	 * @return Indexes of constants in order of bind parameters or null if parameters don't match constants
+	 */
+	private int[] mapBindings(List<Object> serializedBindings, List<Object> bindings, int constantsCount) {
+		if (serializedBindings.size() != bindings.size()) {
+			return null;
+		}
+
+		int[] mapping = new int[bindings.size()];
+		boolean[] used = new boolean[bindings.size()];
+		for (int i = 0; i < serializedBindings.size(); i++) {
+			Object serializedBinding = serializedBindings.get(i);
+
+			int index = -1;
+			if (i < constantsCount) {
+				for (int j = 0; j < constantsCount; j++) {
+					if (!used[j] && Objects.equals(bindings.get(j), serializedBinding)) {
+						index = j;
+						break;
+					}
+				}
+			} else if (Objects.equals(bindings.get(i), serializedBinding)) {
+				index = i;
+			}
+			if (index == -1) {
+				return null;
+			}
+
+			used[index] = true;
+			mapping[i] = index;
+		}
+
+		return mapping;
+	}
+
+	private static List<Object> toBindings(List<Object> constants, int[] mapping) {
+		List<Object> bindings = new ArrayList<Object>(mapping.length);
+		for (int index : mapping) {
+			bindings.add(constants.get(index));
+		}
+
+		return bindings;
+	}
+
+	private static class CachedStatement {
+
+		private final String sql;
+		private final int[] mapping;
+		private final List<Path<?>> paths;
+
+		public CachedStatement(String sql, int[] mapping, List<Path<?>> paths) {
+			this.sql = sql;
+			this.mapping = mapping;
+			this.paths = paths;
+		}
+
+		public String getSql() {
+			return sql;
+		}
+
+		public int[] getMapping() {
+			return mapping;
+		}
+
+		public List<Path<?>> getPaths() {
+			return paths;
+		}
+
+	}
+
+	/**
+	 * Select statement with values to bind
+	 */
+	public static class BoundStatement {
+
+		private final String sql;
+		private final List<Object> bindings;
+		private final List<Path<?>> paths;
+
+		public BoundStatement(String sql, List<Object> bindings, List<Path<?>> paths) {
+			this.sql = sql;
+			this.bindings = bindings;
+			this.paths = paths;
+		}
+
+		public String getSql() {
+			return sql;
+		}
+
+		public List<Object> getBindings() {
+			return bindings;
+		}
+
+		/**
+		 * @return Paths which Querydsl uses to determine bind value type. Path can be null
+		 */
+		public List<Path<?>> getPaths() {
+			return paths;
+		}
+
+	}
+
+	/*
+	 * Build query shape string and collect constants in order of their appearance
+	 */
+	private static class QueryShape implements Visitor<Void, Void> {
+
+		private final StringBuilder shape = new StringBuilder(256);
+		private final List<Object> constants = new ArrayList<Object>();
+
+		private boolean cacheable = true;
+
+		@Override
+		public Void visit(Constant<?> expr, Void context) {
+			appendConstant(expr.getConstant());
+			return null;
+		}
+
+		@Override
+		public Void visit(FactoryExpression<?> expr, Void context) {
+			shape.append("F:").append(expr.getType().getName());
+			appendArgs(expr.getArgs());
+			return null;
+		}
+
+		@Override
+		public Void visit(Operation<?> expr, Void context) {
+			shape.append(expr.getOperator().name()).append(':').append(expr.getType().getName());
+			appendArgs(expr.getArgs());
+			return null;
+		}
+
+		@Override
+		public Void visit(ParamExpression<?> expr, Void context) {
+			cacheable = false;
+			return null;
+		}
+
+		@Override
+		public Void visit(Path<?> expr, Void context) {
+			shape.append("P:").append(expr.getMetadata().getPathType().name()).append(':').append(expr.toString())
+					.append(':').append(expr.getType().getName());
+			return null;
+		}
+
+		@Override
+		public Void visit(SubQueryExpression<?> expr, Void context) {
+			cacheable = false;
+			return null;
+		}
+
+		@Override
+		public Void visit(TemplateExpression<?> expr, Void context) {
+			shape.append("T:").append(expr.getTemplate().toString()).append(':').append(expr.getType().getName()).append('(');
+			for (Object arg : expr.getArgs()) {
+				if (arg instanceof Expression) {
+					((Expression<?>) arg).accept(this, null);
+				} else {
+					appendConstant(arg);
+				}
+				shape.append(',');
+			}
+			shape.append(')');
+			return null;
+		}
+
+		private void appendArgs(List<Expression<?>> args) {
+			shape.append('(');
+			for (Expression<?> arg : args) {
+				arg.accept(this, null);
+				shape.append(',');
+			}
+			shape.append(')');
+		}
+
+		private void appendConstant(Object value) {
+			if (value instanceof Collection) {
+				Collection<?> values = (Collection<?>) value;
+				shape.append("C[").append(values.size()).append(']');
+				for (Object item : values) {
+					appendConstant(item);
+				}
+				return;
+			}
+
+			shape.append('?').append(value == null ? null : value.getClass().getName());
+			constants.add(value);
+		}
+
+		public QueryShape append(Object value) {
+			shape.append(value);
+			return this;
+		}
+
+		public List<Object> getConstants() {
+			return constants;
+		}
+
+		public boolean isCacheable() {
+			return cacheable;
+		}
+
+		@Override
+		public String toString() {
+			return shape.toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Janssen Project software is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.sql.operation.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.querydsl.core.QueryFlag.Position;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.dml.SQLInsertClause;
+
+import io.jans.orm.sql.operation.SqlOperationService;
+
+/**
+ * Turns INSERT statement into upsert by doc_id: ON DUPLICATE KEY UPDATE in MySQL and
+ * ON CONFLICT (doc_id) DO UPDATE in PostgreSQL. Querydsl has no API for these clauses,
+ * so clause is added to the end of statement as template
+ */
+public final class SqlUpsertClause {
+
+	private static final String ROW_ALIAS = "new_values";
+
+	private static final Pattern VERSION_PATTERN = Pattern.compile("^(\\d+)\\.(\\d+)\\.(\\d+)");
+
+	private SqlUpsertClause() {
+	}
+
+	public static boolean isSupported(String dbType) {
+		return "mysql".equals(dbType) || "postgresql".equals(dbType);
+	}
+
+	/*
+	 * MySQL deprecated VALUES() function in 8.0.20. Row alias which replaces it is available since 8.0.19
+	 */
+	public static boolean isRowAliasSupported(String dbType, String dbVersion) {
+		if (!"mysql".equals(dbType) || (dbVersion == null)) {
+			return false;
+		}
+
+		Matcher matcher = VERSION_PATTERN.matcher(dbVersion);
+		if (!matcher.find()) {
+			return false;
+		}
+
+		int[] version = new int[] { Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)) };
+		int[] minVersion = new int[] { 8, 0, 19 };
+		for (int i = 0; i < version.length; i++) {
+			if (version[i] != minVersion[i]) {
+				return version[i] > minVersion[i];
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Add clause which updates specified columns if row with same doc_id exists
+	 *
+	 * @param rowAlias Refer to inserted values with row alias instead of VALUES() in MySQL
+	 */
+	public static void apply(SQLInsertClause sqlInsertQuery, String dbType, boolean rowAlias, Collection<String> columnNames) {
+		List<Object> columns = new ArrayList<Object>(columnNames.size() + 1);
+		StringBuilder template = new StringBuilder();
+		if ("mysql".equals(dbType)) {
+			if (rowAlias) {
+				template.append(" as ").append(ROW_ALIAS);
+			}
+			template.append(" on duplicate key update ");
+		} else if ("postgresql".equals(dbType)) {
+			template.append(" on conflict ({0}) do update set ");
+			columns.add(Expressions.stringPath(SqlOperationService.DOC_ID));
+		} else {
+			throw new IllegalArgumentException(String.format("Upsert is not supported by DB '%s'", dbType));
+		}
+
+		boolean first = true;
+		for (String columnName : columnNames) {
+			if (SqlOperationService.DOC_ID.equalsIgnoreCase(columnName)) {
+				continue;
+			}
+
+			int index = columns.size();
+			columns.add(Expressions.stringPath(columnName));
+			if (!first) {
+				template.append(", ");
+			}
+			first = false;
+
+			if ("postgresql".equals(dbType)) {
+				template.append('{').append(index).append("} = excluded.{").append(index).append('}');
+			} else if (rowAlias) {
+				template.append('{').append(index).append("} = ").append(ROW_ALIAS).append(".{").append(index).append('}');
+			} else {
+				template.append('{').append(index).append("} = values({").append(index).append("})");
+			}
+		}
+
+		Expression<Object> clause = Expressions.template(Object.class, template.toString(), columns);
+		sqlInsertQuery.addFlag(Position.END, clause);
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Janssen Project software is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.sql.operation.watch;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+
+import io.jans.orm.watch.ConnectionPoolStatisticsMXBean;
+
+/**
+ * Statistics of SQL connection pool
+ */
+public class SqlConnectionPoolStatistics implements ConnectionPoolStatisticsMXBean {
+
+	public static final String BACKEND = "sql";
+
+	private final String name;
+	private final GenericObjectPool<PoolableConnection> pool;
+
+	private final LongAdder creationErrors = new LongAdder();
+
+	public SqlConnectionPoolStatistics(String name, GenericObjectPool<PoolableConnection> pool) {
+		this.name = name;
+		this.pool = pool;
+	}
+
+	public void recordCreationError() {
+		creationErrors.increment();
+	}
+
+	@Override
+	public String getBackend() {
+		return BACKEND;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public int getNumActive() {
+		return pool.getNumActive();
+	}
+
+	@Override
+	public int getNumIdle() {
+		return pool.getNumIdle();
+	}
+
+	@Override
+	public int getNumWaiters() {
+		return pool.getNumWaiters();
+	}
+
+	@Override
+	public int getMaxTotal() {
+		return pool.getMaxTotal();
+	}
+
+	@Override
+	public int getMaxIdle() {
+		return pool.getMaxIdle();
+	}
+
+	@Override
+	public int getMinIdle() {
+		return pool.getMinIdle();
+	}
+
+	@Override
+	public long getMaxWaitMillis() {
+		return pool.getMaxWaitMillis();
+	}
+
+	@Override
+	public long getBorrowedCount() {
+		return pool.getBorrowedCount();
+	}
+
+	@Override
+	public long getCreatedCount() {
+		return pool.getCreatedCount();
+	}
+
+	@Override
+	public long getDestroyedCount() {
+		return pool.getDestroyedCount();
+	}
+
+	@Override
+	public long getCreationErrorCount() {
+		return creationErrors.sum();
+	}
+
+	@Override
+	public long getMeanBorrowWaitTimeMillis() {
+		return pool.getMeanBorrowWaitTimeMillis();
+	}
+
+	@Override
+	public long getMaxBorrowWaitTimeMillis() {
+		return pool.getMaxBorrowWaitTimeMillis();
+	}
+
+}
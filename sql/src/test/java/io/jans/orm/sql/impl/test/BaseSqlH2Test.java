@@ -0,0 +1,94 @@
+package io.jans.orm.sql.impl.test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+
+import io.jans.orm.sql.impl.SqlEntryManager;
+import io.jans.orm.sql.impl.SqlEntryManagerFactory;
+
+/**
+ * Base class for tests which use entry manager with in-memory H2 DB in MySQL mode.
+ * Each test class uses own DB
+ */
+public abstract class BaseSqlH2Test {
+
+	protected static final String PEOPLE_DN = "ou=people,o=jans";
+
+	private static final String[] SCHEMA = new String[] {
+		"CREATE SCHEMA jans",
+		"CREATE TABLE jans.jansPerson (doc_id VARCHAR(64) PRIMARY KEY, objectClass VARCHAR(48), dn VARCHAR(128), "
+				+ "uid VARCHAR(64), userPassword VARCHAR(256), displayName VARCHAR(128), mail VARCHAR(96), jansStatus VARCHAR(16), "
+				+ "memberOf JSON, jansCreationTimestamp DATETIME(3), jansEnabled SMALLINT)"
+	};
+
+	private String uri;
+	private Connection connection;
+	private List<SqlEntryManager> entryManagers;
+
+	protected SqlEntryManager entryManager;
+
+	@BeforeClass
+	public void init() throws SQLException {
+		this.uri = String.format("jdbc:h2:mem:%s;MODE=MySQL;DATABASE_TO_UPPER=FALSE;DB_CLOSE_DELAY=-1", getClass().getSimpleName());
+		this.entryManagers = new ArrayList<SqlEntryManager>();
+
+		// Connection keeps database until test end
+		this.connection = DriverManager.getConnection(uri, "jans", "secret");
+		for (String ddl : SCHEMA) {
+			execute(ddl);
+		}
+
+		this.entryManager = createEntryManager(new Properties());
+	}
+
+	@AfterClass
+	public void destroy() throws SQLException {
+		for (SqlEntryManager entryManager : entryManagers) {
+			entryManager.destroy();
+		}
+
+		execute("SHUTDOWN");
+		connection.close();
+	}
+
+	protected SqlEntryManager createEntryManager(Properties properties) {
+		Properties connectionProperties = new Properties();
+		connectionProperties.put("sql#db.schema.name", "jans");
+		connectionProperties.put("sql#connection.uri", uri);
+		connectionProperties.put("sql#auth.userName", "jans");
+		connectionProperties.put("sql#auth.userPassword", "secret");
+		connectionProperties.put("sql#password.encryption.method", "SSHA-256");
+		connectionProperties.putAll(properties);
+
+		SqlEntryManagerFactory sqlEntryManagerFactory = new SqlEntryManagerFactory();
+		sqlEntryManagerFactory.create();
+
+		SqlEntryManager entryManager = sqlEntryManagerFactory.createEntryManager(connectionProperties);
+		entryManagers.add(entryManager);
+
+		return entryManager;
+	}
+
+	protected Connection getConnection() {
+		return connection;
+	}
+
+	protected void execute(String sql) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+
+	protected void deleteAllPersons() throws SQLException {
+		execute("DELETE FROM jans.jansPerson");
+	}
+
+}
@@ -0,0 +1,129 @@
+package io.jans.orm.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import io.jans.orm.sql.operation.impl.SqlConnectionProvider;
+import io.jans.orm.watch.ConnectionPoolStatisticsMXBean;
+import io.jans.orm.watch.OperationMetrics;
+
+public class SqlConnectionPoolTest {
+
+	private static final String PRIMARY_URI = "jdbc:h2:mem:jans_pool;MODE=MySQL;DATABASE_TO_UPPER=FALSE;DB_CLOSE_DELAY=-1";
+	// Replica which doesn't exist
+	private static final String REPLICA_URI = "jdbc:h2:mem:jans_pool_replica;IFEXISTS=TRUE";
+
+	private Connection connection;
+	private SqlConnectionProvider connectionProvider;
+
+	@BeforeClass
+	public void init() throws SQLException {
+		// Connection keeps database until test end
+		this.connection = DriverManager.getConnection(PRIMARY_URI, "jans", "secret");
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE SCHEMA jans");
+		}
+
+		Properties props = new Properties();
+		props.put("db.schema.name", "jans");
+		props.put("connection.uri", PRIMARY_URI);
+		props.put("connection.replica.uris", REPLICA_URI);
+		props.put("auth.userName", "jans");
+		props.put("auth.userPassword", "secret");
+		props.put("connection.pool.max-total", "4");
+		props.put("connection.pool.max-idle", "4");
+
+		this.connectionProvider = new SqlConnectionProvider(props);
+		connectionProvider.create();
+	}
+
+	@AfterClass
+	public void destroy() throws SQLException {
+		connectionProvider.destroy();
+		for (ConnectionPoolStatisticsMXBean poolStatistics : connectionProvider.getPoolStatistics()) {
+			assertFalse(OperationMetrics.instance().getConnectionPools().contains(poolStatistics));
+		}
+
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("SHUTDOWN");
+		}
+		connection.close();
+	}
+
+	@Test
+	public void checkStatisticsRegistration() throws MalformedObjectNameException {
+		List<ConnectionPoolStatisticsMXBean> poolStatistics = connectionProvider.getPoolStatistics();
+		assertEquals(poolStatistics.size(), 2);
+		assertEquals(poolStatistics.get(0).getName(), "primary");
+		assertEquals(poolStatistics.get(1).getName(), "replica-1");
+		assertEquals(poolStatistics.get(0).getBackend(), "sql");
+
+		assertTrue(OperationMetrics.instance().getConnectionPools().containsAll(poolStatistics));
+		assertTrue(ManagementFactory.getPlatformMBeanServer().queryNames(new ObjectName("io.jans.orm:type=ConnectionPool,backend=sql,name=primary,*"), null).size() > 0);
+	}
+
+	@Test
+	public void checkCreationErrors() throws SQLException {
+		ConnectionPoolStatisticsMXBean replicaStatistics = connectionProvider.getPoolStatistics().get(1);
+		long creationErrors = replicaStatistics.getCreationErrorCount();
+
+		// Read falls back to primary DB if replica is not available
+		try (Connection readConnection = connectionProvider.getReadConnection(null)) {
+			assertTrue(readConnection.isValid(1));
+		}
+
+		assertEquals(replicaStatistics.getCreationErrorCount(), creationErrors + 1);
+	}
+
+	@Test
+	public void checkReconfigurePool() throws SQLException {
+		ConnectionPoolStatisticsMXBean primaryStatistics = connectionProvider.getPoolStatistics().get(0);
+		assertEquals(primaryStatistics.getMaxTotal(), 4);
+
+		Connection connection1 = connectionProvider.getConnection();
+		Connection connection2 = connectionProvider.getConnection();
+		assertEquals(primaryStatistics.getNumActive(), 2);
+
+		Properties poolProps = new Properties();
+		poolProps.put("connection.pool.max-total", "1");
+		poolProps.put("connection.pool.max-idle", "1");
+		connectionProvider.reconfigurePool(poolProps);
+
+		// Borrowed connections are not closed
+		assertEquals(primaryStatistics.getMaxTotal(), 1);
+		assertEquals(primaryStatistics.getMaxIdle(), 1);
+		assertEquals(primaryStatistics.getNumActive(), 2);
+		assertTrue(connection1.isValid(1));
+		assertTrue(connection2.isValid(1));
+
+		connection1.close();
+		connection2.close();
+		assertEquals(primaryStatistics.getNumActive(), 0);
+		assertEquals(primaryStatistics.getNumIdle(), 1);
+
+		// Properties which are not specified keep current values
+		poolProps = new Properties();
+		poolProps.put("connection.pool.max-total", "8");
+		connectionProvider.reconfigurePool(poolProps);
+		assertEquals(primaryStatistics.getMaxTotal(), 8);
+		assertEquals(primaryStatistics.getMaxIdle(), 1);
+		assertEquals(connectionProvider.getPoolStatistics().get(1).getMaxTotal(), 8);
+	}
+
+}
@@ -0,0 +1,82 @@
+package io.jans.orm.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+
+import java.sql.SQLException;
+import java.util.Properties;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.jans.orm.model.PagedResult;
+import io.jans.orm.model.SortOrder;
+import io.jans.orm.search.filter.Filter;
+import io.jans.orm.sql.impl.SqlEntryManager;
+import io.jans.orm.sql.impl.test.model.TestPerson;
+
+public class SqlCountModeTest extends BaseSqlH2Test {
+
+	@BeforeMethod
+	public void populate() throws SQLException {
+		deleteAllPersons();
+
+		for (int i = 0; i < 4; i++) {
+			TestPerson person = new TestPerson(String.valueOf(i), "user" + i, "User " + i);
+			person.setEnabled(i % 2 == 0);
+			entryManager.persist(person);
+		}
+
+		// Table statistics count all rows of table. Entry with another object class allows to detect it
+		execute("INSERT INTO jans.jansPerson (doc_id, objectClass, dn, uid) VALUES ('9', 'jansOther', 'inum=9,ou=people,o=jans', 'user9')");
+	}
+
+	@Test
+	public void checkExactCount() {
+		assertEquals(entryManager.countEntries(PEOPLE_DN, TestPerson.class, null), 5);
+		assertEquals(entryManager.countEntries(PEOPLE_DN, TestPerson.class, Filter.create("(objectClass=jansPerson)")), 4);
+		assertEquals(entryManager.countEntries(PEOPLE_DN, TestPerson.class, Filter.createEqualityFilter("jansEnabled", true)), 2);
+	}
+
+	@Test
+	public void checkApproximateCount() {
+		SqlEntryManager approximateEntryManager = createEntryManager("approximate");
+
+		assertEquals(approximateEntryManager.countEntries(PEOPLE_DN, TestPerson.class, null), 5);
+		// Predicate with object class only is handled as search without filter
+		assertEquals(approximateEntryManager.countEntries(PEOPLE_DN, TestPerson.class, Filter.create("(objectClass=jansPerson)")), 5);
+		// Predicate with another object class selects nothing from table
+		assertEquals(approximateEntryManager.countEntries(PEOPLE_DN, TestPerson.class, Filter.create("(objectClass=jansOther2)")), 0);
+		// Filtered search uses exact count
+		assertEquals(approximateEntryManager.countEntries(PEOPLE_DN, TestPerson.class, Filter.createEqualityFilter("jansEnabled", true)), 2);
+
+		PagedResult<TestPerson> result = approximateEntryManager.findPagedEntries(PEOPLE_DN, TestPerson.class,
+				Filter.createEqualityFilter("jansEnabled", false), null, "uid", SortOrder.ASCENDING, 0, 1, 1);
+		assertEquals(result.getEntriesCount(), 1);
+		assertEquals(result.getTotalEntriesCount(), 2);
+	}
+
+	@Test
+	public void checkWindowCount() {
+		SqlEntryManager windowEntryManager = createEntryManager("window");
+
+		PagedResult<TestPerson> result = windowEntryManager.findPagedEntries(PEOPLE_DN, TestPerson.class,
+				Filter.createEqualityFilter("jansEnabled", true), null, "uid", SortOrder.ASCENDING, 0, 1, 1);
+		assertEquals(result.getEntriesCount(), 1);
+		assertEquals(result.getEntries().get(0).getUid(), "user0");
+		assertEquals(result.getTotalEntriesCount(), 2);
+
+		// Page after last entry has no window count column value
+		result = windowEntryManager.findPagedEntries(PEOPLE_DN, TestPerson.class,
+				Filter.createEqualityFilter("jansEnabled", true), null, "uid", SortOrder.ASCENDING, 5, 1, 1);
+		assertEquals(result.getEntriesCount(), 0);
+		assertEquals(result.getTotalEntriesCount(), 2);
+	}
+
+	private SqlEntryManager createEntryManager(String countMode) {
+		Properties properties = new Properties();
+		properties.put("sql#count.mode", countMode);
+
+		return createEntryManager(properties);
+	}
+
+}
@@ -0,0 +1,52 @@
+package io.jans.orm.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.jans.orm.sql.impl.test.model.TestPerson;
+
+public class SqlEntryManagerTest extends BaseSqlH2Test {
+
+	@BeforeMethod
+	public void cleanup() throws SQLException {
+		deleteAllPersons();
+	}
+
+	@Test
+	public void checkPersistAll() {
+		List<TestPerson> persons = new ArrayList<TestPerson>();
+		for (int i = 0; i < 5; i++) {
+			TestPerson person = new TestPerson(String.valueOf(i), "user" + i, "User " + i);
+			person.setMemberOf(Arrays.asList("group1", "group" + i));
+			person.setCreationDate(new Date(1608130698000L + i));
+			person.setEnabled(i % 2 == 0);
+			persons.add(person);
+		}
+		entryManager.persistAll(persons);
+
+		assertEquals(entryManager.countEntries(PEOPLE_DN, TestPerson.class, null), 5);
+
+		TestPerson person = entryManager.find(TestPerson.class, "inum=3,ou=people,o=jans");
+		assertEquals(person.getUid(), "user3");
+		assertEquals(person.getMemberOf(), Arrays.asList("group1", "group3"));
+		assertEquals(person.getCreationDate(), new Date(1608130698003L));
+		assertEquals(person.getEnabled(), Boolean.FALSE);
+	}
+
+	@Test
+	public void checkPersistAllEmpty() {
+		entryManager.persistAll(new ArrayList<TestPerson>());
+
+		assertTrue(entryManager.findEntries(PEOPLE_DN, TestPerson.class, null).isEmpty());
+	}
+
+}
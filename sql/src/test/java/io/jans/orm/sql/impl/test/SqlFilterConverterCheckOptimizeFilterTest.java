@@ -0,0 +1,106 @@
+package io.jans.orm.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.SimpleExpression;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLTemplates;
+
+import io.jans.orm.exception.operation.SearchException;
+import io.jans.orm.search.filter.Filter;
+import io.jans.orm.search.filter.FilterOptimizer;
+import io.jans.orm.sql.dsl.template.SqlJsonMySQLTemplates;
+import io.jans.orm.sql.impl.SqlFilterConverter;
+import io.jans.orm.sql.model.ConvertedExpression;
+
+@SuppressWarnings({ "rawtypes", "unchecked"})
+public class SqlFilterConverterCheckOptimizeFilterTest {
+
+	private SqlFilterConverter simpleConverter;
+	private FilterOptimizer filterOptimizer;
+	private Path<Object> tablePath;
+	private Path<Object> docAlias;
+	private SimpleExpression<Object> tableAlieasPath;
+	private StringPath allPath;
+	private SQLTemplates sqlTemplates;
+	private Configuration configuration;
+
+	@BeforeClass
+	public void init() {
+		this.simpleConverter = new SqlFilterConverter(null);
+		this.filterOptimizer = new FilterOptimizer();
+		this.tablePath = ExpressionUtils.path(Object.class, "table");
+		this.docAlias = ExpressionUtils.path(Object.class, "doc");
+		this.tableAlieasPath = Expressions.as(tablePath, docAlias);
+		this.allPath = Expressions.stringPath(docAlias, "*");
+
+		this.sqlTemplates = SqlJsonMySQLTemplates.builder().printSchema().build();
+		this.configuration = new Configuration(sqlTemplates);
+	}
+
+	@Test
+	public void checkFlattenAndDedupeFilter() throws SearchException {
+		Filter filterEq1 = Filter.createEqualityFilter("uid", "test");
+		Filter filterEq2 = Filter.createEqualityFilter("uid", "test");
+		Filter filterPresence = Filter.createPresenceFilter("mail");
+		Filter filterLe = Filter.createLessOrEqualFilter("age", 30);
+
+		Filter filter1 = Filter.createANDFilter(filterPresence, Filter.createANDFilter(filterEq1, Filter.createANDFilter(filterLe, filterEq2)));
+		Filter optimizedFilter1 = filterOptimizer.optimize(filter1);
+
+		String query1 = toSelectSQL(simpleConverter.convertToSqlFilter(optimizedFilter1, null, null));
+		assertEquals(query1, "select doc.`*` from `table` as doc where doc.uid = 'test' and doc.age <= 30 and doc.mail is not null");
+
+		// Source filter should stay unchanged
+		assertEquals(filter1.toString(), "(&(mail=*)(&(uid=test)(&(age<=30)(uid=test))))");
+	}
+
+	@Test
+	public void checkNotAndSingleFilter() throws SearchException {
+		Filter filterEq1 = Filter.createEqualityFilter("uid", "test");
+
+		Filter filter1 = Filter.createORFilter(Filter.createNOTFilter(Filter.createNOTFilter(Filter.createANDFilter(filterEq1))));
+		assertSame(filterOptimizer.optimize(filter1), filterEq1);
+
+		// Filter without changes should be reused
+		Filter filter2 = Filter.createANDFilter(filterEq1, Filter.createPresenceFilter("mail"));
+		assertSame(filterOptimizer.optimize(filter2), filter2);
+	}
+
+	@Test
+	public void checkOrToInFilter() throws SearchException {
+		Filter filterEq1 = Filter.createEqualityFilter("uid", "test1");
+		Filter filterEq2 = Filter.createEqualityFilter("uid", "test2");
+		Filter filterEq3 = Filter.createEqualityFilter("uid", "test3");
+		Filter filterEq4 = Filter.createEqualityFilter("mail", "test@example.com");
+
+		Filter filter1 = Filter.createORFilter(filterEq1, Filter.createORFilter(filterEq2, filterEq4), filterEq3, filterEq1).multiValued(false);
+		Filter optimizedFilter1 = filterOptimizer.optimize(filter1);
+
+		assertEquals(optimizedFilter1.toString(), "(|(|(uid=test1)(uid=test2)(uid=test3))(mail=test@example.com))");
+
+		String query1 = toSelectSQL(simpleConverter.convertToSqlFilter(optimizedFilter1, null, null));
+		assertEquals(query1, "select doc.`*` from `table` as doc where doc.uid in ('test1', 'test2', 'test3') or doc.mail = 'test@example.com'");
+	}
+
+	private String toSelectSQL(ConvertedExpression convertedExpression) {
+		SQLQuery sqlQuery = (SQLQuery) new SQLQuery(configuration).select(allPath).from(tableAlieasPath)
+				.where((Predicate) convertedExpression.expression());
+		sqlQuery.setUseLiterals(true);
+
+		String queryStr = sqlQuery.getSQL().getSQL().replace("\n", " ");
+
+		return queryStr;
+	}
+
+}
@@ -0,0 +1,96 @@
+package io.jans.orm.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.jans.orm.exception.MappingException;
+import io.jans.orm.sql.impl.test.model.TestPerson;
+
+public class SqlFindByKeysTest extends BaseSqlH2Test {
+
+	// Keys are loaded in chunks of 500
+	private static final int PERSONS_COUNT = 1001;
+
+	@BeforeMethod
+	public void populate() throws SQLException {
+		deleteAllPersons();
+
+		List<TestPerson> persons = new ArrayList<TestPerson>(PERSONS_COUNT);
+		for (int i = 0; i < PERSONS_COUNT; i++) {
+			persons.add(new TestPerson(String.valueOf(i), "user" + i, "User " + i));
+		}
+		entryManager.persistAll(persons);
+	}
+
+	@Test
+	public void checkAllChunks() {
+		List<String> dns = new ArrayList<String>(PERSONS_COUNT);
+		for (int i = PERSONS_COUNT - 1; i >= 0; i--) {
+			dns.add(toDn(i));
+		}
+
+		Map<String, TestPerson> persons = entryManager.findByKeys(dns, TestPerson.class, null);
+
+		assertEquals(persons.size(), PERSONS_COUNT);
+		assertEquals(new ArrayList<String>(persons.keySet()), dns);
+		for (Entry<String, TestPerson> person : persons.entrySet()) {
+			assertEquals(person.getValue().getDn(), person.getKey());
+		}
+		assertEquals(persons.get(toDn(500)).getUid(), "user500");
+		assertEquals(persons.get(toDn(1000)).getUid(), "user1000");
+	}
+
+	@Test
+	public void checkMissingKeys() {
+		List<String> dns = new ArrayList<String>();
+		for (int i = 0; i < 1200; i += 100) {
+			dns.add(toDn(i));
+			dns.add(toDn(i + 5000));
+		}
+
+		Map<String, TestPerson> persons = entryManager.findByKeys(dns, TestPerson.class, null);
+
+		List<String> expected = new ArrayList<String>();
+		for (int i = 0; i < PERSONS_COUNT; i += 100) {
+			expected.add(toDn(i));
+		}
+		assertEquals(new ArrayList<String>(persons.keySet()), expected);
+	}
+
+	@Test
+	public void checkOrderAndDuplicates() {
+		List<String> dns = Arrays.asList(toDn(7), toDn(3), toDn(999), toDn(3), toDn(0));
+
+		Map<String, TestPerson> persons = entryManager.findByKeys(dns, TestPerson.class, new String[] { "uid" });
+
+		assertEquals(new ArrayList<String>(persons.keySet()), Arrays.asList(toDn(7), toDn(3), toDn(999), toDn(0)));
+		assertEquals(persons.get(toDn(999)).getUid(), "user999");
+	}
+
+	@Test
+	public void checkEmptyKeys() {
+		assertTrue(entryManager.findByKeys(Collections.<String>emptyList(), TestPerson.class, null).isEmpty());
+		assertTrue(entryManager.findByKeys(Arrays.asList(toDn(5000)), TestPerson.class, null).isEmpty());
+	}
+
+	@Test(expectedExceptions = MappingException.class)
+	public void checkNullKey() {
+		entryManager.findByKeys(Arrays.asList(toDn(1), null), TestPerson.class, null);
+	}
+
+	private String toDn(int inum) {
+		return String.format("inum=%d,%s", inum, PEOPLE_DN);
+	}
+
+}
@@ -0,0 +1,123 @@
+package io.jans.orm.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.jans.orm.PersistenceEntryManager;
+import io.jans.orm.exception.MappingException;
+import io.jans.orm.model.PagedResult;
+import io.jans.orm.model.SortOrder;
+import io.jans.orm.sql.impl.SqlEntryManager;
+import io.jans.orm.sql.impl.test.model.TestPerson;
+
+public class SqlKeysetPaginationTest extends BaseSqlH2Test {
+
+	private static final long CREATION_TIME = 1791000000123L;
+
+	@BeforeMethod
+	public void populate() throws SQLException {
+		deleteAllPersons();
+
+		for (int i = 0; i < 7; i++) {
+			TestPerson person = new TestPerson(String.valueOf(i), "user" + i, "User " + i);
+			// Entries without mail are sorted before others
+			if ((i != 1) && (i != 4)) {
+				person.setMail("m" + (6 - i) + "@example.org");
+			}
+			person.setCreationDate(new Date(CREATION_TIME + (6 - i) * 1000));
+			entryManager.persist(person);
+		}
+	}
+
+	@Test
+	public void checkAscendingWithNullValues() {
+		// First page ends with entry without mail, next page uses offset
+		assertEquals(loadAllPages(entryManager, "mail", SortOrder.ASCENDING, 2),
+				Arrays.asList("user1", "user4", "user6", "user5", "user3", "user2", "user0"));
+	}
+
+	@Test
+	public void checkDescendingWithNullValues() {
+		assertEquals(loadAllPages(entryManager, "mail", SortOrder.DESCENDING, 2),
+				Arrays.asList("user0", "user2", "user3", "user5", "user6", "user1", "user4"));
+	}
+
+	@Test
+	public void checkDateSort() {
+		assertEquals(loadAllPages(entryManager, "jansCreationTimestamp", SortOrder.ASCENDING, 3),
+				Arrays.asList("user6", "user5", "user4", "user3", "user2", "user1", "user0"));
+	}
+
+	@Test
+	public void checkLastPage() {
+		PagedResult<TestPerson> result = entryManager.findPagedEntries(PEOPLE_DN, TestPerson.class, null, null, "uid",
+				SortOrder.ASCENDING, null, 7);
+		assertEquals(result.getEntriesCount(), 7);
+		assertEquals(result.getEntries().get(6).getUid(), "user6");
+
+		result = entryManager.findPagedEntries(PEOPLE_DN, TestPerson.class, null, null, "uid", SortOrder.ASCENDING,
+				result.getContinuationToken(), 7);
+		assertEquals(result.getEntriesCount(), 0);
+		assertNull(result.getContinuationToken());
+	}
+
+	@Test
+	public void checkTokenKey() {
+		Properties properties = new Properties();
+		properties.put("sql#keyset.token.key", "secret");
+
+		SqlEntryManager entryManager1 = createEntryManager(properties);
+		// Keyset pagination is available without cast to SQL entry manager
+		PersistenceEntryManager entryManager2 = createEntryManager(properties);
+
+		PagedResult<TestPerson> result = entryManager1.findPagedEntries(PEOPLE_DN, TestPerson.class, null, null, "uid",
+				SortOrder.ASCENDING, null, 3);
+		String token = result.getContinuationToken();
+
+		// Entry managers with same key accept tokens of each other
+		result = entryManager2.findPagedEntries(PEOPLE_DN, TestPerson.class, null, null, "uid", SortOrder.ASCENDING, token, 3);
+		assertEquals(getUids(result), Arrays.asList("user3", "user4", "user5"));
+
+		try {
+			entryManager.findPagedEntries(PEOPLE_DN, TestPerson.class, null, null, "uid", SortOrder.ASCENDING, token, 3);
+			fail("Token of entry manager with another key should be rejected");
+		} catch (MappingException ex) {
+			// Expected
+		}
+	}
+
+	private List<String> loadAllPages(SqlEntryManager entryManager, String sortBy, SortOrder sortOrder, int count) {
+		List<String> uids = new ArrayList<String>();
+
+		String token = null;
+		do {
+			PagedResult<TestPerson> result = entryManager.findPagedEntries(PEOPLE_DN, TestPerson.class, null, null, sortBy,
+					sortOrder, token, count);
+			uids.addAll(getUids(result));
+			token = result.getContinuationToken();
+		} while (token != null);
+
+		return uids;
+	}
+
+	private List<String> getUids(PagedResult<TestPerson> result) {
+		List<String> uids = new ArrayList<String>();
+		for (TestPerson person : result.getEntries()) {
+			uids.add(person.getUid());
+		}
+
+		return uids;
+	}
+
+}
@@ -0,0 +1,83 @@
+package io.jans.orm.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.jans.orm.model.RemoveProgressListener;
+import io.jans.orm.search.filter.Filter;
+import io.jans.orm.sql.impl.test.model.TestPerson;
+
+public class SqlRemoveInBatchesTest extends BaseSqlH2Test {
+
+	private static final Filter EXPIRED_FILTER = Filter.createEqualityFilter("jansStatus", "expired");
+
+	@BeforeMethod
+	public void populate() throws SQLException {
+		deleteAllPersons();
+
+		for (int i = 0; i < 7; i++) {
+			TestPerson person = new TestPerson(String.valueOf(i), "user" + i, "User " + i);
+			person.setStatus((i < 5) ? "expired" : "active");
+			entryManager.persist(person);
+		}
+	}
+
+	@Test
+	public void checkBatches() {
+		final List<Integer> batches = new ArrayList<Integer>();
+		long removed = entryManager.removeInBatches(PEOPLE_DN, TestPerson.class, EXPIRED_FILTER, 2, 1, new RemoveProgressListener() {
+			@Override
+			public boolean onProgress(int batchRemoved, long totalRemoved) {
+				batches.add(batchRemoved);
+				return true;
+			}
+		});
+
+		assertEquals(removed, 5);
+		assertEquals(batches, Arrays.asList(2, 2, 1));
+		assertEquals(entryManager.countEntries(PEOPLE_DN, TestPerson.class, EXPIRED_FILTER), 0);
+		assertEquals(entryManager.countEntries(PEOPLE_DN, TestPerson.class, null), 2);
+	}
+
+	@Test
+	public void checkStoppedByListener() {
+		long removed = entryManager.removeInBatches(PEOPLE_DN, TestPerson.class, EXPIRED_FILTER, 2, 0, new RemoveProgressListener() {
+			@Override
+			public boolean onProgress(int batchRemoved, long totalRemoved) {
+				return totalRemoved < 4;
+			}
+		});
+
+		assertEquals(removed, 4);
+		assertEquals(entryManager.countEntries(PEOPLE_DN, TestPerson.class, EXPIRED_FILTER), 1);
+	}
+
+	@Test
+	public void checkEntriesChangedDuringRemoval() {
+		final List<Long> progress = new ArrayList<Long>();
+		long removed = entryManager.removeInBatches(PEOPLE_DN, TestPerson.class, EXPIRED_FILTER, 2, 0, new RemoveProgressListener() {
+			@Override
+			public boolean onProgress(int batchRemoved, long totalRemoved) {
+				progress.add(totalRemoved);
+				if (progress.size() == 1) {
+					// Entry which doesn't match filter anymore should be kept
+					TestPerson person = entryManager.find(TestPerson.class, "inum=3,ou=people,o=jans");
+					person.setStatus("active");
+					entryManager.merge(person);
+				}
+				return true;
+			}
+		});
+
+		assertEquals(removed, 4);
+		assertEquals(entryManager.find(TestPerson.class, "inum=3,ou=people,o=jans").getStatus(), "active");
+	}
+
+}
@@ -0,0 +1,335 @@
+package io.jans.orm.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import io.jans.orm.annotation.AttributeName;
+import io.jans.orm.annotation.DN;
+import io.jans.orm.annotation.DataEntry;
+import io.jans.orm.annotation.ObjectClass;
+import io.jans.orm.search.filter.Filter;
+import io.jans.orm.sql.impl.SqlEntryManager;
+import io.jans.orm.sql.impl.SqlEntryManagerFactory;
+import io.jans.orm.sql.operation.impl.SqlConnectionProvider.PrimaryReadsScope;
+import io.jans.orm.watch.ConnectionPoolStatisticsMXBean;
+
+public class SqlReplicaRoutingTest {
+
+	private static final String PRIMARY_URI = "jdbc:h2:mem:jans_primary;MODE=MySQL;DATABASE_TO_UPPER=FALSE;DB_CLOSE_DELAY=-1";
+	private static final String REPLICA_URI = "jdbc:h2:mem:jans_replica;MODE=MySQL;DATABASE_TO_UPPER=FALSE;DB_CLOSE_DELAY=-1";
+
+	private static final String[] SCHEMA = new String[] {
+		"CREATE SCHEMA jans",
+		"CREATE TABLE jans.jansPerson (doc_id VARCHAR(64) PRIMARY KEY, objectClass VARCHAR(48), dn VARCHAR(128), "
+				+ "uid VARCHAR(64), userPassword VARCHAR(256), displayName VARCHAR(128))",
+		"CREATE TABLE jans.jansGrp (doc_id VARCHAR(64) PRIMARY KEY, objectClass VARCHAR(48), dn VARCHAR(128), "
+				+ "displayName VARCHAR(128))"
+	};
+
+	private List<Connection> connections;
+	private List<SqlEntryManager> entryManagers;
+
+	private SqlEntryManager primaryEntryManager;
+	private SqlEntryManager replicaEntryManager;
+
+	@BeforeClass
+	public void init() throws SQLException {
+		this.connections = new ArrayList<Connection>();
+		this.entryManagers = new ArrayList<SqlEntryManager>();
+
+		createDatabase(PRIMARY_URI);
+		createDatabase(REPLICA_URI);
+
+		// Data is not replicated, so each DB contains own version of entries
+		SqlEntryManager primaryWriter = createEntryManager(PRIMARY_URI, new Properties());
+		primaryWriter.persist(new TestPerson("1", "user1", "primary"));
+		primaryWriter.persist(new TestGroup("1", "primary"));
+
+		SqlEntryManager replicaWriter = createEntryManager(REPLICA_URI, new Properties());
+		replicaWriter.persist(new TestPerson("1", "user1", "replica"));
+		replicaWriter.persist(new TestPerson("2", "user2", "replica"));
+		replicaWriter.persist(new TestGroup("1", "replica"));
+
+		Properties replicaProperties = new Properties();
+		replicaProperties.put("sql#connection.replica.uris", REPLICA_URI);
+		replicaProperties.put("sql#connection.replica.primary-object-classes", "jansGrp");
+		this.replicaEntryManager = createEntryManager(PRIMARY_URI, replicaProperties);
+
+		this.primaryEntryManager = primaryWriter;
+	}
+
+	@AfterClass
+	public void destroy() throws SQLException {
+		for (SqlEntryManager entryManager : entryManagers) {
+			entryManager.destroy();
+		}
+
+		for (Connection connection : connections) {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("SHUTDOWN");
+			}
+			connection.close();
+		}
+	}
+
+	@Test
+	public void checkReadsUseReplica() {
+		assertEquals(replicaEntryManager.find(TestPerson.class, "inum=1,ou=people,o=jans").getDisplayName(), "replica");
+		assertEquals(replicaEntryManager.findEntries("ou=people,o=jans", TestPerson.class, null).size(), 2);
+		assertEquals(replicaEntryManager.countEntries("ou=people,o=jans", TestPerson.class, null), 2);
+	}
+
+	@Test
+	public void checkPrimaryReadsScope() {
+		try (PrimaryReadsScope primaryReadsScope = replicaEntryManager.startPrimaryReads()) {
+			assertEquals(replicaEntryManager.find(TestPerson.class, "inum=1,ou=people,o=jans").getDisplayName(), "primary");
+
+			// Scopes can be nested
+			Filter filter = Filter.createEqualityFilter("displayName", "replica");
+			try (PrimaryReadsScope nestedScope = replicaEntryManager.startPrimaryReads()) {
+				assertEquals(replicaEntryManager.countEntries("ou=people,o=jans", TestPerson.class, filter), 0);
+			}
+			assertTrue(replicaEntryManager.findEntries("ou=people,o=jans", TestPerson.class, filter).isEmpty());
+		}
+
+		assertEquals(replicaEntryManager.find(TestPerson.class, "inum=1,ou=people,o=jans").getDisplayName(), "replica");
+	}
+
+	@Test
+	public void checkPrimaryObjectClasses() {
+		assertEquals(replicaEntryManager.find(TestGroup.class, "inum=1,ou=groups,o=jans").getDisplayName(), "primary");
+	}
+
+	@Test
+	public void checkWritesUsePrimary() {
+		replicaEntryManager.persist(new TestPerson("3", "user3", "primary"));
+
+		Filter filter = Filter.createEqualityFilter("uid", "user3");
+		assertTrue(replicaEntryManager.findEntries("ou=people,o=jans", TestPerson.class, filter).isEmpty());
+		assertEquals(primaryEntryManager.findEntries("ou=people,o=jans", TestPerson.class, filter).size(), 1);
+	}
+
+	@Test
+	public void checkMergeUsesPrimary() {
+		// Entry is not replicated yet
+		primaryEntryManager.persist(new TestPerson("6", "user6", "primary"));
+
+		TestPerson person = new TestPerson("6", "user6", "merged");
+		replicaEntryManager.merge(person);
+
+		assertEquals(primaryEntryManager.find(TestPerson.class, "inum=6,ou=people,o=jans").getDisplayName(), "merged");
+		assertTrue(replicaEntryManager.findEntries("ou=people,o=jans", TestPerson.class, Filter.createEqualityFilter("uid", "user6")).isEmpty());
+	}
+
+	@Test
+	public void checkPersistOrMergeUsesPrimary() {
+		replicaEntryManager.persistOrMerge(new TestPerson("5", "user5", "primary"));
+
+		// Attributes without values are not changed
+		replicaEntryManager.persistOrMerge(new TestPerson("5", "user5_1", null));
+
+		TestPerson person = primaryEntryManager.find(TestPerson.class, "inum=5,ou=people,o=jans");
+		assertEquals(person.getUid(), "user5_1");
+		assertEquals(person.getDisplayName(), "primary");
+		assertEquals(primaryEntryManager.countEntries("ou=people,o=jans", TestPerson.class, Filter.createEqualityFilter("uid", "user5_1")), 1);
+	}
+
+	@Test
+	public void checkAuthenticateUsesPrimary() {
+		TestPerson person = new TestPerson("4", "user4", "primary");
+		person.setUserPassword("secret");
+		replicaEntryManager.persist(person);
+
+		assertTrue(replicaEntryManager.authenticate("inum=4,ou=people,o=jans", TestPerson.class, "secret"));
+		assertFalse(replicaEntryManager.authenticate("inum=4,ou=people,o=jans", TestPerson.class, "wrong"));
+		assertTrue(replicaEntryManager.authenticate("ou=people,o=jans", TestPerson.class, "user4", "secret"));
+	}
+
+	@Test
+	public void checkRoundRobinBalancing() {
+		// Same replica is specified twice to check that both pools are used
+		Properties replicaProperties = new Properties();
+		replicaProperties.put("sql#connection.replica.uris", REPLICA_URI + "," + REPLICA_URI);
+		replicaProperties.put("sql#connection.replica.balancing", "round-robin");
+		SqlEntryManager entryManager = createEntryManager(PRIMARY_URI, replicaProperties);
+
+		for (int i = 0; i < 4; i++) {
+			TestPerson person = entryManager.find(TestPerson.class, "inum=2,ou=people,o=jans");
+			assertNotNull(person);
+			assertNull(person.getUserPassword());
+		}
+
+		assertEquals(getBorrowedCount(entryManager, "replica-1"), 2);
+		assertEquals(getBorrowedCount(entryManager, "replica-2"), 2);
+	}
+
+	@Test
+	public void checkLeastLoadedBalancing() throws SQLException {
+		Properties replicaProperties = new Properties();
+		replicaProperties.put("sql#connection.replica.uris", REPLICA_URI + "," + REPLICA_URI);
+		replicaProperties.put("sql#connection.replica.balancing", "least-loaded");
+		SqlEntryManager entryManager = createEntryManager(PRIMARY_URI, replicaProperties);
+
+		// Keep connection of first replica busy
+		try (Connection connection = entryManager.getOperationService().getConnectionProvider().getReadConnection("jansPerson")) {
+			assertEquals(getBorrowedCount(entryManager, "replica-1"), 1);
+
+			for (int i = 0; i < 2; i++) {
+				assertNotNull(entryManager.find(TestPerson.class, "inum=2,ou=people,o=jans"));
+			}
+
+			assertEquals(getBorrowedCount(entryManager, "replica-1"), 1);
+			assertEquals(getBorrowedCount(entryManager, "replica-2"), 2);
+		}
+	}
+
+	private long getBorrowedCount(SqlEntryManager entryManager, String poolName) {
+		for (ConnectionPoolStatisticsMXBean statistics : entryManager.getOperationService().getConnectionProvider().getPoolStatistics()) {
+			if (poolName.equals(statistics.getName())) {
+				return statistics.getBorrowedCount();
+			}
+		}
+
+		throw new AssertionError(String.format("Pool '%s' not found", poolName));
+	}
+
+	private void createDatabase(String uri) throws SQLException {
+		// Connection keeps database until test end
+		Connection connection = DriverManager.getConnection(uri, "jans", "secret");
+		try (Statement statement = connection.createStatement()) {
+			for (String ddl : SCHEMA) {
+				statement.execute(ddl);
+			}
+		}
+		connections.add(connection);
+	}
+
+	private SqlEntryManager createEntryManager(String uri, Properties properties) {
+		Properties connectionProperties = new Properties();
+		connectionProperties.put("sql#db.schema.name", "jans");
+		connectionProperties.put("sql#connection.uri", uri);
+		connectionProperties.put("sql#auth.userName", "jans");
+		connectionProperties.put("sql#auth.userPassword", "secret");
+		connectionProperties.put("sql#password.encryption.method", "SSHA-256");
+		connectionProperties.putAll(properties);
+
+		SqlEntryManagerFactory sqlEntryManagerFactory = new SqlEntryManagerFactory();
+		sqlEntryManagerFactory.create();
+
+		SqlEntryManager entryManager = sqlEntryManagerFactory.createEntryManager(connectionProperties);
+		entryManagers.add(entryManager);
+
+		return entryManager;
+	}
+
+	@DataEntry
+	@ObjectClass(value = "jansPerson")
+	public static class TestPerson {
+
+		@DN
+		private String dn;
+
+		@AttributeName
+		private String uid;
+
+		@AttributeName
+		private String userPassword;
+
+		@AttributeName
+		private String displayName;
+
+		public TestPerson() {
+		}
+
+		public TestPerson(String inum, String uid, String displayName) {
+			this.dn = String.format("inum=%s,ou=people,o=jans", inum);
+			this.uid = uid;
+			this.displayName = displayName;
+		}
+
+		public String getDn() {
+			return dn;
+		}
+
+		public void setDn(String dn) {
+			this.dn = dn;
+		}
+
+		public String getUid() {
+			return uid;
+		}
+
+		public void setUid(String uid) {
+			this.uid = uid;
+		}
+
+		public String getUserPassword() {
+			return userPassword;
+		}
+
+		public void setUserPassword(String userPassword) {
+			this.userPassword = userPassword;
+		}
+
+		public String getDisplayName() {
+			return displayName;
+		}
+
+		public void setDisplayName(String displayName) {
+			this.displayName = displayName;
+		}
+
+	}
+
+	@DataEntry
+	@ObjectClass(value = "jansGrp")
+	public static class TestGroup {
+
+		@DN
+		private String dn;
+
+		@AttributeName
+		private String displayName;
+
+		public TestGroup() {
+		}
+
+		public TestGroup(String inum, String displayName) {
+			this.dn = String.format("inum=%s,ou=groups,o=jans", inum);
+			this.displayName = displayName;
+		}
+
+		public String getDn() {
+			return dn;
+		}
+
+		public void setDn(String dn) {
+			this.dn = dn;
+		}
+
+		public String getDisplayName() {
+			return displayName;
+		}
+
+		public void setDisplayName(String displayName) {
+			this.displayName = displayName;
+		}
+
+	}
+
+}
@@ -0,0 +1,159 @@
+package io.jans.orm.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.jans.orm.model.AttributeData;
+import io.jans.orm.sql.impl.test.model.TestPerson;
+import io.jans.orm.sql.operation.impl.SqlOperationServiceImpl;
+import io.jans.orm.sql.operation.impl.SqlRowDecoder;
+
+public class SqlRowDecoderTest extends BaseSqlH2Test {
+
+	private static final String SELECT_PERSON = "SELECT doc_id, dn, uid, mail, jansStatus, memberOf, jansCreationTimestamp, jansEnabled FROM jans.jansPerson WHERE uid = '%s'";
+
+	private static final Date CREATION_DATE = new Date(1600000000123L);
+
+	@BeforeMethod
+	public void populate() throws SQLException {
+		deleteAllPersons();
+
+		TestPerson person1 = new TestPerson("1", "user1", "User 1");
+		person1.setMail("2020-09-13 12:26:40");
+		person1.setMemberOf(Arrays.asList("group1", "group2"));
+		person1.setCreationDate(CREATION_DATE);
+		person1.setEnabled(true);
+		entryManager.persist(person1);
+
+		TestPerson person2 = new TestPerson("2", "user2", "User 2");
+		person2.setEnabled(false);
+		entryManager.persist(person2);
+	}
+
+	@Test
+	public void checkInternalAndNullColumns() throws SQLException {
+		List<AttributeData> attributes = decode("user2", true, false);
+
+		assertNull(getAttribute(attributes, "doc_id"));
+		assertNull(getAttribute(attributes, "dn"));
+		// Nullable columns without value are skipped
+		assertNull(getAttribute(attributes, "mail"));
+		assertNull(getAttribute(attributes, "jansCreationTimestamp"));
+
+		assertEquals(getAttribute(attributes, "uid").getValue(), "user2");
+	}
+
+	@Test
+	public void checkDnColumn() throws SQLException {
+		List<AttributeData> attributes = decode("user2", false, false);
+
+		assertEquals(getAttribute(attributes, "dn").getValue(), "inum=2,ou=people,o=jans");
+	}
+
+	@Test
+	public void checkStringNotParsedAsDate() throws SQLException {
+		List<AttributeData> attributes = decode("user1", true, false);
+
+		// Value looks like date but column is VARCHAR
+		AttributeData mail = getAttribute(attributes, "mail");
+		assertEquals(mail.getValue(), "2020-09-13 12:26:40");
+		assertFalse(mail.getMultiValued());
+	}
+
+	@Test
+	public void checkTimestampColumn() throws SQLException {
+		List<AttributeData> attributes = decode("user1", true, false);
+
+		Object value = getAttribute(attributes, "jansCreationTimestamp").getValue();
+		assertEquals(value.getClass(), Date.class);
+		assertEquals(value, CREATION_DATE);
+	}
+
+	@Test
+	public void checkLocalDateTimeColumn() throws SQLException {
+		List<AttributeData> attributes = decode("user1", true, true);
+
+		Object value = getAttribute(attributes, "jansCreationTimestamp").getValue();
+		assertEquals(value.getClass(), Date.class);
+		assertEquals(value, CREATION_DATE);
+	}
+
+	@Test
+	public void checkJsonColumn() throws SQLException {
+		List<AttributeData> attributes = decode("user1", true, false);
+
+		AttributeData memberOf = getAttribute(attributes, "memberOf");
+		assertTrue(memberOf.getMultiValued());
+		assertEquals(memberOf.getValues(), new Object[] { "group1", "group2" });
+	}
+
+	@Test
+	public void checkSmallIntColumn() throws SQLException {
+		assertEquals(getAttribute(decode("user1", true, false), "jansEnabled").getValue(), Boolean.TRUE);
+		assertEquals(getAttribute(decode("user2", true, false), "jansEnabled").getValue(), Boolean.FALSE);
+	}
+
+	private List<AttributeData> decode(String uid, boolean skipDn, boolean localDateTimes) throws SQLException {
+		SqlOperationServiceImpl operationService = (SqlOperationServiceImpl) entryManager.getOperationService();
+		try (Statement statement = getConnection().createStatement();
+				ResultSet resultSet = statement.executeQuery(String.format(SELECT_PERSON, uid))) {
+			assertTrue(resultSet.next());
+
+			ResultSet decodedResultSet = localDateTimes ? withLocalDateTimes(resultSet) : resultSet;
+			SqlRowDecoder rowDecoder = SqlRowDecoder.create(operationService, decodedResultSet.getMetaData(), null, skipDn);
+
+			return rowDecoder.decode(decodedResultSet);
+		}
+	}
+
+	private AttributeData getAttribute(List<AttributeData> attributes, String name) {
+		for (AttributeData attribute : attributes) {
+			if (name.equalsIgnoreCase(attribute.getName())) {
+				return attribute;
+			}
+		}
+
+		return null;
+	}
+
+	/*
+	 * Some JDBC drivers return LocalDateTime instead of Timestamp
+	 */
+	private ResultSet withLocalDateTimes(final ResultSet resultSet) {
+		return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ResultSet.class }, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				Object result;
+				try {
+					result = method.invoke(resultSet, args);
+				} catch (InvocationTargetException ex) {
+					throw ex.getCause();
+				}
+
+				if ("getObject".equals(method.getName()) && (result instanceof Timestamp)) {
+					return ((Timestamp) result).toLocalDateTime();
+				}
+
+				return result;
+			}
+		});
+	}
+
+}
@@ -0,0 +1,125 @@
+package io.jans.orm.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.RelationalPathBase;
+import com.querydsl.sql.SQLQueryFactory;
+
+import io.jans.orm.exception.operation.SearchException;
+import io.jans.orm.search.filter.Filter;
+import io.jans.orm.sql.dsl.template.SqlJsonMySQLTemplates;
+import io.jans.orm.sql.impl.SqlFilterConverter;
+import io.jans.orm.sql.operation.impl.SqlStatementCache;
+import io.jans.orm.sql.operation.impl.SqlStatementCache.BoundStatement;
+
+@SuppressWarnings({ "rawtypes", "unchecked"})
+public class SqlStatementCacheTest {
+
+	private SqlFilterConverter simpleConverter;
+	private SqlStatementCache statementCache;
+	private RelationalPathBase<Object> table;
+	private Expression<?> select;
+
+	@BeforeMethod
+	public void init() {
+		this.simpleConverter = new SqlFilterConverter(null);
+
+		Configuration configuration = new Configuration(SqlJsonMySQLTemplates.builder().printSchema().build());
+		this.statementCache = new SqlStatementCache(new SQLQueryFactory(configuration, (DataSource) null), 10);
+
+		this.table = new RelationalPathBase<Object>(Object.class, "doc", "jans", "jansPerson");
+		this.select = Expressions.list(Expressions.path(Object.class, table, "uid"), Expressions.path(Object.class, table, "doc_id"));
+	}
+
+	@Test
+	public void checkSameShapeQueries() throws SearchException {
+		OrderSpecifier<?>[] orderBy = new OrderSpecifier[] { new OrderSpecifier(Order.ASC, Expressions.path(String.class, table, "uid")) };
+
+		BoundStatement statement1 = statementCache.prepare(table, select, toPredicate(Filter.createANDFilter(Filter.createEqualityFilter("uid", "test1"),
+				Filter.createSubstringFilter("mail", "test", null, null))), orderBy, 10L, 0L);
+		BoundStatement statement2 = statementCache.prepare(table, select, toPredicate(Filter.createANDFilter(Filter.createEqualityFilter("uid", "test2"),
+				Filter.createSubstringFilter("mail", "other", null, null))), orderBy, 10L, 10L);
+
+		assertEquals(statement1.getSql().replace("\n", " "), "select doc.uid, doc.doc_id from jans.jansPerson doc where doc.uid = ? and doc.mail like ? order by doc.uid asc limit ? offset ?");
+		assertEquals(statement2.getSql(), statement1.getSql());
+		assertEquals(statement1.getBindings(), Arrays.asList("test1", "test%", 10L, 0L));
+		assertEquals(statement2.getBindings(), Arrays.asList("test2", "other%", 10L, 10L));
+
+		assertEquals(statementCache.getSize(), 1);
+		assertEquals(statementCache.getHits(), 1);
+		assertEquals(statementCache.getMisses(), 1);
+	}
+
+	@Test
+	public void checkDifferentShapeQueries() throws SearchException {
+		BoundStatement statement1 = statementCache.prepare(table, select, toPredicate(Filter.createORFilter(Filter.createEqualityFilter("uid", "test1"),
+				Filter.createEqualityFilter("uid", "test2")).multiValued(false)), null, 1L, null);
+		BoundStatement statement2 = statementCache.prepare(table, select, toPredicate(Filter.createORFilter(Filter.createEqualityFilter("uid", "test1"),
+				Filter.createEqualityFilter("uid", "test2"), Filter.createEqualityFilter("uid", "test3")).multiValued(false)), null, 1L, null);
+		BoundStatement statement3 = statementCache.prepare(table, select, null, null, null, null);
+
+		assertEquals(statement1.getSql().replace("\n", " "), "select doc.uid, doc.doc_id from jans.jansPerson doc where doc.uid in (?, ?) limit ?");
+		assertEquals(statement2.getSql().replace("\n", " "), "select doc.uid, doc.doc_id from jans.jansPerson doc where doc.uid in (?, ?, ?) limit ?");
+		assertEquals(statement3.getSql().replace("\n", " "), "select doc.uid, doc.doc_id from jans.jansPerson doc");
+		assertEquals(statement2.getBindings(), Arrays.asList("test1", "test2", "test3", 1L));
+
+		assertEquals(statementCache.getSize(), 3);
+		assertEquals(statementCache.getHits(), 0);
+	}
+
+	@Test
+	public void checkMultiValuedQueries() throws SearchException {
+		Filter filter1 = Filter.createEqualityFilter("role", "admin").multiValued();
+		Filter filter2 = Filter.createEqualityFilter("role", "user").multiValued();
+
+		BoundStatement statement1 = statementCache.prepare(table, select, toPredicate(filter1), null, null, null);
+		BoundStatement statement2 = statementCache.prepare(table, select, toPredicate(filter2), null, null, null);
+
+		assertEquals(statement2.getSql(), statement1.getSql());
+		assertEquals(statement1.getBindings(), Arrays.asList("$.v", "[\"admin\"]"));
+		assertEquals(statement2.getBindings(), Arrays.asList("$.v", "[\"user\"]"));
+		assertEquals(statementCache.getHits(), 1);
+	}
+
+	@Test
+	public void checkEqualConstantsInDifferentPositions() {
+		// Template binds constants in reverse order
+		BoundStatement statement1 = statementCache.prepare(table, select, reversedPredicate("same", "same"), null, null, null);
+		BoundStatement statement2 = statementCache.prepare(table, select, reversedPredicate("first", "second"), null, null, null);
+		BoundStatement statement3 = statementCache.prepare(table, select, reversedPredicate("third", "fourth"), null, null, null);
+		BoundStatement statement4 = statementCache.prepare(table, select, reversedPredicate("other", "other"), null, null, null);
+
+		assertEquals(statement1.getSql().replace("\n", " "), "select doc.uid, doc.doc_id from jans.jansPerson doc where doc.mail = ? and doc.uid = ?");
+		assertEquals(statement3.getSql(), statement1.getSql());
+		assertEquals(statement1.getBindings(), Arrays.asList("same", "same"));
+		assertEquals(statement2.getBindings(), Arrays.asList("second", "first"));
+		assertEquals(statement3.getBindings(), Arrays.asList("fourth", "third"));
+		assertEquals(statement4.getBindings(), Arrays.asList("other", "other"));
+
+		assertEquals(statementCache.getSize(), 2);
+		assertEquals(statementCache.getHits(), 2);
+	}
+
+	private Predicate reversedPredicate(String uid, String mail) {
+		return Expressions.booleanTemplate("{1} = {3} and {0} = {2}", Expressions.path(String.class, table, "uid"), Expressions.path(String.class, table, "mail"),
+				Expressions.constant(uid), Expressions.constant(mail));
+	}
+
+	private Predicate toPredicate(Filter filter) throws SearchException {
+		return (Predicate) simpleConverter.convertToSqlFilter(filter, null, null).expression();
+	}
+
+}
@@ -0,0 +1,70 @@
+package io.jans.orm.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.jans.orm.model.SearchScope;
+import io.jans.orm.search.filter.Filter;
+import io.jans.orm.sql.impl.test.model.TestPerson;
+
+public class SqlStreamEntriesTest extends BaseSqlH2Test {
+
+	@BeforeMethod
+	public void populate() throws SQLException {
+		deleteAllPersons();
+
+		for (int i = 0; i < 7; i++) {
+			TestPerson person = new TestPerson(String.valueOf(i), "user" + i, "User " + i);
+			person.setEnabled(i % 2 == 0);
+			entryManager.persist(person);
+		}
+	}
+
+	@Test
+	public void checkAllPages() {
+		try (Stream<TestPerson> stream = entryManager.streamEntries(PEOPLE_DN, TestPerson.class, null, SearchScope.SUB, null, 0, 2)) {
+			assertEquals(toUids(stream), Arrays.asList("user0", "user1", "user2", "user3", "user4", "user5", "user6"));
+		}
+	}
+
+	@Test
+	public void checkFullLastPage() {
+		try (Stream<TestPerson> stream = entryManager.streamEntries(PEOPLE_DN, TestPerson.class, Filter.createEqualityFilter("jansEnabled", true),
+				SearchScope.SUB, null, 0, 2)) {
+			assertEquals(toUids(stream), Arrays.asList("user0", "user2", "user4", "user6"));
+		}
+	}
+
+	@Test
+	public void checkCount() {
+		try (Stream<TestPerson> stream = entryManager.streamEntries(PEOPLE_DN, TestPerson.class, null, SearchScope.SUB, null, 5, 2)) {
+			assertEquals(toUids(stream), Arrays.asList("user0", "user1", "user2", "user3", "user4"));
+		}
+	}
+
+	@Test
+	public void checkPartialRead() {
+		try (Stream<TestPerson> stream = entryManager.streamEntries(PEOPLE_DN, TestPerson.class, null, SearchScope.SUB, null, 0, 2)) {
+			assertEquals(toUids(stream.limit(3)), Arrays.asList("user0", "user1", "user2"));
+		}
+	}
+
+	private List<String> toUids(Stream<TestPerson> stream) {
+		List<String> uids = new ArrayList<String>();
+		for (TestPerson person : stream.collect(Collectors.toList())) {
+			uids.add(person.getUid());
+		}
+
+		return uids;
+	}
+
+}
@@ -0,0 +1,81 @@
+package io.jans.orm.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.jans.orm.model.DefaultBatchOperation;
+import io.jans.orm.model.SearchScope;
+import io.jans.orm.search.filter.Filter;
+import io.jans.orm.sql.impl.SqlEntryManager;
+import io.jans.orm.sql.impl.test.model.TestPerson;
+
+public class SqlStreamingSearchTest extends BaseSqlH2Test {
+
+	private SqlEntryManager streamingEntryManager;
+
+	@BeforeMethod
+	public void populate() throws SQLException {
+		deleteAllPersons();
+
+		for (int i = 0; i < 5; i++) {
+			entryManager.persist(new TestPerson(String.valueOf(i), "user" + i, "User " + i));
+		}
+
+		if (streamingEntryManager == null) {
+			Properties properties = new Properties();
+			properties.put("sql#streaming.fetchSize", "2");
+
+			this.streamingEntryManager = createEntryManager(properties);
+		}
+	}
+
+	@Test
+	public void checkChunks() {
+		final List<Integer> chunkSizes = new ArrayList<Integer>();
+		DefaultBatchOperation<TestPerson> batchOperation = new DefaultBatchOperation<TestPerson>() {
+			@Override
+			public void performAction(List<TestPerson> entries) {
+				chunkSizes.add(entries.size());
+			}
+		};
+
+		List<TestPerson> result = streamingEntryManager.findEntries(PEOPLE_DN, TestPerson.class, null, SearchScope.SUB, null,
+				batchOperation, 0, 0, 2);
+		assertEquals(result.size(), 5);
+		assertEquals(chunkSizes, Arrays.asList(2, 2, 1));
+	}
+
+	@Test
+	public void checkStartAndCount() {
+		List<TestPerson> result = streamingEntryManager.findEntries(PEOPLE_DN, TestPerson.class, null, SearchScope.SUB, null,
+				1, 3, 2);
+		assertEquals(result.size(), 3);
+	}
+
+	@Test
+	public void checkWriteInAction() {
+		// Action writes entries while query result set is open
+		DefaultBatchOperation<TestPerson> batchOperation = new DefaultBatchOperation<TestPerson>() {
+			@Override
+			public void performAction(List<TestPerson> entries) {
+				for (TestPerson person : entries) {
+					person.setDisplayName("Updated");
+					streamingEntryManager.merge(person);
+				}
+			}
+		};
+
+		streamingEntryManager.findEntries(PEOPLE_DN, TestPerson.class, null, SearchScope.SUB, null, batchOperation, 0, 0, 2);
+
+		assertEquals(entryManager.countEntries(PEOPLE_DN, TestPerson.class, Filter.createEqualityFilter("displayName", "Updated")), 5);
+	}
+
+}
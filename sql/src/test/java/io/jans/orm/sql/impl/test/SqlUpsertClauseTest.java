@@ -0,0 +1,81 @@
+package io.jans.orm.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.util.Arrays;
+
+import org.testng.annotations.Test;
+
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.MySQLTemplates;
+import com.querydsl.sql.PostgreSQLTemplates;
+import com.querydsl.sql.RelationalPathBase;
+import com.querydsl.sql.SQLTemplates;
+import com.querydsl.sql.dml.SQLInsertClause;
+
+import io.jans.orm.sql.operation.impl.SqlUpsertClause;
+
+public class SqlUpsertClauseTest {
+
+	private final RelationalPathBase<Object> table = new RelationalPathBase<Object>(Object.class, "doc", "jans", "jansPerson");
+
+	@Test
+	public void checkMySqlValuesFunction() {
+		String sql = toUpsertSql(MySQLTemplates.builder().printSchema().build(), "mysql", false);
+
+		assertEquals(sql, "insert into jans.jansPerson (doc_id, uid, displayName) values (?, ?, ?)"
+				+ " on duplicate key update uid = values(uid), displayName = values(displayName)");
+	}
+
+	@Test
+	public void checkMySqlRowAlias() {
+		String sql = toUpsertSql(MySQLTemplates.builder().printSchema().build(), "mysql", true);
+
+		assertEquals(sql, "insert into jans.jansPerson (doc_id, uid, displayName) values (?, ?, ?)"
+				+ " as new_values on duplicate key update uid = new_values.uid, displayName = new_values.displayName");
+	}
+
+	@Test
+	public void checkPostgreSql() {
+		String sql = toUpsertSql(PostgreSQLTemplates.builder().printSchema().build(), "postgresql", false);
+
+		assertEquals(sql, "insert into jans.jansPerson (doc_id, uid, displayName) values (?, ?, ?)"
+				+ " on conflict (doc_id) do update set uid = excluded.uid, displayName = excluded.displayName");
+	}
+
+	@Test
+	public void checkSupportedDb() {
+		assertTrue(SqlUpsertClause.isSupported("mysql"));
+		assertTrue(SqlUpsertClause.isSupported("postgresql"));
+		assertFalse(SqlUpsertClause.isSupported("mariadb"));
+		assertFalse(SqlUpsertClause.isSupported("oracle"));
+	}
+
+	@Test
+	public void checkRowAliasVersion() {
+		assertFalse(SqlUpsertClause.isRowAliasSupported("mysql", "5.7.42-log"));
+		assertFalse(SqlUpsertClause.isRowAliasSupported("mysql", "8.0.18"));
+		assertTrue(SqlUpsertClause.isRowAliasSupported("mysql", "8.0.19"));
+		assertTrue(SqlUpsertClause.isRowAliasSupported("mysql", "8.4.0"));
+		assertTrue(SqlUpsertClause.isRowAliasSupported("mysql", "9.1.0"));
+		assertFalse(SqlUpsertClause.isRowAliasSupported("mysql", null));
+		assertFalse(SqlUpsertClause.isRowAliasSupported("postgresql", "16.2"));
+	}
+
+	private String toUpsertSql(SQLTemplates templates, String dbType, boolean rowAlias) {
+		SQLInsertClause sqlInsertQuery = new SQLInsertClause((Connection) null, new Configuration(templates), table);
+		for (String columnName : Arrays.asList("doc_id", "uid", "displayName")) {
+			sqlInsertQuery.columns(Expressions.stringPath(columnName));
+			sqlInsertQuery.values(columnName + "_value");
+		}
+
+		SqlUpsertClause.apply(sqlInsertQuery, dbType, rowAlias, Arrays.asList("doc_id", "uid", "displayName"));
+
+		return sqlInsertQuery.getSQL().get(0).getSQL().replace("\n", " ");
+	}
+
+}
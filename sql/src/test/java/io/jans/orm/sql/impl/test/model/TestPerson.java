@@ -0,0 +1,112 @@
+package io.jans.orm.sql.impl.test.model;
+
+import java.util.Date;
+import java.util.List;
+
+import io.jans.orm.annotation.AttributeName;
+import io.jans.orm.annotation.DN;
+import io.jans.orm.annotation.DataEntry;
+import io.jans.orm.annotation.ObjectClass;
+
+@DataEntry
+@ObjectClass(value = "jansPerson")
+public class TestPerson {
+
+	@DN
+	private String dn;
+
+	@AttributeName
+	private String uid;
+
+	@AttributeName
+	private String displayName;
+
+	@AttributeName
+	private String mail;
+
+	@AttributeName(name = "jansStatus")
+	private String status;
+
+	@AttributeName
+	private List<String> memberOf;
+
+	@AttributeName(name = "jansCreationTimestamp")
+	private Date creationDate;
+
+	@AttributeName(name = "jansEnabled")
+	private Boolean enabled;
+
+	public TestPerson() {
+	}
+
+	public TestPerson(String inum, String uid, String displayName) {
+		this.dn = String.format("inum=%s,ou=people,o=jans", inum);
+		this.uid = uid;
+		this.displayName = displayName;
+	}
+
+	public String getDn() {
+		return dn;
+	}
+
+	public void setDn(String dn) {
+		this.dn = dn;
+	}
+
+	public String getUid() {
+		return uid;
+	}
+
+	public void setUid(String uid) {
+		this.uid = uid;
+	}
+
+	public String getDisplayName() {
+		return displayName;
+	}
+
+	public void setDisplayName(String displayName) {
+		this.displayName = displayName;
+	}
+
+	public String getMail() {
+		return mail;
+	}
+
+	public void setMail(String mail) {
+		this.mail = mail;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public List<String> getMemberOf() {
+		return memberOf;
+	}
+
+	public void setMemberOf(List<String> memberOf) {
+		this.memberOf = memberOf;
+	}
+
+	public Date getCreationDate() {
+		return creationDate;
+	}
+
+	public void setCreationDate(Date creationDate) {
+		this.creationDate = creationDate;
+	}
+
+	public Boolean getEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(Boolean enabled) {
+		this.enabled = enabled;
+	}
+
+}
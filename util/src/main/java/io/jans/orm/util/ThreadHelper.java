@@ -0,0 +1,37 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.orm.util;
+
+/**
+ * Helps to pause long running operations
+ */
+public final class ThreadHelper {
+
+	private ThreadHelper() {
+	}
+
+	/**
+	 * Sleep between batches of long running operation. Interrupt status is kept if thread was interrupted
+	 *
+	 * @return False if thread was interrupted, operation should stop in this case
+	 */
+	public static boolean pause(long pauseMillis) {
+		if (pauseMillis <= 0) {
+			return !Thread.currentThread().isInterrupted();
+		}
+
+		try {
+			Thread.sleep(pauseMillis);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+
+		return true;
+	}
+
+}